@@ -0,0 +1,68 @@
+package com.cineticket.benchmark;
+
+import com.cineticket.benchmark.memoria.PDFServiceNulo;
+import com.cineticket.enums.MetodoPago;
+import com.cineticket.servicio.*;
+import com.cineticket.servicio.cache.OcupacionAsientosCache;
+import com.cineticket.servicio.dto.CompraPreparada;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CompraService.crearCompra / confirmarCompra sobre DAOs en memoria.
+ * El comprobante se genera con un PDFService nulo en un worker aparte (ver PdfBenchmark).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompraBenchmark {
+
+    private static final Map<Integer, Integer> COMBOS = Map.of(1, 2, 3, 1);
+
+    private Escenario escenario;
+    private CompraService compraService;
+    private ComprobanteService comprobanteService;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        escenario = new Escenario();
+        Escenario e = escenario;
+        OcupacionAsientosCache cache = new OcupacionAsientosCache(e.entradaDAO, e.funcionDAO, e.asientoDAO, 100);
+        SeatHoldService holds = new SeatHoldService(e.seatHoldDAO, e.transactionManager, Duration.ofMinutes(5));
+        ReservaService reservaService = new ReservaService(e.entradaDAO, e.funcionDAO, cache, holds,
+                new OcupacionEnVivo(cache));
+        comprobanteService = new ComprobanteService(e.compraDAO, e.entradaDAO, e.compraConfiteriaDAO, e.funcionDAO,
+                new PDFServiceNulo(), e.jobDAO, e.transactionManager, 1, 10_000, 1, Duration.ofSeconds(1));
+        compraService = new CompraService(e.compraDAO, e.entradaDAO, e.compraConfiteriaDAO, e.funcionDAO,
+                reservaService, new ConfiteriaService(e.comboDAO), comprobanteService,
+                e.transactionManager, e.rollupDAO, e.peliculaDAO);
+    }
+
+    @TearDown(Level.Iteration)
+    public void limpiar() {
+        escenario.limpiarCompras();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        comprobanteService.detener();
+    }
+
+    @Benchmark
+    public CompraPreparada crearCompra() {
+        return compraService.crearCompra(Escenario.USUARIO_ID, Escenario.FUNCION_ID,
+                Escenario.ASIENTOS_LIBRES, COMBOS, MetodoPago.PSE);
+    }
+
+    /** Compra completa: preparar + confirmar (la preparada no se puede reutilizar). */
+    @Benchmark
+    public Integer crearYConfirmarCompra() {
+        return compraService.confirmarCompra(crearCompra());
+    }
+}
@@ -0,0 +1,98 @@
+package com.cineticket.benchmark;
+
+import com.cineticket.dao.*;
+import com.cineticket.dao.impl.*;
+import com.cineticket.modelo.*;
+import com.cineticket.util.ConnectionPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Lecturas JDBC + mapeo de filas de los DAO. Requiere la BD local configurada en
+ * application.properties con 01_schema.sql y 03_seed.sql cargados (y al menos una compra).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DaoBenchmark {
+
+    private static final int MAX_COMPRAS = 100;
+    private static final LocalDateTime DESDE = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final LocalDateTime HASTA = LocalDateTime.now().plusYears(1);
+
+    private final CompraDAO compraDAO = new CompraDAOImpl();
+    private final EntradaDAO entradaDAO = new EntradaDAOImpl();
+    private final FuncionDAO funcionDAO = new FuncionDAOImpl();
+    private final AsientoDAO asientoDAO = new AsientoDAOImpl();
+    private final ComboConfiteriaDAO comboDAO = new ComboConfiteriaDAOImpl();
+
+    private List<Integer> compraIds;
+    private List<Integer> funcionIds;
+    private Integer salaId;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        try (Stream<Compra> compras = compraDAO.recorrerComprasEntreFechas(DESDE, HASTA)) {
+            compraIds = compras.limit(MAX_COMPRAS).map(Compra::getIdCompra).toList();
+        }
+        if (compraIds.isEmpty()) {
+            throw new IllegalStateException("La BD no tiene compras: cargue 03_seed.sql y registre alguna compra.");
+        }
+        funcionIds = entradaDAO.listarPorCompras(compraIds).values().stream()
+                .flatMap(List::stream)
+                .map(Entrada::getFuncionId)
+                .distinct()
+                .toList();
+        salaId = funcionDAO.buscarPorId(funcionIds.get(0)).getSalaId();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        ConnectionPool.close();
+    }
+
+    @Benchmark
+    public List<Compra> compraBuscarPorIds() {
+        return compraDAO.buscarPorIds(compraIds);
+    }
+
+    @Benchmark
+    public Map<Integer, List<Entrada>> entradaListarPorCompras() {
+        return entradaDAO.listarPorCompras(compraIds);
+    }
+
+    @Benchmark
+    public Map<Integer, Funcion> funcionBuscarPorIds() {
+        return funcionDAO.buscarPorIds(funcionIds);
+    }
+
+    @Benchmark
+    public List<Asiento> asientoListarPorSala() {
+        return asientoDAO.listarPorSala(salaId);
+    }
+
+    @Benchmark
+    public int compraObtenerEntreFechas() {
+        return compraDAO.obtenerComprasEntreFechas(DESDE, HASTA).size();
+    }
+
+    @Benchmark
+    public long compraRecorrerEntreFechas() {
+        try (Stream<Compra> compras = compraDAO.recorrerComprasEntreFechas(DESDE, HASTA)) {
+            return compras.count();
+        }
+    }
+
+    @Benchmark
+    public List<ComboConfiteria> comboListarTodos() {
+        return comboDAO.listarTodos();
+    }
+}
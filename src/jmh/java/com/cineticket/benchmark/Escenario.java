@@ -0,0 +1,77 @@
+package com.cineticket.benchmark;
+
+import com.cineticket.benchmark.memoria.*;
+import com.cineticket.enums.EstadoFuncion;
+import com.cineticket.enums.TipoAsiento;
+import com.cineticket.modelo.Asiento;
+import com.cineticket.modelo.ComboConfiteria;
+import com.cineticket.modelo.Funcion;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datos fijos para los benchmarks con DAOs en memoria: una sala de 10 filas x 15 asientos,
+ * una función PROGRAMADA con la mitad de la sala vendida y tres combos disponibles.
+ */
+final class Escenario {
+
+    static final int SALA_ID = 1;
+    static final int FUNCION_ID = 1;
+    static final int FILAS = 10;
+    static final int ASIENTOS_POR_FILA = 15;
+    static final int USUARIO_ID = 1;
+
+    /** Asientos libres (la segunda mitad de la sala) usados por los benchmarks de reserva/compra. */
+    static final List<Integer> ASIENTOS_LIBRES = List.of(141, 142, 143, 144, 145);
+
+    final FuncionDAOMemoria funcionDAO = new FuncionDAOMemoria();
+    final EntradaDAOMemoria entradaDAO = new EntradaDAOMemoria();
+    final AsientoDAOMemoria asientoDAO = new AsientoDAOMemoria();
+    final CompraDAOMemoria compraDAO = new CompraDAOMemoria();
+    final CompraConfiteriaDAOMemoria compraConfiteriaDAO = new CompraConfiteriaDAOMemoria();
+    final ComboConfiteriaDAOMemoria comboDAO = new ComboConfiteriaDAOMemoria();
+    final SeatHoldDAOMemoria seatHoldDAO = new SeatHoldDAOMemoria();
+    final ComprobanteJobDAOMemoria jobDAO = new ComprobanteJobDAOMemoria();
+    final RollupDAOMemoria rollupDAO = new RollupDAOMemoria();
+    final PeliculaDAOMemoria peliculaDAO = new PeliculaDAOMemoria();
+    final TransaccionDirecta transactionManager = new TransaccionDirecta();
+
+    Escenario() {
+        LocalDateTime inicio = LocalDateTime.now().plusDays(1).withHour(20).withMinute(0).withSecond(0).withNano(0);
+        funcionDAO.agregar(new Funcion(FUNCION_ID, 1, SALA_ID, inicio, inicio.plusHours(2), 18000.0,
+                EstadoFuncion.PROGRAMADA));
+
+        peliculaDAO.agregarTitulo(1, "Película Benchmark");
+
+        List<Asiento> asientos = new ArrayList<>(FILAS * ASIENTOS_POR_FILA);
+        List<Integer> vendidos = new ArrayList<>();
+        int id = 1;
+        for (int f = 0; f < FILAS; f++) {
+            String fila = String.valueOf((char) ('A' + f));
+            for (int n = 1; n <= ASIENTOS_POR_FILA; n++, id++) {
+                asientos.add(new Asiento(id, SALA_ID, fila, n, TipoAsiento.REGULAR, true));
+                if (id <= FILAS * ASIENTOS_POR_FILA / 2) vendidos.add(id);
+            }
+        }
+        asientoDAO.agregarSala(SALA_ID, asientos);
+        entradaDAO.ocupar(FUNCION_ID, vendidos);
+
+        comboDAO.agregar(new ComboConfiteria(1, "Combo Personal", "Crispetas + gaseosa",
+                new BigDecimal("22000"), null, true, "COMBO"));
+        comboDAO.agregar(new ComboConfiteria(2, "Combo Pareja", "2 crispetas + 2 gaseosas",
+                new BigDecimal("39000"), null, true, "COMBO"));
+        comboDAO.agregar(new ComboConfiteria(3, "Nachos", "Nachos con queso",
+                new BigDecimal("16000"), null, true, "SNACK"));
+    }
+
+    /** Descarta lo insertado por las compras (entre iteraciones, para no acumular memoria). */
+    void limpiarCompras() {
+        compraDAO.limpiar();
+        entradaDAO.limpiar();
+        compraConfiteriaDAO.limpiar();
+        jobDAO.limpiar();
+    }
+}
@@ -0,0 +1,35 @@
+package com.cineticket.benchmark;
+
+import com.cineticket.util.PasswordUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** PasswordUtil (BCrypt): costo de registrar (hash) y de iniciar sesión (verificar). */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class PasswordBenchmark {
+
+    private static final String PASSWORD = "Cineticket2024";
+
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        hash = PasswordUtil.hashPassword(PASSWORD);
+    }
+
+    @Benchmark
+    public String hashPassword() {
+        return PasswordUtil.hashPassword(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verificarPassword() {
+        return PasswordUtil.verificarPassword(PASSWORD, hash);
+    }
+}
@@ -0,0 +1,107 @@
+package com.cineticket.benchmark;
+
+import com.cineticket.enums.EstadoCompra;
+import com.cineticket.enums.EstadoEntrada;
+import com.cineticket.enums.MetodoPago;
+import com.cineticket.modelo.Compra;
+import com.cineticket.modelo.CompraConfiteria;
+import com.cineticket.modelo.Entrada;
+import com.cineticket.servicio.impl.PDFServicePDFBox;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/** PDFServicePDFBox: comprobante a archivo (generarComprobantePDF) y en memoria (renderizarComprobante). */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfBenchmark {
+
+    private Path carpeta;
+    private PDFServicePDFBox pdfService;
+    private Compra compra;
+    private List<Entrada> entradas;
+    private List<CompraConfiteria> combos;
+    private Map<String, Object> extra;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        carpeta = Files.createTempDirectory("cineticket-jmh-pdf");
+        pdfService = new PDFServicePDFBox(carpeta.toString());
+
+        compra = new Compra();
+        compra.setIdCompra(1);
+        compra.setUsuarioId(Escenario.USUARIO_ID);
+        compra.setFechaHoraCompra(LocalDateTime.now());
+        compra.setMetodoPago(MetodoPago.PSE);
+        compra.setEstadoCompra(EstadoCompra.CONFIRMADA);
+
+        entradas = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Entrada e = new Entrada();
+            e.setIdEntrada(i + 1);
+            e.setCompraId(1);
+            e.setFuncionId(Escenario.FUNCION_ID);
+            e.setAsientoId(141 + i);
+            e.setPrecioUnitario(new BigDecimal("18000"));
+            e.setEstadoEntrada(EstadoEntrada.ACTIVA);
+            entradas.add(e);
+        }
+
+        CompraConfiteria ci = new CompraConfiteria();
+        ci.setCompraId(1);
+        ci.setComboId(1);
+        ci.setCantidad(2);
+        ci.setPrecioUnitario(new BigDecimal("22000"));
+        ci.recalcularSubtotal();
+        combos = List.of(ci);
+
+        compra.setTotalEntradas(new BigDecimal("90000"));
+        compra.setTotalConfiteria(ci.getSubtotal());
+
+        extra = Map.of("peliculaNombre", "Película Benchmark",
+                "funcionTexto", "Función 1 | Sala 1 | 2025-01-01 20:00",
+                "clienteNombre", "Cliente Benchmark");
+    }
+
+    /** Borra los PDF de la iteración para no llenar el disco. */
+    @TearDown(Level.Iteration)
+    public void limpiar() throws IOException {
+        try (Stream<Path> archivos = Files.list(carpeta)) {
+            archivos.forEach(p -> {
+                try {
+                    Files.deleteIfExists(p);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() throws IOException {
+        limpiar();
+        Files.deleteIfExists(carpeta);
+    }
+
+    @Benchmark
+    public String generarComprobantePDF() {
+        return pdfService.generarComprobantePDF(compra, entradas, combos, extra);
+    }
+
+    @Benchmark
+    public byte[] renderizarComprobante() {
+        return pdfService.renderizarComprobante(compra, entradas, combos, extra);
+    }
+}
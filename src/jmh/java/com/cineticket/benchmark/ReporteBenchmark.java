@@ -0,0 +1,60 @@
+package com.cineticket.benchmark;
+
+import com.cineticket.benchmark.memoria.ReporteDAOMemoria;
+import com.cineticket.enums.Rol;
+import com.cineticket.modelo.Usuario;
+import com.cineticket.modelo.VentasPelicula;
+import com.cineticket.servicio.ReporteService;
+import com.cineticket.util.SessionManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/** ReporteService.obtenerTopPeliculas con un ranking fijo en memoria (sesión de ADMIN). */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReporteBenchmark {
+
+    @Param({"5", "20"})
+    public int limite;
+
+    private ReporteService reporteService;
+    private LocalDate desde;
+    private LocalDate hasta;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        List<VentasPelicula> ranking = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            Set<Integer> funciones = new LinkedHashSet<>();
+            for (int f = 0; f < 12; f++) funciones.add(i * 100 + f);
+            ranking.add(new VentasPelicula(i, "Película " + i, 5000 - i * 40,
+                    BigDecimal.valueOf(90_000_000L - i * 720_000L), funciones));
+        }
+        reporteService = new ReporteService(new ReporteDAOMemoria(ranking));
+
+        SessionManager.getInstance().setUsuarioActual(new Usuario(1, "Admin Benchmark", "admin@cineticket.local",
+                "admin", null, Rol.ADMIN, LocalDateTime.now(), true));
+
+        hasta = LocalDate.now();
+        desde = hasta.minusDays(30);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        SessionManager.getInstance().cerrarSesion();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> obtenerTopPeliculas() {
+        return reporteService.obtenerTopPeliculas(limite, desde, hasta);
+    }
+}
@@ -0,0 +1,43 @@
+package com.cineticket.benchmark;
+
+import com.cineticket.modelo.Entrada;
+import com.cineticket.servicio.OcupacionEnVivo;
+import com.cineticket.servicio.ReservaService;
+import com.cineticket.servicio.SeatHoldService;
+import com.cineticket.servicio.cache.OcupacionAsientosCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** ReservaService.reservarAsientos sobre DAOs en memoria (validaciones + ocupación + retenciones). */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservaBenchmark {
+
+    private ReservaService reservaService;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Escenario e = new Escenario();
+        OcupacionAsientosCache cache = new OcupacionAsientosCache(e.entradaDAO, e.funcionDAO, e.asientoDAO, 100);
+        SeatHoldService holds = new SeatHoldService(e.seatHoldDAO, e.transactionManager, Duration.ofMinutes(5));
+        reservaService = new ReservaService(e.entradaDAO, e.funcionDAO, cache, holds,
+                new OcupacionEnVivo(cache));
+    }
+
+    @Benchmark
+    public List<Entrada> reservarAsientos() {
+        return reservaService.reservarAsientos(Escenario.FUNCION_ID, Escenario.USUARIO_ID, Escenario.ASIENTOS_LIBRES);
+    }
+
+    @Benchmark
+    public List<Integer> obtenerAsientosOcupados() {
+        return reservaService.obtenerAsientosOcupadosPorFuncion(Escenario.FUNCION_ID);
+    }
+}
@@ -0,0 +1,59 @@
+package com.cineticket.benchmark.memoria;
+
+import com.cineticket.dao.AsientoDAO;
+import com.cineticket.modelo.Asiento;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** AsientoDAO en memoria para benchmarks: distribución de cada sala cargada con agregarSala. */
+public class AsientoDAOMemoria implements AsientoDAO {
+
+    private final AtomicInteger secuencia = new AtomicInteger();
+    private final Map<Integer, List<Asiento>> porSala = new ConcurrentHashMap<>();
+
+    public void agregarSala(Integer salaId, List<Asiento> asientos) {
+        porSala.put(salaId, new ArrayList<>(asientos));
+    }
+
+    @Override
+    public synchronized List<Asiento> listarPorSala(Integer salaId) {
+        return new ArrayList<>(porSala.getOrDefault(salaId, List.of()));
+    }
+
+    @Override
+    public synchronized Integer crear(Asiento asiento) {
+        int id = secuencia.incrementAndGet();
+        asiento.setIdAsiento(id);
+        porSala.computeIfAbsent(asiento.getSalaId(), k -> new ArrayList<>()).add(asiento);
+        return id;
+    }
+
+    @Override
+    public synchronized Asiento buscarPorId(Integer id) {
+        return porSala.values().stream().flatMap(List::stream)
+                .filter(a -> Objects.equals(a.getIdAsiento(), id))
+                .findFirst().orElse(null);
+    }
+
+    @Override
+    public synchronized boolean actualizar(Asiento asiento) {
+        List<Asiento> sala = porSala.get(asiento.getSalaId());
+        if (sala == null) return false;
+        for (int i = 0; i < sala.size(); i++) {
+            if (Objects.equals(sala.get(i).getIdAsiento(), asiento.getIdAsiento())) {
+                sala.set(i, asiento);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized Asiento buscarPorSalaFilaNumero(Integer salaId, String fila, Integer numero) {
+        return porSala.getOrDefault(salaId, List.of()).stream()
+                .filter(a -> Objects.equals(a.getFila(), fila) && Objects.equals(a.getNumero(), numero))
+                .findFirst().orElse(null);
+    }
+}
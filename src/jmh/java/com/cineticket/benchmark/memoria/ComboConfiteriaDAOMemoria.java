@@ -0,0 +1,62 @@
+package com.cineticket.benchmark.memoria;
+
+import com.cineticket.dao.ComboConfiteriaDAO;
+import com.cineticket.modelo.ComboConfiteria;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** ComboConfiteriaDAO en memoria para benchmarks: catálogo fijo cargado con agregar. */
+public class ComboConfiteriaDAOMemoria implements ComboConfiteriaDAO {
+
+    private final AtomicInteger secuencia = new AtomicInteger(1000);
+    private final Map<Integer, ComboConfiteria> combos = new ConcurrentHashMap<>();
+
+    public void agregar(ComboConfiteria combo) {
+        combos.put(combo.getIdCombo(), combo);
+    }
+
+    @Override
+    public ComboConfiteria buscarPorId(Integer id) {
+        return combos.get(id);
+    }
+
+    @Override
+    public Map<Integer, ComboConfiteria> buscarPorIds(Collection<Integer> ids) {
+        Map<Integer, ComboConfiteria> res = new HashMap<>();
+        for (Integer id : ids) {
+            ComboConfiteria c = combos.get(id);
+            if (c != null) res.put(id, c);
+        }
+        return res;
+    }
+
+    @Override
+    public List<ComboConfiteria> listarTodos() {
+        return new ArrayList<>(combos.values());
+    }
+
+    @Override
+    public List<ComboConfiteria> listarDisponibles() {
+        return combos.values().stream().filter(ComboConfiteria::isDisponible).toList();
+    }
+
+    @Override
+    public Integer crear(ComboConfiteria combo) {
+        int id = secuencia.incrementAndGet();
+        combo.setIdCombo(id);
+        combos.put(id, combo);
+        return id;
+    }
+
+    @Override
+    public boolean actualizar(ComboConfiteria combo) {
+        return combos.replace(combo.getIdCombo(), combo) != null;
+    }
+
+    @Override
+    public boolean eliminar(Integer id) {
+        return combos.remove(id) != null;
+    }
+}
@@ -0,0 +1,78 @@
+package com.cineticket.benchmark.memoria;
+
+import com.cineticket.dao.CompraConfiteriaDAO;
+import com.cineticket.modelo.CompraConfiteria;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * CompraConfiteriaDAO en memoria para benchmarks.
+ * Las ventas por combo no filtran por fecha: aquí no se conoce la compra de cada ítem.
+ */
+public class CompraConfiteriaDAOMemoria implements CompraConfiteriaDAO {
+
+    private final AtomicInteger secuencia = new AtomicInteger();
+    private final Map<Integer, List<CompraConfiteria>> porCompra = new ConcurrentHashMap<>();
+
+    public void limpiar() {
+        porCompra.clear();
+    }
+
+    @Override
+    public List<Integer> crearLote(List<CompraConfiteria> items) {
+        List<Integer> ids = new ArrayList<>(items.size());
+        for (CompraConfiteria item : items) {
+            int id = secuencia.incrementAndGet();
+            item.setIdCompraConfiteria(id);
+            ids.add(id);
+            porCompra.computeIfAbsent(item.getCompraId(), k -> Collections.synchronizedList(new ArrayList<>())).add(item);
+        }
+        return ids;
+    }
+
+    @Override
+    public List<CompraConfiteria> listarPorCompra(Integer compraId) {
+        return new ArrayList<>(porCompra.getOrDefault(compraId, List.of()));
+    }
+
+    @Override
+    public Map<Integer, List<CompraConfiteria>> listarPorCompras(Collection<Integer> compraIds) {
+        Map<Integer, List<CompraConfiteria>> res = new HashMap<>();
+        for (Integer id : compraIds) {
+            List<CompraConfiteria> lista = porCompra.get(id);
+            if (lista != null) res.put(id, new ArrayList<>(lista));
+        }
+        return res;
+    }
+
+    @Override
+    public Integer crear(CompraConfiteria item) {
+        return crearLote(List.of(item)).get(0);
+    }
+
+    @Override
+    public CompraConfiteria buscarPorId(Integer id) {
+        for (List<CompraConfiteria> items : porCompra.values()) {
+            synchronized (items) {
+                for (CompraConfiteria item : items) {
+                    if (Objects.equals(item.getIdCompraConfiteria(), id)) return item;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Map<Integer, Integer> obtenerVentasPorCombo(LocalDateTime inicio, LocalDateTime fin) {
+        Map<Integer, Integer> res = new HashMap<>();
+        for (List<CompraConfiteria> items : porCompra.values()) {
+            synchronized (items) {
+                for (CompraConfiteria item : items) res.merge(item.getComboId(), item.getCantidad(), Integer::sum);
+            }
+        }
+        return res;
+    }
+}
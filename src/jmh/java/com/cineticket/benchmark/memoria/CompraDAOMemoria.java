@@ -0,0 +1,102 @@
+package com.cineticket.benchmark.memoria;
+
+import com.cineticket.dao.CompraDAO;
+import com.cineticket.enums.EstadoCompra;
+import com.cineticket.modelo.Compra;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** CompraDAO en memoria para benchmarks (IDs secuenciales, sin validaciones de BD). */
+public class CompraDAOMemoria implements CompraDAO {
+
+    private final AtomicInteger secuencia = new AtomicInteger();
+    private final Map<Integer, Compra> compras = new ConcurrentHashMap<>();
+
+    private static final Comparator<Compra> RECIENTES_PRIMERO = Comparator
+            .comparing(Compra::getFechaHoraCompra)
+            .thenComparing(Compra::getIdCompra)
+            .reversed();
+
+    public void limpiar() {
+        compras.clear();
+    }
+
+    @Override
+    public Integer crear(Compra compra) {
+        int id = secuencia.incrementAndGet();
+        compra.setIdCompra(id);
+        compras.put(id, compra);
+        return id;
+    }
+
+    @Override
+    public Compra buscarPorId(Integer id) {
+        return compras.get(id);
+    }
+
+    @Override
+    public List<Compra> buscarPorIds(Collection<Integer> ids) {
+        List<Compra> res = new ArrayList<>();
+        for (Integer id : new TreeSet<>(ids)) {
+            Compra c = compras.get(id);
+            if (c != null) res.add(c);
+        }
+        return res;
+    }
+
+    @Override
+    public boolean actualizarRutaComprobante(Integer idCompra, String ruta) {
+        Compra c = compras.get(idCompra);
+        if (c == null) return false;
+        c.setRutaComprobantePdf(ruta);
+        return true;
+    }
+
+    @Override
+    public List<Compra> listarPorUsuario(Integer usuarioId) {
+        return compras.values().stream()
+                .filter(c -> Objects.equals(c.getUsuarioId(), usuarioId))
+                .sorted(RECIENTES_PRIMERO)
+                .toList();
+    }
+
+    @Override
+    public List<Compra> listarPorUsuarioPagina(Integer usuarioId, LocalDateTime antesDeFecha,
+                                               Integer antesDeId, int limite) {
+        return compras.values().stream()
+                .filter(c -> Objects.equals(c.getUsuarioId(), usuarioId))
+                .filter(c -> antesDeFecha == null || c.getFechaHoraCompra().isBefore(antesDeFecha)
+                        || (c.getFechaHoraCompra().isEqual(antesDeFecha) && c.getIdCompra() < antesDeId))
+                .sorted(RECIENTES_PRIMERO)
+                .limit(limite)
+                .toList();
+    }
+
+    @Override
+    public boolean actualizar(Compra compra) {
+        return compras.replace(compra.getIdCompra(), compra) != null;
+    }
+
+    @Override
+    public boolean cancelarCompra(Integer idCompra, LocalDateTime fechaCancelacion) {
+        Compra c = compras.get(idCompra);
+        if (c == null) return false;
+        synchronized (c) {
+            if (c.getEstadoCompra() != EstadoCompra.CONFIRMADA) return false;
+            c.setEstadoCompra(EstadoCompra.CANCELADA);
+            c.setFechaCancelacion(fechaCancelacion);
+            return true;
+        }
+    }
+
+    @Override
+    public List<Compra> obtenerComprasEntreFechas(LocalDateTime inicio, LocalDateTime fin) {
+        return compras.values().stream()
+                .filter(c -> !c.getFechaHoraCompra().isBefore(inicio) && !c.getFechaHoraCompra().isAfter(fin))
+                .sorted(Comparator.comparing(Compra::getFechaHoraCompra))
+                .toList();
+    }
+}
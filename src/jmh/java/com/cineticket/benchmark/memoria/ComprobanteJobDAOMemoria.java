@@ -0,0 +1,64 @@
+package com.cineticket.benchmark.memoria;
+
+import com.cineticket.dao.ComprobanteJobDAO;
+import com.cineticket.enums.EstadoComprobante;
+import com.cineticket.modelo.ComprobanteJob;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** ComprobanteJobDAO en memoria para benchmarks. Sin bloqueos por tiempo ni reintentos programados. */
+public class ComprobanteJobDAOMemoria implements ComprobanteJobDAO {
+
+    private final Map<Integer, ComprobanteJob> jobs = new ConcurrentHashMap<>();
+
+    public void limpiar() {
+        jobs.clear();
+    }
+
+    @Override
+    public void encolar(Integer compraId) {
+        jobs.putIfAbsent(compraId, new ComprobanteJob(compraId, EstadoComprobante.PENDIENTE, 0, null,
+                LocalDateTime.now(), LocalDateTime.now()));
+    }
+
+    @Override
+    public ComprobanteJob buscarPorCompra(Integer compraId) {
+        return jobs.get(compraId);
+    }
+
+    @Override
+    public boolean tomar(Integer compraId, int maxIntentos, int bloqueoSegundos) {
+        ComprobanteJob actual = jobs.get(compraId);
+        if (actual == null || actual.getEstado() != EstadoComprobante.PENDIENTE
+                || actual.getIntentos() >= maxIntentos) {
+            return false;
+        }
+        ComprobanteJob tomado = new ComprobanteJob(compraId, EstadoComprobante.EN_PROCESO, actual.getIntentos() + 1,
+                actual.getUltimoError(), actual.getProximoIntento(), LocalDateTime.now());
+        return jobs.replace(compraId, actual, tomado);
+    }
+
+    @Override
+    public void marcarCompletado(Integer compraId) {
+        jobs.computeIfPresent(compraId, (id, j) -> new ComprobanteJob(id, EstadoComprobante.COMPLETADO,
+                j.getIntentos(), null, j.getProximoIntento(), LocalDateTime.now()));
+    }
+
+    @Override
+    public void marcarFallido(Integer compraId, String error, int esperaSegundos) {
+        jobs.computeIfPresent(compraId, (id, j) -> new ComprobanteJob(id, EstadoComprobante.PENDIENTE,
+                j.getIntentos(), error, LocalDateTime.now().plusSeconds(esperaSegundos), LocalDateTime.now()));
+    }
+
+    @Override
+    public List<Integer> listarPendientes(int maxIntentos, int bloqueoSegundos, int limite) {
+        return jobs.values().stream()
+                .filter(j -> j.getEstado() == EstadoComprobante.PENDIENTE && j.getIntentos() < maxIntentos)
+                .map(ComprobanteJob::getCompraId)
+                .sorted()
+                .limit(limite)
+                .toList();
+    }
+}
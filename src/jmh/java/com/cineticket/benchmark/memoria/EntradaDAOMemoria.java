@@ -0,0 +1,133 @@
+package com.cineticket.benchmark.memoria;
+
+import com.cineticket.dao.EntradaDAO;
+import com.cineticket.enums.EstadoEntrada;
+import com.cineticket.modelo.Entrada;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * EntradaDAO en memoria para benchmarks.
+ * - La ocupación es fija (la que se carga con ocupar): las entradas insertadas no la modifican,
+ *   así un benchmark puede comprar los mismos asientos en cada invocación.
+ * - Las entradas insertadas se guardan por compra (para el comprobante).
+ */
+public class EntradaDAOMemoria implements EntradaDAO {
+
+    private final AtomicInteger secuencia = new AtomicInteger();
+    private final Map<Integer, List<Entrada>> porCompra = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Integer>> ocupados = new ConcurrentHashMap<>();
+
+    public void ocupar(Integer funcionId, Collection<Integer> asientoIds) {
+        ocupados.computeIfAbsent(funcionId, k -> ConcurrentHashMap.newKeySet()).addAll(asientoIds);
+    }
+
+    public void limpiar() {
+        porCompra.clear();
+    }
+
+    @Override
+    public List<Integer> crearLote(List<Entrada> entradas) {
+        List<Integer> ids = new ArrayList<>(entradas.size());
+        for (Entrada e : entradas) {
+            int id = secuencia.incrementAndGet();
+            e.setIdEntrada(id);
+            ids.add(id);
+            porCompra.computeIfAbsent(e.getCompraId(), k -> Collections.synchronizedList(new ArrayList<>())).add(e);
+        }
+        return ids;
+    }
+
+    @Override
+    public List<Entrada> listarPorCompra(Integer compraId) {
+        return new ArrayList<>(porCompra.getOrDefault(compraId, List.of()));
+    }
+
+    @Override
+    public Map<Integer, List<Entrada>> listarPorCompras(Collection<Integer> compraIds) {
+        Map<Integer, List<Entrada>> res = new HashMap<>();
+        for (Integer id : compraIds) {
+            List<Entrada> lista = porCompra.get(id);
+            if (lista != null) res.put(id, new ArrayList<>(lista));
+        }
+        return res;
+    }
+
+    @Override
+    public List<Integer> listarAsientosOcupados(Integer funcionId) {
+        return new ArrayList<>(ocupados.getOrDefault(funcionId, Set.of()));
+    }
+
+    @Override
+    public Set<Integer> buscarAsientosOcupados(Integer funcionId, Collection<Integer> asientoIds) {
+        Set<Integer> deFuncion = ocupados.getOrDefault(funcionId, Set.of());
+        Set<Integer> res = new HashSet<>();
+        for (Integer id : asientoIds) {
+            if (deFuncion.contains(id)) res.add(id);
+        }
+        return res;
+    }
+
+    @Override
+    public boolean verificarAsientoDisponible(Integer funcionId, Integer asientoId) {
+        return !ocupados.getOrDefault(funcionId, Set.of()).contains(asientoId);
+    }
+
+    @Override
+    public int contarEntradasActivasPorFuncion(Integer funcionId) {
+        return ocupados.getOrDefault(funcionId, Set.of()).size();
+    }
+
+    @Override
+    public Integer crear(Entrada entrada) {
+        return crearLote(List.of(entrada)).get(0);
+    }
+
+    @Override
+    public Entrada buscarPorId(Integer id) {
+        return buscar(e -> Objects.equals(e.getIdEntrada(), id)).stream().findFirst().orElse(null);
+    }
+
+    @Override
+    public List<Entrada> listarPorFuncion(Integer funcionId) {
+        return buscar(e -> Objects.equals(e.getFuncionId(), funcionId));
+    }
+
+    @Override
+    public boolean actualizar(Entrada entrada) {
+        List<Entrada> lista = porCompra.get(entrada.getCompraId());
+        if (lista == null) return false;
+        synchronized (lista) {
+            for (int i = 0; i < lista.size(); i++) {
+                if (Objects.equals(lista.get(i).getIdEntrada(), entrada.getIdEntrada())) {
+                    lista.set(i, entrada);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean cancelarEntradasDeCompra(Integer compraId) {
+        List<Entrada> lista = porCompra.get(compraId);
+        if (lista == null) return false;
+        synchronized (lista) {
+            lista.forEach(e -> e.setEstadoEntrada(EstadoEntrada.CANCELADA));
+            return !lista.isEmpty();
+        }
+    }
+
+    private List<Entrada> buscar(Predicate<Entrada> filtro) {
+        List<Entrada> res = new ArrayList<>();
+        for (List<Entrada> lista : porCompra.values()) {
+            synchronized (lista) {
+                for (Entrada e : lista) if (filtro.test(e)) res.add(e);
+            }
+        }
+        return res;
+    }
+}
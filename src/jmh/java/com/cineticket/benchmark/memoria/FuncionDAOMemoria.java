@@ -0,0 +1,106 @@
+package com.cineticket.benchmark.memoria;
+
+import com.cineticket.dao.FuncionDAO;
+import com.cineticket.enums.EstadoFuncion;
+import com.cineticket.modelo.Funcion;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/** FuncionDAO en memoria para benchmarks: funciones cargadas con agregar. */
+public class FuncionDAOMemoria implements FuncionDAO {
+
+    private static final Comparator<Funcion> POR_INICIO = Comparator.comparing(Funcion::getFechaHoraInicio);
+
+    private final AtomicInteger secuencia = new AtomicInteger(1000);
+    private final Map<Integer, Funcion> funciones = new ConcurrentHashMap<>();
+
+    public void agregar(Funcion funcion) {
+        funciones.put(funcion.getIdFuncion(), funcion);
+    }
+
+    @Override
+    public Funcion buscarPorId(Integer id) {
+        return funciones.get(id);
+    }
+
+    @Override
+    public Map<Integer, Funcion> buscarPorIds(Collection<Integer> ids) {
+        Map<Integer, Funcion> res = new HashMap<>();
+        for (Integer id : ids) {
+            Funcion f = funciones.get(id);
+            if (f != null) res.put(id, f);
+        }
+        return res;
+    }
+
+    @Override
+    public Integer crear(Funcion funcion) {
+        int id = secuencia.incrementAndGet();
+        funcion.setIdFuncion(id);
+        funciones.put(id, funcion);
+        return id;
+    }
+
+    @Override
+    public List<Funcion> listarPorPelicula(Integer peliculaId) {
+        return funciones.values().stream()
+                .filter(f -> Objects.equals(f.getPeliculaId(), peliculaId))
+                .sorted(POR_INICIO)
+                .toList();
+    }
+
+    @Override
+    public List<Funcion> listarPorSala(Integer salaId) {
+        return funciones.values().stream()
+                .filter(f -> Objects.equals(f.getSalaId(), salaId))
+                .sorted(POR_INICIO)
+                .toList();
+    }
+
+    @Override
+    public List<Funcion> listarPorFecha(LocalDate fecha) {
+        return funciones.values().stream()
+                .filter(f -> f.getFechaHoraInicio().toLocalDate().equals(fecha))
+                .sorted(POR_INICIO)
+                .toList();
+    }
+
+    @Override
+    public Map<Integer, List<Funcion>> listarPorPeliculas(Collection<Integer> peliculaIds,
+                                                          LocalDateTime desde, LocalDateTime hasta) {
+        return funciones.values().stream()
+                .filter(f -> peliculaIds.contains(f.getPeliculaId()))
+                .filter(f -> desde == null || !f.getFechaHoraInicio().isBefore(desde))
+                .filter(f -> hasta == null || !f.getFechaHoraInicio().isAfter(hasta))
+                .sorted(POR_INICIO)
+                .collect(Collectors.groupingBy(Funcion::getPeliculaId, HashMap::new, Collectors.toList()));
+    }
+
+    @Override
+    public boolean actualizar(Funcion funcion) {
+        return funciones.replace(funcion.getIdFuncion(), funcion) != null;
+    }
+
+    @Override
+    public boolean eliminar(Integer id) {
+        Funcion f = funciones.get(id);
+        if (f == null) return false;
+        f.setEstado(EstadoFuncion.CANCELADA);
+        return true;
+    }
+
+    @Override
+    public boolean verificarDisponibilidadSala(Integer salaId, LocalDateTime inicio, LocalDateTime fin,
+                                               Integer funcionIdExcluir) {
+        return funciones.values().stream()
+                .filter(f -> Objects.equals(f.getSalaId(), salaId))
+                .filter(f -> !Objects.equals(f.getIdFuncion(), funcionIdExcluir))
+                .filter(f -> f.getEstado() != EstadoFuncion.CANCELADA)
+                .noneMatch(f -> f.getFechaHoraInicio().isBefore(fin) && inicio.isBefore(f.getFechaHoraFin()));
+    }
+}
@@ -0,0 +1,39 @@
+package com.cineticket.benchmark.memoria;
+
+import com.cineticket.modelo.Compra;
+import com.cineticket.modelo.CompraConfiteria;
+import com.cineticket.modelo.Entrada;
+import com.cineticket.servicio.PDFService;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PDFService que no dibuja nada. Lo usan los benchmarks de compra para que el worker de
+ * comprobantes no compita por CPU con el hilo medido (el PDF tiene su propio benchmark).
+ */
+public class PDFServiceNulo implements PDFService {
+
+    private static final byte[] VACIO = new byte[0];
+
+    @Override
+    public String generarComprobantePDF(Compra compra, List<Entrada> entradas,
+                                        List<CompraConfiteria> combos, Map<String, Object> datosAdicionales) {
+        return "comprobante_" + compra.getIdCompra() + ".pdf";
+    }
+
+    @Override
+    public byte[] renderizarComprobante(Compra compra, List<Entrada> entradas,
+                                        List<CompraConfiteria> combos, Map<String, Object> datosAdicionales) {
+        return VACIO;
+    }
+
+    @Override
+    public void unirComprobantes(List<Path> pdfs, Path destino) { }
+
+    @Override
+    public boolean guardarComprobante(Compra compra, String rutaDestino) {
+        return true;
+    }
+}
@@ -0,0 +1,118 @@
+package com.cineticket.benchmark.memoria;
+
+import com.cineticket.dao.PeliculaDAO;
+import com.cineticket.modelo.Genero;
+import com.cineticket.modelo.Pelicula;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PeliculaDAO en memoria para benchmarks.
+ * - Los géneros asignados se guardan solo por ID (no hay catálogo de géneros en memoria).
+ * - eliminar es un soft-delete (activa=false), como PeliculaDAOImpl.
+ */
+public class PeliculaDAOMemoria implements PeliculaDAO {
+
+    private static final Comparator<Pelicula> POR_TITULO =
+            Comparator.comparing(Pelicula::getTitulo, String.CASE_INSENSITIVE_ORDER);
+    private static final Comparator<Pelicula> ESTRENOS_PRIMERO =
+            Comparator.comparing(Pelicula::getFechaEstreno, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final AtomicInteger secuencia = new AtomicInteger(1000);
+    private final Map<Integer, Pelicula> peliculas = new ConcurrentHashMap<>();
+    private final Map<Integer, List<Integer>> generos = new ConcurrentHashMap<>();
+
+    public void agregarTitulo(Integer id, String titulo) {
+        Pelicula p = new Pelicula();
+        p.setIdPelicula(id);
+        p.setTitulo(titulo);
+        p.setActiva(true);
+        peliculas.put(id, p);
+    }
+
+    @Override
+    public Map<Integer, String> obtenerTitulos(Collection<Integer> ids) {
+        Map<Integer, String> res = new HashMap<>();
+        for (Integer id : ids) {
+            Pelicula p = peliculas.get(id);
+            if (p != null) res.put(id, p.getTitulo());
+        }
+        return res;
+    }
+
+    @Override
+    public Integer crear(Pelicula pelicula) {
+        int id = secuencia.incrementAndGet();
+        pelicula.setIdPelicula(id);
+        peliculas.put(id, pelicula);
+        return id;
+    }
+
+    @Override
+    public Pelicula buscarPorId(Integer id) {
+        return peliculas.get(id);
+    }
+
+    @Override
+    public List<Pelicula> listarTodas() {
+        return peliculas.values().stream().sorted(POR_TITULO).toList();
+    }
+
+    @Override
+    public List<Pelicula> listarActivas() {
+        return peliculas.values().stream().filter(Pelicula::isActiva).sorted(ESTRENOS_PRIMERO).toList();
+    }
+
+    @Override
+    public boolean actualizar(Pelicula pelicula) {
+        return peliculas.replace(pelicula.getIdPelicula(), pelicula) != null;
+    }
+
+    @Override
+    public boolean eliminar(Integer id) {
+        Pelicula p = peliculas.get(id);
+        if (p == null) return false;
+        p.setActiva(false);
+        return true;
+    }
+
+    @Override
+    public List<Pelicula> buscarPorTitulo(String titulo) {
+        String buscado = titulo.toLowerCase(Locale.ROOT);
+        return peliculas.values().stream()
+                .filter(p -> p.getTitulo() != null && p.getTitulo().toLowerCase(Locale.ROOT).contains(buscado))
+                .sorted(POR_TITULO)
+                .toList();
+    }
+
+    @Override
+    public boolean asignarGeneros(Integer peliculaId, List<Integer> generoIds) {
+        if (!peliculas.containsKey(peliculaId)) return false;
+        generos.put(peliculaId, List.copyOf(generoIds));
+        return true;
+    }
+
+    @Override
+    public List<Genero> obtenerGenerosDePelicula(Integer peliculaId) {
+        List<Genero> res = new ArrayList<>();
+        for (Integer generoId : generos.getOrDefault(peliculaId, List.of())) {
+            Genero g = new Genero();
+            g.setIdGenero(generoId);
+            g.setActivo(true);
+            res.add(g);
+        }
+        return res;
+    }
+
+    @Override
+    public Map<Integer, List<Genero>> obtenerGenerosPorPeliculas(Collection<Integer> peliculaIds) {
+        Map<Integer, List<Genero>> res = new HashMap<>();
+        for (Integer id : peliculaIds) {
+            List<Genero> deLaPelicula = obtenerGenerosDePelicula(id);
+            if (!deLaPelicula.isEmpty()) res.put(id, deLaPelicula);
+        }
+        return res;
+    }
+}
@@ -0,0 +1,56 @@
+package com.cineticket.benchmark.memoria;
+
+import com.cineticket.dao.ReporteDAO;
+import com.cineticket.modelo.ResumenVentas;
+import com.cineticket.modelo.VentasPelicula;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * ReporteDAO en memoria para benchmarks: el ranking de películas es fijo (ya ordenado),
+ * así se mide solo lo que ReporteService hace con el resultado.
+ * El ranking no trae desglose por hora, día ni combo: esos reportes salen vacíos.
+ */
+public class ReporteDAOMemoria implements ReporteDAO {
+
+    private final List<VentasPelicula> ranking;
+
+    public ReporteDAOMemoria(List<VentasPelicula> ranking) {
+        this.ranking = List.copyOf(ranking);
+    }
+
+    @Override
+    public List<VentasPelicula> obtenerTopPeliculas(int limite, LocalDateTime inicio, LocalDateTime fin) {
+        return ranking.subList(0, Math.min(limite, ranking.size()));
+    }
+
+    @Override
+    public Map<Integer, ResumenVentas> obtenerVentasPorHora(LocalDateTime inicio, LocalDateTime fin) {
+        return Map.of();
+    }
+
+    @Override
+    public Map<LocalDate, ResumenVentas> obtenerVentasPorDia(LocalDateTime inicio, LocalDateTime fin) {
+        return Map.of();
+    }
+
+    @Override
+    public VentasPelicula obtenerVentasPelicula(Integer peliculaId, LocalDateTime inicio, LocalDateTime fin) {
+        return ranking.stream()
+                .filter(v -> Objects.equals(v.getPeliculaId(), peliculaId))
+                .findFirst().orElse(null);
+    }
+
+    @Override
+    public Map<Integer, Integer> obtenerVentasPorCombo(LocalDateTime inicio, LocalDateTime fin) {
+        return Map.of();
+    }
+
+    @Override
+    public BigDecimal calcularIngresosTotales(LocalDateTime inicio, LocalDateTime fin) {
+        return ranking.stream().map(VentasPelicula::getIngresosEntradas).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,16 @@
+package com.cineticket.benchmark.memoria;
+
+import com.cineticket.dao.RollupDAO;
+
+/** RollupDAO sin efecto: en memoria no hay tablas de agregados que mantener. */
+public class RollupDAOMemoria implements RollupDAO {
+
+    @Override
+    public void aplicarCompra(Integer compraId) { }
+
+    @Override
+    public void revertirCompra(Integer compraId) { }
+
+    @Override
+    public void reconstruir() { }
+}
@@ -0,0 +1,29 @@
+package com.cineticket.benchmark.memoria;
+
+import com.cineticket.dao.SeatHoldDAO;
+
+import java.util.*;
+
+/** SeatHoldDAO en memoria para benchmarks: nadie más retiene asientos, toda adquisición se concede. */
+public class SeatHoldDAOMemoria implements SeatHoldDAO {
+
+    @Override
+    public Set<Integer> adquirir(Integer funcionId, Integer usuarioId, Collection<Integer> asientoIds, int ttlSegundos) {
+        return new HashSet<>(asientoIds);
+    }
+
+    @Override
+    public Set<Integer> buscarRetenidosPorOtros(Integer funcionId, Integer usuarioId, Collection<Integer> asientoIds) {
+        return Set.of();
+    }
+
+    @Override
+    public int liberar(Integer funcionId, Integer usuarioId) {
+        return 0;
+    }
+
+    @Override
+    public int eliminarExpiradas() {
+        return 0;
+    }
+}
@@ -0,0 +1,14 @@
+package com.cineticket.benchmark.memoria;
+
+import com.cineticket.dao.common.TransactionManager;
+
+import java.util.function.Supplier;
+
+/** Sin BD no hay transacción: el trabajo se ejecuta tal cual en el hilo llamador. */
+public class TransaccionDirecta implements TransactionManager {
+
+    @Override
+    public <T> T enTransaccion(Supplier<T> trabajo) {
+        return trabajo.get();
+    }
+}
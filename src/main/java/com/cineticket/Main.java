@@ -1,21 +1,131 @@
 package com.cineticket;
 
+import com.cineticket.controlador.CargaAsincrona;
+import com.cineticket.controlador.PosterCache;
+import com.cineticket.controlador.UiRouter;
+import com.cineticket.util.AppContext;
+import com.cineticket.util.Arranque;
+import com.cineticket.util.ConfiguracionApp;
+import com.cineticket.util.ConnectionPool;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import javafx.stage.StageStyle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+
+/**
+ * Arranque de la aplicación:
+ * - Muestra una pantalla de carga mientras corren, en paralelo, las etapas que el login
+ *   necesita (configuración, pool de conexiones, servicios).
+ * - Cartelera, fuentes de PDFBox y pantallas del flujo de compra se preparan en segundo plano
+ *   mientras el usuario inicia sesión.
+ * - Los tiempos de cada etapa y de la primera pantalla quedan en el log.
+ */
 public class Main extends Application {
+
+    private static final Logger log = LoggerFactory.getLogger(Main.class);
+
+    @Override
+    public void start(Stage stage) {
+        ProgressBar barra = new ProgressBar(0);
+        Label estado = new Label("Iniciando...");
+        Stage splash = crearPantallaCarga(barra, estado);
+        splash.show();
+
+        Arranque arranque = new Arranque()
+                .alAvanzar((etapa, avance) -> Platform.runLater(() -> {
+                    estado.setText("Listo: " + etapa);
+                    barra.setProgress(avance);
+                }))
+                .etapa("configuración", true, ConfiguracionApp::getAppName)
+                .etapa("base de datos", true, ConnectionPool::calentar, "configuración")
+                .etapa("servicios", true, AppContext::inicializar, "configuración")
+                // En segundo plano: se necesitan después del login
+                .etapa("cartelera", false,
+                        () -> AppContext.getCarteleraService().obtenerCarteleraConGeneros(),
+                        "base de datos", "servicios")
+                .etapa("PDF", false, () -> AppContext.getPDFService().precalentar(), "servicios")
+                .etapa("pantallas", false, () -> UiRouter.precargar(
+                        "/fxml/cartelera.fxml",
+                        "/fxml/detalle_pelicula.fxml",
+                        "/fxml/seleccion-asientos.fxml",
+                        "/fxml/confiteria.fxml",
+                        "/fxml/pago.fxml",
+                        "/fxml/historial.fxml").join(), "servicios");
+
+        // whenComplete: pase lo que pase con las etapas, la pantalla de carga se cierra
+        arranque.listas().whenComplete((v, ex) -> Platform.runLater(() -> {
+            splash.close();
+            Throwable falla = arranque.fallas().get("servicios");
+            if (falla != null || ex != null) {
+                mostrarErrorDeArranque(falla != null ? falla : ex);
+                return;
+            }
+            mostrarLogin(stage);
+            log.info("Primera pantalla (login) en {} ms", arranque.milisTranscurridos());
+        }));
+        arranque.iniciar();
+    }
+
+    private void mostrarLogin(Stage stage) {
+        try {
+            Parent root = FXMLLoader.load(getClass().getResource("/fxml/login.fxml"));
+            stage.setTitle("CineTicket");
+            stage.setScene(new Scene(root, 900, 600));
+            stage.show();
+        } catch (IOException e) {
+            log.error("No se pudo cargar la pantalla de login", e);
+            Platform.exit();
+        }
+    }
+
+    /** Sin servicios la aplicación no puede funcionar: se avisa y se cierra. */
+    private void mostrarErrorDeArranque(Throwable falla) {
+        Throwable causa = falla.getCause() != null ? falla.getCause() : falla;
+        log.error("La aplicación no pudo iniciar", falla);
+        Alert alerta = new Alert(Alert.AlertType.ERROR);
+        alerta.setTitle("CineTicket");
+        alerta.setHeaderText("La aplicación no pudo iniciar");
+        alerta.setContentText(String.valueOf(causa.getMessage()));
+        alerta.showAndWait();
+        Platform.exit();
+    }
+
+    private Stage crearPantallaCarga(ProgressBar barra, Label estado) {
+        Label titulo = new Label("CineTicket");
+        titulo.setStyle("-fx-font-size: 28px; -fx-font-weight: bold;");
+        barra.setPrefWidth(260);
+
+        VBox caja = new VBox(14, titulo, barra, estado);
+        caja.setAlignment(Pos.CENTER);
+        caja.setPadding(new Insets(30));
+
+        Stage splash = new Stage(StageStyle.UNDECORATED);
+        splash.setScene(new Scene(caja, 360, 200));
+        splash.centerOnScreen();
+        return splash;
+    }
+
     @Override
-    public void start(Stage stage) throws Exception {
-        Parent root = FXMLLoader.load(getClass().getResource("/fxml/login.fxml"));
-        stage.setTitle("CineTicket");
-        stage.setScene(new Scene(root, 900, 600));
-        stage.show();
+    public void stop() {
+        CargaAsincrona.detener();
+        PosterCache.detener();
+        AppContext.cerrar();
     }
 
     public static void main(String[] args) {
         launch(args);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,260 @@
+package com.cineticket.controlador;
+
+import com.cineticket.util.ConfiguracionApp;
+import com.cineticket.util.metricas.AmbitoSql;
+import com.cineticket.util.metricas.RegistroSql;
+import javafx.concurrent.Task;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.VBox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Carga de datos fuera del hilo de JavaFX para los controladores.
+ * - El trabajo (servicios/BD) corre en un pool de hilos daemon (ui.carga.hilos) como un Task;
+ *   alTerminar / alFallar se ejecutan de vuelta en el hilo de JavaFX.
+ * - Mientras carga muestra un indicador en un contenedor o en el placeholder de una tabla y
+ *   deshabilita los nodos indicados; al terminar los deja como estaban.
+ * - Cada carga queda ligada al nodo de origen: UiRouter.go cancela las de la pantalla que se deja,
+ *   así un resultado tardío no pinta una pantalla que ya no está. Las escrituras (confirmar,
+ *   cancelar, retener) se marcan noCancelable(): terminan siempre y sus callbacks corren igual.
+ * - Si falla, se registra y se muestra una alerta con mensajeError (salvo que se indique alFallar).
+ * - El SQL de cada carga se cuenta en un AmbitoSql con el nombre del controlador (avisos de N+1).
+ *
+ * Uso:
+ *   CargaAsincrona.de(gridPeliculas, carteleraService::obtenerCarteleraConGeneros)
+ *           .enContenedor(gridPeliculas)
+ *           .mensajeError("No se pudo cargar la cartelera.")
+ *           .alTerminar(this::mostrarCartelera)
+ *           .iniciar();
+ */
+public final class CargaAsincrona<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(CargaAsincrona.class);
+
+    private static final Set<CargaAsincrona<?>> activas = ConcurrentHashMap.newKeySet();
+    private static ExecutorService ejecutor;
+    private static final StackWalker QUIEN_LLAMA = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private final Node origen;
+    private final Callable<T> trabajo;
+    /** Controlador que pidió la carga: nombre del ámbito SQL de la acción. */
+    private final String accion;
+
+    private Consumer<T> alTerminar = r -> { };
+    private Consumer<Throwable> alFallar;
+    private String mensajeError = "No se pudieron cargar los datos.";
+    private Pane contenedor;
+    private TableView<?> tabla;
+    private Node[] bloqueados = new Node[0];
+    private boolean cancelable = true;
+
+    private final CompletableFuture<T> futuro = new CompletableFuture<>();
+    private Task<T> tarea;
+    private Node indicador;
+    private Node placeholderAnterior;
+    private final Map<Node, Boolean> estadoBloqueados = new LinkedHashMap<>();
+
+    private CargaAsincrona(Node origen, Callable<T> trabajo, String accion) {
+        this.origen = Objects.requireNonNull(origen, "origen requerido");
+        this.trabajo = Objects.requireNonNull(trabajo, "trabajo requerido");
+        this.accion = accion;
+    }
+
+    /** origen: cualquier nodo de la pantalla que pide los datos (para cancelar al navegar). */
+    public static <T> CargaAsincrona<T> de(Node origen, Callable<T> trabajo) {
+        String accion = QUIEN_LLAMA.getCallerClass().getSimpleName();
+        return new CargaAsincrona<>(origen, trabajo, accion);
+    }
+
+    /** Se llama en el hilo de JavaFX con el resultado. */
+    public CargaAsincrona<T> alTerminar(Consumer<T> accion) {
+        this.alTerminar = Objects.requireNonNull(accion);
+        return this;
+    }
+
+    /** Reemplaza la alerta de error por defecto. Se llama en el hilo de JavaFX. */
+    public CargaAsincrona<T> alFallar(Consumer<Throwable> accion) {
+        this.alFallar = Objects.requireNonNull(accion);
+        return this;
+    }
+
+    public CargaAsincrona<T> mensajeError(String mensaje) {
+        this.mensajeError = Objects.requireNonNull(mensaje);
+        return this;
+    }
+
+    /** Muestra "Cargando…" dentro del contenedor (se reemplaza su contenido). */
+    public CargaAsincrona<T> enContenedor(Pane contenedor) {
+        this.contenedor = contenedor;
+        return this;
+    }
+
+    /** Muestra el indicador como placeholder de la tabla. */
+    public CargaAsincrona<T> enTabla(TableView<?> tabla) {
+        this.tabla = tabla;
+        return this;
+    }
+
+    /** Nodos que se deshabilitan mientras dura la carga (p. ej. el botón que la lanzó). */
+    public CargaAsincrona<T> bloqueando(Node... nodos) {
+        this.bloqueados = nodos;
+        return this;
+    }
+
+    /**
+     * Para escrituras: navegar a otra pantalla no la cancela (interrumpir el hilo puede abortar
+     * la transacción a medias u ocultar su resultado). alTerminar / alFallar se ejecutan igual.
+     */
+    public CargaAsincrona<T> noCancelable() {
+        this.cancelable = false;
+        return this;
+    }
+
+    /** Lanza la carga. Llamar desde el hilo de JavaFX. */
+    public Task<T> iniciar() {
+        if (tarea != null) throw new IllegalStateException("La carga ya se inició");
+        tarea = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                // Las consultas de la carga se cuentan juntas (detección de N+1, ver RegistroSql)
+                try (AmbitoSql sql = RegistroSql.abrirAmbito(accion)) {
+                    return trabajo.call();
+                }
+            }
+        };
+        tarea.setOnSucceeded(ev -> {
+            terminar();
+            T valor = tarea.getValue();
+            futuro.complete(valor);
+            alTerminar.accept(valor);
+        });
+        tarea.setOnFailed(ev -> {
+            terminar();
+            futuro.completeExceptionally(tarea.getException());
+            fallar(tarea.getException());
+        });
+        tarea.setOnCancelled(ev -> {
+            terminar();
+            futuro.cancel(false);
+        });
+        // Cancelar el futuro cancela la carga
+        futuro.whenComplete((v, ex) -> {
+            if (futuro.isCancelled()) tarea.cancel(true);
+        });
+
+        mostrarIndicador();
+        activas.add(this);
+        ejecutor().execute(tarea);
+        return tarea;
+    }
+
+    /** La misma carga como CompletableFuture (se completa en el hilo de JavaFX). */
+    public CompletableFuture<T> futuro() {
+        return futuro;
+    }
+
+    /** Cancela las cargas en curso de la pantalla con esa raíz (UiRouter lo llama al navegar), salvo las noCancelable. */
+    public static void cancelarDe(Node raiz) {
+        if (raiz == null) return;
+        for (CargaAsincrona<?> c : activas) {
+            if (c.cancelable && esDescendiente(c.origen, raiz)) {
+                log.debug("Cancelando carga pendiente al salir de la pantalla");
+                c.tarea.cancel(true);
+            }
+        }
+    }
+
+    /** Detiene el pool de carga (al cerrar la aplicación). */
+    public static synchronized void detener() {
+        if (ejecutor != null) {
+            ejecutor.shutdownNow();
+            ejecutor = null;
+        }
+    }
+
+    // ===== Helpers =====
+
+    private static synchronized ExecutorService ejecutor() {
+        if (ejecutor == null) {
+            AtomicInteger n = new AtomicInteger();
+            ejecutor = Executors.newFixedThreadPool(Math.max(1, ConfiguracionApp.getUiCargaHilos()), r -> {
+                Thread t = new Thread(r, "carga-ui-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return ejecutor;
+    }
+
+    private static boolean esDescendiente(Node nodo, Node raiz) {
+        for (Node n = nodo; n != null; n = n.getParent()) {
+            if (n == raiz) return true;
+        }
+        return false;
+    }
+
+    private void mostrarIndicador() {
+        if (contenedor != null) {
+            ProgressIndicator progreso = new ProgressIndicator();
+            progreso.setMaxSize(48, 48);
+            VBox caja = new VBox(8, progreso, new Label("Cargando…"));
+            caja.setAlignment(Pos.CENTER);
+            caja.getStyleClass().add("carga-indicador");
+            indicador = caja;
+            contenedor.getChildren().setAll(indicador);
+        }
+        if (tabla != null) {
+            placeholderAnterior = tabla.getPlaceholder();
+            tabla.setPlaceholder(new ProgressIndicator());
+        }
+        for (Node n : bloqueados) {
+            if (n == null) continue;
+            estadoBloqueados.put(n, n.isDisable());
+            n.setDisable(true);
+        }
+    }
+
+    private void terminar() {
+        activas.remove(this);
+        if (contenedor != null && indicador != null) {
+            contenedor.getChildren().remove(indicador);
+        }
+        if (tabla != null) {
+            tabla.setPlaceholder(placeholderAnterior);
+        }
+        estadoBloqueados.forEach(Node::setDisable);
+        estadoBloqueados.clear();
+    }
+
+    private void fallar(Throwable ex) {
+        log.error(mensajeError, ex);
+        if (alFallar != null) {
+            alFallar.accept(ex);
+            return;
+        }
+        String detalle = ex != null && ex.getMessage() != null ? "\n" + ex.getMessage() : "";
+        Alert a = new Alert(Alert.AlertType.ERROR, mensajeError + detalle, ButtonType.OK);
+        a.setHeaderText("Error");
+        a.show();
+    }
+}
@@ -3,13 +3,14 @@ package com.cineticket.controlador;
 import com.cineticket.modelo.Pelicula;
 import com.cineticket.modelo.Genero;
 import com.cineticket.servicio.CarteleraService;
+import com.cineticket.servicio.dto.CarteleraSnapshot;
+import com.cineticket.servicio.dto.PeliculaCartelera;
 import com.cineticket.util.AppContext;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.control.*;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
 import javafx.event.ActionEvent;
@@ -17,21 +18,27 @@ import com.cineticket.util.SeleccionPeliculaContext;
 
 import java.util.List;
 
-public class CarteleraController {
+public class CarteleraController implements CicloDeVista {
 
     @FXML private FlowPane gridPeliculas;
 
     private final CarteleraService carteleraService = AppContext.getCarteleraService();
 
+    private static final double ALTO_POSTER = 260;
+
     @FXML
     public void initialize() {
-        cargarPeliculas();
-
         gridPeliculas.widthProperty().addListener((obs, oldV, newV) -> {
             ajustarAnchoTarjetas(newV.doubleValue());
         });
     }
 
+    /** Cada visita vuelve a pedir la cartelera (el servicio la sirve desde caché). */
+    @Override
+    public void alMostrar() {
+        cargarPeliculas();
+    }
+
     private void ajustarAnchoTarjetas(double anchoFlow) {
 
         double hgap = gridPeliculas.getHgap();
@@ -59,7 +66,7 @@ public class CarteleraController {
                     img.setPreserveRatio(true);
 
                     // opcional: límite de alto para que no sea un póster kilométrico
-                    img.setFitHeight(260);
+                    img.setFitHeight(ALTO_POSTER);
                 }
             }
         }
@@ -69,19 +76,25 @@ public class CarteleraController {
 
 
     private void cargarPeliculas() {
-        gridPeliculas.getChildren().clear();
+        CargaAsincrona.de(gridPeliculas, carteleraService::obtenerCarteleraConGeneros)
+                .enContenedor(gridPeliculas)
+                .mensajeError("No se pudo cargar la cartelera.")
+                .alTerminar(this::mostrarCartelera)
+                .iniciar();
+    }
 
-        List<Pelicula> peliculas = carteleraService.obtenerCarteleraCompleta();
+    private void mostrarCartelera(CarteleraSnapshot cartelera) {
+        gridPeliculas.getChildren().clear();
 
-        for (Pelicula p : peliculas) {
-            Node tarjeta = crearTarjetaPelicula(p);
+        for (PeliculaCartelera p : cartelera.getPeliculas()) {
+            Node tarjeta = crearTarjetaPelicula(p.getPelicula(), p.getGeneros());
             gridPeliculas.getChildren().add(tarjeta);
         }
 
         ajustarAnchoTarjetas(gridPeliculas.getWidth());
     }
 
-    private Node crearTarjetaPelicula(Pelicula peli) {
+    private Node crearTarjetaPelicula(Pelicula peli, List<Genero> generos) {
         VBox card = new VBox(8);
         card.setPadding(new Insets(10));
         card.getStyleClass().add("pelicula-card");
@@ -89,22 +102,13 @@ public class CarteleraController {
         ImageView img = new ImageView();
         img.setPreserveRatio(true);
         img.setSmooth(true);
-
-        try {
-            if (peli.getImagenUrl() != null) {
-                img.setImage(new Image(peli.getImagenUrl(), true));
-            } else {
-                img.setImage(new Image(getClass().getResource("/img/no_image.png").toExternalForm()));
-            }
-        } catch (Exception ex) {
-            img.setImage(new Image(getClass().getResource("/img/no_image.png").toExternalForm()));
-        }
+        // Se decodifica al alto de la tarjeta (ver ajustarAnchoTarjetas)
+        PosterCache.mostrar(img, peli.getImagenUrl(), 0, ALTO_POSTER);
 
         Label lblTitulo = new Label(peli.getTitulo());
         lblTitulo.getStyleClass().add("pelicula-card-title");
 
         HBox generosBox = new HBox(6);
-        List<Genero> generos = carteleraService.obtenerGenerosDePelicula(peli.getIdPelicula());
         for (Genero g : generos) {
             Label chip = new Label(g.getNombreGenero());
             chip.getStyleClass().add("chip");
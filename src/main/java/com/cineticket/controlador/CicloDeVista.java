@@ -0,0 +1,16 @@
+package com.cineticket.controlador;
+
+/**
+ * Controlador de una pantalla que UiRouter conserva en caché entre navegaciones.
+ * - initialize() solo arma la vista (columnas, listeners); puede correr en segundo plano al precargar.
+ * - alMostrar() se llama cada vez que la pantalla entra (hilo de JavaFX): leer el contexto
+ *   de la navegación, limpiar el estado anterior y cargar los datos.
+ * - alOcultar() se llama al salir: soltar suscripciones o estado que no debe quedar vivo.
+ */
+public interface CicloDeVista {
+
+    void alMostrar();
+
+    default void alOcultar() {
+    }
+}
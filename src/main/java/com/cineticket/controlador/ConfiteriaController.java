@@ -24,7 +24,7 @@ import java.util.List;
 import java.util.Map;
 
 /** Confitería con tarjetas tipo mockup. */
-public class ConfiteriaController {
+public class ConfiteriaController implements CicloDeVista {
 
     @FXML private FlowPane gridCombos;
     @FXML private ListView<String> listViewCarrito;
@@ -37,12 +37,13 @@ public class ConfiteriaController {
     private final Map<Integer, Integer> carrito = new LinkedHashMap<>();
     private final ObservableList<String> carritoTexto = FXCollections.observableArrayList();
 
+    /** Combos ya cargados: el carrito se arma con ellos, sin volver a consultar. */
+    private final Map<Integer, ComboConfiteria> combosPorId = new LinkedHashMap<>();
+
     private static final String DEFAULT_COMBO_IMG = "/img/default-combo.png";
 
     @FXML
     public void initialize() {
-        cargarTarjetasCombos();
-
         listViewCarrito.setItems(carritoTexto);
 
         // Doble clic en el resumen para eliminar un ítem del carrito
@@ -56,15 +57,30 @@ public class ConfiteriaController {
                 }
             }
         });
+    }
 
+    /** Cada compra empieza con el carrito vacío; los combos se vuelven a pedir (salen de caché). */
+    @Override
+    public void alMostrar() {
+        carrito.clear();
         actualizarCarrito();
+        cargarTarjetasCombos();
     }
 
     private void cargarTarjetasCombos() {
+        CargaAsincrona.de(gridCombos, confiteriaService::obtenerCombosDisponibles)
+                .enContenedor(gridCombos)
+                .mensajeError("No se pudieron cargar los combos de confitería.")
+                .alTerminar(this::mostrarCombos)
+                .iniciar();
+    }
+
+    private void mostrarCombos(List<ComboConfiteria> combos) {
         gridCombos.getChildren().clear();
-        List<ComboConfiteria> combos = confiteriaService.obtenerCombosDisponibles();
+        combosPorId.clear();
 
         for (ComboConfiteria combo : combos) {
+            combosPorId.put(combo.getIdCombo(), combo);
             Node card = crearTarjetaCombo(combo);
             gridCombos.getChildren().add(card);
         }
@@ -143,7 +159,8 @@ public class ConfiteriaController {
 
         BigDecimal total = BigDecimal.ZERO;
         for (Map.Entry<Integer,Integer> entry : carrito.entrySet()) {
-            ComboConfiteria c = confiteriaService.obtenerCombo(entry.getKey());
+            ComboConfiteria c = combosPorId.get(entry.getKey());
+            if (c == null) continue;
             int cant = entry.getValue();
             BigDecimal precio = c.getPrecio() == null ? BigDecimal.ZERO : c.getPrecio();
             BigDecimal sub = precio.multiply(BigDecimal.valueOf(cant));
@@ -172,6 +189,7 @@ public class ConfiteriaController {
 
     @FXML
     private void volverCartelera(ActionEvent e) {
+        soltarAsientos((Node) e.getSource());
         UiRouter.go((Node) e.getSource(), "/fxml/cartelera.fxml");
     }
 
@@ -182,9 +200,18 @@ public class ConfiteriaController {
 
     @FXML
     private void cerrarSesion(ActionEvent e) {
+        soltarAsientos((Node) e.getSource());
         UiRouter.go((Node) e.getSource(), "/fxml/login.fxml");
     }
 
+    /** Abandona la compra: suelta los asientos retenidos en la selección. */
+    private void soltarAsientos(Node origen) {
+        if (SelectedData.getFuncion() != null) {
+            RetencionAsientos.soltar(origen, SelectedData.getFuncion().getIdFuncion());
+        }
+        SelectedData.clear();
+    }
+
     // --- helpers ---
 
     private void mostrarAlerta(String msg) {
@@ -12,7 +12,6 @@ import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
 import javafx.scene.control.*;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
 
@@ -23,7 +22,7 @@ import java.util.*;
 
 
 
-public class DetallePeliculaController {
+public class DetallePeliculaController implements CicloDeVista {
     @FXML private HBox detalleLayout;
 
     @FXML private ImageView imgPoster;
@@ -65,6 +64,12 @@ public class DetallePeliculaController {
                 }
             });
         }
+    }
+
+    /** La vista se reutiliza: se limpia lo de la película anterior y se carga la seleccionada. */
+    @Override
+    public void alMostrar() {
+        limpiar();
 
         Integer peliculaId = SeleccionPeliculaContext.getPeliculaActualId();
         if (peliculaId == null) {
@@ -75,12 +80,36 @@ public class DetallePeliculaController {
             return;
         }
 
-        cargarDetallesPelicula(peliculaId);
-        cargarFunciones(peliculaId);
+        CargaAsincrona.de(diasFlow, () -> new DatosDetalle(
+                        carteleraService.obtenerDetallesPelicula(peliculaId),
+                        carteleraService.obtenerGenerosDePelicula(peliculaId),
+                        carteleraService.obtenerFuncionesPorPelicula(peliculaId)))
+                .enContenedor(diasFlow)
+                .mensajeError("No se pudo cargar la película.")
+                .alTerminar(d -> {
+                    mostrarDetallesPelicula(d.pelicula, d.generos);
+                    mostrarFunciones(d.funciones);
+                })
+                .iniciar();
     }
 
-    private void cargarDetallesPelicula(Integer peliculaId) {
-        Pelicula p = carteleraService.obtenerDetallesPelicula(peliculaId);
+    private void limpiar() {
+        lblTitulo.setText("");
+        lblDuracion.setText("");
+        lblClasificacion.setText("");
+        lblFechaEstreno.setText("");
+        lblSinopsis.setText("");
+        imgPoster.setImage(null);
+        generosFlow.getChildren().clear();
+        horariosFlow.getChildren().clear();
+        grupoHorarios.getToggles().clear();
+        diasFlow.getChildren().clear();
+        grupoDias.getToggles().clear();
+        funcionesPorDia.clear();
+        btnSeleccionarAsientos.setDisable(true);
+    }
+
+    private void mostrarDetallesPelicula(Pelicula p, List<Genero> generos) {
 
         lblTitulo.setText(p.getTitulo());
         lblDuracion.setText(p.getDuracionFormateada());
@@ -99,32 +128,20 @@ public class DetallePeliculaController {
             lblSinopsis.setText(sinopsis);
         }
 
-        // Imagen
-        try {
-            if (p.getImagenUrl() != null) {
-                imgPoster.setImage(new Image(p.getImagenUrl(), true));
-            } else {
-                imgPoster.setImage(new Image(
-                        getClass().getResource("/img/no_image.png").toExternalForm()
-                ));
-            }
-        } catch (Exception ex) {
-            imgPoster.setImage(new Image(
-                    getClass().getResource("/img/no_image.png").toExternalForm()
-            ));
-        }
+        // Imagen (reducida al tamaño del ImageView del FXML)
+        PosterCache.mostrar(imgPoster, p.getImagenUrl(), imgPoster.getFitWidth(), imgPoster.getFitHeight());
 
         // Géneros como chips
         generosFlow.getChildren().clear();
-        for (Genero g : carteleraService.obtenerGenerosDePelicula(peliculaId)) {
+        for (Genero g : generos) {
             Label chip = new Label(g.getNombreGenero());
             chip.getStyleClass().add("chip");
             generosFlow.getChildren().add(chip);
         }
     }
 
-    private void cargarFunciones(Integer peliculaId) {
-        List<Funcion> funciones = carteleraService.obtenerFuncionesPorPelicula(peliculaId);
+    private void mostrarFunciones(List<Funcion> funciones) {
+        funciones = new ArrayList<>(funciones);
         funciones.sort(Comparator.comparing(Funcion::getFechaHoraInicio));
 
         funcionesPorDia.clear();
@@ -226,4 +243,17 @@ public class DetallePeliculaController {
     public void cerrarSesion(ActionEvent e) {
         UiRouter.go((Node) e.getSource(), "/fxml/login.fxml");
     }
+
+    /** Lo que se carga en segundo plano para pintar la pantalla. */
+    private static final class DatosDetalle {
+        final Pelicula pelicula;
+        final List<Genero> generos;
+        final List<Funcion> funciones;
+
+        DatosDetalle(Pelicula pelicula, List<Genero> generos, List<Funcion> funciones) {
+            this.pelicula = pelicula;
+            this.generos = generos;
+            this.funciones = funciones;
+        }
+    }
 }
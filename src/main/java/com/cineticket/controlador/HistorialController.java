@@ -5,8 +5,9 @@ import com.cineticket.modelo.CompraConfiteria;
 import com.cineticket.modelo.Entrada;
 import com.cineticket.modelo.Usuario;
 import com.cineticket.servicio.CompraService;
-import com.cineticket.servicio.ConfiteriaService;
-import com.cineticket.modelo.ComboConfiteria;
+import com.cineticket.servicio.dto.CompraHistorial;
+import com.cineticket.servicio.dto.CursorHistorial;
+import com.cineticket.servicio.dto.PaginaHistorial;
 import com.cineticket.util.AppContext;
 import com.cineticket.util.SessionManager;
 import com.cineticket.excepcion.ValidacionException;
@@ -16,8 +17,6 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.Region;
@@ -30,10 +29,9 @@ import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Objects;
 import java.util.stream.Collectors;
 
-public class HistorialController {
+public class HistorialController implements CicloDeVista {
 
     // UI
     @FXML private TableView<FilaHistorial> tablaCompras;
@@ -45,10 +43,16 @@ public class HistorialController {
     @FXML private TableColumn<FilaHistorial, Void> colCancelar;
     @FXML private TableColumn<FilaHistorial, Void> colDescargar;
     @FXML private Label lblVacio;
+    @FXML private Button btnCargarMas;
+
+    private static final int TAMANIO_PAGINA = 25;
 
     // Servicios
     private final CompraService compraService = AppContext.getCompraService();
-    private final ConfiteriaService confiteriaService = AppContext.getConfiteriaService();
+
+    // Estado de la paginación
+    private final ObservableList<FilaHistorial> filas = FXCollections.observableArrayList();
+    private CursorHistorial siguiente;
 
     private final DateTimeFormatter fechaFmt = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private final DateTimeFormatter horaFmt = DateTimeFormatter.ofPattern("HH:mm");
@@ -56,6 +60,11 @@ public class HistorialController {
     @FXML
     private void initialize() {
         configurarColumnas();
+    }
+
+    /** Cada visita recarga desde la primera página (puede haber compras nuevas o de otro usuario). */
+    @Override
+    public void alMostrar() {
         cargarHistorial();
     }
 
@@ -113,6 +122,14 @@ public class HistorialController {
     }
 
     private void cargarHistorial() {
+        // La vista se reutiliza: no dejar a la vista filas de una visita (o sesión) anterior
+        filas.clear();
+        siguiente = null;
+        tablaCompras.setItems(filas);
+        lblVacio.setVisible(false);
+        btnCargarMas.setVisible(false);
+        btnCargarMas.setManaged(false);
+
         Usuario actual = SessionManager.getInstance().getUsuarioActual();
         if (actual == null) {
             mostrarAlerta(Alert.AlertType.ERROR,
@@ -122,48 +139,56 @@ public class HistorialController {
             return;
         }
 
-        List<Compra> compras = compraService.obtenerHistorialCompras(actual.getIdUsuario());
-        if (compras == null || compras.isEmpty()) {
-            lblVacio.setVisible(true);
-            tablaCompras.setItems(FXCollections.observableArrayList());
-            return;
-        }
-
-        lblVacio.setVisible(false);
-
-        ObservableList<FilaHistorial> filas = FXCollections.observableArrayList();
+        cargarPagina(actual.getIdUsuario(), null);
+    }
 
-        for (Compra c : compras) {
-            Integer compraId = c.getIdCompra();
+    @FXML
+    private void cargarMas(ActionEvent event) {
+        Usuario actual = SessionManager.getInstance().getUsuarioActual();
+        if (actual == null || siguiente == null) return;
+        cargarPagina(actual.getIdUsuario(), siguiente);
+    }
 
-            List<Entrada> entradas = compraService.obtenerEntradasDeCompra(compraId);
-            List<CompraConfiteria> items = compraService.obtenerConfiteriaDeCompra(compraId);
+    /** Agrega una página del historial a la tabla (consultas fijas por página, ver CompraService). */
+    private void cargarPagina(Integer usuarioId, CursorHistorial desde) {
+        CargaAsincrona.de(tablaCompras,
+                        () -> compraService.obtenerHistorialDetallado(usuarioId, desde, TAMANIO_PAGINA))
+                .enTabla(tablaCompras)
+                .bloqueando(btnCargarMas)
+                .mensajeError("No se pudo cargar el historial de compras.")
+                .alTerminar(this::agregarPagina)
+                .iniciar();
+    }
 
-            String pelicula = obtenerTituloPelicula(entradas);
+    private void agregarPagina(PaginaHistorial pagina) {
+        for (CompraHistorial h : pagina.getCompras()) {
+            Compra c = h.getCompra();
             LocalDateTime fh = c.getFechaHoraCompra();
             String fecha = fh != null ? fh.format(fechaFmt) : "";
             String hora = fh != null ? fh.format(horaFmt) : "";
-            String asientos = construirDescripcionAsientos(entradas);
-            String confiteria = construirDescripcionConfiteria(items);
 
-            filas.add(new FilaHistorial(c, pelicula, fecha, hora, asientos, confiteria));
+            filas.add(new FilaHistorial(c,
+                    obtenerTituloPelicula(h),
+                    fecha,
+                    hora,
+                    construirDescripcionAsientos(h.getEntradas()),
+                    construirDescripcionConfiteria(h)));
         }
 
-        tablaCompras.setItems(filas);
+        siguiente = pagina.getSiguiente();
+        btnCargarMas.setVisible(pagina.hayMas());
+        btnCargarMas.setManaged(pagina.hayMas());
+        lblVacio.setVisible(filas.isEmpty());
     }
 
-    /**
-     * Por ahora: si tenemos entradas, usamos el ID de función como texto auxiliar.
-     * Si luego expones un método en CarteleraService para obtener el título de la película
-     * a partir de la función, aquí se cambia por el título real.
-     */
-    private String obtenerTituloPelicula(List<Entrada> entradas) {
-        if (entradas == null || entradas.isEmpty()) {
+    private String obtenerTituloPelicula(CompraHistorial h) {
+        if (h.getEntradas().isEmpty()) {
             return "Compra sin entradas";
         }
-        // TODO: reemplazar por búsqueda real de película (Funcion → Pelicula)
-        Integer funcionId = entradas.get(0).getFuncionId();
-        return "Función #" + funcionId;
+        if (h.getTituloPelicula() != null) {
+            return h.getTituloPelicula();
+        }
+        return "Función #" + h.getEntradas().get(0).getFuncionId();
     }
 
     private String construirDescripcionAsientos(List<Entrada> entradas) {
@@ -174,21 +199,14 @@ public class HistorialController {
         return n == 1 ? "1 asiento" : n + " asientos";
     }
 
-    private String construirDescripcionConfiteria(List<CompraConfiteria> items) {
-        if (items == null || items.isEmpty()) {
+    private String construirDescripcionConfiteria(CompraHistorial h) {
+        List<CompraConfiteria> items = h.getItemsConfiteria();
+        if (items.isEmpty()) {
             return "Ninguno";
         }
 
         return items.stream()
-                .map(ci -> {
-                    try {
-                        ComboConfiteria combo = confiteriaService.obtenerCombo(ci.getComboId());
-                        String nombre = combo != null ? combo.getNombreCombo() : ("Combo " + ci.getComboId());
-                        return ci.getCantidad() + "x " + nombre;
-                    } catch (Exception e) {
-                        return ci.getCantidad() + "x Combo " + ci.getComboId();
-                    }
-                })
+                .map(ci -> ci.getCantidad() + "x " + h.getNombreCombo(ci.getComboId()))
                 .collect(Collectors.joining(", "));
     }
 
@@ -205,42 +223,67 @@ public class HistorialController {
 
         confirm.showAndWait()
                 .filter(res -> res == ButtonType.OK)
-                .ifPresent(res -> {
-                    try {
-                        boolean ok = compraService.cancelarCompra(compra.getIdCompra());
-                        if (ok) {
-                            mostrarAlerta(Alert.AlertType.INFORMATION,
-                                    "Compra cancelada",
-                                    null,
-                                    "La compra se canceló correctamente.");
-                            cargarHistorial();
-                        } else {
-                            mostrarAlerta(Alert.AlertType.WARNING,
-                                    "Cancelación incompleta",
-                                    null,
-                                    "No fue posible cancelar completamente la compra.");
-                        }
-                    } catch (ValidacionException ex) {
+                .ifPresent(res -> CargaAsincrona.de(tablaCompras,
+                                () -> compraService.cancelarCompra(compra.getIdCompra()))
+                        .bloqueando(tablaCompras)
+                        .noCancelable()
+                        .alTerminar(ok -> {
+                            if (ok) {
+                                mostrarAlerta(Alert.AlertType.INFORMATION,
+                                        "Compra cancelada",
+                                        null,
+                                        "La compra se canceló correctamente.");
+                                cargarHistorial();
+                            } else {
+                                mostrarAlerta(Alert.AlertType.WARNING,
+                                        "Cancelación incompleta",
+                                        null,
+                                        "No fue posible cancelar completamente la compra.");
+                            }
+                        })
+                        .alFallar(ex -> {
+                            if (ex instanceof ValidacionException) {
+                                mostrarAlerta(Alert.AlertType.WARNING,
+                                        "No se puede cancelar",
+                                        null,
+                                        ex.getMessage());
+                            } else {
+                                mostrarAlerta(Alert.AlertType.ERROR,
+                                        "Error",
+                                        "Ocurrió un error al cancelar la compra.",
+                                        ex.getMessage());
+                            }
+                        })
+                        .iniciar());
+    }
+
+    private void manejarDescargarPdf(FilaHistorial fila) {
+        Compra compra = fila.getCompra();
+        Integer compraId = compra.getIdCompra();
+
+        // 1) obtener comprobante (espera al job en segundo plano o lo lanza si falta)
+        CargaAsincrona.de(tablaCompras, () -> compraService.generarComprobante(compraId))
+                .bloqueando(tablaCompras)
+                .alTerminar(ruta -> guardarComprobante(compraId, ruta))
+                .alFallar(ex -> {
+                    if (ex instanceof ValidacionException) {
+                        // Comprobante aún en generación o en reintento
                         mostrarAlerta(Alert.AlertType.WARNING,
-                                "No se puede cancelar",
+                                "Comprobante",
                                 null,
                                 ex.getMessage());
-                    } catch (Exception ex) {
+                    } else {
                         mostrarAlerta(Alert.AlertType.ERROR,
-                                "Error",
-                                "Ocurrió un error al cancelar la compra.",
+                                "Error al guardar comprobante",
+                                null,
                                 ex.getMessage());
                     }
-                });
+                })
+                .iniciar();
     }
 
-    private void manejarDescargarPdf(FilaHistorial fila) {
-        Compra compra = fila.getCompra();
-        Integer compraId = compra.getIdCompra();
-
+    private void guardarComprobante(Integer compraId, String rutaOrigen) {
         try {
-            // 1) regenerar/obtener comprobante
-            String rutaOrigen = compraService.generarComprobante(compraId);
             if (rutaOrigen == null || rutaOrigen.isBlank()) {
                 mostrarAlerta(Alert.AlertType.ERROR,
                         "Comprobante",
@@ -281,35 +324,13 @@ public class HistorialController {
 
     @FXML
     private void irACartelera(ActionEvent event) {
-        try {
-            Stage stage = (Stage) tablaCompras.getScene().getWindow();
-            FXMLLoader loader = new FXMLLoader(
-                    Objects.requireNonNull(getClass().getResource("/fxml/cartelera.fxml")));
-            stage.setScene(new Scene(loader.load()));
-            stage.centerOnScreen();
-        } catch (Exception ex) {
-            mostrarAlerta(Alert.AlertType.ERROR,
-                    "Navegación",
-                    "No se pudo abrir la cartelera.",
-                    ex.getMessage());
-        }
+        UiRouter.go(tablaCompras, "/fxml/cartelera.fxml");
     }
 
     @FXML
     private void cerrarSesion(ActionEvent event) {
         SessionManager.getInstance().cerrarSesion();
-        try {
-            Stage stage = (Stage) tablaCompras.getScene().getWindow();
-            FXMLLoader loader = new FXMLLoader(
-                    Objects.requireNonNull(getClass().getResource("/fxml/login.fxml")));
-            stage.setScene(new Scene(loader.load()));
-            stage.centerOnScreen();
-        } catch (Exception ex) {
-            mostrarAlerta(Alert.AlertType.ERROR,
-                    "Sesión",
-                    "Sesión cerrada, pero no se pudo volver a la pantalla de login.",
-                    ex.getMessage());
-        }
+        UiRouter.go(tablaCompras, "/fxml/login.fxml");
     }
 
     private void mostrarAlerta(Alert.AlertType tipo, String titulo,
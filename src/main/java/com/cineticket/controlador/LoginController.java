@@ -2,10 +2,12 @@ package com.cineticket.controlador;
 
 import com.cineticket.enums.*;
 import com.cineticket.excepcion.AutenticacionException;
+import com.cineticket.excepcion.ServicioOcupadoException;
 import com.cineticket.excepcion.ValidacionException;
 import com.cineticket.modelo.*;
 import com.cineticket.servicio.AuthService;
 import com.cineticket.util.*;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
@@ -13,6 +15,8 @@ import javafx.scene.control.*;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.StackPane;
 
+import java.util.concurrent.CompletionException;
+
 public class LoginController {
 
     @FXML private StackPane rootPane;
@@ -41,29 +45,35 @@ public class LoginController {
     public void manejarInicioSesion(ActionEvent e) {
         String user = txtUsuario.getText();
         String pass = txtContrasena.getText();
-
-        try {
-            authService.iniciarSesion(user, pass);
-
-            // Recuperamos el usuario logueado
-            Usuario u = SessionManager.getInstance().getUsuarioActual();
+        Node origen = (Node) e.getSource();
+
+        // BCrypt tarda: se verifica en su pool y se vuelve al hilo de JavaFX para navegar
+        origen.setDisable(true);
+        authService.iniciarSesionAsync(user, pass).whenComplete((u, error) -> Platform.runLater(() -> {
+            origen.setDisable(false);
+
+            if (error != null) {
+                Throwable ex = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                if (ex instanceof ValidacionException || ex instanceof AutenticacionException
+                        || ex instanceof ServicioOcupadoException) {
+                    mostrarMensaje(ex.getMessage());
+                } else {
+                    mostrarMensaje("Ocurrió un error al iniciar sesión.");
+                    ex.printStackTrace();
+                }
+                return;
+            }
 
             // Si es administrador, a la pantalla admin
             if (u != null && u.getRol() == Rol.ADMIN) {
-                UiRouter.go((Node) e.getSource(), "/fxml/admin/gestion_cartelera.fxml");
+                UiRouter.go(origen, "/fxml/admin/gestion_cartelera.fxml");
                 return;
             }
 
             // Si es usuario normal → cartelera
-            UiRouter.go((Node) e.getSource(), "/fxml/cartelera.fxml");
-
-        } catch (ValidacionException | AutenticacionException ex) {
-            mostrarMensaje(ex.getMessage());
-
-        } catch (Exception ex) {
-            mostrarMensaje("Ocurrió un error al iniciar sesión.");
-            ex.printStackTrace();
-        }
+            UiRouter.go(origen, "/fxml/cartelera.fxml");
+        }));
     }
 
 
@@ -1,12 +1,11 @@
 package com.cineticket.controlador;
 
 import com.cineticket.enums.MetodoPago;
+import com.cineticket.excepcion.ValidacionException;
 import com.cineticket.modelo.ComboConfiteria;
 import com.cineticket.modelo.Funcion;
 import com.cineticket.modelo.Pelicula;
 import com.cineticket.servicio.CompraService;
-import com.cineticket.servicio.ConfiteriaService;
-import com.cineticket.servicio.CarteleraService;
 import com.cineticket.util.AppContext;
 import com.cineticket.util.SelectedData;
 import javafx.event.ActionEvent;
@@ -25,7 +24,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 /** Controlador de Pago: resumen y confirmación. */
-public class PagoController {
+public class PagoController implements CicloDeVista {
 
     // --- UI ---
     @FXML private RadioButton rbPSE;
@@ -56,13 +55,20 @@ public class PagoController {
         if (toggleGroupMetodo == null) toggleGroupMetodo = new ToggleGroup();
         rbPSE.setToggleGroup(toggleGroupMetodo);
         rbTransferencia.setToggleGroup(toggleGroupMetodo);
+    }
 
-        // Si no nos pasan datos explícitos, lee SelectedData
-        if (SelectedData.getFuncion() != null) this.funcion = SelectedData.getFuncion();
-        if (SelectedData.getAsientosSeleccionados() != null)
-            this.asientos = new ArrayList<>(SelectedData.getAsientosSeleccionados());
-        if (SelectedData.getCombosSeleccionados() != null)
-            this.combos = new LinkedHashMap<>(SelectedData.getCombosSeleccionados());
+    /** La vista se reutiliza: cada visita toma la compra en curso de SelectedData. */
+    @Override
+    public void alMostrar() {
+        toggleGroupMetodo.selectToggle(null);
+        lblResumenEntradas.setText("");
+        lblResumenConfiteria.setText("");
+        lblTotalGeneral.setText("");
+        this.funcion = SelectedData.getFuncion();
+        this.asientos = SelectedData.getAsientosSeleccionados() == null
+                ? new ArrayList<>() : new ArrayList<>(SelectedData.getAsientosSeleccionados());
+        this.combos = SelectedData.getCombosSeleccionados() == null
+                ? new LinkedHashMap<>() : new LinkedHashMap<>(SelectedData.getCombosSeleccionados());
 
         mostrarResumen();
     }
@@ -77,7 +83,7 @@ public class PagoController {
         mostrarResumen();
     }
 
-    /** Llena listView y labels de totales. */
+    /** Carga título y combos en segundo plano y luego llena listView y labels de totales. */
     private void mostrarResumen() {
         listViewResumen.getItems().clear();
 
@@ -87,14 +93,32 @@ public class PagoController {
             return;
         }
 
-        // --- Película (obtener título por ID) ---
-        CarteleraService cartelera = AppContext.getCarteleraService();
-        Pelicula peli = null;
-        String titulo = "(Película)";
-        try {
-            peli = cartelera.obtenerDetallesPelicula(funcion.getPeliculaId());
-            if (peli != null && peli.getTitulo() != null) titulo = peli.getTitulo();
-        } catch (Exception ignored) { /* si falla, dejamos el placeholder */ }
+        Integer peliculaId = funcion.getPeliculaId();
+        Set<Integer> comboIds = combos == null ? Set.of() : new LinkedHashSet<>(combos.keySet());
+        CargaAsincrona.de(listViewResumen, () -> {
+                    // --- Película (obtener título por ID) ---
+                    String titulo = "(Película)";
+                    try {
+                        Pelicula peli = AppContext.getCarteleraService().obtenerDetallesPelicula(peliculaId);
+                        if (peli != null && peli.getTitulo() != null) titulo = peli.getTitulo();
+                    } catch (Exception ignored) { /* si falla, dejamos el placeholder */ }
+
+                    // --- Combos del carrito (una sola consulta) ---
+                    Map<Integer, ComboConfiteria> porId = AppContext.getConfiteriaService().obtenerCombos(comboIds);
+                    if (!porId.keySet().containsAll(comboIds)) {
+                        throw new ValidacionException("Combo no encontrado.");
+                    }
+                    return new DatosResumen(titulo, porId);
+                })
+                .bloqueando(btnConfirmar)
+                .mensajeError("No se pudo cargar el resumen de la compra.")
+                .alTerminar(this::pintarResumen)
+                .iniciar();
+    }
+
+    private void pintarResumen(DatosResumen datos) {
+        listViewResumen.getItems().clear();
+        String titulo = datos.titulo;
 
         // --- Entradas ---
         Double precio = funcion.getPrecioEntrada();
@@ -113,13 +137,12 @@ public class PagoController {
         // --- Confitería ---
         totalConfiteria = BigDecimal.ZERO;
         if (combos != null && !combos.isEmpty()) {
-            ConfiteriaService confService = AppContext.getConfiteriaService();
             listViewResumen.getItems().add("Confitería:");
             int items = 0;
             for (var entry : combos.entrySet()) {
                 Integer comboId = entry.getKey();
                 Integer cantidad = entry.getValue();
-                ComboConfiteria combo = confService.obtenerCombo(comboId);
+                ComboConfiteria combo = datos.combos.get(comboId);
                 BigDecimal subtotal = combo.getPrecio().multiply(BigDecimal.valueOf(cantidad));
                 totalConfiteria = totalConfiteria.add(subtotal);
                 items += cantidad;
@@ -147,46 +170,55 @@ public class PagoController {
             return;
         }
 
-        try {
-            // Usuario en sesión
-            Integer usuarioId = Optional.ofNullable(AppContext.getAuthService().obtenerUsuarioActual())
-                    .map(u -> u.getIdUsuario())
-                    .orElseThrow(() -> new IllegalStateException("No hay usuario autenticado."));
-
-            CompraService compraService = AppContext.getCompraService();
-
-            // Armar compra en memoria
-            var preparada = compraService.crearCompra(
-                    usuarioId,
-                    funcion.getIdFuncion(),
-                    asientos,
-                    combos,
-                    metodo
-            );
-
-            // Simulación de pago ok
-            if (!procesarPago()) {
-                return;
-            }
-
-            // Persistir compra (POR AHORA sin generar PDF aquí)
-            Integer compraId = compraService.confirmarCompra(preparada);
-
-            // Limpiamos datos temporales
-            SelectedData.clear();
-
-            // Mensaje breve
-            alerta(Alert.AlertType.INFORMATION,
-                    "¡Compra confirmada!\n\n" +
-                            "Puedes consultar el detalle y generar/ver tu comprobante " +
-                            "desde la sección 'Mis compras'.");
-
-            // Redirigir a historial de compras
-            UiRouter.go((Node) e.getSource(), "/fxml/historial.fxml");
-
-        } catch (Exception ex) {
-            alerta(Alert.AlertType.ERROR, "No se pudo completar la compra.\n" + ex.getMessage());
+        // Usuario en sesión
+        Integer usuarioId = Optional.ofNullable(AppContext.getAuthService().obtenerUsuarioActual())
+                .map(u -> u.getIdUsuario())
+                .orElse(null);
+        if (usuarioId == null) {
+            alerta(Alert.AlertType.ERROR, "No se pudo completar la compra.\nNo hay usuario autenticado.");
+            return;
         }
+
+        Node origen = (Node) e.getSource();
+        Integer funcionId = funcion.getIdFuncion();
+        List<Integer> asientosCompra = new ArrayList<>(asientos);
+        Map<Integer, Integer> combosCompra = new LinkedHashMap<>(combos);
+
+        CargaAsincrona.de(origen, () -> {
+                    CompraService compraService = AppContext.getCompraService();
+
+                    // Armar compra en memoria
+                    var preparada = compraService.crearCompra(
+                            usuarioId, funcionId, asientosCompra, combosCompra, metodo);
+
+                    // Simulación de pago ok
+                    if (!procesarPago()) {
+                        return null;
+                    }
+
+                    // Persistir compra (el PDF se genera en segundo plano)
+                    return compraService.confirmarCompra(preparada);
+                })
+                .bloqueando(btnConfirmar, btnCancelar, rbPSE, rbTransferencia)
+                .noCancelable()
+                .alTerminar(compraId -> {
+                    if (compraId == null) return;
+
+                    // Limpiamos datos temporales
+                    SelectedData.clear();
+
+                    // Mensaje breve
+                    alerta(Alert.AlertType.INFORMATION,
+                            "¡Compra confirmada!\n\n" +
+                                    "Puedes consultar el detalle y generar/ver tu comprobante " +
+                                    "desde la sección 'Mis compras'.");
+
+                    // Redirigir a historial de compras
+                    UiRouter.go(origen, "/fxml/historial.fxml");
+                })
+                .alFallar(ex -> alerta(Alert.AlertType.ERROR,
+                        "No se pudo completar la compra.\n" + ex.getMessage()))
+                .iniciar();
     }
 
 
@@ -197,6 +229,9 @@ public class PagoController {
         a.setHeaderText("Cancelar pago");
         var resp = a.showAndWait();
         if (resp.isPresent() && resp.get() == ButtonType.YES) {
+            // Abandona la compra: los asientos retenidos quedan libres para otros clientes
+            if (funcion != null) RetencionAsientos.soltar((Node) e.getSource(), funcion.getIdFuncion());
+            SelectedData.clear();
             UiRouter.go((Node) e.getSource(), "/fxml/cartelera.fxml");
         }
     }
@@ -254,4 +289,15 @@ public class PagoController {
         a.setHeaderText("Mensaje");
         a.showAndWait();
     }
+
+    /** Lo que el resumen necesita de la BD, cargado en segundo plano. */
+    private static final class DatosResumen {
+        final String titulo;
+        final Map<Integer, ComboConfiteria> combos;
+
+        DatosResumen(String titulo, Map<Integer, ComboConfiteria> combos) {
+            this.titulo = titulo;
+            this.combos = combos;
+        }
+    }
 }
@@ -0,0 +1,276 @@
+package com.cineticket.controlador;
+
+import com.cineticket.util.ConfiguracionApp;
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caché de pósters de películas para la cartelera y el detalle.
+ * - Las imágenes se decodifican fuera del hilo de JavaFX y ya reducidas al tamaño en que se muestran;
+ *   el póster original nunca queda en memoria.
+ * - En memoria: LRU limitada por bytes de píxeles (cache.posters.memoria.mb).
+ * - En disco: copia PNG reducida por URL y tamaño (cache.posters.dir, vacío = sin disco); las
+ *   siguientes visitas y arranques no vuelven a descargar el original.
+ * - /img/no_image.png se carga una sola vez y se muestra mientras llega el póster o si falla.
+ *
+ * Uso:
+ *   PosterCache.mostrar(img, peli.getImagenUrl(), 0, 260);
+ */
+public final class PosterCache {
+
+    private static final Logger log = LoggerFactory.getLogger(PosterCache.class);
+
+    private static final String SIN_IMAGEN = "/img/no_image.png";
+    private static final String PROP_CLAVE = "posterCache.clave";
+    private static final int HILOS = 2;
+
+    /** clave -> imagen reducida, en orden de acceso. Protegido por PosterCache.class. */
+    private static final Map<String, Image> memoria = new LinkedHashMap<>(64, 0.75f, true);
+    private static long bytesEnMemoria;
+
+    /** Cargas en curso: dos tarjetas con el mismo póster comparten la descarga. */
+    private static final Map<String, CompletableFuture<Image>> enCurso = new ConcurrentHashMap<>();
+
+    private static volatile Image sinImagen;
+    private static ExecutorService ejecutor;
+    private static Path directorio;
+    private static boolean directorioListo;
+
+    private PosterCache() {
+    }
+
+    /**
+     * Pone el póster en el ImageView: al instante si está en memoria; si no, muestra el
+     * placeholder y lo reemplaza cuando termina de cargar. Hilo de JavaFX.
+     *
+     * @param ancho ancho al que se decodifica (0 = según el alto, manteniendo proporción)
+     * @param alto  alto al que se decodifica (0 = según el ancho, manteniendo proporción)
+     */
+    public static void mostrar(ImageView destino, String url, double ancho, double alto) {
+        Objects.requireNonNull(destino, "destino");
+        if (url == null || url.isBlank()) {
+            destino.getProperties().remove(PROP_CLAVE);
+            destino.setImage(sinImagen());
+            return;
+        }
+
+        String clave = clave(url, ancho, alto);
+        destino.getProperties().put(PROP_CLAVE, clave);
+
+        Image enMemoria = deMemoria(clave);
+        if (enMemoria != null) {
+            destino.setImage(enMemoria);
+            return;
+        }
+
+        destino.setImage(sinImagen());
+        obtener(url, ancho, alto).thenAccept(img -> Platform.runLater(() -> {
+            // El ImageView pudo reutilizarse para otro póster mientras tanto
+            if (clave.equals(destino.getProperties().get(PROP_CLAVE))) {
+                destino.setImage(img);
+            }
+        }));
+    }
+
+    /** El póster reducido (o el placeholder si no se pudo cargar). Nunca falla. */
+    public static CompletableFuture<Image> obtener(String url, double ancho, double alto) {
+        if (url == null || url.isBlank()) {
+            return CompletableFuture.completedFuture(sinImagen());
+        }
+        String clave = clave(url, ancho, alto);
+        Image enMemoria = deMemoria(clave);
+        if (enMemoria != null) {
+            return CompletableFuture.completedFuture(enMemoria);
+        }
+
+        CompletableFuture<Image> nuevo = new CompletableFuture<>();
+        CompletableFuture<Image> existente = enCurso.putIfAbsent(clave, nuevo);
+        if (existente != null) {
+            return existente;
+        }
+        ejecutor().execute(() -> {
+            try {
+                nuevo.complete(cargar(url, ancho, alto, clave));
+            } catch (Exception e) {
+                log.warn("No se pudo cargar el póster {}: {}", url, e.getMessage());
+                nuevo.complete(sinImagen());
+            } finally {
+                enCurso.remove(clave, nuevo);
+            }
+        });
+        return nuevo;
+    }
+
+    /** Placeholder compartido (/img/no_image.png). */
+    public static Image sinImagen() {
+        Image img = sinImagen;
+        if (img == null) {
+            synchronized (PosterCache.class) {
+                if (sinImagen == null) {
+                    sinImagen = new Image(PosterCache.class.getResource(SIN_IMAGEN).toExternalForm());
+                }
+                img = sinImagen;
+            }
+        }
+        return img;
+    }
+
+    /** Vacía la caché en memoria (la de disco se conserva). */
+    public static synchronized void limpiar() {
+        memoria.clear();
+        bytesEnMemoria = 0;
+    }
+
+    /** Detiene los hilos de carga (al cerrar la aplicación). */
+    public static synchronized void detener() {
+        if (ejecutor != null) {
+            ejecutor.shutdownNow();
+            ejecutor = null;
+        }
+    }
+
+    // ===== Helpers =====
+
+    /** En segundo plano: disco si ya está reducido; si no, descarga reduciendo al decodificar. */
+    private static Image cargar(String url, double ancho, double alto, String clave) {
+        Path archivo = archivoEnDisco(clave);
+
+        Image img = null;
+        if (archivo != null && Files.isRegularFile(archivo)) {
+            img = new Image(archivo.toUri().toString(), false);
+            if (img.isError()) {
+                log.debug("Póster en disco ilegible, se vuelve a descargar: {}", archivo);
+                img = null;
+            }
+        }
+
+        if (img == null) {
+            img = new Image(url, ancho, alto, true, true, false);
+            if (img.isError()) {
+                log.warn("No se pudo cargar el póster {}: {}", url,
+                        img.getException() != null ? img.getException().getMessage() : "imagen inválida");
+                return sinImagen();
+            }
+            if (archivo != null) {
+                guardarEnDisco(img, archivo);
+            }
+        }
+
+        guardarEnMemoria(clave, img);
+        return img;
+    }
+
+    private static synchronized Image deMemoria(String clave) {
+        return memoria.get(clave);
+    }
+
+    private static synchronized void guardarEnMemoria(String clave, Image img) {
+        long maxBytes = Math.max(1, ConfiguracionApp.getCachePostersMemoriaMb()) * 1024L * 1024L;
+        Image anterior = memoria.put(clave, img);
+        if (anterior != null) bytesEnMemoria -= bytes(anterior);
+        bytesEnMemoria += bytes(img);
+
+        Iterator<Image> it = memoria.values().iterator();
+        while (bytesEnMemoria > maxBytes && memoria.size() > 1 && it.hasNext()) {
+            bytesEnMemoria -= bytes(it.next());
+            it.remove();
+        }
+    }
+
+    private static long bytes(Image img) {
+        return (long) img.getWidth() * (long) img.getHeight() * 4L;
+    }
+
+    private static void guardarEnDisco(Image img, Path archivo) {
+        int w = (int) img.getWidth();
+        int h = (int) img.getHeight();
+        PixelReader lector = img.getPixelReader();
+        if (lector == null || w <= 0 || h <= 0) return;
+
+        int[] argb = new int[w * h];
+        lector.getPixels(0, 0, w, h, PixelFormat.getIntArgbInstance(), argb, 0, w);
+        BufferedImage copia = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        copia.setRGB(0, 0, w, h, argb, 0, w);
+
+        Path tmp = null;
+        try {
+            // Se escribe aparte y se mueve, para no dejar archivos a medias si se cierra la app
+            tmp = Files.createTempFile(archivo.getParent(), "poster", ".tmp");
+            ImageIO.write(copia, "png", tmp.toFile());
+            Files.move(tmp, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("No se pudo guardar el póster en disco {}: {}", archivo, e.getMessage());
+            try {
+                if (tmp != null) Files.deleteIfExists(tmp);
+            } catch (IOException ignored) {
+                // se limpia en el próximo intento
+            }
+        }
+    }
+
+    private static synchronized Path archivoEnDisco(String clave) {
+        if (!directorioListo) {
+            directorioListo = true;
+            String dir = ConfiguracionApp.getCachePostersDir();
+            if (dir != null && !dir.isBlank()) {
+                try {
+                    directorio = Files.createDirectories(Paths.get(dir));
+                } catch (IOException e) {
+                    log.warn("Caché de pósters en disco deshabilitada ({}): {}", dir, e.getMessage());
+                }
+            }
+        }
+        return directorio == null ? null : directorio.resolve(sha256(clave) + ".png");
+    }
+
+    private static String clave(String url, double ancho, double alto) {
+        return url + "@" + (int) Math.round(ancho) + "x" + (int) Math.round(alto);
+    }
+
+    private static String sha256(String texto) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(texto.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private static synchronized ExecutorService ejecutor() {
+        if (ejecutor == null) {
+            AtomicInteger n = new AtomicInteger();
+            ejecutor = Executors.newFixedThreadPool(HILOS, r -> {
+                Thread t = new Thread(r, "posters-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return ejecutor;
+    }
+}
@@ -1,9 +1,11 @@
 package com.cineticket.controlador;
 
 import com.cineticket.excepcion.AutenticacionException;
+import com.cineticket.excepcion.ServicioOcupadoException;
 import com.cineticket.excepcion.ValidacionException;
 import com.cineticket.servicio.AuthService;
 import com.cineticket.util.AppContext;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.Node;
@@ -11,6 +13,8 @@ import javafx.scene.control.*;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.StackPane;
 
+import java.util.concurrent.CompletionException;
+
 public class RegistroController {
 
     // Fondo responsive (como en Login)
@@ -52,23 +56,30 @@ public class RegistroController {
         String correo = txtCorreo.getText();
         String user = txtUsuario.getText();
         String pass = txtContrasena.getText();
-
-        try {
-            // Registrar usuario
-            authService.registrarUsuario(nombre, correo, user, pass);
-
-            // Login automático (manteniendo tu comportamiento original)
-            authService.iniciarSesion(user, pass);
-
-            UiRouter.go((Node) e.getSource(), "/fxml/cartelera.fxml");
-
-        } catch (ValidacionException | AutenticacionException ex) {
-            mostrarMensaje(ex.getMessage());
-
-        } catch (Exception ex) {
-            mostrarMensaje("Ocurrió un error al registrarte.");
-            ex.printStackTrace();
-        }
+        Node origen = (Node) e.getSource();
+
+        // Registrar usuario y login automático (manteniendo tu comportamiento original),
+        // ambos en el pool de BCrypt
+        origen.setDisable(true);
+        authService.registrarUsuarioAsync(nombre, correo, user, pass)
+                .thenCompose(nuevo -> authService.iniciarSesionAsync(user, pass))
+                .whenComplete((u, error) -> Platform.runLater(() -> {
+                    origen.setDisable(false);
+
+                    if (error == null) {
+                        UiRouter.go(origen, "/fxml/cartelera.fxml");
+                        return;
+                    }
+                    Throwable ex = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    if (ex instanceof ValidacionException || ex instanceof AutenticacionException
+                            || ex instanceof ServicioOcupadoException) {
+                        mostrarMensaje(ex.getMessage());
+                    } else {
+                        mostrarMensaje("Ocurrió un error al registrarte.");
+                        ex.printStackTrace();
+                    }
+                }));
     }
 
     @FXML
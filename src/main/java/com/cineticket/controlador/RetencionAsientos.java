@@ -0,0 +1,29 @@
+package com.cineticket.controlador;
+
+import com.cineticket.modelo.Usuario;
+import com.cineticket.util.AppContext;
+import com.cineticket.util.SessionManager;
+import javafx.scene.Node;
+
+/**
+ * Suelta las retenciones de asientos cuando el usuario abandona la compra (sale de la selección
+ * sin continuar, cancela el pago o cierra sesión), para que otros clientes no esperen al TTL.
+ * Corre en segundo plano y no se cancela al navegar; si falla, la retención vence sola.
+ */
+final class RetencionAsientos {
+
+    private RetencionAsientos() {
+    }
+
+    static void soltar(Node origen, Integer funcionId) {
+        Usuario usuario = SessionManager.getInstance().getUsuarioActual();
+        if (funcionId == null || usuario == null) return;
+        Integer usuarioId = usuario.getIdUsuario();
+        CargaAsincrona.de(origen, () -> {
+                    AppContext.getReservaService().liberarRetenciones(funcionId, usuarioId);
+                    return null;
+                })
+                .noCancelable()
+                .iniciar();
+    }
+}
@@ -1,14 +1,19 @@
 package com.cineticket.controlador;
 
 import com.cineticket.dao.AsientoDAO;
+import com.cineticket.excepcion.AsientoNoDisponibleException;
 import com.cineticket.modelo.Asiento;
 import com.cineticket.modelo.Funcion;
 import com.cineticket.modelo.Pelicula;
 import com.cineticket.servicio.CarteleraService;
+import com.cineticket.servicio.OcupacionEnVivo;
 import com.cineticket.servicio.ReservaService;
+import com.cineticket.servicio.dto.DeltaOcupacion;
 import com.cineticket.util.AppContext;
 import com.cineticket.util.SeleccionFuncionContext;
 import com.cineticket.util.SelectedData;
+import com.cineticket.util.SessionManager;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.geometry.HPos;
@@ -23,7 +28,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
-public class SeleccionAsientosController {
+public class SeleccionAsientosController implements CicloDeVista {
 
     @FXML private GridPane gridAsientos;
     @FXML private Label lblPelicula;
@@ -44,22 +49,112 @@ public class SeleccionAsientosController {
     private final Set<Integer> asientosOcupados = new HashSet<>();
     private final Map<Integer, Button> botonesPorAsiento = new HashMap<>();
 
+    /**
+     * Cambios de ocupación en vivo (ventas de otras terminales/usuarios). Se toma en segundo plano.
+     * La vista se reutiliza entre visitas: cada una tiene su número y lo que llegue de una anterior
+     * se descarta. Protegidos por el monitor del controlador.
+     */
+    private OcupacionEnVivo.Suscripcion suscripcion;
+    private int visita;
+    private boolean cerrado = true;
+    /** Función de esta visita y si se sale hacia confitería con los asientos retenidos. */
+    private Integer funcionVisita;
+    private boolean continuando;
+
+    /** Cambios que llegaron antes de pintar el mapa; se aplican al terminar de pintarlo. */
+    private final List<DeltaOcupacion> deltasPendientes = new ArrayList<>();
+    private boolean mapaListo;
+
     private final DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
     @FXML
     public void initialize() {
-        Integer funcionId = SeleccionFuncionContext.getFuncionActualId();
+        // Los datos dependen de la función elegida: se cargan en alMostrar()
+    }
 
+    @Override
+    public void alMostrar() {
+        int estaVisita;
+        synchronized (this) {
+            estaVisita = ++visita;
+            cerrado = false;
+        }
+        limpiar();
+
+        Integer funcionId = SeleccionFuncionContext.getFuncionActualId();
+        funcionVisita = funcionId;
+        continuando = false;
         if (funcionId == null) {
             mostrarError("No hay función seleccionada.");
             UiRouter.go(gridAsientos, "/fxml/cartelera.fxml");
             return;
         }
 
-        // Cargamos función y película desde el servicio
-        funcionSeleccionada = carteleraService.obtenerFuncionPorId(funcionId);
-        peliculaSeleccionada =
-                carteleraService.obtenerDetallesPelicula(funcionSeleccionada.getPeliculaId());
+        CargaAsincrona.de(gridAsientos, () -> cargarDatos(funcionId, estaVisita))
+                .enContenedor(gridAsientos)
+                .mensajeError("No se pudo cargar el mapa de asientos.")
+                .alTerminar(this::mostrarDatos)
+                .iniciar();
+    }
+
+    /**
+     * Suelta la suscripción de ocupación al salir de la pantalla y, si no se sigue a confitería,
+     * las retenciones de asientos del usuario en la función.
+     */
+    @Override
+    public void alOcultar() {
+        synchronized (this) {
+            cerrado = true;
+            if (suscripcion != null) {
+                suscripcion.cancelar();
+                suscripcion = null;
+            }
+        }
+        if (!continuando) RetencionAsientos.soltar(gridAsientos, funcionVisita);
+    }
+
+    /** Estado de la visita anterior (la vista se reutiliza). */
+    private void limpiar() {
+        funcionSeleccionada = null;
+        peliculaSeleccionada = null;
+        asientosSeleccionados.clear();
+        asientosOcupados.clear();
+        botonesPorAsiento.clear();
+        deltasPendientes.clear();
+        mapaListo = false;
+        gridAsientos.getChildren().clear();
+        lblPelicula.setText("");
+        lblFuncion.setText("");
+        lblSala.setText("");
+        lblAsientosSeleccionados.setText("");
+        lblTotal.setText("");
+        if (btnContinuar != null) btnContinuar.setDisable(true);
+    }
+
+    /** En segundo plano: función, película, suscripción y ocupación. */
+    private DatosMapa cargarDatos(Integer funcionId, int estaVisita) {
+        Funcion funcion = carteleraService.obtenerFuncionPorId(funcionId);
+        Pelicula pelicula = carteleraService.obtenerDetallesPelicula(funcion.getPeliculaId());
+
+        // Antes de leer la ocupación, para no perder ventas que ocurran mientras tanto
+        OcupacionEnVivo.Suscripcion s = reservaService.suscribirOcupacion(funcionId,
+                delta -> Platform.runLater(() -> aplicarDelta(delta, estaVisita)));
+        synchronized (this) {
+            if (cerrado || visita != estaVisita) {
+                s.cancelar(); // se salió de la pantalla mientras cargaba
+            } else {
+                suscripcion = s;
+            }
+        }
+
+        List<Asiento> asientosSala = asientoDAO.listarPorSala(funcion.getSalaId());
+        List<Integer> ocupados = reservaService.obtenerAsientosOcupadosPorFuncion(funcionId);
+        return new DatosMapa(funcion, pelicula, asientosSala, ocupados);
+    }
+
+    private void mostrarDatos(DatosMapa datos) {
+        funcionSeleccionada = datos.funcion;
+        peliculaSeleccionada = datos.pelicula;
 
         // Guardamos en SelectedData para compatibilidad con pantallas siguientes
         SelectedData.setFuncion(funcionSeleccionada);
@@ -73,7 +168,11 @@ public class SeleccionAsientosController {
 
         lblSala.setText("Sala " + funcionSeleccionada.getSalaId());
 
-        cargarMapaAsientos();
+        pintarMapaAsientos(datos.asientosSala, datos.ocupados);
+
+        mapaListo = true;
+        deltasPendientes.forEach(this::aplicarCambios);
+        deltasPendientes.clear();
     }
 
     // === navegación sidebar / topbar ===
@@ -95,14 +194,10 @@ public class SeleccionAsientosController {
 
     // === lógica de asientos ===
 
-    private void cargarMapaAsientos() {
+    private void pintarMapaAsientos(List<Asiento> asientosSala, Collection<Integer> ocupados) {
         try {
-            List<Asiento> asientosSala = asientoDAO.listarPorSala(funcionSeleccionada.getSalaId());
-
             asientosOcupados.clear();
-            asientosOcupados.addAll(
-                    reservaService.obtenerAsientosOcupadosPorFuncion(funcionSeleccionada.getIdFuncion())
-            );
+            asientosOcupados.addAll(ocupados);
 
             gridAsientos.getChildren().clear();
             gridAsientos.getColumnConstraints().clear();
@@ -159,6 +254,44 @@ public class SeleccionAsientosController {
         }
     }
 
+    /** Aplica solo los asientos que cambiaron, sin reconstruir el GridPane. Hilo de JavaFX. */
+    private void aplicarDelta(DeltaOcupacion delta, int deVisita) {
+        synchronized (this) {
+            if (cerrado || visita != deVisita) return; // ya se salió de la pantalla
+        }
+        if (!mapaListo) {
+            deltasPendientes.add(delta);
+            return;
+        }
+        aplicarCambios(delta);
+    }
+
+    private void aplicarCambios(DeltaOcupacion delta) {
+        boolean perdidos = false;
+        for (Integer id : delta.getOcupados()) {
+            asientosOcupados.add(id);
+            perdidos |= asientosSeleccionados.remove(id);
+            Button b = botonesPorAsiento.get(id);
+            if (b != null) {
+                aplicarEstiloAsiento(b, "ocupado");
+                b.setDisable(true);
+            }
+        }
+        for (Integer id : delta.getLiberados()) {
+            asientosOcupados.remove(id);
+            Button b = botonesPorAsiento.get(id);
+            if (b != null) {
+                aplicarEstiloAsiento(b, "libre");
+                b.setDisable(false);
+            }
+        }
+        actualizarInterfaz();
+
+        if (perdidos) {
+            mostrarAdvertencia("Alguno de los asientos que elegiste acaba de venderse y se quitó de tu selección.");
+        }
+    }
+
     private void manejarSeleccionAsiento(Asiento asiento, Button boton) {
         Integer id = asiento.getIdAsiento();
         if (asientosOcupados.contains(id)) return;
@@ -181,17 +314,38 @@ public class SeleccionAsientosController {
     public void continuar(ActionEvent e) {
         if (!validarSeleccion()) return;
 
-        boolean disponibles = reservaService.verificarDisponibilidadAsientos(
-                funcionSeleccionada.getIdFuncion(), asientosSeleccionados
-        );
-        if (!disponibles) {
-            mostrarAdvertencia("Alguno de los asientos ya no está disponible. Se actualizará el mapa.");
-            cargarMapaAsientos();
-            return;
-        }
-
-        SelectedData.setAsientosSeleccionados(new ArrayList<>(asientosSeleccionados));
-        UiRouter.go((Node) e.getSource(), "/fxml/confiteria.fxml");
+        Node origen = (Node) e.getSource();
+        Integer funcionId = funcionSeleccionada.getIdFuncion();
+        Integer usuarioId = SessionManager.getInstance().getUsuarioActual().getIdUsuario();
+        List<Integer> seleccion = new ArrayList<>(asientosSeleccionados);
+
+        // Retiene los asientos hasta el pago; si otro usuario ya los vendió o retuvo, se avisa aquí
+        CargaAsincrona.de(origen, () -> {
+                    reservaService.retenerAsientos(funcionId, usuarioId, seleccion);
+                    return seleccion;
+                })
+                .bloqueando(btnContinuar, gridAsientos)
+                .noCancelable()
+                .alTerminar(retenidos -> {
+                    SelectedData.setAsientosSeleccionados(retenidos);
+                    continuando = true;
+                    UiRouter.go(origen, "/fxml/confiteria.fxml");
+                })
+                .alFallar(ex -> {
+                    if (!(ex instanceof AsientoNoDisponibleException)) {
+                        mostrarError("No se pudieron retener los asientos.\n" + ex.getMessage());
+                        return;
+                    }
+                    // Los vendidos llegan por la suscripción; aquí solo se descarta la selección
+                    mostrarAdvertencia("Alguno de los asientos ya no está disponible. Elige otros asientos.");
+                    for (Integer id : asientosSeleccionados) {
+                        Button b = botonesPorAsiento.get(id);
+                        if (b != null && !asientosOcupados.contains(id)) aplicarEstiloAsiento(b, "libre");
+                    }
+                    asientosSeleccionados.clear();
+                    actualizarInterfaz();
+                })
+                .iniciar();
     }
 
 
@@ -300,4 +454,19 @@ public class SeleccionAsientosController {
     private void mostrarAdvertencia(String msg) {
         new Alert(Alert.AlertType.WARNING, msg, ButtonType.OK).showAndWait();
     }
+
+    /** Lo que se carga en segundo plano para pintar el mapa. */
+    private static final class DatosMapa {
+        final Funcion funcion;
+        final Pelicula pelicula;
+        final List<Asiento> asientosSala;
+        final List<Integer> ocupados;
+
+        DatosMapa(Funcion funcion, Pelicula pelicula, List<Asiento> asientosSala, List<Integer> ocupados) {
+            this.funcion = funcion;
+            this.pelicula = pelicula;
+            this.asientosSala = asientosSala;
+            this.ocupados = ocupados;
+        }
+    }
 }
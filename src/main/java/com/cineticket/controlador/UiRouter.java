@@ -6,12 +6,40 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * Utilidad para cambiar entre escenas (FXML) dentro de la misma ventana.
  * Incluye manejo de errores detallado para detectar problemas de carga.
+ * Al navegar cancela las cargas en segundo plano (CargaAsincrona) de la pantalla que se deja.
+ *
+ * Caché de vistas:
+ * - Se reutiliza la Scene de la ventana y solo se cambia su raíz (no se vuelve a aplicar el CSS).
+ * - Las pantallas cuyo controlador implementa CicloDeVista se cargan una sola vez y se conservan;
+ *   al entrar se llama alMostrar() y al salir alOcultar(). Las demás se cargan en cada navegación.
+ * - precargar() parsea de antemano las pantallas indicadas en un hilo en segundo plano.
  */
 public class UiRouter {
 
+    /** fxmlPath -> vista conservada (o en precarga) */
+    private static final Map<String, CompletableFuture<Vista>> cache = new ConcurrentHashMap<>();
+
+    private static final ExecutorService precarga = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "precarga-vistas");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Vista que está en pantalla (solo se toca en el hilo de JavaFX). */
+    private static Vista actual;
+
     /**
      * Cambia la escena actual por la especificada.
      *
@@ -20,19 +48,121 @@ public class UiRouter {
      */
     public static void go(Node source, String fxmlPath) {
         try {
-            FXMLLoader loader = new FXMLLoader(UiRouter.class.getResource(fxmlPath));
-            if (loader.getLocation() == null) {
-                throw new IllegalStateException("FXML no encontrado: " + fxmlPath);
+            Scene escena = source.getScene();
+            Stage stage = (Stage) escena.getWindow();
+
+            CargaAsincrona.cancelarDe(escena.getRoot());
+            if (actual != null && actual.raiz == escena.getRoot()) {
+                actual.ocultar();
             }
 
-            Parent root = loader.load();
-            Stage stage = (Stage) source.getScene().getWindow();
-            stage.setScene(new Scene(root));
+            Vista vista = obtener(fxmlPath);
+            escena.setRoot(vista.raiz);
+            actual = vista;
             stage.centerOnScreen();
+            vista.mostrar();
 
         } catch (Exception e) {
             System.err.println("❌ Error al cargar FXML: " + fxmlPath);
             e.printStackTrace();
         }
     }
+
+    /**
+     * Parsea en segundo plano las pantallas indicadas para que la primera visita sea inmediata.
+     * El futuro termina cuando terminan todas (falla si alguna no se pudo cargar).
+     */
+    public static CompletableFuture<Void> precargar(String... fxmlPaths) {
+        List<CompletableFuture<Vista>> cargas = new ArrayList<>();
+        for (String ruta : fxmlPaths) {
+            CompletableFuture<Vista> carga = new CompletableFuture<>();
+            CompletableFuture<Vista> existente = cache.putIfAbsent(ruta, carga);
+            if (existente != null) {
+                cargas.add(existente);
+                continue;
+            }
+            // La limpieza se engancha fuera del mapa: si la carga ya terminó (un FXML que falta
+            // falla enseguida) corre en el acto, y remove dentro de computeIfAbsent no es válido
+            carga.whenComplete((v, ex) -> {
+                if (ex != null || !v.conservable()) {
+                    // No se puede (o no se debe) conservar: se cargará al navegar
+                    cache.remove(ruta, carga);
+                    if (ex != null) System.err.println("⚠️ No se pudo precargar " + ruta + ": " + ex.getMessage());
+                }
+            });
+            precarga.execute(() -> {
+                try {
+                    carga.complete(cargarOFallar(ruta));
+                } catch (Throwable e) {
+                    carga.completeExceptionally(e);
+                }
+            });
+            cargas.add(carga);
+        }
+        return CompletableFuture.allOf(cargas.toArray(new CompletableFuture[0]));
+    }
+
+    /** Descarta las vistas conservadas (se vuelven a cargar en la próxima visita). */
+    public static void limpiarCache() {
+        cache.clear();
+    }
+
+    // ===== Helpers =====
+
+    private static Vista obtener(String fxmlPath) throws IOException {
+        CompletableFuture<Vista> enCache = cache.get(fxmlPath);
+        if (enCache != null) {
+            try {
+                Vista v = enCache.join(); // si aún se está precargando, se espera a que termine
+                if (v.conservable()) return v;
+            } catch (RuntimeException ignored) {
+                // La precarga falló: se carga normalmente
+            }
+        }
+
+        Vista vista = cargar(fxmlPath);
+        if (vista.conservable()) {
+            cache.put(fxmlPath, CompletableFuture.completedFuture(vista));
+        }
+        return vista;
+    }
+
+    private static Vista cargar(String fxmlPath) throws IOException {
+        FXMLLoader loader = new FXMLLoader(UiRouter.class.getResource(fxmlPath));
+        if (loader.getLocation() == null) {
+            throw new IllegalStateException("FXML no encontrado: " + fxmlPath);
+        }
+        Parent root = loader.load();
+        return new Vista(root, loader.getController());
+    }
+
+    private static Vista cargarOFallar(String fxmlPath) {
+        try {
+            return cargar(fxmlPath);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo cargar " + fxmlPath, e);
+        }
+    }
+
+    private static final class Vista {
+        final Parent raiz;
+        final Object controlador;
+
+        Vista(Parent raiz, Object controlador) {
+            this.raiz = raiz;
+            this.controlador = controlador;
+        }
+
+        boolean conservable() {
+            return controlador instanceof CicloDeVista;
+        }
+
+        void mostrar() {
+            if (controlador instanceof CicloDeVista c) c.alMostrar();
+        }
+
+        void ocultar() {
+            if (controlador instanceof CicloDeVista c) c.alOcultar();
+        }
+    }
 }
@@ -6,8 +6,11 @@ import com.cineticket.modelo.Funcion;
 import com.cineticket.modelo.Genero;
 import com.cineticket.modelo.Pelicula;
 import com.cineticket.servicio.CarteleraService;
+import com.cineticket.servicio.dto.CarteleraSnapshot;
+import com.cineticket.servicio.dto.PeliculaCartelera;
 import com.cineticket.util.AppContext;
 import com.cineticket.util.SessionManager;
+import com.cineticket.controlador.CargaAsincrona;
 import com.cineticket.controlador.UiRouter;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
@@ -80,8 +83,11 @@ public class GestionCarteleraController {
     }
 
     private void inicializarGeneros() {
-        List<Genero> generos = carteleraService.obtenerGenerosActivos();
-        cmbGenero.setItems(FXCollections.observableArrayList(generos));
+        CargaAsincrona.de(cmbGenero, carteleraService::obtenerGenerosActivos)
+                .bloqueando(cmbGenero)
+                .mensajeError("No se pudieron cargar los géneros.")
+                .alTerminar(generos -> cmbGenero.setItems(FXCollections.observableArrayList(generos)))
+                .iniciar();
 
         cmbGenero.setCellFactory(cb -> new ListCell<>() {
             @Override
@@ -136,13 +142,24 @@ public class GestionCarteleraController {
 
     private void cargarFunciones() {
         funcionesData.clear();
+        lblSinFunciones.setVisible(false);
+
+        CargaAsincrona.de(lblSinFunciones, () -> carteleraService.obtenerFuncionesAgrupadasPorPelicula(null, null))
+                .enTabla(tablaFunciones)
+                .alTerminar(this::mostrarFunciones)
+                .alFallar(ex -> {
+                    mostrarError("No se pudieron cargar las funciones.\n" + ex.getMessage());
+                    lblSinFunciones.setVisible(true);
+                })
+                .iniciar();
+    }
 
+    private void mostrarFunciones(CarteleraSnapshot cartelera) {
+        funcionesData.clear();
         try {
-            List<Pelicula> peliculas = carteleraService.obtenerCarteleraCompleta();
-
-            for (Pelicula p : peliculas) {
-                List<Funcion> funciones = carteleraService.obtenerFuncionesPorPelicula(p.getIdPelicula());
-                for (Funcion f : funciones) {
+            for (PeliculaCartelera pc : cartelera.getPeliculas()) {
+                Pelicula p = pc.getPelicula();
+                for (Funcion f : pc.getFunciones()) {
                     String fecha = f.getFechaHoraInicio().toLocalDate().format(fechaFmt);
                     String hora  = f.getFechaHoraInicio().toLocalTime().format(horaFmt);
                     String sala  = "Sala " + f.getSalaId();
@@ -1,5 +1,6 @@
 package com.cineticket.controlador.admin;
 
+import com.cineticket.controlador.CargaAsincrona;
 import com.cineticket.excepcion.ValidacionException;
 import com.cineticket.modelo.Funcion;
 import com.cineticket.modelo.Pelicula;
@@ -39,8 +40,11 @@ public class NuevaFuncionController {
     }
 
     private void inicializarPeliculas() {
-        List<Pelicula> peliculas = carteleraService.obtenerCarteleraCompleta();
-        cmbPelicula.setItems(FXCollections.observableArrayList(peliculas));
+        CargaAsincrona.de(cmbPelicula, carteleraService::obtenerCarteleraCompleta)
+                .bloqueando(cmbPelicula, btnGuardar)
+                .mensajeError("No se pudieron cargar las películas.")
+                .alTerminar(peliculas -> cmbPelicula.setItems(FXCollections.observableArrayList(peliculas)))
+                .iniciar();
 
         cmbPelicula.setCellFactory(cb -> new ListCell<>() {
             @Override
@@ -4,6 +4,7 @@ import com.cineticket.excepcion.ValidacionException;
 import com.cineticket.servicio.ReporteService;
 import com.cineticket.util.AppContext;
 import com.cineticket.util.SessionManager;
+import com.cineticket.controlador.CargaAsincrona;
 import com.cineticket.controlador.UiRouter;
 import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
@@ -95,7 +96,16 @@ public class ReportesVentasController {
                 fin = tmp;
             }
 
-            actualizarReportes(inicio, fin);
+            LocalDate desde = inicio;
+            LocalDate hasta = fin;
+            Node boton = e != null && e.getSource() instanceof Node n ? n : null;
+            CargaAsincrona.de(dpInicio, () -> new DatosReporte(
+                            reporteService.generarSerieVentasDiaria(desde, hasta),
+                            reporteService.obtenerTopPeliculas(5, desde, hasta)))
+                    .bloqueando(dpInicio, dpFin, boton)
+                    .mensajeError("No se pudieron generar los reportes.")
+                    .alTerminar(d -> actualizarReportes(desde, hasta, d))
+                    .iniciar();
 
         } catch (Exception ex) {
             log.error("Error al aplicar filtros de reporte", ex);
@@ -103,7 +113,7 @@ public class ReportesVentasController {
         }
     }
 
-    private void actualizarReportes(LocalDate inicio, LocalDate fin) {
+    private void actualizarReportes(LocalDate inicio, LocalDate fin, DatosReporte datos) {
         // ===== Agregados generales =====
         BigDecimal totalIngresos = BigDecimal.ZERO;
         BigDecimal totalIngresosEntradas = BigDecimal.ZERO;
@@ -113,9 +123,9 @@ public class ReportesVentasController {
         XYChart.Series<String, Number> serieIngresos = new XYChart.Series<>();
         XYChart.Series<String, Number> serieEntradas = new XYChart.Series<>();
 
-        LocalDate fecha = inicio;
-        while (!fecha.isAfter(fin)) {
-            Map<String, Object> repDia = reporteService.generarReporteVentasPorDia(fecha);
+        // Una sola consulta para todo el rango (un elemento por día, incluidos los días sin ventas)
+        for (Map<String, Object> repDia : datos.serieDiaria) {
+            LocalDate fecha = (LocalDate) repDia.get("fecha");
 
             int entradasDia = (Integer) repDia.get("totalEntradas");
             int combosDia   = (Integer) repDia.get("totalCombos");
@@ -130,8 +140,6 @@ public class ReportesVentasController {
             String etiqueta = fechaEjeFmt.format(fecha);
             serieIngresos.getData().add(new XYChart.Data<>(etiqueta, ingresosDia.doubleValue()));
             serieEntradas.getData().add(new XYChart.Data<>(etiqueta, entradasDia));
-
-            fecha = fecha.plusDays(1);
         }
 
         // ===== KPIs =====
@@ -157,7 +165,7 @@ public class ReportesVentasController {
         chartEntradasPorDia.getData().setAll(serieEntradas);
 
         // ===== Top películas =====
-        var top = reporteService.obtenerTopPeliculas(5, inicio, fin);
+        var top = datos.topPeliculas;
         var pieData = FXCollections.<PieChart.Data>observableArrayList();
         for (Map<String, Object> row : top) {
             String titulo = (String) row.get("titulo");
@@ -196,4 +204,15 @@ public class ReportesVentasController {
         a.setContentText(msg);
         a.showAndWait();
     }
+
+    /** Consultas del rango, hechas en segundo plano. */
+    private static final class DatosReporte {
+        final List<Map<String, Object>> serieDiaria;
+        final List<Map<String, Object>> topPeliculas;
+
+        DatosReporte(List<Map<String, Object>> serieDiaria, List<Map<String, Object>> topPeliculas) {
+            this.serieDiaria = serieDiaria;
+            this.topPeliculas = topPeliculas;
+        }
+    }
 }
@@ -2,7 +2,9 @@ package com.cineticket.dao;
 
 import com.cineticket.modelo.ComboConfiteria;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface ComboConfiteriaDAO {
 
@@ -10,6 +12,9 @@ public interface ComboConfiteriaDAO {
 
     ComboConfiteria buscarPorId(Integer id);
 
+    /** Varios combos en una sola consulta (id -> combo; los inexistentes se omiten) */
+    Map<Integer, ComboConfiteria> buscarPorIds(Collection<Integer> ids);
+
     List<ComboConfiteria> listarTodos();
 
     List<ComboConfiteria> listarDisponibles();
@@ -3,6 +3,7 @@ package com.cineticket.dao;
 import com.cineticket.modelo.CompraConfiteria;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -10,10 +11,16 @@ public interface CompraConfiteriaDAO {
 
     Integer crear(CompraConfiteria item);
 
+    /** Inserta varios ítems en un solo batch JDBC y asigna los IDs generados a cada uno. */
+    List<Integer> crearLote(List<CompraConfiteria> items);
+
     CompraConfiteria buscarPorId(Integer id);
 
     List<CompraConfiteria> listarPorCompra(Integer compraId);
 
+    /** compraId -> ítems de esa compra, para varias compras en una sola consulta */
+    Map<Integer, List<CompraConfiteria>> listarPorCompras(Collection<Integer> compraIds);
+
     /** Reporte: comboId -> cantidad total vendida en el rango [inicio, fin] (por fecha de la compra) */
     Map<Integer, Integer> obtenerVentasPorCombo(LocalDateTime inicio, LocalDateTime fin);
 }
@@ -3,7 +3,9 @@ package com.cineticket.dao;
 import com.cineticket.modelo.Compra;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface CompraDAO {
 
@@ -11,13 +13,36 @@ public interface CompraDAO {
 
     Compra buscarPorId(Integer id);
 
+    /** Varias compras en una sola consulta, ordenadas por id (las inexistentes se omiten) */
+    List<Compra> buscarPorIds(Collection<Integer> ids);
+
     List<Compra> listarPorUsuario(Integer usuarioId);
 
+    /**
+     * Página del historial de un usuario (keyset): las compras anteriores a (antesDeFecha, antesDeId)
+     * en orden fecha_hora_compra DESC, id_compra DESC. Con antesDeFecha null devuelve la primera página.
+     */
+    List<Compra> listarPorUsuarioPagina(Integer usuarioId, LocalDateTime antesDeFecha, Integer antesDeId, int limite);
+
     boolean actualizar(Compra compra);
 
-    /** Marca la compra como CANCELADA y setea fecha_cancelacion = now() */
-    boolean cancelarCompra(Integer idCompra);
+    /** Solo ruta_comprobante_pdf (no pisa estado/cancelación escritos en paralelo) */
+    boolean actualizarRutaComprobante(Integer idCompra, String ruta);
+
+    /**
+     * CONFIRMADA -> CANCELADA con esa fecha_cancelacion, sin tocar el resto de la fila.
+     * Retorna false si la compra ya no estaba CONFIRMADA (p. ej. la canceló otra terminal).
+     */
+    boolean cancelarCompra(Integer idCompra, LocalDateTime fechaCancelacion);
 
     /** Compras cuyo timestamp está entre [inicio, fin] (para reportes) */
     List<Compra> obtenerComprasEntreFechas(LocalDateTime inicio, LocalDateTime fin);
+
+    /**
+     * Lo mismo que obtenerComprasEntreFechas, pero fila a fila con un cursor (rangos grandes
+     * sin cargar todas las compras en memoria). Cerrar el Stream: tiene la conexión tomada.
+     */
+    default Stream<Compra> recorrerComprasEntreFechas(LocalDateTime inicio, LocalDateTime fin) {
+        return obtenerComprasEntreFechas(inicio, fin).stream();
+    }
 }
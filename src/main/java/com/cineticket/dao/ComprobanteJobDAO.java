@@ -0,0 +1,31 @@
+package com.cineticket.dao;
+
+import com.cineticket.modelo.ComprobanteJob;
+
+import java.util.List;
+
+/**
+ * Cola persistente de generación de comprobantes (tabla comprobante_job, ver 06_comprobante_jobs.sql).
+ * Cada compra tiene a lo sumo un job; el estado sobrevive a reinicios de la aplicación.
+ */
+public interface ComprobanteJobDAO {
+
+    /** Crea el job PENDIENTE, o lo reactiva (intentos=0) si ya existía y no está EN_PROCESO. */
+    void encolar(Integer compraId);
+
+    ComprobanteJob buscarPorCompra(Integer compraId);
+
+    /**
+     * Reclama el job para procesarlo (EN_PROCESO, intentos+1). Solo lo consigue si está pendiente/fallido
+     * con intentos < maxIntentos, o si quedó EN_PROCESO más de bloqueoSegundos (proceso caído).
+     */
+    boolean tomar(Integer compraId, int maxIntentos, int bloqueoSegundos);
+
+    void marcarCompletado(Integer compraId);
+
+    /** FALLIDO con el mensaje de error; no se reintenta antes de esperaSegundos. */
+    void marcarFallido(Integer compraId, String error, int esperaSegundos);
+
+    /** compra_id de los jobs listos para (re)procesar, más antiguos primero. */
+    List<Integer> listarPendientes(int maxIntentos, int bloqueoSegundos, int limite);
+}
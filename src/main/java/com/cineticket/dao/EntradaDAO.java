@@ -2,18 +2,36 @@ package com.cineticket.dao;
 
 import com.cineticket.modelo.Entrada;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface EntradaDAO {
 
     Integer crear(Entrada entrada);
 
+    /** Inserta varias entradas en un solo batch JDBC y asigna los IDs generados a cada una. */
+    List<Integer> crearLote(List<Entrada> entradas);
+
     Entrada buscarPorId(Integer id);
 
     List<Entrada> listarPorCompra(Integer compraId);
 
+    /** compraId -> entradas de esa compra, para varias compras en una sola consulta */
+    Map<Integer, List<Entrada>> listarPorCompras(Collection<Integer> compraIds);
+
     List<Entrada> listarPorFuncion(Integer funcionId);
 
+    /** listarPorFuncion fila a fila con un cursor. Cerrar el Stream: tiene la conexión tomada. */
+    default Stream<Entrada> recorrerPorFuncion(Integer funcionId) {
+        return listarPorFuncion(funcionId).stream();
+    }
+
+    /** Proyección: solo los asiento_id con entrada ACTIVA en la función. */
+    List<Integer> listarAsientosOcupados(Integer funcionId);
+
     boolean actualizar(Entrada entrada);
 
     /** Marca todas las entradas de una compra como CANCELADA */
@@ -24,4 +42,7 @@ public interface EntradaDAO {
 
     /** true si NO existe una entrada ACTIVA para ese (funcion, asiento) */
     boolean verificarAsientoDisponible(Integer funcionId, Integer asientoId);
+
+    /** Subconjunto de asientoIds que ya tienen una entrada ACTIVA en la función (una sola consulta) */
+    Set<Integer> buscarAsientosOcupados(Integer funcionId, Collection<Integer> asientoIds);
 }
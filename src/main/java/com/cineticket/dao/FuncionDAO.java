@@ -4,7 +4,9 @@ import com.cineticket.modelo.Funcion;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface FuncionDAO {
 
@@ -12,12 +14,23 @@ public interface FuncionDAO {
 
     Funcion buscarPorId(Integer id);
 
+    /** id -> función, para varias funciones en una sola consulta */
+    Map<Integer, Funcion> buscarPorIds(Collection<Integer> ids);
+
     List<Funcion> listarPorPelicula(Integer peliculaId);
 
     List<Funcion> listarPorSala(Integer salaId);
 
     List<Funcion> listarPorFecha(LocalDate fecha);
 
+    /**
+     * Funciones de varias películas en una sola consulta, agrupadas por pelicula_id y ordenadas
+     * por fecha_hora_inicio. desde/hasta (sobre fecha_hora_inicio) son opcionales: null = sin límite.
+     */
+    Map<Integer, List<Funcion>> listarPorPeliculas(Collection<Integer> peliculaIds,
+                                                   LocalDateTime desde,
+                                                   LocalDateTime hasta);
+
     boolean actualizar(Funcion funcion);
 
     /** Soft delete: marca estado = CANCELADA */
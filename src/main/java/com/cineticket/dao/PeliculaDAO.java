@@ -3,7 +3,10 @@ package com.cineticket.dao;
 import com.cineticket.modelo.Genero;
 import com.cineticket.modelo.Pelicula;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public interface PeliculaDAO {
 
@@ -12,13 +15,20 @@ public interface PeliculaDAO {
     Pelicula buscarPorId(Integer id);                 // null si no existe (según tu doc)
     List<Pelicula> listarTodas();                     // ORDER BY titulo
     List<Pelicula> listarActivas();                   // activa=TRUE ORDER BY fecha_estreno DESC
+    Map<Integer, String> obtenerTitulos(Collection<Integer> ids); // id -> titulo, una sola consulta
     boolean actualizar(Pelicula pelicula);
     boolean eliminar(Integer id);                     // soft-delete (activa=false) o DELETE, ver impl
 
     // Búsquedas
     List<Pelicula> buscarPorTitulo(String titulo);    // ILIKE %titulo%
 
+    // Recorrido con cursor (cerrar el Stream: tiene la conexión tomada)
+    default Stream<Pelicula> recorrerTodas() {        // mismo orden que listarTodas
+        return listarTodas().stream();
+    }
+
     // Relación N:M con géneros
     boolean asignarGeneros(Integer peliculaId, List<Integer> generoIds);
     List<Genero> obtenerGenerosDePelicula(Integer peliculaId);
+    Map<Integer, List<Genero>> obtenerGenerosPorPeliculas(Collection<Integer> peliculaIds); // una sola consulta
 }
@@ -0,0 +1,36 @@
+package com.cineticket.dao;
+
+import com.cineticket.modelo.ResumenVentas;
+import com.cineticket.modelo.VentasPelicula;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consultas agregadas para reportes administrativos.
+ * Cada método resuelve su reporte en una sola consulta sobre las tablas rollup_* (04_rollups.sql),
+ * por lo que solo cuentan compras CONFIRMADAS. Las fechas se toman de la compra.
+ */
+public interface ReporteDAO {
+
+    /** Ventas en [inicio, fin] agrupadas por hora del día (0-23). Solo incluye horas con compras. */
+    Map<Integer, ResumenVentas> obtenerVentasPorHora(LocalDateTime inicio, LocalDateTime fin);
+
+    /** Ventas en [inicio, fin] agrupadas por día calendario. Solo incluye días con compras, en orden. */
+    Map<LocalDate, ResumenVentas> obtenerVentasPorDia(LocalDateTime inicio, LocalDateTime fin);
+
+    /** Entradas vendidas de una película en [inicio, fin] (por fecha de la compra). Null si la película no existe. */
+    VentasPelicula obtenerVentasPelicula(Integer peliculaId, LocalDateTime inicio, LocalDateTime fin);
+
+    /** Top de películas por entradas vendidas en [inicio, fin], orden descendente. */
+    List<VentasPelicula> obtenerTopPeliculas(int limite, LocalDateTime inicio, LocalDateTime fin);
+
+    /** Reporte: comboId -> cantidad total vendida en el rango [inicio, fin] (por día de la compra). */
+    Map<Integer, Integer> obtenerVentasPorCombo(LocalDateTime inicio, LocalDateTime fin);
+
+    /** Suma de total_general de las compras en [inicio, fin]. */
+    BigDecimal calcularIngresosTotales(LocalDateTime inicio, LocalDateTime fin);
+}
@@ -0,0 +1,17 @@
+package com.cineticket.dao;
+
+/**
+ * Mantenimiento de las tablas de agregados (rollup_*) definidas en 04_rollups.sql.
+ * Los métodos incrementales deben llamarse dentro de la transacción de la compra.
+ */
+public interface RollupDAO {
+
+    /** Suma una compra recién confirmada (con sus entradas y confitería ya insertadas). */
+    void aplicarCompra(Integer compraId);
+
+    /** Resta una compra que se está cancelando. */
+    void revertirCompra(Integer compraId);
+
+    /** Vacía y recalcula todos los rollups desde las tablas de compras. */
+    void reconstruir();
+}
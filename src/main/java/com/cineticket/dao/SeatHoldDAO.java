@@ -0,0 +1,27 @@
+package com.cineticket.dao;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Retenciones temporales de asientos (tabla seat_hold, ver 05_seat_holds.sql).
+ * Los vencimientos se calculan con el reloj de la BD para que varias instancias coincidan.
+ */
+public interface SeatHoldDAO {
+
+    /**
+     * Retiene (o renueva) los asientos para el usuario durante ttlSegundos.
+     * Solo toma los asientos libres, vencidos o ya retenidos por el mismo usuario.
+     * Retorna los asientos efectivamente retenidos.
+     */
+    Set<Integer> adquirir(Integer funcionId, Integer usuarioId, Collection<Integer> asientoIds, int ttlSegundos);
+
+    /** Asientos de la lista con retención vigente de OTRO usuario (usuarioId null = cualquiera). */
+    Set<Integer> buscarRetenidosPorOtros(Integer funcionId, Integer usuarioId, Collection<Integer> asientoIds);
+
+    /** Libera todas las retenciones del usuario en la función. Retorna cuántas se borraron. */
+    int liberar(Integer funcionId, Integer usuarioId);
+
+    /** Borra las retenciones vencidas. Retorna cuántas se borraron. */
+    int eliminarExpiradas();
+}
@@ -3,6 +3,7 @@ package com.cineticket.dao;
 import com.cineticket.modelo.Usuario;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * DAO para gestión de usuarios.
@@ -20,8 +21,19 @@ public interface UsuarioDAO {
 
     List<Usuario> listarTodos();
 
+    /** listarTodos fila a fila con un cursor. Cerrar el Stream: tiene la conexión tomada. */
+    default Stream<Usuario> recorrerTodos() {
+        return listarTodos().stream();
+    }
+
     void actualizar(Usuario usuario);
 
+    /**
+     * Cambia solo contrasena_hash, y solo si todavía es hashAnterior (nadie la cambió entretanto).
+     * Retorna true si se actualizó la fila.
+     */
+    boolean actualizarContrasenaHash(int idUsuario, String hashAnterior, String hashNuevo);
+
     boolean existeNombreUsuario(String nombreUsuario);
 
     boolean existeCorreo(String correo);
@@ -0,0 +1,28 @@
+package com.cineticket.dao.common;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Convierte filas de un ResultSet en objetos.
+ * preparar() se llama una sola vez por ResultSet: ahí se resuelven los índices de las columnas
+ * (rs.findColumn) y la Fila que retorna lee cada fila por índice, sin buscar nombres fila a fila.
+ *
+ * Ejemplo:
+ *   RowMapper<Genero> MAPEADOR = rs -> {
+ *       int id = rs.findColumn("id_genero");
+ *       int nombre = rs.findColumn("nombre_genero");
+ *       return r -> new Genero(r.getInt(id), r.getString(nombre));
+ *   };
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    Fila<T> preparar(ResultSet rs) throws SQLException;
+
+    /** Mapeo de la fila actual, con los índices ya resueltos. */
+    @FunctionalInterface
+    interface Fila<T> {
+        T mapear(ResultSet rs) throws SQLException;
+    }
+}
@@ -0,0 +1,18 @@
+package com.cineticket.dao.common;
+
+import java.util.function.Supplier;
+
+/**
+ * Unidad de trabajo: ejecuta un bloque dentro de una única transacción.
+ * Mientras el bloque corre, todos los DAO del mismo hilo comparten la conexión,
+ * de modo que el bloque completo se confirma (commit) o se revierte (rollback) junto.
+ */
+public interface TransactionManager {
+
+    /**
+     * Ejecuta el trabajo en una transacción y retorna su resultado.
+     * Si el trabajo lanza una excepción, se hace rollback y la excepción se propaga.
+     * Las llamadas anidadas se unen a la transacción en curso.
+     */
+    <T> T enTransaccion(Supplier<T> trabajo);
+}
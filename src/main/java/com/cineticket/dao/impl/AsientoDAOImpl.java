@@ -2,11 +2,11 @@ package com.cineticket.dao.impl;
 
 import com.cineticket.dao.AsientoDAO;
 import com.cineticket.dao.common.DaoException;
+import com.cineticket.dao.common.RowMapper;
 import com.cineticket.enums.TipoAsiento;
 import com.cineticket.modelo.Asiento;
 
 import java.sql.*;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -15,6 +15,8 @@ import java.util.List;
  */
 public class AsientoDAOImpl extends BaseDAO implements AsientoDAO {
 
+    private static final String COLUMNAS = "id_asiento, sala_id, fila, numero, tipo_asiento, activo";
+
     public AsientoDAOImpl() {
     }
 
@@ -58,32 +60,14 @@ public class AsientoDAOImpl extends BaseDAO implements AsientoDAO {
 
     @Override
     public Asiento buscarPorId(Integer id) {
-        String sql = "SELECT * FROM asiento WHERE id_asiento = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, id);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next() ? mapearAsiento(rs) : null;
-            }
-        } catch (SQLException e) {
-            throw new DaoException("Error al buscar asiento por ID", e);
-        }
+        String sql = "SELECT " + COLUMNAS + " FROM asiento WHERE id_asiento = ?";
+        return consultarUno(sql, ps -> ps.setInt(1, id), MAPEADOR, "Error al buscar asiento por ID");
     }
 
     @Override
     public List<Asiento> listarPorSala(Integer salaId) {
-        String sql = "SELECT * FROM asiento WHERE sala_id = ? ORDER BY fila, numero";
-        List<Asiento> lista = new ArrayList<>();
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, salaId);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) lista.add(mapearAsiento(rs));
-            }
-            return lista;
-        } catch (SQLException e) {
-            throw new DaoException("Error al listar asientos por sala", e);
-        }
+        String sql = "SELECT " + COLUMNAS + " FROM asiento WHERE sala_id = ? ORDER BY fila, numero";
+        return consultar(sql, ps -> ps.setInt(1, salaId), MAPEADOR, "Error al listar asientos por sala");
     }
 
     @Override
@@ -112,29 +96,31 @@ public class AsientoDAOImpl extends BaseDAO implements AsientoDAO {
 
     @Override
     public Asiento buscarPorSalaFilaNumero(Integer salaId, String fila, Integer numero) {
-        String sql = "SELECT * FROM asiento WHERE sala_id = ? AND fila = ? AND numero = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        String sql = "SELECT " + COLUMNAS + " FROM asiento WHERE sala_id = ? AND fila = ? AND numero = ?";
+        return consultarUno(sql, ps -> {
             ps.setInt(1, salaId);
             ps.setString(2, fila);
             ps.setInt(3, numero);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next() ? mapearAsiento(rs) : null;
-            }
-        } catch (SQLException e) {
-            throw new DaoException("Error al buscar asiento por (sala, fila, número)", e);
-        }
+        }, MAPEADOR, "Error al buscar asiento por (sala, fila, número)");
     }
 
     // ============== MAPEADOR ==============
-    private Asiento mapearAsiento(ResultSet rs) throws SQLException {
-        Asiento a = new Asiento();
-        a.setIdAsiento(rs.getInt("id_asiento"));
-        a.setSalaId(rs.getInt("sala_id"));
-        a.setFila(rs.getString("fila"));
-        a.setNumero(rs.getInt("numero"));
-        a.setTipoAsiento(TipoAsiento.valueOf(rs.getString("tipo_asiento")));
-        a.setActivo(rs.getBoolean("activo"));
-        return a;
-    }
+    private static final RowMapper<Asiento> MAPEADOR = rs -> {
+        int id = rs.findColumn("id_asiento");
+        int sala = rs.findColumn("sala_id");
+        int fila = rs.findColumn("fila");
+        int numero = rs.findColumn("numero");
+        int tipo = rs.findColumn("tipo_asiento");
+        int activo = rs.findColumn("activo");
+        return r -> {
+            Asiento a = new Asiento();
+            a.setIdAsiento(r.getInt(id));
+            a.setSalaId(r.getInt(sala));
+            a.setFila(r.getString(fila));
+            a.setNumero(r.getInt(numero));
+            a.setTipoAsiento(TipoAsiento.valueOf(r.getString(tipo)));
+            a.setActivo(r.getBoolean(activo));
+            return a;
+        };
+    };
 }
@@ -1,15 +1,205 @@
 package com.cineticket.dao.impl;
 
+import com.cineticket.dao.common.DaoException;
+import com.cineticket.dao.common.RowMapper;
 import com.cineticket.util.ConnectionPool;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
- * Clase base con helper para obtener conexiones del pool estático.
+ * Clase base de los DAO: obtiene conexiones y hace de pequeña plantilla JDBC.
+ * - Si el hilo está dentro de una transacción (JdbcTransactionManager),
+ *   se reutiliza la conexión de esa transacción.
+ * - consultar / consultarUno / consultarStream / ejecutar / ejecutarLote / insertarRetornandoId
+ *   abren y cierran conexión, sentencia y ResultSet, y envuelven SQLException en DaoException
+ *   con el mensaje indicado.
+ * - Los RowMapper resuelven los índices de columna una vez por ResultSet.
+ * - consultarStream recorre la consulta con un cursor del servidor: memoria constante
+ *   sin importar cuántas filas devuelva.
  */
 public abstract class BaseDAO {
+
+    /** Filas que el driver trae por viaje en las consultas de listados. */
+    protected static final int FETCH_SIZE = 500;
+
+    /** Asigna los parámetros (?) de una sentencia. */
+    @FunctionalInterface
+    protected interface Parametros {
+        void asignar(PreparedStatement ps) throws SQLException;
+    }
+
+    /** Asigna los parámetros de una sentencia por cada elemento de un lote. */
+    @FunctionalInterface
+    protected interface ParametrosLote<T> {
+        void asignar(PreparedStatement ps, T item) throws SQLException;
+    }
+
+    protected static final Parametros SIN_PARAMETROS = ps -> { };
+
+    /** Primera columna como entero (ids, COUNT(*)). */
+    protected static final RowMapper<Integer> ENTERO = rs -> r -> r.getInt(1);
+
     protected Connection getConnection() throws SQLException {
-        return ConnectionPool.getConnection();
+        Connection enTransaccion = JdbcTransactionManager.conexionActual();
+        return enTransaccion != null ? enTransaccion : ConnectionPool.getConnection();
+    }
+
+    /** Todas las filas de la consulta. */
+    protected <T> List<T> consultar(String sql, Parametros parametros, RowMapper<T> mapper, String error) {
+        try (Connection conn = getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setFetchSize(FETCH_SIZE);
+            parametros.asignar(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<T> lista = new ArrayList<>();
+                RowMapper.Fila<T> fila = mapper.preparar(rs);
+                while (rs.next()) lista.add(fila.mapear(rs));
+                return lista;
+            }
+        } catch (SQLException e) {
+            throw new DaoException(error, e);
+        }
+    }
+
+    /** La primera fila de la consulta, o null si no hay ninguna. */
+    protected <T> T consultarUno(String sql, Parametros parametros, RowMapper<T> mapper, String error) {
+        try (Connection conn = getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            parametros.asignar(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? mapper.preparar(rs).mapear(rs) : null;
+            }
+        } catch (SQLException e) {
+            throw new DaoException(error, e);
+        }
+    }
+
+    /**
+     * Las filas se mapean a medida que se consumen, sin armar la lista completa.
+     * PgJDBC solo usa cursor (trae FETCH_SIZE filas por viaje) con autocommit apagado: si la
+     * conexión no está en una transacción, se apaga aquí y se restaura al cerrar.
+     * La conexión queda tomada hasta cerrar el Stream: usar siempre con try-with-resources.
+     */
+    protected <T> Stream<T> consultarStream(String sql, Parametros parametros, RowMapper<T> mapper, String error) {
+        Connection conn = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        AutoCloseable fin = null;
+        try {
+            conn = getConnection();
+            fin = cursorDeLectura(conn);
+            ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            parametros.asignar(ps);
+            rs = ps.executeQuery();
+            RowMapper.Fila<T> fila = mapper.preparar(rs);
+
+            ResultSet cursor = rs;
+            Spliterator<T> filas = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED) {
+                @Override
+                public boolean tryAdvance(Consumer<? super T> accion) {
+                    try {
+                        if (!cursor.next()) return false;
+                        accion.accept(fila.mapear(cursor));
+                        return true;
+                    } catch (SQLException e) {
+                        throw new DaoException(error, e);
+                    }
+                }
+            };
+            AutoCloseable[] recursos = {cursor, ps, fin, conn};
+            return StreamSupport.stream(filas, false).onClose(() -> cerrar(error, recursos));
+        } catch (SQLException e) {
+            DaoException falla = new DaoException(error, e);
+            try {
+                cerrar(error, rs, ps, fin, conn);
+            } catch (DaoException alCerrar) {
+                falla.addSuppressed(alCerrar);
+            }
+            throw falla;
+        }
+    }
+
+    /** INSERT / UPDATE / DELETE; retorna las filas afectadas. */
+    protected int ejecutar(String sql, Parametros parametros, String error) {
+        try (Connection conn = getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            parametros.asignar(ps);
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            throw new DaoException(error, e);
+        }
+    }
+
+    /** Una misma sentencia por cada elemento, enviada en un solo lote. */
+    protected <T> int[] ejecutarLote(String sql, Collection<T> items, ParametrosLote<? super T> parametros, String error) {
+        if (items == null || items.isEmpty()) return new int[0];
+        try (Connection conn = getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (T item : items) {
+                parametros.asignar(ps, item);
+                ps.addBatch();
+            }
+            return ps.executeBatch();
+        } catch (SQLException e) {
+            throw new DaoException(error, e);
+        }
+    }
+
+    /** INSERT que retorna la clave generada (primera columna). */
+    protected Integer insertarRetornandoId(String sql, Parametros parametros, String error) {
+        try (Connection conn = getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            parametros.asignar(ps);
+            ps.executeUpdate();
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                if (rs.next()) return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            throw new DaoException(error, e);
+        }
+        throw new DaoException(error + ": no se recibió ID generado.");
+    }
+
+    /**
+     * Apaga autocommit si la conexión es propia (fuera de transacción) y retorna cómo dejarla
+     * como estaba: la lectura no modifica nada, así que se cierra con rollback.
+     */
+    private static AutoCloseable cursorDeLectura(Connection conn) throws SQLException {
+        if (!conn.getAutoCommit()) return null; // transacción en curso: el cursor vive dentro de ella
+        conn.setAutoCommit(false);
+        return () -> {
+            try {
+                conn.rollback();
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        };
+    }
+
+    private static void cerrar(String error, AutoCloseable... recursos) {
+        DaoException falla = null;
+        for (AutoCloseable r : recursos) {
+            if (r == null) continue;
+            try {
+                r.close();
+            } catch (Exception e) {
+                if (falla == null) falla = new DaoException(error, e);
+                else falla.addSuppressed(e);
+            }
+        }
+        if (falla != null) throw falla;
     }
 }
@@ -2,14 +2,20 @@ package com.cineticket.dao.impl;
 
 import com.cineticket.dao.ComboConfiteriaDAO;
 import com.cineticket.dao.common.DaoException;
+import com.cineticket.dao.common.RowMapper;
 import com.cineticket.modelo.ComboConfiteria;
 
 import java.sql.*;
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ComboConfiteriaDAOImpl extends BaseDAO implements ComboConfiteriaDAO {
 
+    private static final String COLUMNAS =
+            "id_combo, nombre_combo, descripcion, precio, imagen_url, disponible, categoria";
+
     public ComboConfiteriaDAOImpl() {
     }
 
@@ -59,44 +65,33 @@ public class ComboConfiteriaDAOImpl extends BaseDAO implements ComboConfiteriaDA
 
     @Override
     public ComboConfiteria buscarPorId(Integer id) {
-        String sql = "SELECT * FROM combo_confiteria WHERE id_combo = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, id);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next() ? mapear(rs) : null;
-            }
-        } catch (SQLException e) {
-            throw new DaoException("Error al buscar combo por ID", e);
-        }
+        String sql = "SELECT " + COLUMNAS + " FROM combo_confiteria WHERE id_combo = ?";
+        return consultarUno(sql, ps -> ps.setInt(1, id), MAPEADOR, "Error al buscar combo por ID");
+    }
+
+    @Override
+    public Map<Integer, ComboConfiteria> buscarPorIds(Collection<Integer> ids) {
+        Map<Integer, ComboConfiteria> porId = new HashMap<>();
+        if (ids == null || ids.isEmpty()) return porId;
+
+        String sql = "SELECT " + COLUMNAS + " FROM combo_confiteria WHERE id_combo = ANY(?)";
+        List<ComboConfiteria> combos = consultar(sql,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("integer", ids.toArray())),
+                MAPEADOR, "Error al buscar combos por IDs");
+        for (ComboConfiteria c : combos) porId.put(c.getIdCombo(), c);
+        return porId;
     }
 
     @Override
     public List<ComboConfiteria> listarTodos() {
-        String sql = "SELECT * FROM combo_confiteria ORDER BY nombre_combo";
-        List<ComboConfiteria> list = new ArrayList<>();
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) list.add(mapear(rs));
-            return list;
-        } catch (SQLException e) {
-            throw new DaoException("Error al listar combos", e);
-        }
+        String sql = "SELECT " + COLUMNAS + " FROM combo_confiteria ORDER BY nombre_combo";
+        return consultar(sql, SIN_PARAMETROS, MAPEADOR, "Error al listar combos");
     }
 
     @Override
     public List<ComboConfiteria> listarDisponibles() {
-        String sql = "SELECT * FROM combo_confiteria WHERE disponible = TRUE ORDER BY nombre_combo";
-        List<ComboConfiteria> list = new ArrayList<>();
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) list.add(mapear(rs));
-            return list;
-        } catch (SQLException e) {
-            throw new DaoException("Error al listar combos disponibles", e);
-        }
+        String sql = "SELECT " + COLUMNAS + " FROM combo_confiteria WHERE disponible = TRUE ORDER BY nombre_combo";
+        return consultar(sql, SIN_PARAMETROS, MAPEADOR, "Error al listar combos disponibles");
     }
 
     @Override
@@ -131,25 +126,28 @@ public class ComboConfiteriaDAOImpl extends BaseDAO implements ComboConfiteriaDA
     @Override
     public boolean eliminar(Integer id) {
         String sql = "DELETE FROM combo_confiteria WHERE id_combo = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, id);
-            return ps.executeUpdate() > 0;
-        } catch (SQLException e) {
-            throw new DaoException("Error al eliminar combo de confitería", e);
-        }
+        return ejecutar(sql, ps -> ps.setInt(1, id), "Error al eliminar combo de confitería") > 0;
     }
 
     // ============== MAPEADOR ==============
-    private ComboConfiteria mapear(ResultSet rs) throws SQLException {
-        ComboConfiteria c = new ComboConfiteria();
-        c.setIdCombo(rs.getInt("id_combo"));
-        c.setNombreCombo(rs.getString("nombre_combo"));
-        c.setDescripcion(rs.getString("descripcion"));
-        c.setPrecio(rs.getBigDecimal("precio"));
-        c.setImagenUrl(rs.getString("imagen_url"));
-        c.setDisponible(rs.getBoolean("disponible"));
-        c.setCategoria(rs.getString("categoria"));
-        return c;
-    }
+    private static final RowMapper<ComboConfiteria> MAPEADOR = rs -> {
+        int id = rs.findColumn("id_combo");
+        int nombre = rs.findColumn("nombre_combo");
+        int descripcion = rs.findColumn("descripcion");
+        int precio = rs.findColumn("precio");
+        int imagen = rs.findColumn("imagen_url");
+        int disponible = rs.findColumn("disponible");
+        int categoria = rs.findColumn("categoria");
+        return r -> {
+            ComboConfiteria c = new ComboConfiteria();
+            c.setIdCombo(r.getInt(id));
+            c.setNombreCombo(r.getString(nombre));
+            c.setDescripcion(r.getString(descripcion));
+            c.setPrecio(r.getBigDecimal(precio));
+            c.setImagenUrl(r.getString(imagen));
+            c.setDisponible(r.getBoolean(disponible));
+            c.setCategoria(r.getString(categoria));
+            return c;
+        };
+    };
 }
@@ -2,17 +2,23 @@ package com.cineticket.dao.impl;
 
 import com.cineticket.dao.CompraConfiteriaDAO;
 import com.cineticket.dao.common.DaoException;
+import com.cineticket.dao.common.RowMapper;
 import com.cineticket.modelo.CompraConfiteria;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.LinkedHashMap;
 
 public class CompraConfiteriaDAOImpl extends BaseDAO implements CompraConfiteriaDAO {
 
+    private static final String COLUMNAS =
+            "id_compra_confiteria, compra_id, combo_id, cantidad, precio_unitario, subtotal";
+
     public CompraConfiteriaDAOImpl() {
     }
 
@@ -64,33 +70,77 @@ public class CompraConfiteriaDAOImpl extends BaseDAO implements CompraConfiteria
     }
 
     @Override
-    public CompraConfiteria buscarPorId(Integer id) {
-        String sql = "SELECT * FROM compra_confiteria WHERE id_compra_confiteria = ?";
+    public List<Integer> crearLote(List<CompraConfiteria> items) {
+        List<Integer> ids = new ArrayList<>();
+        if (items == null || items.isEmpty()) return ids;
+        items.forEach(CompraConfiteriaDAOImpl::validar);
+
+        String sql = """
+                    INSERT INTO compra_confiteria (compra_id, combo_id, cantidad, precio_unitario)
+                    VALUES (?, ?, ?, ?)
+                """;
         try (Connection c = getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setInt(1, id);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next() ? mapear(rs) : null;
+             PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (CompraConfiteria i : items) {
+                ps.setInt(1, i.getCompraId());
+                ps.setInt(2, i.getComboId());
+                ps.setInt(3, i.getCantidad());
+                ps.setBigDecimal(4, i.getPrecioUnitario());
+                ps.addBatch();
             }
+            ps.executeBatch();
+
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                int n = 0;
+                while (rs.next() && n < items.size()) {
+                    int id = rs.getInt(1);
+                    items.get(n++).setIdCompraConfiteria(id);
+                    ids.add(id);
+                }
+            }
+            if (ids.size() != items.size()) {
+                throw new DaoException("No se recibieron todos los IDs generados para el lote de compra_confiteria.");
+            }
+            return ids;
         } catch (SQLException e) {
-            throw new DaoException("Error al buscar compra_confiteria por ID", e);
+            // En un batch el SQLState útil suele venir en la excepción encadenada
+            String state = e.getNextException() != null ? e.getNextException().getSQLState() : e.getSQLState();
+            if ("23505".equals(state)) {
+                throw new DaoException("Ya existe ese combo en la compra (único por compra).", e);
+            }
+            if ("23503".equals(state)) {
+                throw new DaoException("FK inválida: compra/combo inexistente.", e);
+            }
+            throw new DaoException("Error al crear lote de compra_confiteria", e);
         }
     }
 
+    @Override
+    public CompraConfiteria buscarPorId(Integer id) {
+        String sql = "SELECT " + COLUMNAS + " FROM compra_confiteria WHERE id_compra_confiteria = ?";
+        return consultarUno(sql, ps -> ps.setInt(1, id), MAPEADOR, "Error al buscar compra_confiteria por ID");
+    }
+
     @Override
     public List<CompraConfiteria> listarPorCompra(Integer compraId) {
-        String sql = "SELECT * FROM compra_confiteria WHERE compra_id = ? ORDER BY id_compra_confiteria";
-        List<CompraConfiteria> list = new ArrayList<>();
-        try (Connection c = getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setInt(1, compraId);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) list.add(mapear(rs));
-            }
-            return list;
-        } catch (SQLException e) {
-            throw new DaoException("Error al listar compra_confiteria por compra", e);
+        String sql = "SELECT " + COLUMNAS + " FROM compra_confiteria WHERE compra_id = ? ORDER BY id_compra_confiteria";
+        return consultar(sql, ps -> ps.setInt(1, compraId), MAPEADOR, "Error al listar compra_confiteria por compra");
+    }
+
+    @Override
+    public Map<Integer, List<CompraConfiteria>> listarPorCompras(Collection<Integer> compraIds) {
+        Map<Integer, List<CompraConfiteria>> porCompra = new HashMap<>();
+        if (compraIds == null || compraIds.isEmpty()) return porCompra;
+
+        String sql = "SELECT " + COLUMNAS + " FROM compra_confiteria WHERE compra_id = ANY(?)"
+                + " ORDER BY compra_id, id_compra_confiteria";
+        List<CompraConfiteria> items = consultar(sql,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("integer", compraIds.toArray())),
+                MAPEADOR, "Error al listar compra_confiteria por compras");
+        for (CompraConfiteria ci : items) {
+            porCompra.computeIfAbsent(ci.getCompraId(), k -> new ArrayList<>()).add(ci);
         }
+        return porCompra;
     }
 
     @Override
@@ -103,31 +153,37 @@ public class CompraConfiteriaDAOImpl extends BaseDAO implements CompraConfiteria
                      WHERE c.fecha_hora_compra BETWEEN ? AND ?
                      GROUP BY cc.combo_id
                 """;
-        Map<Integer, Integer> mapa = new LinkedHashMap<>();
-        try (Connection c = getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
+        List<Map.Entry<Integer, Integer>> filas = consultar(sql, ps -> {
             ps.setTimestamp(1, Timestamp.valueOf(inicio));
             ps.setTimestamp(2, Timestamp.valueOf(fin));
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    mapa.put(rs.getInt("combo_id"), rs.getInt("total"));
-                }
-            }
-            return mapa;
-        } catch (SQLException e) {
-            throw new DaoException("Error al obtener ventas por combo", e);
-        }
+        }, rs -> {
+            int combo = rs.findColumn("combo_id");
+            int total = rs.findColumn("total");
+            return r -> Map.entry(r.getInt(combo), r.getInt(total));
+        }, "Error al obtener ventas por combo");
+
+        Map<Integer, Integer> mapa = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Integer> f : filas) mapa.put(f.getKey(), f.getValue());
+        return mapa;
     }
 
     // ================== MAPEADOR ==================
-    private CompraConfiteria mapear(ResultSet rs) throws SQLException {
-        CompraConfiteria i = new CompraConfiteria();
-        i.setIdCompraConfiteria(rs.getInt("id_compra_confiteria"));
-        i.setCompraId(rs.getInt("compra_id"));
-        i.setComboId(rs.getInt("combo_id"));
-        i.setCantidad(rs.getInt("cantidad"));
-        i.setPrecioUnitario(rs.getBigDecimal("precio_unitario"));
-        i.setSubtotal(rs.getBigDecimal("subtotal")); // generated
-        return i;
-    }
+    private static final RowMapper<CompraConfiteria> MAPEADOR = rs -> {
+        int id = rs.findColumn("id_compra_confiteria");
+        int compra = rs.findColumn("compra_id");
+        int combo = rs.findColumn("combo_id");
+        int cantidad = rs.findColumn("cantidad");
+        int precio = rs.findColumn("precio_unitario");
+        int subtotal = rs.findColumn("subtotal");
+        return r -> {
+            CompraConfiteria i = new CompraConfiteria();
+            i.setIdCompraConfiteria(r.getInt(id));
+            i.setCompraId(r.getInt(compra));
+            i.setComboId(r.getInt(combo));
+            i.setCantidad(r.getInt(cantidad));
+            i.setPrecioUnitario(r.getBigDecimal(precio));
+            i.setSubtotal(r.getBigDecimal(subtotal)); // generated
+            return i;
+        };
+    };
 }
@@ -1,16 +1,19 @@
 package com.cineticket.dao.impl;
 
 import com.cineticket.dao.CompraDAO;
-import com.cineticket.dao.common.DaoException;
+import com.cineticket.dao.common.RowMapper;
 import com.cineticket.enums.EstadoCompra;
 import com.cineticket.enums.MetodoPago;
 import com.cineticket.modelo.Compra;
 
 import java.math.BigDecimal;
-import java.sql.*;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Implementación JDBC de CompraDAO.
@@ -19,6 +22,10 @@ import java.util.List;
  */
 public class CompraDAOImpl extends BaseDAO implements CompraDAO {
 
+    private static final String COLUMNAS = """
+            id_compra, usuario_id, fecha_hora_compra, total_entradas, total_confiteria,
+            total_general, metodo_pago, estado_compra, fecha_cancelacion, ruta_comprobante_pdf""";
+
     public CompraDAOImpl() {
     }
 
@@ -61,9 +68,8 @@ public class CompraDAOImpl extends BaseDAO implements CompraDAO {
                        metodo_pago, estado_compra, fecha_cancelacion, ruta_comprobante_pdf)
                     VALUES (?, ?, ?, ?, ?::metodo_pago, ?::estado_compra, ?, ?)
                 """;
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
+        // 23503 FK usuario; 23514 checks; etc.
+        Integer id = insertarRetornandoId(sql, ps -> {
             ps.setInt(1, c.getUsuarioId());
             // si viene null, delegamos al DEFAULT now(); por portabilidad enviamos valor
             ps.setTimestamp(2, Timestamp.valueOf(
@@ -78,50 +84,59 @@ public class CompraDAOImpl extends BaseDAO implements CompraDAO {
                 ps.setNull(7, Types.TIMESTAMP);
             }
             ps.setString(8, c.getRutaComprobantePdf());
-
-            ps.executeUpdate();
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) {
-                    int id = rs.getInt(1);
-                    c.setIdCompra(id);
-                    return id;
-                }
-            }
-            throw new DaoException("No se recibió ID generado para compra.");
-        } catch (SQLException e) {
-            // 23503 FK usuario; 23514 checks; etc.
-            throw new DaoException("Error al crear compra", e);
-        }
+        }, "Error al crear compra");
+        c.setIdCompra(id);
+        return id;
     }
 
     @Override
     public Compra buscarPorId(Integer id) {
-        String sql = "SELECT * FROM compra WHERE id_compra = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, id);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next() ? mapearCompra(rs) : null;
-            }
-        } catch (SQLException e) {
-            throw new DaoException("Error al buscar compra por ID", e);
-        }
+        String sql = "SELECT " + COLUMNAS + " FROM compra WHERE id_compra = ?";
+        return consultarUno(sql, ps -> ps.setInt(1, id), MAPEADOR, "Error al buscar compra por ID");
+    }
+
+    @Override
+    public List<Compra> buscarPorIds(Collection<Integer> ids) {
+        if (ids == null || ids.isEmpty()) return new ArrayList<>();
+
+        String sql = "SELECT " + COLUMNAS + " FROM compra WHERE id_compra = ANY(?) ORDER BY id_compra";
+        return consultar(sql,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("integer", ids.toArray())),
+                MAPEADOR, "Error al buscar compras por IDs");
     }
 
     @Override
     public List<Compra> listarPorUsuario(Integer usuarioId) {
-        String sql = "SELECT * FROM compra WHERE usuario_id = ? ORDER BY fecha_hora_compra DESC";
-        List<Compra> list = new ArrayList<>();
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, usuarioId);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) list.add(mapearCompra(rs));
+        String sql = "SELECT " + COLUMNAS + " FROM compra WHERE usuario_id = ? ORDER BY fecha_hora_compra DESC";
+        return consultar(sql, ps -> ps.setInt(1, usuarioId), MAPEADOR, "Error al listar compras por usuario");
+    }
+
+    @Override
+    public List<Compra> listarPorUsuarioPagina(Integer usuarioId, LocalDateTime antesDeFecha,
+                                               Integer antesDeId, int limite) {
+        // Recorre idx_compra_usuario_fecha; id_compra desempata compras con la misma fecha
+        boolean primera = antesDeFecha == null;
+        String sql = "SELECT " + COLUMNAS + " FROM compra" + (primera
+                ? """
+                     WHERE usuario_id = ?
+                     ORDER BY fecha_hora_compra DESC, id_compra DESC
+                     LIMIT ?
+                  """
+                : """
+                     WHERE usuario_id = ?
+                       AND (fecha_hora_compra, id_compra) < (?, ?)
+                     ORDER BY fecha_hora_compra DESC, id_compra DESC
+                     LIMIT ?
+                  """);
+        return consultar(sql, ps -> {
+            int i = 1;
+            ps.setInt(i++, usuarioId);
+            if (!primera) {
+                ps.setTimestamp(i++, Timestamp.valueOf(antesDeFecha));
+                ps.setInt(i++, antesDeId != null ? antesDeId : Integer.MAX_VALUE);
             }
-            return list;
-        } catch (SQLException e) {
-            throw new DaoException("Error al listar compras por usuario", e);
-        }
+            ps.setInt(i, limite);
+        }, MAPEADOR, "Error al listar página de compras por usuario");
     }
 
     @Override
@@ -135,8 +150,7 @@ public class CompraDAOImpl extends BaseDAO implements CompraDAO {
                       fecha_cancelacion = ?, ruta_comprobante_pdf = ?
                     WHERE id_compra = ?
                 """;
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        return ejecutar(sql, ps -> {
             ps.setInt(1, c.getUsuarioId());
             ps.setTimestamp(2, Timestamp.valueOf(c.getFechaHoraCompra()));
             ps.setBigDecimal(3, c.getTotalEntradas());
@@ -150,66 +164,87 @@ public class CompraDAOImpl extends BaseDAO implements CompraDAO {
             }
             ps.setString(8, c.getRutaComprobantePdf());
             ps.setInt(9, c.getIdCompra());
-            return ps.executeUpdate() > 0;
-        } catch (SQLException e) {
-            throw new DaoException("Error al actualizar compra", e);
-        }
+        }, "Error al actualizar compra") > 0;
+    }
+
+    @Override
+    public boolean actualizarRutaComprobante(Integer idCompra, String ruta) {
+        String sql = "UPDATE compra SET ruta_comprobante_pdf = ? WHERE id_compra = ?";
+        return ejecutar(sql, ps -> {
+            ps.setString(1, ruta);
+            ps.setInt(2, idCompra);
+        }, "Error al actualizar ruta del comprobante") > 0;
     }
 
     @Override
-    public boolean cancelarCompra(Integer idCompra) {
+    public boolean cancelarCompra(Integer idCompra, LocalDateTime fechaCancelacion) {
         String sql = """
                     UPDATE compra
                        SET estado_compra = 'CANCELADA'::estado_compra,
-                           fecha_cancelacion = now()
+                           fecha_cancelacion = ?
                      WHERE id_compra = ?
+                       AND estado_compra = 'CONFIRMADA'::estado_compra
                 """;
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, idCompra);
-            return ps.executeUpdate() > 0;
-        } catch (SQLException e) {
-            throw new DaoException("Error al cancelar compra", e);
-        }
+        return ejecutar(sql, ps -> {
+            ps.setTimestamp(1, Timestamp.valueOf(fechaCancelacion));
+            ps.setInt(2, idCompra);
+        }, "Error al cancelar compra") == 1;
     }
 
     @Override
     public List<Compra> obtenerComprasEntreFechas(LocalDateTime inicio, LocalDateTime fin) {
-        String sql = """
-                    SELECT * FROM compra
+        String sql = "SELECT " + COLUMNAS + """
+                      FROM compra
                      WHERE fecha_hora_compra BETWEEN ? AND ?
                      ORDER BY fecha_hora_compra
                 """;
-        List<Compra> list = new ArrayList<>();
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        return consultar(sql, ps -> {
             ps.setTimestamp(1, Timestamp.valueOf(inicio));
             ps.setTimestamp(2, Timestamp.valueOf(fin));
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) list.add(mapearCompra(rs));
-            }
-            return list;
-        } catch (SQLException e) {
-            throw new DaoException("Error al consultar compras por rango", e);
-        }
+        }, MAPEADOR, "Error al consultar compras por rango");
+    }
+
+    @Override
+    public Stream<Compra> recorrerComprasEntreFechas(LocalDateTime inicio, LocalDateTime fin) {
+        String sql = "SELECT " + COLUMNAS + """
+                      FROM compra
+                     WHERE fecha_hora_compra BETWEEN ? AND ?
+                     ORDER BY fecha_hora_compra
+                """;
+        return consultarStream(sql, ps -> {
+            ps.setTimestamp(1, Timestamp.valueOf(inicio));
+            ps.setTimestamp(2, Timestamp.valueOf(fin));
+        }, MAPEADOR, "Error al recorrer compras por rango");
     }
 
     // =================== Mapeo ===================
 
-    private Compra mapearCompra(ResultSet rs) throws SQLException {
-        Compra c = new Compra();
-        c.setIdCompra(rs.getInt("id_compra"));
-        c.setUsuarioId(rs.getInt("usuario_id"));
-        Timestamp ts = rs.getTimestamp("fecha_hora_compra");
-        c.setFechaHoraCompra(ts != null ? ts.toLocalDateTime() : null);
-        c.setTotalEntradas(rs.getBigDecimal("total_entradas"));
-        c.setTotalConfiteria(rs.getBigDecimal("total_confiteria"));
-        c.setTotalGeneral(rs.getBigDecimal("total_general")); // columna generada
-        c.setMetodoPago(fromDbMetodo(rs.getString("metodo_pago")));
-        c.setEstadoCompra(fromDbEstado(rs.getString("estado_compra")));
-        Timestamp tsc = rs.getTimestamp("fecha_cancelacion");
-        c.setFechaCancelacion(tsc != null ? tsc.toLocalDateTime() : null);
-        c.setRutaComprobantePdf(rs.getString("ruta_comprobante_pdf"));
-        return c;
-    }
+    private static final RowMapper<Compra> MAPEADOR = rs -> {
+        int id = rs.findColumn("id_compra");
+        int usuario = rs.findColumn("usuario_id");
+        int fecha = rs.findColumn("fecha_hora_compra");
+        int totalEntradas = rs.findColumn("total_entradas");
+        int totalConfiteria = rs.findColumn("total_confiteria");
+        int totalGeneral = rs.findColumn("total_general");
+        int metodo = rs.findColumn("metodo_pago");
+        int estado = rs.findColumn("estado_compra");
+        int fechaCancelacion = rs.findColumn("fecha_cancelacion");
+        int ruta = rs.findColumn("ruta_comprobante_pdf");
+        return r -> {
+            Compra c = new Compra();
+            c.setIdCompra(r.getInt(id));
+            c.setUsuarioId(r.getInt(usuario));
+            Timestamp ts = r.getTimestamp(fecha);
+            c.setFechaHoraCompra(ts != null ? ts.toLocalDateTime() : null);
+            c.setTotalEntradas(r.getBigDecimal(totalEntradas));
+            c.setTotalConfiteria(r.getBigDecimal(totalConfiteria));
+            c.setTotalGeneral(r.getBigDecimal(totalGeneral)); // columna generada
+            c.setMetodoPago(fromDbMetodo(r.getString(metodo)));
+            c.setEstadoCompra(fromDbEstado(r.getString(estado)));
+            Timestamp tsc = r.getTimestamp(fechaCancelacion);
+            c.setFechaCancelacion(tsc != null ? tsc.toLocalDateTime() : null);
+            c.setRutaComprobantePdf(r.getString(ruta));
+            return c;
+        };
+    };
 }
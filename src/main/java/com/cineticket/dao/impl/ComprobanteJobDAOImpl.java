@@ -0,0 +1,128 @@
+package com.cineticket.dao.impl;
+
+import com.cineticket.dao.ComprobanteJobDAO;
+import com.cineticket.dao.common.DaoException;
+import com.cineticket.dao.common.RowMapper;
+import com.cineticket.enums.EstadoComprobante;
+import com.cineticket.modelo.ComprobanteJob;
+
+import java.sql.*;
+import java.util.List;
+
+/**
+ * Implementación JDBC de ComprobanteJobDAO.
+ * Tabla: comprobante_job(compra_id, estado, intentos, ultimo_error, proximo_intento, creado_en, actualizado_en)
+ */
+public class ComprobanteJobDAOImpl extends BaseDAO implements ComprobanteJobDAO {
+
+    /** Condición de "listo para procesar", compartida por tomar() y listarPendientes() */
+    private static final String DISPONIBLE = """
+                (   (estado IN ('PENDIENTE', 'FALLIDO') AND proximo_intento <= now() AND intentos < ?)
+                 OR (estado = 'EN_PROCESO' AND actualizado_en < now() - make_interval(secs => ?)) )
+            """;
+
+    private static final String COLUMNAS =
+            "compra_id, estado, intentos, ultimo_error, proximo_intento, actualizado_en";
+
+    public ComprobanteJobDAOImpl() {
+    }
+
+    @Override
+    public void encolar(Integer compraId) {
+        String sql = """
+                    INSERT INTO comprobante_job (compra_id) VALUES (?)
+                    ON CONFLICT (compra_id) DO UPDATE
+                       SET estado = 'PENDIENTE', intentos = 0, ultimo_error = NULL,
+                           proximo_intento = now(), actualizado_en = now()
+                     WHERE comprobante_job.estado <> 'EN_PROCESO'
+                """;
+        try (Connection c = getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, compraId);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            if ("23503".equals(e.getSQLState())) {
+                throw new DaoException("FK inválida: compra inexistente.", e);
+            }
+            throw new DaoException("Error al encolar comprobante", e);
+        }
+    }
+
+    @Override
+    public ComprobanteJob buscarPorCompra(Integer compraId) {
+        String sql = "SELECT " + COLUMNAS + " FROM comprobante_job WHERE compra_id = ?";
+        return consultarUno(sql, ps -> ps.setInt(1, compraId), MAPEADOR, "Error al buscar job de comprobante");
+    }
+
+    @Override
+    public boolean tomar(Integer compraId, int maxIntentos, int bloqueoSegundos) {
+        String sql = """
+                    UPDATE comprobante_job
+                       SET estado = 'EN_PROCESO', intentos = intentos + 1, actualizado_en = now()
+                     WHERE compra_id = ? AND
+                """ + DISPONIBLE;
+        return ejecutar(sql, ps -> {
+            ps.setInt(1, compraId);
+            ps.setInt(2, maxIntentos);
+            ps.setInt(3, bloqueoSegundos);
+        }, "Error al tomar job de comprobante") > 0;
+    }
+
+    @Override
+    public void marcarCompletado(Integer compraId) {
+        String sql = """
+                    UPDATE comprobante_job
+                       SET estado = 'COMPLETADO', ultimo_error = NULL, actualizado_en = now()
+                     WHERE compra_id = ?
+                """;
+        ejecutar(sql, ps -> ps.setInt(1, compraId), "Error al completar job de comprobante");
+    }
+
+    @Override
+    public void marcarFallido(Integer compraId, String error, int esperaSegundos) {
+        String sql = """
+                    UPDATE comprobante_job
+                       SET estado = 'FALLIDO', ultimo_error = ?, actualizado_en = now(),
+                           proximo_intento = now() + make_interval(secs => ?)
+                     WHERE compra_id = ?
+                """;
+        ejecutar(sql, ps -> {
+            ps.setString(1, error);
+            ps.setInt(2, esperaSegundos);
+            ps.setInt(3, compraId);
+        }, "Error al marcar job de comprobante como fallido");
+    }
+
+    @Override
+    public List<Integer> listarPendientes(int maxIntentos, int bloqueoSegundos, int limite) {
+        String sql = "SELECT compra_id FROM comprobante_job WHERE " + DISPONIBLE
+                + " ORDER BY proximo_intento LIMIT ?";
+        return consultar(sql, ps -> {
+            ps.setInt(1, maxIntentos);
+            ps.setInt(2, bloqueoSegundos);
+            ps.setInt(3, limite);
+        }, ENTERO, "Error al listar jobs de comprobante pendientes");
+    }
+
+    // ===== Helpers =====
+    private static final RowMapper<ComprobanteJob> MAPEADOR = rs -> {
+        int compra = rs.findColumn("compra_id");
+        int estado = rs.findColumn("estado");
+        int intentos = rs.findColumn("intentos");
+        int ultimoError = rs.findColumn("ultimo_error");
+        int proximoIntento = rs.findColumn("proximo_intento");
+        int actualizadoEn = rs.findColumn("actualizado_en");
+        return r -> {
+            Timestamp proximo = r.getTimestamp(proximoIntento);
+            Timestamp actualizado = r.getTimestamp(actualizadoEn);
+            return new ComprobanteJob(
+                    r.getInt(compra),
+                    EstadoComprobante.valueOf(r.getString(estado)),
+                    r.getInt(intentos),
+                    r.getString(ultimoError),
+                    proximo != null ? proximo.toLocalDateTime() : null,
+                    actualizado != null ? actualizado.toLocalDateTime() : null
+            );
+        };
+    };
+}
@@ -2,15 +2,25 @@ package com.cineticket.dao.impl;
 
 import com.cineticket.dao.EntradaDAO;
 import com.cineticket.dao.common.DaoException;
+import com.cineticket.dao.common.RowMapper;
 import com.cineticket.enums.EstadoEntrada;
 import com.cineticket.modelo.Entrada;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public class EntradaDAOImpl extends BaseDAO implements EntradaDAO {
 
+    private static final String COLUMNAS =
+            "id_entrada, compra_id, funcion_id, asiento_id, precio_unitario, estado_entrada";
+
     public EntradaDAOImpl() {
     }
 
@@ -70,49 +80,96 @@ public class EntradaDAOImpl extends BaseDAO implements EntradaDAO {
     }
 
     @Override
-    public Entrada buscarPorId(Integer id) {
-        String sql = "SELECT * FROM entrada WHERE id_entrada = ?";
+    public List<Integer> crearLote(List<Entrada> entradas) {
+        List<Integer> ids = new ArrayList<>();
+        if (entradas == null || entradas.isEmpty()) return ids;
+        entradas.forEach(EntradaDAOImpl::validar);
+
+        String sql = """
+                    INSERT INTO entrada (compra_id, funcion_id, asiento_id, precio_unitario, estado_entrada)
+                    VALUES (?, ?, ?, ?, ?::estado_entrada)
+                """;
         try (Connection c = getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setInt(1, id);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next() ? mapearEntrada(rs) : null;
+             PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (Entrada e : entradas) {
+                ps.setInt(1, e.getCompraId());
+                ps.setInt(2, e.getFuncionId());
+                ps.setInt(3, e.getAsientoId());
+                ps.setBigDecimal(4, e.getPrecioUnitario());
+                ps.setString(5, toDbEstado(e.getEstadoEntrada()));
+                ps.addBatch();
             }
+            ps.executeBatch();
+
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                int i = 0;
+                while (rs.next() && i < entradas.size()) {
+                    int id = rs.getInt(1);
+                    entradas.get(i++).setIdEntrada(id);
+                    ids.add(id);
+                }
+            }
+            if (ids.size() != entradas.size()) {
+                throw new DaoException("No se recibieron todos los IDs generados para el lote de entradas.");
+            }
+            return ids;
         } catch (SQLException ex) {
-            throw new DaoException("Error al buscar entrada por ID", ex);
+            // En un batch el SQLState útil suele venir en la excepción encadenada
+            String state = ex.getNextException() != null ? ex.getNextException().getSQLState() : ex.getSQLState();
+            if ("23505".equals(state)) {
+                throw new DaoException("Asiento ya vendido (entrada ACTIVA) para esa función.", ex);
+            }
+            if ("23503".equals(state)) {
+                throw new DaoException("FK inválida: compra/función/asiento inexistente.", ex);
+            }
+            throw new DaoException("Error al crear lote de entradas", ex);
         }
     }
 
+    @Override
+    public Entrada buscarPorId(Integer id) {
+        String sql = "SELECT " + COLUMNAS + " FROM entrada WHERE id_entrada = ?";
+        return consultarUno(sql, ps -> ps.setInt(1, id), MAPEADOR, "Error al buscar entrada por ID");
+    }
+
     @Override
     public List<Entrada> listarPorCompra(Integer compraId) {
-        String sql = "SELECT * FROM entrada WHERE compra_id = ? ORDER BY id_entrada";
-        List<Entrada> list = new ArrayList<>();
-        try (Connection c = getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setInt(1, compraId);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) list.add(mapearEntrada(rs));
-            }
-            return list;
-        } catch (SQLException ex) {
-            throw new DaoException("Error al listar entradas por compra", ex);
+        String sql = "SELECT " + COLUMNAS + " FROM entrada WHERE compra_id = ? ORDER BY id_entrada";
+        return consultar(sql, ps -> ps.setInt(1, compraId), MAPEADOR, "Error al listar entradas por compra");
+    }
+
+    @Override
+    public Map<Integer, List<Entrada>> listarPorCompras(Collection<Integer> compraIds) {
+        Map<Integer, List<Entrada>> porCompra = new HashMap<>();
+        if (compraIds == null || compraIds.isEmpty()) return porCompra;
+
+        String sql = "SELECT " + COLUMNAS + " FROM entrada WHERE compra_id = ANY(?) ORDER BY compra_id, id_entrada";
+        List<Entrada> entradas = consultar(sql,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("integer", compraIds.toArray())),
+                MAPEADOR, "Error al listar entradas por compras");
+        for (Entrada e : entradas) {
+            porCompra.computeIfAbsent(e.getCompraId(), k -> new ArrayList<>()).add(e);
         }
+        return porCompra;
     }
 
     @Override
     public List<Entrada> listarPorFuncion(Integer funcionId) {
-        String sql = "SELECT * FROM entrada WHERE funcion_id = ? ORDER BY id_entrada";
-        List<Entrada> list = new ArrayList<>();
-        try (Connection c = getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setInt(1, funcionId);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) list.add(mapearEntrada(rs));
-            }
-            return list;
-        } catch (SQLException ex) {
-            throw new DaoException("Error al listar entradas por función", ex);
-        }
+        String sql = "SELECT " + COLUMNAS + " FROM entrada WHERE funcion_id = ? ORDER BY id_entrada";
+        return consultar(sql, ps -> ps.setInt(1, funcionId), MAPEADOR, "Error al listar entradas por función");
+    }
+
+    @Override
+    public Stream<Entrada> recorrerPorFuncion(Integer funcionId) {
+        String sql = "SELECT " + COLUMNAS + " FROM entrada WHERE funcion_id = ? ORDER BY id_entrada";
+        return consultarStream(sql, ps -> ps.setInt(1, funcionId), MAPEADOR, "Error al recorrer entradas por función");
+    }
+
+    @Override
+    public List<Integer> listarAsientosOcupados(Integer funcionId) {
+        String sql = "SELECT asiento_id FROM entrada WHERE funcion_id = ? AND estado_entrada = 'ACTIVA'";
+        return consultar(sql, ps -> ps.setInt(1, funcionId), ENTERO,
+                "Error al listar asientos ocupados por función");
     }
 
     @Override
@@ -143,29 +200,15 @@ public class EntradaDAOImpl extends BaseDAO implements EntradaDAO {
     @Override
     public boolean cancelarEntradasDeCompra(Integer compraId) {
         String sql = "UPDATE entrada SET estado_entrada = 'CANCELADA'::estado_entrada WHERE compra_id = ?";
-        try (Connection c = getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setInt(1, compraId);
-            int rows = ps.executeUpdate();
-            return rows >= 0; // true incluso si era 0 (idempotente)
-        } catch (SQLException ex) {
-            throw new DaoException("Error al cancelar entradas de la compra", ex);
-        }
+        int rows = ejecutar(sql, ps -> ps.setInt(1, compraId), "Error al cancelar entradas de la compra");
+        return rows >= 0; // true incluso si era 0 (idempotente)
     }
 
     @Override
     public int contarEntradasActivasPorFuncion(Integer funcionId) {
         String sql = "SELECT COUNT(*) FROM entrada WHERE funcion_id = ? AND estado_entrada = 'ACTIVA'";
-        try (Connection c = getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setInt(1, funcionId);
-            try (ResultSet rs = ps.executeQuery()) {
-                rs.next();
-                return rs.getInt(1);
-            }
-        } catch (SQLException ex) {
-            throw new DaoException("Error al contar entradas activas por función", ex);
-        }
+        return consultarUno(sql, ps -> ps.setInt(1, funcionId), ENTERO,
+                "Error al contar entradas activas por función");
     }
 
     @Override
@@ -174,28 +217,43 @@ public class EntradaDAOImpl extends BaseDAO implements EntradaDAO {
                     SELECT COUNT(*) FROM entrada
                      WHERE funcion_id = ? AND asiento_id = ? AND estado_entrada = 'ACTIVA'
                 """;
-        try (Connection c = getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
+        return consultarUno(sql, ps -> {
             ps.setInt(1, funcionId);
             ps.setInt(2, asientoId);
-            try (ResultSet rs = ps.executeQuery()) {
-                rs.next();
-                return rs.getInt(1) == 0;
-            }
-        } catch (SQLException ex) {
-            throw new DaoException("Error al verificar disponibilidad de asiento", ex);
-        }
+        }, ENTERO, "Error al verificar disponibilidad de asiento") == 0;
     }
 
-    // ============== Mapeador ==============
-    private Entrada mapearEntrada(ResultSet rs) throws SQLException {
-        Entrada e = new Entrada();
-        e.setIdEntrada(rs.getInt("id_entrada"));
-        e.setCompraId(rs.getInt("compra_id"));
-        e.setFuncionId(rs.getInt("funcion_id"));
-        e.setAsientoId(rs.getInt("asiento_id"));
-        e.setPrecioUnitario(rs.getBigDecimal("precio_unitario"));
-        e.setEstadoEntrada(fromDbEstado(rs.getString("estado_entrada")));
-        return e;
+    @Override
+    public Set<Integer> buscarAsientosOcupados(Integer funcionId, Collection<Integer> asientoIds) {
+        if (asientoIds == null || asientoIds.isEmpty()) return new HashSet<>();
+
+        String sql = """
+                    SELECT asiento_id FROM entrada
+                     WHERE funcion_id = ? AND asiento_id = ANY(?) AND estado_entrada = 'ACTIVA'
+                """;
+        return new HashSet<>(consultar(sql, ps -> {
+            ps.setInt(1, funcionId);
+            ps.setArray(2, ps.getConnection().createArrayOf("integer", asientoIds.toArray()));
+        }, ENTERO, "Error al buscar asientos ocupados de la función"));
     }
+
+    // ============== Mapeador ==============
+    private static final RowMapper<Entrada> MAPEADOR = rs -> {
+        int id = rs.findColumn("id_entrada");
+        int compra = rs.findColumn("compra_id");
+        int funcion = rs.findColumn("funcion_id");
+        int asiento = rs.findColumn("asiento_id");
+        int precio = rs.findColumn("precio_unitario");
+        int estado = rs.findColumn("estado_entrada");
+        return r -> {
+            Entrada e = new Entrada();
+            e.setIdEntrada(r.getInt(id));
+            e.setCompraId(r.getInt(compra));
+            e.setFuncionId(r.getInt(funcion));
+            e.setAsientoId(r.getInt(asiento));
+            e.setPrecioUnitario(r.getBigDecimal(precio));
+            e.setEstadoEntrada(fromDbEstado(r.getString(estado)));
+            return e;
+        };
+    };
 }
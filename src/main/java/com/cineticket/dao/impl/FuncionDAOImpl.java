@@ -1,15 +1,19 @@
 package com.cineticket.dao.impl;
 
 import com.cineticket.dao.FuncionDAO;
-import com.cineticket.dao.common.DaoException;
+import com.cineticket.dao.common.RowMapper;
 import com.cineticket.enums.EstadoFuncion;
 import com.cineticket.modelo.Funcion;
 
-import java.sql.*;
+import java.sql.Date;
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Implementación JDBC de FuncionDAO.
@@ -17,6 +21,9 @@ import java.util.List;
  */
 public class FuncionDAOImpl extends BaseDAO implements FuncionDAO {
 
+    private static final String COLUMNAS =
+            "id_funcion, pelicula_id, sala_id, fecha_hora_inicio, fecha_hora_fin, precio_entrada, estado";
+
     public FuncionDAOImpl() {
     }
 
@@ -50,95 +57,83 @@ public class FuncionDAOImpl extends BaseDAO implements FuncionDAO {
                       (pelicula_id, sala_id, fecha_hora_inicio, fecha_hora_fin, precio_entrada, estado)
                     VALUES (?, ?, ?, ?, ?, ?::estado_funcion)
                 """;
-        try (Connection c = getConnection();
-             PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
+        // 23xxx pueden ser violaciones del EXCLUDE/índices. Lo traducimos.
+        Integer id = insertarRetornandoId(sql, ps -> {
             ps.setInt(1, f.getPeliculaId());
             ps.setInt(2, f.getSalaId());
             ps.setObject(3, Timestamp.valueOf(f.getFechaHoraInicio()));
             ps.setObject(4, Timestamp.valueOf(f.getFechaHoraFin()));
             ps.setBigDecimal(5, java.math.BigDecimal.valueOf(f.getPrecioEntrada()));
             ps.setString(6, toDbEstado(f.getEstado()));
-            ps.executeUpdate();
-
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) {
-                    int id = rs.getInt(1);
-                    f.setIdFuncion(id);
-                    return id;
-                }
-            }
-            throw new DaoException("No se recibió ID generado para función.");
-        } catch (SQLException e) {
-            // 23xxx pueden ser violaciones del EXCLUDE/índices. Lo traducimos.
-            throw new DaoException("Error al crear función (posible solapamiento de horario o FK inválida).", e);
-        }
+        }, "Error al crear función (posible solapamiento de horario o FK inválida).");
+        f.setIdFuncion(id);
+        return id;
     }
 
     @Override
     public Funcion buscarPorId(Integer id) {
-        String sql = "SELECT * FROM funcion WHERE id_funcion = ?";
-        try (Connection c = getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setInt(1, id);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next() ? mapearFuncion(rs) : null;
-            }
-        } catch (SQLException e) {
-            throw new DaoException("Error al buscar función por ID", e);
-        }
+        String sql = "SELECT " + COLUMNAS + " FROM funcion WHERE id_funcion = ?";
+        return consultarUno(sql, ps -> ps.setInt(1, id), MAPEADOR, "Error al buscar función por ID");
+    }
+
+    @Override
+    public Map<Integer, Funcion> buscarPorIds(Collection<Integer> ids) {
+        Map<Integer, Funcion> porId = new HashMap<>();
+        if (ids == null || ids.isEmpty()) return porId;
+
+        String sql = "SELECT " + COLUMNAS + " FROM funcion WHERE id_funcion = ANY(?)";
+        List<Funcion> funciones = consultar(sql,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("integer", ids.toArray())),
+                MAPEADOR, "Error al buscar funciones por IDs");
+        for (Funcion f : funciones) porId.put(f.getIdFuncion(), f);
+        return porId;
     }
 
     @Override
     public List<Funcion> listarPorPelicula(Integer peliculaId) {
-        String sql = "SELECT * FROM funcion WHERE pelicula_id = ? ORDER BY fecha_hora_inicio";
-        List<Funcion> list = new ArrayList<>();
-        try (Connection c = getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setInt(1, peliculaId);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) list.add(mapearFuncion(rs));
-            }
-            return list;
-        } catch (SQLException e) {
-            throw new DaoException("Error al listar funciones por película", e);
-        }
+        String sql = "SELECT " + COLUMNAS + " FROM funcion WHERE pelicula_id = ? ORDER BY fecha_hora_inicio";
+        return consultar(sql, ps -> ps.setInt(1, peliculaId), MAPEADOR, "Error al listar funciones por película");
     }
 
     @Override
     public List<Funcion> listarPorSala(Integer salaId) {
-        String sql = "SELECT * FROM funcion WHERE sala_id = ? ORDER BY fecha_hora_inicio";
-        List<Funcion> list = new ArrayList<>();
-        try (Connection c = getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setInt(1, salaId);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) list.add(mapearFuncion(rs));
-            }
-            return list;
-        } catch (SQLException e) {
-            throw new DaoException("Error al listar funciones por sala", e);
-        }
+        String sql = "SELECT " + COLUMNAS + " FROM funcion WHERE sala_id = ? ORDER BY fecha_hora_inicio";
+        return consultar(sql, ps -> ps.setInt(1, salaId), MAPEADOR, "Error al listar funciones por sala");
     }
 
     @Override
     public List<Funcion> listarPorFecha(LocalDate fecha) {
-        String sql = """
-                    SELECT * FROM funcion
+        String sql = "SELECT " + COLUMNAS + """
+                      FROM funcion
                      WHERE DATE(fecha_hora_inicio) = ?
                      ORDER BY fecha_hora_inicio
                 """;
-        List<Funcion> list = new ArrayList<>();
-        try (Connection c = getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setObject(1, Date.valueOf(fecha));
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) list.add(mapearFuncion(rs));
-            }
-            return list;
-        } catch (SQLException e) {
-            throw new DaoException("Error al listar funciones por fecha", e);
+        return consultar(sql, ps -> ps.setObject(1, Date.valueOf(fecha)), MAPEADOR,
+                "Error al listar funciones por fecha");
+    }
+
+    @Override
+    public Map<Integer, List<Funcion>> listarPorPeliculas(Collection<Integer> peliculaIds,
+                                                          LocalDateTime desde,
+                                                          LocalDateTime hasta) {
+        Map<Integer, List<Funcion>> porPelicula = new HashMap<>();
+        if (peliculaIds == null || peliculaIds.isEmpty()) return porPelicula;
+
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNAS + " FROM funcion WHERE pelicula_id = ANY(?)");
+        if (desde != null) sql.append(" AND fecha_hora_inicio >= ?");
+        if (hasta != null) sql.append(" AND fecha_hora_inicio < ?");
+        sql.append(" ORDER BY pelicula_id, fecha_hora_inicio");
+
+        List<Funcion> funciones = consultar(sql.toString(), ps -> {
+            int i = 1;
+            ps.setArray(i++, ps.getConnection().createArrayOf("integer", peliculaIds.toArray()));
+            if (desde != null) ps.setTimestamp(i++, Timestamp.valueOf(desde));
+            if (hasta != null) ps.setTimestamp(i, Timestamp.valueOf(hasta));
+        }, MAPEADOR, "Error al listar funciones por películas");
+        for (Funcion f : funciones) {
+            porPelicula.computeIfAbsent(f.getPeliculaId(), k -> new ArrayList<>()).add(f);
         }
+        return porPelicula;
     }
 
     @Override
@@ -150,9 +145,7 @@ public class FuncionDAOImpl extends BaseDAO implements FuncionDAO {
                       precio_entrada = ?, estado = ?::estado_funcion
                     WHERE id_funcion = ?
                 """;
-        try (Connection c = getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-
+        return ejecutar(sql, ps -> {
             ps.setInt(1, f.getPeliculaId());
             ps.setInt(2, f.getSalaId());
             ps.setObject(3, Timestamp.valueOf(f.getFechaHoraInicio()));
@@ -160,24 +153,14 @@ public class FuncionDAOImpl extends BaseDAO implements FuncionDAO {
             ps.setBigDecimal(5, java.math.BigDecimal.valueOf(f.getPrecioEntrada()));
             ps.setString(6, toDbEstado(f.getEstado()));
             ps.setInt(7, f.getIdFuncion());
-
-            return ps.executeUpdate() > 0;
-        } catch (SQLException e) {
-            throw new DaoException("Error al actualizar función (posible solapamiento de horario).", e);
-        }
+        }, "Error al actualizar función (posible solapamiento de horario).") > 0;
     }
 
     @Override
     public boolean eliminar(Integer id) {
         // Soft delete: estado = CANCELADA
         String sql = "UPDATE funcion SET estado = 'CANCELADA'::estado_funcion WHERE id_funcion = ?";
-        try (Connection c = getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setInt(1, id);
-            return ps.executeUpdate() > 0;
-        } catch (SQLException e) {
-            throw new DaoException("Error al cancelar función", e);
-        }
+        return ejecutar(sql, ps -> ps.setInt(1, id), "Error al cancelar función") > 0;
     }
 
     // =================== Disponibilidad ===================
@@ -196,34 +179,35 @@ public class FuncionDAOImpl extends BaseDAO implements FuncionDAO {
                 """;
         String sql = (funcionIdExcluir != null) ? base + " AND id_funcion <> ?" : base;
 
-        try (Connection c = getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
+        int count = consultarUno(sql, ps -> {
             ps.setInt(1, salaId);
             ps.setTimestamp(2, Timestamp.valueOf(inicio));
             ps.setTimestamp(3, Timestamp.valueOf(fin));
             if (funcionIdExcluir != null) ps.setInt(4, funcionIdExcluir);
-
-            try (ResultSet rs = ps.executeQuery()) {
-                rs.next();
-                int count = rs.getInt(1);
-                return count == 0; // true si NO hay solape
-            }
-        } catch (SQLException e) {
-            throw new DaoException("Error al verificar disponibilidad de sala", e);
-        }
+        }, ENTERO, "Error al verificar disponibilidad de sala");
+        return count == 0; // true si NO hay solape
     }
 
     // =================== Mapeador ===================
 
-    private Funcion mapearFuncion(ResultSet rs) throws SQLException {
-        Funcion f = new Funcion();
-        f.setIdFuncion(rs.getInt("id_funcion"));
-        f.setPeliculaId(rs.getInt("pelicula_id"));
-        f.setSalaId(rs.getInt("sala_id"));
-        f.setFechaHoraInicio(rs.getTimestamp("fecha_hora_inicio").toLocalDateTime());
-        f.setFechaHoraFin(rs.getTimestamp("fecha_hora_fin").toLocalDateTime());
-        f.setPrecioEntrada(rs.getBigDecimal("precio_entrada").doubleValue());
-        f.setEstado(fromDbEstado(rs.getString("estado")));
-        return f;
-    }
+    private static final RowMapper<Funcion> MAPEADOR = rs -> {
+        int id = rs.findColumn("id_funcion");
+        int pelicula = rs.findColumn("pelicula_id");
+        int sala = rs.findColumn("sala_id");
+        int inicio = rs.findColumn("fecha_hora_inicio");
+        int fin = rs.findColumn("fecha_hora_fin");
+        int precio = rs.findColumn("precio_entrada");
+        int estado = rs.findColumn("estado");
+        return r -> {
+            Funcion f = new Funcion();
+            f.setIdFuncion(r.getInt(id));
+            f.setPeliculaId(r.getInt(pelicula));
+            f.setSalaId(r.getInt(sala));
+            f.setFechaHoraInicio(r.getTimestamp(inicio).toLocalDateTime());
+            f.setFechaHoraFin(r.getTimestamp(fin).toLocalDateTime());
+            f.setPrecioEntrada(r.getBigDecimal(precio).doubleValue());
+            f.setEstado(fromDbEstado(r.getString(estado)));
+            return f;
+        };
+    };
 }
@@ -0,0 +1,115 @@
+package com.cineticket.dao.impl;
+
+import com.cineticket.dao.common.DaoException;
+import com.cineticket.dao.common.TransactionManager;
+import com.cineticket.util.ConnectionPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * Implementación JDBC de TransactionManager.
+ * Toma una conexión del pool, la asocia al hilo actual y BaseDAO.getConnection()
+ * la reutiliza mientras dure la transacción.
+ */
+public class JdbcTransactionManager implements TransactionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcTransactionManager.class);
+
+    /** Conexión (envuelta) de la transacción en curso en este hilo. */
+    private static final ThreadLocal<Connection> actual = new ThreadLocal<>();
+
+    public JdbcTransactionManager() {
+    }
+
+    /** Conexión de la transacción activa en el hilo, o null si no hay ninguna. */
+    static Connection conexionActual() {
+        return actual.get();
+    }
+
+    @Override
+    public <T> T enTransaccion(Supplier<T> trabajo) {
+        if (actual.get() != null) {
+            // Transacción anidada: se une a la que está en curso
+            return trabajo.get();
+        }
+
+        Connection real;
+        try {
+            real = ConnectionPool.getConnection();
+            real.setAutoCommit(false);
+        } catch (SQLException e) {
+            throw new DaoException("No se pudo iniciar la transacción", e);
+        }
+
+        actual.set(envolver(real));
+        try {
+            T resultado = trabajo.get();
+            real.commit();
+            return resultado;
+        } catch (SQLException e) {
+            rollback(real);
+            throw new DaoException("Error al confirmar la transacción", e);
+        } catch (RuntimeException | Error e) {
+            rollback(real);
+            throw e;
+        } finally {
+            actual.remove();
+            cerrar(real);
+        }
+    }
+
+    // ===== Helpers =====
+
+    /**
+     * Envuelve la conexión para que los DAO puedan usar try-with-resources sin cerrarla
+     * y sin confirmar por su cuenta: close/commit/rollback/setAutoCommit no tienen efecto.
+     */
+    private static Connection envolver(Connection real) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close", "commit", "rollback", "setAutoCommit" -> {
+                            if (method.getParameterCount() <= 1) return null;
+                        }
+                        case "isClosed" -> {
+                            return real.isClosed();
+                        }
+                        default -> { }
+                    }
+                    try {
+                        return method.invoke(real, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static void rollback(Connection c) {
+        try {
+            c.rollback();
+        } catch (SQLException e) {
+            log.error("Error al hacer rollback de la transacción", e);
+        }
+    }
+
+    private static void cerrar(Connection c) {
+        try {
+            c.setAutoCommit(true);
+        } catch (SQLException e) {
+            log.warn("No se pudo restaurar autocommit antes de devolver la conexión", e);
+        }
+        try {
+            c.close();
+        } catch (SQLException e) {
+            log.warn("Error al devolver la conexión al pool", e);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.cineticket.dao.impl;
 
 import com.cineticket.dao.PeliculaDAO;
 import com.cineticket.dao.common.DaoException;
+import com.cineticket.dao.common.RowMapper;
 import com.cineticket.enums.Clasificacion;
 import com.cineticket.modelo.Genero;
 import com.cineticket.modelo.Pelicula;
@@ -9,10 +10,17 @@ import com.cineticket.modelo.Pelicula;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public class PeliculaDAOImpl extends BaseDAO implements PeliculaDAO {
 
+    private static final String COLUMNAS =
+            "id_pelicula, titulo, duracion_minutos, clasificacion, sinopsis, imagen_url, fecha_estreno, activa";
+
     public PeliculaDAOImpl() {
     }
 
@@ -45,9 +53,7 @@ public class PeliculaDAOImpl extends BaseDAO implements PeliculaDAO {
                     INSERT INTO pelicula (titulo, duracion_minutos, clasificacion, sinopsis, imagen_url, fecha_estreno, activa)
                     VALUES (?, ?, ?::clasificacion, ?, ?, ?, ?)
                 """;
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
+        Integer id = insertarRetornandoId(sql, ps -> {
             ps.setString(1, p.getTitulo());
             ps.setInt(2, p.getDuracionMinutos());
             ps.setString(3, toDbClasificacion(p.getClasificacion())); // 👈 mapeo a label de BD
@@ -59,61 +65,47 @@ public class PeliculaDAOImpl extends BaseDAO implements PeliculaDAO {
                 ps.setNull(6, Types.DATE);
             }
             ps.setBoolean(7, p.isActiva());
-
-            ps.executeUpdate();
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) {
-                    int id = rs.getInt(1);
-                    p.setIdPelicula(id);
-                    return id;
-                }
-            }
-            throw new DaoException("No se recibió ID generado para película.");
-        } catch (SQLException e) {
-            throw new DaoException("Error al crear película", e);
-        }
+        }, "Error al crear película");
+        p.setIdPelicula(id);
+        return id;
     }
 
     @Override
     public Pelicula buscarPorId(Integer id) {
-        String sql = "SELECT * FROM pelicula WHERE id_pelicula = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, id);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next() ? mapearPelicula(rs) : null;
-            }
-        } catch (SQLException e) {
-            throw new DaoException("Error al buscar película por ID", e);
-        }
+        String sql = "SELECT " + COLUMNAS + " FROM pelicula WHERE id_pelicula = ?";
+        return consultarUno(sql, ps -> ps.setInt(1, id), MAPEADOR, "Error al buscar película por ID");
     }
 
     @Override
     public List<Pelicula> listarTodas() {
-        String sql = "SELECT * FROM pelicula ORDER BY titulo";
-        List<Pelicula> lista = new ArrayList<>();
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) lista.add(mapearPelicula(rs));
-            return lista;
-        } catch (SQLException e) {
-            throw new DaoException("Error al listar películas", e);
-        }
+        String sql = "SELECT " + COLUMNAS + " FROM pelicula ORDER BY titulo";
+        return consultar(sql, SIN_PARAMETROS, MAPEADOR, "Error al listar películas");
+    }
+
+    @Override
+    public Stream<Pelicula> recorrerTodas() {
+        String sql = "SELECT " + COLUMNAS + " FROM pelicula ORDER BY titulo";
+        return consultarStream(sql, SIN_PARAMETROS, MAPEADOR, "Error al recorrer películas");
     }
 
     @Override
     public List<Pelicula> listarActivas() {
-        String sql = "SELECT * FROM pelicula WHERE activa = TRUE ORDER BY fecha_estreno DESC NULLS LAST";
-        List<Pelicula> lista = new ArrayList<>();
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) lista.add(mapearPelicula(rs));
-            return lista;
-        } catch (SQLException e) {
-            throw new DaoException("Error al listar películas activas", e);
-        }
+        String sql = "SELECT " + COLUMNAS + " FROM pelicula WHERE activa = TRUE ORDER BY fecha_estreno DESC NULLS LAST";
+        return consultar(sql, SIN_PARAMETROS, MAPEADOR, "Error al listar películas activas");
+    }
+
+    @Override
+    public Map<Integer, String> obtenerTitulos(Collection<Integer> ids) {
+        Map<Integer, String> titulos = new HashMap<>();
+        if (ids == null || ids.isEmpty()) return titulos;
+
+        String sql = "SELECT id_pelicula, titulo FROM pelicula WHERE id_pelicula = ANY(?)";
+        List<Map.Entry<Integer, String>> filas = consultar(sql,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("integer", ids.toArray())),
+                rs -> r -> Map.entry(r.getInt(1), r.getString(2)),
+                "Error al obtener títulos de películas");
+        for (Map.Entry<Integer, String> f : filas) titulos.put(f.getKey(), f.getValue());
+        return titulos;
     }
 
     @Override
@@ -124,9 +116,7 @@ public class PeliculaDAOImpl extends BaseDAO implements PeliculaDAO {
                            sinopsis = ?, imagen_url = ?, fecha_estreno = ?, activa = ?
                      WHERE id_pelicula = ?
                 """;
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
+        return ejecutar(sql, ps -> {
             ps.setString(1, p.getTitulo());
             ps.setInt(2, p.getDuracionMinutos());
             ps.setString(3, toDbClasificacion(p.getClasificacion())); // 👈 mapeo a label de BD
@@ -139,38 +129,19 @@ public class PeliculaDAOImpl extends BaseDAO implements PeliculaDAO {
             }
             ps.setBoolean(7, p.isActiva());
             ps.setInt(8, p.getIdPelicula());
-            return ps.executeUpdate() > 0;
-        } catch (SQLException e) {
-            throw new DaoException("Error al actualizar película", e);
-        }
+        }, "Error al actualizar película") > 0;
     }
 
     @Override
     public boolean eliminar(Integer id) {
         String sql = "UPDATE pelicula SET activa = FALSE WHERE id_pelicula = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, id);
-            return ps.executeUpdate() > 0;
-        } catch (SQLException e) {
-            throw new DaoException("Error al eliminar (lógica) película", e);
-        }
+        return ejecutar(sql, ps -> ps.setInt(1, id), "Error al eliminar (lógica) película") > 0;
     }
 
     @Override
     public List<Pelicula> buscarPorTitulo(String titulo) {
-        String sql = "SELECT * FROM pelicula WHERE titulo ILIKE ? ORDER BY titulo";
-        List<Pelicula> lista = new ArrayList<>();
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, "%" + titulo + "%");
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) lista.add(mapearPelicula(rs));
-            }
-            return lista;
-        } catch (SQLException e) {
-            throw new DaoException("Error en búsqueda por título", e);
-        }
+        String sql = "SELECT " + COLUMNAS + " FROM pelicula WHERE titulo ILIKE ? ORDER BY titulo";
+        return consultar(sql, ps -> ps.setString(1, "%" + titulo + "%"), MAPEADOR, "Error en búsqueda por título");
     }
 
     // ===================== N:M GÉNEROS =====================
@@ -212,37 +183,57 @@ public class PeliculaDAOImpl extends BaseDAO implements PeliculaDAO {
                      WHERE pg.pelicula_id = ?
                      ORDER BY g.nombre_genero
                 """;
-        List<Genero> lista = new ArrayList<>();
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, peliculaId);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    Genero g = new Genero();
-                    g.setIdGenero(rs.getInt("id_genero"));
-                    g.setNombreGenero(rs.getString("nombre_genero")); // <- aquí el cambio
-                    g.setDescripcion(rs.getString("descripcion"));
-                    g.setActivo(rs.getBoolean("activo"));
-                    lista.add(g);
-                }
-            }
-            return lista;
-        } catch (SQLException e) {
-            throw new DaoException("Error al obtener géneros de la película", e);
+        return consultar(sql, ps -> ps.setInt(1, peliculaId), GeneroDAOImpl.MAPEADOR,
+                "Error al obtener géneros de la película");
+    }
+
+    @Override
+    public Map<Integer, List<Genero>> obtenerGenerosPorPeliculas(Collection<Integer> peliculaIds) {
+        Map<Integer, List<Genero>> porPelicula = new HashMap<>();
+        if (peliculaIds == null || peliculaIds.isEmpty()) return porPelicula;
+
+        String sql = """
+                    SELECT pg.pelicula_id, g.id_genero, g.nombre_genero, g.descripcion, g.activo
+                      FROM pelicula_genero pg
+                      JOIN genero g ON g.id_genero = pg.genero_id
+                     WHERE pg.pelicula_id = ANY(?)
+                     ORDER BY pg.pelicula_id, g.nombre_genero
+                """;
+        List<Map.Entry<Integer, Genero>> filas = consultar(sql,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("integer", peliculaIds.toArray())),
+                rs -> {
+                    int pelicula = rs.findColumn("pelicula_id");
+                    RowMapper.Fila<Genero> genero = GeneroDAOImpl.MAPEADOR.preparar(rs);
+                    return r -> Map.entry(r.getInt(pelicula), genero.mapear(r));
+                },
+                "Error al obtener géneros de las películas");
+        for (Map.Entry<Integer, Genero> f : filas) {
+            porPelicula.computeIfAbsent(f.getKey(), k -> new ArrayList<>()).add(f.getValue());
         }
+        return porPelicula;
     }
 
     // ===================== MAPEADOR =====================
-    private Pelicula mapearPelicula(ResultSet rs) throws SQLException {
-        Pelicula p = new Pelicula();
-        p.setIdPelicula(rs.getInt("id_pelicula"));
-        p.setTitulo(rs.getString("titulo"));
-        p.setDuracionMinutos(rs.getInt("duracion_minutos"));
-        p.setClasificacion(fromDbClasificacion(rs.getString("clasificacion"))); // 👈 mapeo desde BD
-        p.setSinopsis(rs.getString("sinopsis"));
-        p.setImagenUrl(rs.getString("imagen_url"));
-        p.setFechaEstreno(rs.getObject("fecha_estreno", LocalDate.class));
-        p.setActiva(rs.getBoolean("activa"));
-        return p;
-    }
+    private static final RowMapper<Pelicula> MAPEADOR = rs -> {
+        int id = rs.findColumn("id_pelicula");
+        int titulo = rs.findColumn("titulo");
+        int duracion = rs.findColumn("duracion_minutos");
+        int clasificacion = rs.findColumn("clasificacion");
+        int sinopsis = rs.findColumn("sinopsis");
+        int imagen = rs.findColumn("imagen_url");
+        int estreno = rs.findColumn("fecha_estreno");
+        int activa = rs.findColumn("activa");
+        return r -> {
+            Pelicula p = new Pelicula();
+            p.setIdPelicula(r.getInt(id));
+            p.setTitulo(r.getString(titulo));
+            p.setDuracionMinutos(r.getInt(duracion));
+            p.setClasificacion(fromDbClasificacion(r.getString(clasificacion))); // 👈 mapeo desde BD
+            p.setSinopsis(r.getString(sinopsis));
+            p.setImagenUrl(r.getString(imagen));
+            p.setFechaEstreno(r.getObject(estreno, LocalDate.class));
+            p.setActiva(r.getBoolean(activa));
+            return p;
+        };
+    };
 }
@@ -0,0 +1,199 @@
+package com.cineticket.dao.impl;
+
+import com.cineticket.dao.ReporteDAO;
+import com.cineticket.dao.common.RowMapper;
+import com.cineticket.modelo.ResumenVentas;
+import com.cineticket.modelo.VentasPelicula;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+public class ReporteDAOImpl extends BaseDAO implements ReporteDAO {
+
+    public ReporteDAOImpl() {
+    }
+
+    @Override
+    public Map<Integer, ResumenVentas> obtenerVentasPorHora(LocalDateTime inicio, LocalDateTime fin) {
+        String sql = """
+                    SELECT EXTRACT(HOUR FROM hora)::int         AS hora,
+                           SUM(total_compras)                  AS total_compras,
+                           SUM(total_entradas)                 AS total_entradas,
+                           SUM(total_combos)                   AS total_combos,
+                           SUM(ingresos_entradas)              AS ingresos_entradas,
+                           SUM(ingresos_confiteria)            AS ingresos_confiteria,
+                           SUM(ingresos_totales)               AS ingresos_totales
+                      FROM rollup_ventas_hora
+                     WHERE hora BETWEEN ? AND ?
+                     GROUP BY 1
+                    HAVING SUM(total_compras) > 0
+                     ORDER BY 1
+                """;
+        List<Map.Entry<Integer, ResumenVentas>> filas = consultar(sql, entreHoras(inicio, fin), rs -> {
+            int hora = rs.findColumn("hora");
+            RowMapper.Fila<ResumenVentas> resumen = RESUMEN.preparar(rs);
+            return r -> Map.entry(r.getInt(hora), resumen.mapear(r));
+        }, "Error al obtener ventas por hora");
+        return aMapa(filas);
+    }
+
+    @Override
+    public Map<LocalDate, ResumenVentas> obtenerVentasPorDia(LocalDateTime inicio, LocalDateTime fin) {
+        String sql = """
+                    SELECT hora::date                          AS dia,
+                           SUM(total_compras)                  AS total_compras,
+                           SUM(total_entradas)                 AS total_entradas,
+                           SUM(total_combos)                   AS total_combos,
+                           SUM(ingresos_entradas)              AS ingresos_entradas,
+                           SUM(ingresos_confiteria)            AS ingresos_confiteria,
+                           SUM(ingresos_totales)               AS ingresos_totales
+                      FROM rollup_ventas_hora
+                     WHERE hora BETWEEN ? AND ?
+                     GROUP BY 1
+                    HAVING SUM(total_compras) > 0
+                     ORDER BY 1
+                """;
+        List<Map.Entry<LocalDate, ResumenVentas>> filas = consultar(sql, entreHoras(inicio, fin), rs -> {
+            int dia = rs.findColumn("dia");
+            RowMapper.Fila<ResumenVentas> resumen = RESUMEN.preparar(rs);
+            return r -> Map.entry(r.getDate(dia).toLocalDate(), resumen.mapear(r));
+        }, "Error al obtener ventas por día");
+        return aMapa(filas);
+    }
+
+    @Override
+    public VentasPelicula obtenerVentasPelicula(Integer peliculaId, LocalDateTime inicio, LocalDateTime fin) {
+        // LEFT JOIN desde pelicula: si no hubo ventas igual devolvemos la fila (con ceros)
+        // Las filas del rollup pueden quedar en 0 tras cancelaciones; esas funciones no cuentan
+        String sql = """
+                    SELECT p.id_pelicula, p.titulo,
+                           COALESCE(SUM(r.entradas_vendidas), 0) AS entradas_vendidas,
+                           COALESCE(SUM(r.ingresos), 0)          AS ingresos,
+                           array_agg(DISTINCT r.funcion_id) FILTER (WHERE r.entradas_vendidas > 0) AS funciones
+                      FROM pelicula p
+                      LEFT JOIN rollup_ventas_funcion_dia r
+                             ON r.pelicula_id = p.id_pelicula
+                            AND r.dia BETWEEN ? AND ?
+                     WHERE p.id_pelicula = ?
+                     GROUP BY p.id_pelicula, p.titulo
+                """;
+        return consultarUno(sql, ps -> {
+            ps.setDate(1, Date.valueOf(inicio.toLocalDate()));
+            ps.setDate(2, Date.valueOf(fin.toLocalDate()));
+            ps.setInt(3, peliculaId);
+        }, VENTAS_PELICULA, "Error al obtener ventas de la película");
+    }
+
+    @Override
+    public List<VentasPelicula> obtenerTopPeliculas(int limite, LocalDateTime inicio, LocalDateTime fin) {
+        String sql = """
+                    SELECT p.id_pelicula, p.titulo,
+                           SUM(r.entradas_vendidas) AS entradas_vendidas,
+                           SUM(r.ingresos)          AS ingresos,
+                           array_agg(DISTINCT r.funcion_id) FILTER (WHERE r.entradas_vendidas > 0) AS funciones
+                      FROM rollup_ventas_funcion_dia r
+                      JOIN pelicula p ON p.id_pelicula = r.pelicula_id
+                     WHERE r.dia BETWEEN ? AND ?
+                     GROUP BY p.id_pelicula, p.titulo
+                    HAVING SUM(r.entradas_vendidas) > 0
+                     ORDER BY entradas_vendidas DESC, p.id_pelicula
+                     LIMIT ?
+                """;
+        return consultar(sql, ps -> {
+            ps.setDate(1, Date.valueOf(inicio.toLocalDate()));
+            ps.setDate(2, Date.valueOf(fin.toLocalDate()));
+            ps.setInt(3, limite);
+        }, VENTAS_PELICULA, "Error al obtener top de películas");
+    }
+
+    @Override
+    public Map<Integer, Integer> obtenerVentasPorCombo(LocalDateTime inicio, LocalDateTime fin) {
+        String sql = """
+                    SELECT combo_id, SUM(cantidad) AS total
+                      FROM rollup_ventas_combo_dia
+                     WHERE dia BETWEEN ? AND ?
+                     GROUP BY combo_id
+                    HAVING SUM(cantidad) > 0
+                """;
+        List<Map.Entry<Integer, Integer>> filas = consultar(sql, ps -> {
+            ps.setDate(1, Date.valueOf(inicio.toLocalDate()));
+            ps.setDate(2, Date.valueOf(fin.toLocalDate()));
+        }, rs -> {
+            int combo = rs.findColumn("combo_id");
+            int total = rs.findColumn("total");
+            return r -> Map.entry(r.getInt(combo), r.getInt(total));
+        }, "Error al obtener ventas por combo");
+        return aMapa(filas);
+    }
+
+    @Override
+    public BigDecimal calcularIngresosTotales(LocalDateTime inicio, LocalDateTime fin) {
+        String sql = """
+                    SELECT COALESCE(SUM(ingresos_totales), 0)
+                      FROM rollup_ventas_hora
+                     WHERE hora BETWEEN ? AND ?
+                """;
+        return consultarUno(sql, entreHoras(inicio, fin), rs -> r -> r.getBigDecimal(1),
+                "Error al calcular ingresos totales");
+    }
+
+    // ================== HELPERS ==================
+    private static Parametros entreHoras(LocalDateTime inicio, LocalDateTime fin) {
+        return ps -> {
+            ps.setTimestamp(1, Timestamp.valueOf(inicio));
+            ps.setTimestamp(2, Timestamp.valueOf(fin));
+        };
+    }
+
+    /** Conserva el orden del ORDER BY. */
+    private static <K, V> Map<K, V> aMapa(List<Map.Entry<K, V>> filas) {
+        Map<K, V> mapa = new LinkedHashMap<>();
+        for (Map.Entry<K, V> f : filas) mapa.put(f.getKey(), f.getValue());
+        return mapa;
+    }
+
+    // ================== MAPEADORES ==================
+    private static final RowMapper<ResumenVentas> RESUMEN = rs -> {
+        int compras = rs.findColumn("total_compras");
+        int entradas = rs.findColumn("total_entradas");
+        int combos = rs.findColumn("total_combos");
+        int ingresosEntradas = rs.findColumn("ingresos_entradas");
+        int ingresosConfiteria = rs.findColumn("ingresos_confiteria");
+        int ingresosTotales = rs.findColumn("ingresos_totales");
+        return r -> new ResumenVentas(
+                r.getInt(compras),
+                r.getInt(entradas),
+                r.getInt(combos),
+                r.getBigDecimal(ingresosEntradas),
+                r.getBigDecimal(ingresosConfiteria),
+                r.getBigDecimal(ingresosTotales));
+    };
+
+    private static final RowMapper<VentasPelicula> VENTAS_PELICULA = rs -> {
+        int id = rs.findColumn("id_pelicula");
+        int titulo = rs.findColumn("titulo");
+        int entradas = rs.findColumn("entradas_vendidas");
+        int ingresos = rs.findColumn("ingresos");
+        int funciones = rs.findColumn("funciones");
+        return r -> {
+            Set<Integer> ids = new LinkedHashSet<>();
+            Array arr = r.getArray(funciones);
+            if (arr != null) {
+                for (Object idFuncion : (Object[]) arr.getArray()) {
+                    if (idFuncion != null) ids.add(((Number) idFuncion).intValue());
+                }
+            }
+            return new VentasPelicula(
+                    r.getInt(id),
+                    r.getString(titulo),
+                    r.getInt(entradas),
+                    r.getBigDecimal(ingresos),
+                    ids);
+        };
+    };
+}
@@ -0,0 +1,48 @@
+package com.cineticket.dao.impl;
+
+import com.cineticket.dao.RollupDAO;
+import com.cineticket.dao.common.DaoException;
+
+import java.sql.*;
+
+public class RollupDAOImpl extends BaseDAO implements RollupDAO {
+
+    public RollupDAOImpl() {
+    }
+
+    @Override
+    public void aplicarCompra(Integer compraId) {
+        ejecutarAplicar(compraId, 1);
+    }
+
+    @Override
+    public void revertirCompra(Integer compraId) {
+        ejecutarAplicar(compraId, -1);
+    }
+
+    @Override
+    public void reconstruir() {
+        String sql = "SELECT fn_rollup_reconstruir()";
+        try (Connection c = getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.execute();
+        } catch (SQLException e) {
+            throw new DaoException("Error al reconstruir rollups", e);
+        }
+    }
+
+    // ===== Helpers =====
+    private void ejecutarAplicar(Integer compraId, int signo) {
+        if (compraId == null) throw new IllegalArgumentException("compraId requerido");
+        // Una sola llamada: la función hace los upserts de todos los rollups
+        String sql = "SELECT fn_rollup_aplicar_compra(?, ?)";
+        try (Connection c = getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, compraId);
+            ps.setInt(2, signo);
+            ps.execute();
+        } catch (SQLException e) {
+            throw new DaoException("Error al actualizar rollups de la compra " + compraId, e);
+        }
+    }
+}
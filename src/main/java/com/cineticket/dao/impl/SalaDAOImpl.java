@@ -1,11 +1,9 @@
 package com.cineticket.dao.impl;
 
 import com.cineticket.dao.SalaDAO;
-import com.cineticket.dao.common.DaoException;
+import com.cineticket.dao.common.RowMapper;
 import com.cineticket.modelo.Sala;
 
-import java.sql.*;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -14,6 +12,8 @@ import java.util.List;
  */
 public class SalaDAOImpl extends BaseDAO implements SalaDAO {
 
+    private static final String COLUMNAS = "id_sala, nombre_sala, capacidad_total, filas, columnas, activa";
+
     public SalaDAOImpl() {
     }
 
@@ -29,70 +29,33 @@ public class SalaDAOImpl extends BaseDAO implements SalaDAO {
                     INSERT INTO sala (nombre_sala, capacidad_total, filas, columnas, activa)
                     VALUES (?, ?, ?, ?, ?)
                 """;
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
+        Integer id = insertarRetornandoId(sql, ps -> {
             ps.setString(1, s.getNombreSala());
             ps.setInt(2, s.getCapacidadTotal());
             ps.setInt(3, s.getFilas());
             ps.setInt(4, s.getColumnas());
             ps.setBoolean(5, s.isActiva());
-            ps.executeUpdate();
-
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) {
-                    int id = rs.getInt(1);
-                    s.setIdSala(id);
-                    return id;
-                }
-            }
-            throw new DaoException("No se recibió ID generado para sala.");
-
-        } catch (SQLException e) {
-            throw new DaoException("Error al crear sala", e);
-        }
+        }, "Error al crear sala");
+        s.setIdSala(id);
+        return id;
     }
 
     @Override
     public Sala buscarPorId(Integer id) {
-        String sql = "SELECT * FROM sala WHERE id_sala = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, id);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next() ? mapearSala(rs) : null;
-            }
-        } catch (SQLException e) {
-            throw new DaoException("Error al buscar sala por ID", e);
-        }
+        String sql = "SELECT " + COLUMNAS + " FROM sala WHERE id_sala = ?";
+        return consultarUno(sql, ps -> ps.setInt(1, id), MAPEADOR, "Error al buscar sala por ID");
     }
 
     @Override
     public List<Sala> listarTodas() {
-        String sql = "SELECT * FROM sala ORDER BY nombre_sala";
-        List<Sala> lista = new ArrayList<>();
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) lista.add(mapearSala(rs));
-            return lista;
-        } catch (SQLException e) {
-            throw new DaoException("Error al listar salas", e);
-        }
+        String sql = "SELECT " + COLUMNAS + " FROM sala ORDER BY nombre_sala";
+        return consultar(sql, SIN_PARAMETROS, MAPEADOR, "Error al listar salas");
     }
 
     @Override
     public List<Sala> listarActivas() {
-        String sql = "SELECT * FROM sala WHERE activa = TRUE ORDER BY nombre_sala";
-        List<Sala> lista = new ArrayList<>();
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) lista.add(mapearSala(rs));
-            return lista;
-        } catch (SQLException e) {
-            throw new DaoException("Error al listar salas activas", e);
-        }
+        String sql = "SELECT " + COLUMNAS + " FROM sala WHERE activa = TRUE ORDER BY nombre_sala";
+        return consultar(sql, SIN_PARAMETROS, MAPEADOR, "Error al listar salas activas");
     }
 
     @Override
@@ -106,45 +69,39 @@ public class SalaDAOImpl extends BaseDAO implements SalaDAO {
                        SET nombre_sala = ?, capacidad_total = ?, filas = ?, columnas = ?, activa = ?
                      WHERE id_sala = ?
                 """;
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
+        return ejecutar(sql, ps -> {
             ps.setString(1, s.getNombreSala());
             ps.setInt(2, s.getCapacidadTotal());
             ps.setInt(3, s.getFilas());
             ps.setInt(4, s.getColumnas());
             ps.setBoolean(5, s.isActiva());
             ps.setInt(6, s.getIdSala());
-            return ps.executeUpdate() > 0;
-
-        } catch (SQLException e) {
-            throw new DaoException("Error al actualizar sala", e);
-        }
+        }, "Error al actualizar sala") > 0;
     }
 
     @Override
     public Sala buscarPorNombre(String nombre) {
-        String sql = "SELECT * FROM sala WHERE nombre_sala = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, nombre);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next() ? mapearSala(rs) : null;
-            }
-        } catch (SQLException e) {
-            throw new DaoException("Error al buscar sala por nombre", e);
-        }
+        String sql = "SELECT " + COLUMNAS + " FROM sala WHERE nombre_sala = ?";
+        return consultarUno(sql, ps -> ps.setString(1, nombre), MAPEADOR, "Error al buscar sala por nombre");
     }
 
     // ============== MAPEADOR ==============
-    private Sala mapearSala(ResultSet rs) throws SQLException {
-        Sala s = new Sala();
-        s.setIdSala(rs.getInt("id_sala"));
-        s.setNombreSala(rs.getString("nombre_sala"));
-        s.setCapacidadTotal(rs.getInt("capacidad_total"));
-        s.setFilas(rs.getInt("filas"));
-        s.setColumnas(rs.getInt("columnas"));
-        s.setActiva(rs.getBoolean("activa"));
-        return s;
-    }
+    private static final RowMapper<Sala> MAPEADOR = rs -> {
+        int id = rs.findColumn("id_sala");
+        int nombre = rs.findColumn("nombre_sala");
+        int capacidad = rs.findColumn("capacidad_total");
+        int filas = rs.findColumn("filas");
+        int columnas = rs.findColumn("columnas");
+        int activa = rs.findColumn("activa");
+        return r -> {
+            Sala s = new Sala();
+            s.setIdSala(r.getInt(id));
+            s.setNombreSala(r.getString(nombre));
+            s.setCapacidadTotal(r.getInt(capacidad));
+            s.setFilas(r.getInt(filas));
+            s.setColumnas(r.getInt(columnas));
+            s.setActiva(r.getBoolean(activa));
+            return s;
+        };
+    };
 }
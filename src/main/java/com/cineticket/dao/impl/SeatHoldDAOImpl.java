@@ -0,0 +1,85 @@
+package com.cineticket.dao.impl;
+
+import com.cineticket.dao.SeatHoldDAO;
+import com.cineticket.dao.common.DaoException;
+
+import java.sql.*;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+public class SeatHoldDAOImpl extends BaseDAO implements SeatHoldDAO {
+
+    public SeatHoldDAOImpl() {
+    }
+
+    @Override
+    public Set<Integer> adquirir(Integer funcionId, Integer usuarioId, Collection<Integer> asientoIds, int ttlSegundos) {
+        Set<Integer> retenidos = new HashSet<>();
+        if (asientoIds == null || asientoIds.isEmpty()) return retenidos;
+
+        // El upsert solo pisa retenciones vencidas o del mismo usuario; RETURNING dice cuáles quedaron
+        String sql = """
+                    INSERT INTO seat_hold (funcion_id, asiento_id, usuario_id, expira_en)
+                    SELECT ?, a, ?, now() + make_interval(secs => ?)
+                      FROM unnest(?::int[]) AS a
+                    ON CONFLICT (funcion_id, asiento_id) DO UPDATE
+                       SET usuario_id = EXCLUDED.usuario_id,
+                           creado_en  = now(),
+                           expira_en  = EXCLUDED.expira_en
+                     WHERE seat_hold.expira_en <= now()
+                        OR seat_hold.usuario_id = EXCLUDED.usuario_id
+                    RETURNING asiento_id
+                """;
+        try (Connection c = getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setInt(1, funcionId);
+            ps.setInt(2, usuarioId);
+            ps.setInt(3, ttlSegundos);
+            ps.setArray(4, c.createArrayOf("integer", asientoIds.toArray()));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) retenidos.add(rs.getInt(1));
+            }
+            return retenidos;
+        } catch (SQLException e) {
+            // 23503: FK función/asiento/usuario inexistente
+            if ("23503".equals(e.getSQLState())) {
+                throw new DaoException("FK inválida: función/asiento/usuario inexistente.", e);
+            }
+            throw new DaoException("Error al retener asientos", e);
+        }
+    }
+
+    @Override
+    public Set<Integer> buscarRetenidosPorOtros(Integer funcionId, Integer usuarioId, Collection<Integer> asientoIds) {
+        if (asientoIds == null || asientoIds.isEmpty()) return new HashSet<>();
+
+        String sql = """
+                    SELECT asiento_id FROM seat_hold
+                     WHERE funcion_id = ? AND asiento_id = ANY(?)
+                       AND expira_en > now()
+                       AND usuario_id IS DISTINCT FROM ?
+                """;
+        return new HashSet<>(consultar(sql, ps -> {
+            ps.setInt(1, funcionId);
+            ps.setArray(2, ps.getConnection().createArrayOf("integer", asientoIds.toArray()));
+            if (usuarioId != null) ps.setInt(3, usuarioId);
+            else ps.setNull(3, Types.INTEGER);
+        }, ENTERO, "Error al consultar retenciones de asientos"));
+    }
+
+    @Override
+    public int liberar(Integer funcionId, Integer usuarioId) {
+        String sql = "DELETE FROM seat_hold WHERE funcion_id = ? AND usuario_id = ?";
+        return ejecutar(sql, ps -> {
+            ps.setInt(1, funcionId);
+            ps.setInt(2, usuarioId);
+        }, "Error al liberar retenciones de asientos");
+    }
+
+    @Override
+    public int eliminarExpiradas() {
+        String sql = "DELETE FROM seat_hold WHERE expira_en <= now()";
+        return ejecutar(sql, SIN_PARAMETROS, "Error al eliminar retenciones vencidas");
+    }
+}
@@ -1,21 +1,28 @@
 package com.cineticket.dao.impl;
 
 import com.cineticket.dao.UsuarioDAO;
-import com.cineticket.dao.common.DaoException;
+import com.cineticket.dao.common.RowMapper;
 import com.cineticket.enums.Rol;
 import com.cineticket.modelo.Usuario;
 
-import java.sql.*;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Implementación JDBC de UsuarioDAO usando ConnectionPool estático.
  */
 public class UsuarioDAOImpl extends BaseDAO implements UsuarioDAO {
 
+    private static final String COLUMNAS = """
+            id_usuario, nombre_completo, correo_electronico, nombre_usuario,
+            contrasena_hash, rol, fecha_registro, activo""";
+
+    /** Solo para comprobar existencia (SELECT 1). */
+    private static final RowMapper<Boolean> EXISTE = rs -> r -> Boolean.TRUE;
+
     // Constructor sin dependencias (pool es estático)
     public UsuarioDAOImpl() {
     }
@@ -27,10 +34,7 @@ public class UsuarioDAOImpl extends BaseDAO implements UsuarioDAO {
                                          contrasena_hash, rol, fecha_registro, activo)
                     VALUES (?, ?, ?, ?, ?::rol, ?, ?)
                 """;
-
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
+        usuario.setIdUsuario(insertarRetornandoId(sql, ps -> {
             ps.setString(1, usuario.getNombreCompleto());
             ps.setString(2, usuario.getCorreoElectronico());
             ps.setString(3, usuario.getNombreUsuario());
@@ -38,73 +42,40 @@ public class UsuarioDAOImpl extends BaseDAO implements UsuarioDAO {
             ps.setString(5, usuario.getRol().name());
             ps.setTimestamp(6, Timestamp.valueOf(usuario.getFechaRegistro()));
             ps.setBoolean(7, usuario.isActivo());
-            ps.executeUpdate();
-
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) usuario.setIdUsuario(rs.getInt(1));
-            }
-        } catch (SQLException e) {
-            throw new DaoException("Error al crear usuario", e);
-        }
+        }, "Error al crear usuario"));
     }
 
     @Override
     public Optional<Usuario> buscarPorId(int idUsuario) {
-        String sql = "SELECT * FROM usuario WHERE id_usuario = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, idUsuario);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) return Optional.of(mapear(rs));
-                return Optional.empty();
-            }
-        } catch (SQLException e) {
-            throw new DaoException("Error al buscar usuario por ID", e);
-        }
+        String sql = "SELECT " + COLUMNAS + " FROM usuario WHERE id_usuario = ?";
+        return Optional.ofNullable(consultarUno(sql, ps -> ps.setInt(1, idUsuario), MAPEADOR,
+                "Error al buscar usuario por ID"));
     }
 
     @Override
     public Optional<Usuario> buscarPorNombreUsuario(String nombreUsuario) {
-        String sql = "SELECT * FROM usuario WHERE nombre_usuario = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, nombreUsuario);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) return Optional.of(mapear(rs));
-                return Optional.empty();
-            }
-        } catch (SQLException e) {
-            throw new DaoException("Error al buscar usuario por nombre de usuario", e);
-        }
+        String sql = "SELECT " + COLUMNAS + " FROM usuario WHERE nombre_usuario = ?";
+        return Optional.ofNullable(consultarUno(sql, ps -> ps.setString(1, nombreUsuario), MAPEADOR,
+                "Error al buscar usuario por nombre de usuario"));
     }
 
     @Override
     public Optional<Usuario> buscarPorCorreo(String correo) {
-        String sql = "SELECT * FROM usuario WHERE correo_electronico = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, correo);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) return Optional.of(mapear(rs));
-                return Optional.empty();
-            }
-        } catch (SQLException e) {
-            throw new DaoException("Error al buscar usuario por correo", e);
-        }
+        String sql = "SELECT " + COLUMNAS + " FROM usuario WHERE correo_electronico = ?";
+        return Optional.ofNullable(consultarUno(sql, ps -> ps.setString(1, correo), MAPEADOR,
+                "Error al buscar usuario por correo"));
     }
 
     @Override
     public List<Usuario> listarTodos() {
-        String sql = "SELECT * FROM usuario ORDER BY id_usuario";
-        List<Usuario> usuarios = new ArrayList<>();
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) usuarios.add(mapear(rs));
-            return usuarios;
-        } catch (SQLException e) {
-            throw new DaoException("Error al listar usuarios", e);
-        }
+        String sql = "SELECT " + COLUMNAS + " FROM usuario ORDER BY id_usuario";
+        return consultar(sql, SIN_PARAMETROS, MAPEADOR, "Error al listar usuarios");
+    }
+
+    @Override
+    public Stream<Usuario> recorrerTodos() {
+        String sql = "SELECT " + COLUMNAS + " FROM usuario ORDER BY id_usuario";
+        return consultarStream(sql, SIN_PARAMETROS, MAPEADOR, "Error al recorrer usuarios");
     }
 
     @Override
@@ -115,9 +86,7 @@ public class UsuarioDAOImpl extends BaseDAO implements UsuarioDAO {
                            contrasena_hash = ?, rol = ?::rol, activo = ?
                      WHERE id_usuario = ?
                 """;
-
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        ejecutar(sql, ps -> {
             ps.setString(1, usuario.getNombreCompleto());
             ps.setString(2, usuario.getCorreoElectronico());
             ps.setString(3, usuario.getNombreUsuario());
@@ -125,50 +94,53 @@ public class UsuarioDAOImpl extends BaseDAO implements UsuarioDAO {
             ps.setString(5, usuario.getRol().name());
             ps.setBoolean(6, usuario.isActivo());
             ps.setInt(7, usuario.getIdUsuario());
-            ps.executeUpdate();
-        } catch (SQLException e) {
-            throw new DaoException("Error al actualizar usuario", e);
-        }
+        }, "Error al actualizar usuario");
+    }
+
+    @Override
+    public boolean actualizarContrasenaHash(int idUsuario, String hashAnterior, String hashNuevo) {
+        String sql = "UPDATE usuario SET contrasena_hash = ? WHERE id_usuario = ? AND contrasena_hash = ?";
+        return ejecutar(sql, ps -> {
+            ps.setString(1, hashNuevo);
+            ps.setInt(2, idUsuario);
+            ps.setString(3, hashAnterior);
+        }, "Error al actualizar el hash de contraseña") > 0;
     }
 
     @Override
     public boolean existeNombreUsuario(String nombreUsuario) {
         String sql = "SELECT 1 FROM usuario WHERE nombre_usuario = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, nombreUsuario);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next();
-            }
-        } catch (SQLException e) {
-            throw new DaoException("Error al verificar nombre de usuario", e);
-        }
+        return consultarUno(sql, ps -> ps.setString(1, nombreUsuario), EXISTE,
+                "Error al verificar nombre de usuario") != null;
     }
 
     @Override
     public boolean existeCorreo(String correo) {
         String sql = "SELECT 1 FROM usuario WHERE correo_electronico = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, correo);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next();
-            }
-        } catch (SQLException e) {
-            throw new DaoException("Error al verificar correo electrónico", e);
-        }
+        return consultarUno(sql, ps -> ps.setString(1, correo), EXISTE,
+                "Error al verificar correo electrónico") != null;
     }
 
-    private Usuario mapear(ResultSet rs) throws SQLException {
-        Usuario u = new Usuario();
-        u.setIdUsuario(rs.getInt("id_usuario"));
-        u.setNombreCompleto(rs.getString("nombre_completo"));
-        u.setCorreoElectronico(rs.getString("correo_electronico"));
-        u.setNombreUsuario(rs.getString("nombre_usuario"));
-        u.setContrasenaHash(rs.getString("contrasena_hash"));
-        u.setRol(Rol.valueOf(rs.getString("rol")));
-        u.setFechaRegistro(rs.getObject("fecha_registro", LocalDateTime.class));
-        u.setActivo(rs.getBoolean("activo"));
-        return u;
-    }
+    private static final RowMapper<Usuario> MAPEADOR = rs -> {
+        int id = rs.findColumn("id_usuario");
+        int nombreCompleto = rs.findColumn("nombre_completo");
+        int correo = rs.findColumn("correo_electronico");
+        int nombreUsuario = rs.findColumn("nombre_usuario");
+        int hash = rs.findColumn("contrasena_hash");
+        int rol = rs.findColumn("rol");
+        int fechaRegistro = rs.findColumn("fecha_registro");
+        int activo = rs.findColumn("activo");
+        return r -> {
+            Usuario u = new Usuario();
+            u.setIdUsuario(r.getInt(id));
+            u.setNombreCompleto(r.getString(nombreCompleto));
+            u.setCorreoElectronico(r.getString(correo));
+            u.setNombreUsuario(r.getString(nombreUsuario));
+            u.setContrasenaHash(r.getString(hash));
+            u.setRol(Rol.valueOf(r.getString(rol)));
+            u.setFechaRegistro(r.getObject(fechaRegistro, LocalDateTime.class));
+            u.setActivo(r.getBoolean(activo));
+            return u;
+        };
+    };
 }
@@ -0,0 +1,9 @@
+package com.cineticket.enums;
+
+/** Estado del job de generación del comprobante PDF de una compra */
+public enum EstadoComprobante {
+    PENDIENTE,
+    EN_PROCESO,
+    COMPLETADO,
+    FALLIDO
+}
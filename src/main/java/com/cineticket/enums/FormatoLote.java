@@ -0,0 +1,11 @@
+package com.cineticket.enums;
+
+/** Salida de la generación de comprobantes por lotes */
+public enum FormatoLote {
+    /** Un PDF por compra dentro de una carpeta */
+    ARCHIVOS,
+    /** Un .zip con un PDF por compra */
+    ZIP,
+    /** Un único PDF con todos los comprobantes, en orden de compra */
+    UNIFICADO
+}
@@ -0,0 +1,16 @@
+package com.cineticket.excepcion;
+
+/**
+ * Se lanza cuando la operación no se acepta porque el servicio está saturado
+ * (p. ej. el pool de BCrypt lleno). No indica datos inválidos: se puede reintentar en unos segundos.
+ */
+public class ServicioOcupadoException extends CineTicketException {
+
+    public ServicioOcupadoException(String mensaje) {
+        super(mensaje);
+    }
+
+    public ServicioOcupadoException(String mensaje, Throwable causa) {
+        super(mensaje, causa);
+    }
+}
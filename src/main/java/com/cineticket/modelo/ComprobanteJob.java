@@ -0,0 +1,87 @@
+package com.cineticket.modelo;
+
+import com.cineticket.enums.EstadoComprobante;
+
+import java.time.LocalDateTime;
+
+/**
+ * Job persistente de generación del comprobante PDF de una compra (tabla comprobante_job).
+ */
+public class ComprobanteJob {
+    private Integer compraId;
+    private EstadoComprobante estado;
+    private int intentos;
+    private String ultimoError;
+    private LocalDateTime proximoIntento;
+    private LocalDateTime actualizadoEn;
+
+    // --- Constructores ---
+    public ComprobanteJob() {
+        this.estado = EstadoComprobante.PENDIENTE;
+    }
+
+    /** Constructor completo: usado para hidratar desde BD */
+    public ComprobanteJob(Integer compraId, EstadoComprobante estado, int intentos, String ultimoError,
+                          LocalDateTime proximoIntento, LocalDateTime actualizadoEn) {
+        this.compraId = compraId;
+        this.estado = estado;
+        this.intentos = intentos;
+        this.ultimoError = ultimoError;
+        this.proximoIntento = proximoIntento;
+        this.actualizadoEn = actualizadoEn;
+    }
+
+    // --- Métodos de negocio ---
+    public boolean estaCompletado() {
+        return estado == EstadoComprobante.COMPLETADO;
+    }
+
+    // --- Getters y Setters ---
+    public Integer getCompraId() {
+        return compraId;
+    }
+
+    public void setCompraId(Integer compraId) {
+        this.compraId = compraId;
+    }
+
+    public EstadoComprobante getEstado() {
+        return estado;
+    }
+
+    public void setEstado(EstadoComprobante estado) {
+        this.estado = estado;
+    }
+
+    public int getIntentos() {
+        return intentos;
+    }
+
+    public void setIntentos(int intentos) {
+        this.intentos = intentos;
+    }
+
+    public String getUltimoError() {
+        return ultimoError;
+    }
+
+    public void setUltimoError(String ultimoError) {
+        this.ultimoError = ultimoError;
+    }
+
+    public LocalDateTime getProximoIntento() {
+        return proximoIntento;
+    }
+
+    public void setProximoIntento(LocalDateTime proximoIntento) {
+        this.proximoIntento = proximoIntento;
+    }
+
+    public LocalDateTime getActualizadoEn() {
+        return actualizadoEn;
+    }
+
+    public void setActualizadoEn(LocalDateTime actualizadoEn) {
+        this.actualizadoEn = actualizadoEn;
+    }
+}
@@ -0,0 +1,53 @@
+package com.cineticket.modelo;
+
+import java.math.BigDecimal;
+
+/**
+ * Agregado de ventas para un intervalo (una hora, un día, un rango...).
+ * Lo calcula la BD en ReporteDAO; no corresponde a una tabla.
+ */
+public class ResumenVentas {
+    private final int totalCompras;
+    private final int totalEntradas;
+    private final int totalCombos;
+    private final BigDecimal ingresosEntradas;
+    private final BigDecimal ingresosConfiteria;
+    private final BigDecimal ingresosTotales;
+
+    public ResumenVentas(int totalCompras,
+                         int totalEntradas,
+                         int totalCombos,
+                         BigDecimal ingresosEntradas,
+                         BigDecimal ingresosConfiteria,
+                         BigDecimal ingresosTotales) {
+        this.totalCompras = totalCompras;
+        this.totalEntradas = totalEntradas;
+        this.totalCombos = totalCombos;
+        this.ingresosEntradas = ingresosEntradas != null ? ingresosEntradas : BigDecimal.ZERO;
+        this.ingresosConfiteria = ingresosConfiteria != null ? ingresosConfiteria : BigDecimal.ZERO;
+        this.ingresosTotales = ingresosTotales != null ? ingresosTotales : BigDecimal.ZERO;
+    }
+
+    /** Resumen sin ventas. */
+    public static ResumenVentas vacio() {
+        return new ResumenVentas(0, 0, 0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    public int getTotalCompras() { return totalCompras; }
+
+    public int getTotalEntradas() { return totalEntradas; }
+
+    public int getTotalCombos() { return totalCombos; }
+
+    public BigDecimal getIngresosEntradas() { return ingresosEntradas; }
+
+    public BigDecimal getIngresosConfiteria() { return ingresosConfiteria; }
+
+    public BigDecimal getIngresosTotales() { return ingresosTotales; }
+
+    @Override
+    public String toString() {
+        return "ResumenVentas{compras=" + totalCompras + ", entradas=" + totalEntradas +
+                ", combos=" + totalCombos + ", ingresosTotales=" + ingresosTotales + '}';
+    }
+}
@@ -0,0 +1,49 @@
+package com.cineticket.modelo;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Agregado de entradas vendidas de una película en un rango de fechas.
+ * Lo calcula la BD en ReporteDAO; no corresponde a una tabla.
+ */
+public class VentasPelicula {
+    private final int peliculaId;
+    private final String titulo;
+    private final int entradasVendidas;
+    private final BigDecimal ingresosEntradas;
+    private final Set<Integer> funciones;
+
+    public VentasPelicula(int peliculaId,
+                          String titulo,
+                          int entradasVendidas,
+                          BigDecimal ingresosEntradas,
+                          Set<Integer> funciones) {
+        this.peliculaId = peliculaId;
+        this.titulo = titulo;
+        this.entradasVendidas = entradasVendidas;
+        this.ingresosEntradas = ingresosEntradas != null ? ingresosEntradas : BigDecimal.ZERO;
+        this.funciones = funciones != null
+                ? Collections.unmodifiableSet(new LinkedHashSet<>(funciones))
+                : Collections.emptySet();
+    }
+
+    public int getPeliculaId() { return peliculaId; }
+
+    public String getTitulo() { return titulo; }
+
+    public int getEntradasVendidas() { return entradasVendidas; }
+
+    public BigDecimal getIngresosEntradas() { return ingresosEntradas; }
+
+    /** IDs de las funciones con al menos una entrada vendida en el rango. */
+    public Set<Integer> getFunciones() { return funciones; }
+
+    @Override
+    public String toString() {
+        return "VentasPelicula{peliculaId=" + peliculaId + ", titulo='" + titulo + '\'' +
+                ", entradas=" + entradasVendidas + ", ingresos=" + ingresosEntradas + '}';
+    }
+}
@@ -7,18 +7,26 @@ import com.cineticket.excepcion.ValidacionException;
 import com.cineticket.modelo.Usuario;
 import com.cineticket.util.PasswordUtil;
 import com.cineticket.util.SessionManager;
+import com.cineticket.util.metricas.AmbitoSql;
+import com.cineticket.util.metricas.Metricas;
+import com.cineticket.util.metricas.RegistroSql;
+import com.cineticket.util.metricas.Temporizador;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
 
 public class AuthService {
 
     private static final Logger log = LoggerFactory.getLogger(AuthService.class);
+    private static final Temporizador TIEMPO_LOGIN = Metricas.temporizador("servicio.AuthService.iniciarSesion");
 
     private final UsuarioDAO usuarioDAO;
+    private final PasswordHasher passwordHasher;
+    private final LimitadorIntentos limitadorIntentos;
 
     // Reglas de validación (documento de clases)
     private static final Pattern EMAIL_REGEX =
@@ -27,11 +35,59 @@ public class AuthService {
             Pattern.compile("^[A-Za-z0-9._-]{4,}$");
 
     public AuthService(UsuarioDAO usuarioDAO) {
+        this(usuarioDAO, PasswordHasher.desdeConfiguracion(), LimitadorIntentos.desdeConfiguracion());
+    }
+
+    public AuthService(UsuarioDAO usuarioDAO, PasswordHasher passwordHasher, LimitadorIntentos limitadorIntentos) {
         this.usuarioDAO = Objects.requireNonNull(usuarioDAO, "usuarioDAO es requerido");
+        this.passwordHasher = Objects.requireNonNull(passwordHasher, "passwordHasher es requerido");
+        this.limitadorIntentos = Objects.requireNonNull(limitadorIntentos, "limitadorIntentos es requerido");
+    }
+
+    // ---- versiones asíncronas (UI): corren en el pool de BCrypt ----
+
+    /** iniciarSesion en el pool de BCrypt; el futuro falla con la misma excepción que la versión síncrona. */
+    public CompletableFuture<Usuario> iniciarSesionAsync(String nombreUsuario, String contrasena) {
+        return passwordHasher.ejecutar(() -> iniciarSesion(nombreUsuario, contrasena));
+    }
+
+    public CompletableFuture<Usuario> registrarUsuarioAsync(String nombreCompleto,
+                                                           String correo,
+                                                           String nombreUsuario,
+                                                           String contrasena) {
+        return passwordHasher.ejecutar(() -> registrarUsuario(nombreCompleto, correo, nombreUsuario, contrasena));
+    }
+
+    public CompletableFuture<Boolean> cambiarContrasenaAsync(Integer usuarioId,
+                                                            String contrasenaActual,
+                                                            String contrasenaNueva) {
+        return passwordHasher.ejecutar(() -> cambiarContrasena(usuarioId, contrasenaActual, contrasenaNueva));
+    }
+
+    /** Contadores de intentos rechazados (métricas). */
+    public LimitadorIntentos getLimitadorIntentos() {
+        return limitadorIntentos;
+    }
+
+    /** Operaciones rechazadas porque el pool de BCrypt estaba saturado (métricas). */
+    public long getRechazadosPorPoolSaturado() {
+        return passwordHasher.getRechazados();
+    }
+
+    /** Detiene el pool de BCrypt (al cerrar la aplicación). */
+    public void detener() {
+        passwordHasher.cerrar();
     }
 
     /** Login: valida credenciales y establece sesión */
     public Usuario iniciarSesion(String nombreUsuario, String contrasena) {
+        try (Temporizador.Medicion m = TIEMPO_LOGIN.iniciar();
+             AmbitoSql sql = RegistroSql.abrirAmbito("AuthService.iniciarSesion")) {
+            return autenticar(nombreUsuario, contrasena);
+        }
+    }
+
+    private Usuario autenticar(String nombreUsuario, String contrasena) {
         if (isBlank(nombreUsuario) || isBlank(contrasena)) {
             log.warn("Login fallido: usuario o contraseña vacíos");
             throw new ValidacionException("Usuario y contraseña son obligatorios.");
@@ -39,12 +95,17 @@ public class AuthService {
 
         log.debug("Intento de inicio de sesión para usuario '{}'", nombreUsuario);
 
+        // Antes de tocar la BD o BCrypt: acota lo que cuesta una ráfaga de intentos
+        limitadorIntentos.consumir(nombreUsuario);
 
         Optional<Usuario> opt = usuarioDAO.buscarPorNombreUsuario(nombreUsuario);
-        Usuario u = opt.orElseThrow(() -> {
+        if (opt.isEmpty()) {
+            // Mismo costo que una contraseña equivocada: no revela qué usuarios existen
+            passwordHasher.verificarFicticio(contrasena);
             log.warn("Login fallido: usuario '{}' no existe", nombreUsuario);
-            return new AutenticacionException("Credenciales inválidas.");
-        });
+            throw new AutenticacionException("Credenciales inválidas.");
+        }
+        Usuario u = opt.get();
 
         if (!validarCredenciales(u, contrasena)) {
             log.warn("Login fallido: contraseña inválida para '{}'", nombreUsuario);
@@ -57,6 +118,7 @@ public class AuthService {
 
         SessionManager.getInstance().setUsuarioActual(u);
         log.info("Usuario '{}' inició sesión (rol={})", u.getNombreUsuario(), u.getRol());
+        actualizarHashSiHaceFalta(u, contrasena);
         return u;
     }
 
@@ -78,7 +140,7 @@ public class AuthService {
             throw new ValidacionException("El nombre de usuario ya está en uso.");
         }
 
-        String hash = PasswordUtil.hashPassword(contrasena);
+        String hash = passwordHasher.hash(contrasena);
 
         Usuario nuevo = new Usuario();
         nuevo.setNombreCompleto(nombreCompleto);
@@ -131,12 +193,12 @@ public class AuthService {
                     return new ValidacionException("Usuario no encontrado.");
                 });
 
-        if (!PasswordUtil.verificarPassword(contrasenaActual, u.getContrasenaHash())) {
+        if (!passwordHasher.verificar(contrasenaActual, u.getContrasenaHash())) {
             log.warn("Cambio de contraseña fallido: contraseña actual incorrecta para usuario '{}'", u.getNombreUsuario());
             throw new AutenticacionException("La contraseña actual no es correcta.");
         }
 
-        u.setContrasenaHash(PasswordUtil.hashPassword(contrasenaNueva));
+        u.setContrasenaHash(passwordHasher.hash(contrasenaNueva));
         usuarioDAO.actualizar(u);
         log.info("Contraseña actualizada para usuario {}", u.getNombreUsuario());
         return true;
@@ -144,7 +206,31 @@ public class AuthService {
 
     // ---- privados ----
     private boolean validarCredenciales(Usuario usuario, String contrasena) {
-        return PasswordUtil.verificarPassword(contrasena, usuario.getContrasenaHash());
+        return passwordHasher.verificar(contrasena, usuario.getContrasenaHash());
+    }
+
+    /**
+     * Si el hash se generó con otro costo (bcrypt.rounds cambió), se rehace con la contraseña
+     * recién verificada. Va en segundo plano: el inicio de sesión no lo espera y un fallo no lo afecta.
+     * Solo se escribe la columna del hash; el Usuario de la sesión (leído desde JavaFX) no se toca.
+     */
+    private void actualizarHashSiHaceFalta(Usuario u, String contrasena) {
+        String hashAnterior = u.getContrasenaHash();
+        if (!passwordHasher.requiereRehash(hashAnterior)) return;
+
+        int idUsuario = u.getIdUsuario();
+        passwordHasher.ejecutar(() -> {
+            if (usuarioDAO.actualizarContrasenaHash(idUsuario, hashAnterior, passwordHasher.hash(contrasena))) {
+                log.info("Hash de contraseña actualizado al costo {} para usuario '{}'",
+                        passwordHasher.getRounds(), u.getNombreUsuario());
+            } else {
+                log.info("Hash de contraseña de '{}' cambiado entretanto; no se rehace", u.getNombreUsuario());
+            }
+            return null;
+        }).exceptionally(ex -> {
+            log.warn("No se pudo actualizar el hash de contraseña de '{}': {}", u.getNombreUsuario(), ex.getMessage());
+            return null;
+        });
     }
 
     private void validarDatosRegistro(String correo, String nombreUsuario, String contrasena) {
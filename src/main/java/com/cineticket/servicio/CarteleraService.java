@@ -9,11 +9,16 @@ import com.cineticket.util.SessionManager;
 import com.cineticket.modelo.Funcion;
 import com.cineticket.modelo.Pelicula;
 import com.cineticket.modelo.Genero;
+import com.cineticket.servicio.cache.InvalidacionCatalogo;
+import com.cineticket.servicio.dto.CarteleraSnapshot;
+import com.cineticket.servicio.dto.PeliculaCartelera;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -25,13 +30,23 @@ public class CarteleraService {
     private final PeliculaDAO peliculaDAO;
     private final FuncionDAO funcionDAO;
     private final GeneroDAO generoDAO;
+    private final InvalidacionCatalogo invalidacion;
 
     public CarteleraService(PeliculaDAO peliculaDAO,
                             FuncionDAO funcionDAO,
                             GeneroDAO generoDAO) {   // ← nuevo parámetro
+        this(peliculaDAO, funcionDAO, generoDAO, InvalidacionCatalogo.NINGUNA);
+    }
+
+    /** invalidacion: se avisa tras cada escritura de admin sobre películas (caché de catálogo). */
+    public CarteleraService(PeliculaDAO peliculaDAO,
+                            FuncionDAO funcionDAO,
+                            GeneroDAO generoDAO,
+                            InvalidacionCatalogo invalidacion) {
         this.peliculaDAO = Objects.requireNonNull(peliculaDAO);
         this.funcionDAO  = Objects.requireNonNull(funcionDAO);
         this.generoDAO   = Objects.requireNonNull(generoDAO); // ← nuevo
+        this.invalidacion = Objects.requireNonNull(invalidacion);
     }
 
     /** Lanza excepción si el usuario actual no es ADMIN. */
@@ -49,6 +64,50 @@ public class CarteleraService {
         return activas;
     }
 
+    /**
+     * Películas activas con sus géneros, en dos consultas (películas + géneros de todas a la vez).
+     * Las funciones no se cargan (lista vacía).
+     */
+    public CarteleraSnapshot obtenerCarteleraConGeneros() {
+        List<Pelicula> activas = peliculaDAO.listarActivas();
+        Map<Integer, List<Genero>> generos = activas.isEmpty()
+                ? Map.of()
+                : peliculaDAO.obtenerGenerosPorPeliculas(ids(activas));
+
+        List<PeliculaCartelera> items = new ArrayList<>(activas.size());
+        for (Pelicula p : activas) {
+            items.add(new PeliculaCartelera(p, generos.get(p.getIdPelicula()), null));
+        }
+        log.debug("Cartelera con géneros: {} películas", items.size());
+        return new CarteleraSnapshot(items, LocalDateTime.now());
+    }
+
+    /**
+     * Películas activas con sus funciones que inician en [desde, hasta), en dos consultas.
+     * desde/hasta son opcionales (null = sin límite). Los géneros no se cargan (lista vacía).
+     */
+    public CarteleraSnapshot obtenerFuncionesAgrupadasPorPelicula(LocalDateTime desde, LocalDateTime hasta) {
+        if (desde != null && hasta != null && !hasta.isAfter(desde)) {
+            throw new ValidacionException("El fin del rango debe ser posterior al inicio.");
+        }
+        List<Pelicula> activas = peliculaDAO.listarActivas();
+        Map<Integer, List<Funcion>> funciones = activas.isEmpty()
+                ? Map.of()
+                : funcionDAO.listarPorPeliculas(ids(activas), desde, hasta);
+
+        List<PeliculaCartelera> items = new ArrayList<>(activas.size());
+        for (Pelicula p : activas) {
+            items.add(new PeliculaCartelera(p, null, funciones.get(p.getIdPelicula())));
+        }
+        CarteleraSnapshot snapshot = new CarteleraSnapshot(items, LocalDateTime.now());
+        log.debug("Funciones agrupadas: {} películas, {} funciones", items.size(), snapshot.totalFunciones());
+        return snapshot;
+    }
+
+    private static List<Integer> ids(List<Pelicula> peliculas) {
+        return peliculas.stream().map(Pelicula::getIdPelicula).toList();
+    }
+
     /** Lista funciones disponibles para una película (para ver horarios/precio). */
     public List<Funcion> obtenerFuncionesPorPelicula(Integer peliculaId) {
         if (peliculaId == null) throw new ValidacionException("peliculaId es requerido.");
@@ -126,6 +185,7 @@ public class CarteleraService {
             boolean ok = peliculaDAO.asignarGeneros(idGenerado, generoIds);
             log.debug("Asignación de géneros a película {}: {}", idGenerado, ok);
         }
+        invalidacion.peliculasModificadas();
         return idGenerado;
     }
 
@@ -136,6 +196,7 @@ public class CarteleraService {
 
         boolean actualizado = peliculaDAO.actualizar(pelicula);
         log.info("Película {} actualizada: {}", pelicula.getIdPelicula(), actualizado);
+        invalidacion.peliculasModificadas();
         return actualizado;
     }
 
@@ -148,6 +209,7 @@ public class CarteleraService {
 
         boolean eliminado = peliculaDAO.eliminar(peliculaId);
         log.info("Película {} eliminada/desactivada: {}", peliculaId, eliminado);
+        invalidacion.peliculasModificadas();
         return eliminado;
     }
 
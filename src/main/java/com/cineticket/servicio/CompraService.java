@@ -4,6 +4,9 @@ import com.cineticket.dao.CompraConfiteriaDAO;
 import com.cineticket.dao.CompraDAO;
 import com.cineticket.dao.EntradaDAO;
 import com.cineticket.dao.FuncionDAO;
+import com.cineticket.dao.PeliculaDAO;
+import com.cineticket.dao.RollupDAO;
+import com.cineticket.dao.common.TransactionManager;
 import com.cineticket.enums.EstadoCompra;
 import com.cineticket.enums.EstadoEntrada;
 import com.cineticket.enums.MetodoPago;
@@ -12,26 +15,41 @@ import com.cineticket.modelo.Compra;
 import com.cineticket.modelo.CompraConfiteria;
 import com.cineticket.modelo.Entrada;
 import com.cineticket.modelo.Funcion;
+import com.cineticket.servicio.dto.CompraHistorial;
 import com.cineticket.servicio.dto.CompraPreparada;
+import com.cineticket.servicio.dto.CursorHistorial;
+import com.cineticket.servicio.dto.PaginaHistorial;
+import com.cineticket.util.metricas.AmbitoSql;
+import com.cineticket.util.metricas.Metricas;
+import com.cineticket.util.metricas.RegistroSql;
+import com.cineticket.util.metricas.Temporizador;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 
 public class CompraService {
 
     private static final Logger log = LoggerFactory.getLogger(CompraService.class);
+    private static final Temporizador TIEMPO_CONFIRMAR =
+            Metricas.temporizador("servicio.CompraService.confirmarCompra");
+
+    /** Tope de compras por página del historial detallado. */
+    public static final int MAX_PAGINA_HISTORIAL = 100;
+
     private final CompraDAO compraDAO;
     private final EntradaDAO entradaDAO;
     private final CompraConfiteriaDAO compraConfiteriaDAO;
     private final FuncionDAO funcionDAO;
     private final ReservaService reservaService;
     private final ConfiteriaService confiteriaService;
-    private final PDFService pdfService;
+    private final ComprobanteService comprobanteService;
+    private final TransactionManager transactionManager;
+    private final RollupDAO rollupDAO;
+    private final PeliculaDAO peliculaDAO;
 
     public CompraService(CompraDAO compraDAO,
                          EntradaDAO entradaDAO,
@@ -39,14 +57,20 @@ public class CompraService {
                          FuncionDAO funcionDAO,
                          ReservaService reservaService,
                          ConfiteriaService confiteriaService,
-                         PDFService pdfService) {
+                         ComprobanteService comprobanteService,
+                         TransactionManager transactionManager,
+                         RollupDAO rollupDAO,
+                         PeliculaDAO peliculaDAO) {
         this.compraDAO = Objects.requireNonNull(compraDAO);
         this.entradaDAO = Objects.requireNonNull(entradaDAO);
         this.compraConfiteriaDAO = Objects.requireNonNull(compraConfiteriaDAO);
         this.funcionDAO = Objects.requireNonNull(funcionDAO);
         this.reservaService = Objects.requireNonNull(reservaService);
         this.confiteriaService = Objects.requireNonNull(confiteriaService);
-        this.pdfService = Objects.requireNonNull(pdfService);
+        this.comprobanteService = Objects.requireNonNull(comprobanteService);
+        this.transactionManager = Objects.requireNonNull(transactionManager);
+        this.rollupDAO = Objects.requireNonNull(rollupDAO);
+        this.peliculaDAO = Objects.requireNonNull(peliculaDAO);
         log.debug("CompraService inicializado");
     }
 
@@ -86,7 +110,7 @@ public class CompraService {
         }
 
         // 2) Pre-entradas (no persistidas), usando ReservaService
-        List<Entrada> entradas = reservaService.reservarAsientos(funcionId, asientoIds);
+        List<Entrada> entradas = reservaService.reservarAsientos(funcionId, usuarioId, asientoIds);
         entradas.forEach(e -> e.setEstadoEntrada(EstadoEntrada.ACTIVA));
 
         // 3) Items de confitería (no persistidos)
@@ -131,8 +155,18 @@ public class CompraService {
         return new CompraPreparada(compra, entradas, items);
     }
 
-    /** Confirma la compra en una TRANSACCIÓN: compra → entradas → confitería → PDF → update ruta. */
+    /**
+     * Confirma la compra en una TRANSACCIÓN: compra → entradas → confitería → rollups → job del comprobante.
+     * El PDF se genera en segundo plano después del commit (ver ComprobanteService).
+     */
     public Integer confirmarCompra(CompraPreparada preparada) {
+        try (Temporizador.Medicion m = TIEMPO_CONFIRMAR.iniciar();
+             AmbitoSql sql = RegistroSql.abrirAmbito("CompraService.confirmarCompra")) {
+            return confirmar(preparada);
+        }
+    }
+
+    private Integer confirmar(CompraPreparada preparada) {
         if (preparada == null) throw new ValidacionException("Compra preparada es requerida.");
 
         Compra compra = preparada.getCompra();
@@ -151,39 +185,58 @@ public class CompraService {
                 entradas.size(),
                 items != null ? items.size() : 0);
 
-        // 1) Persistir compra (ID generado)
-        Integer compraId = compraDAO.crear(compra);
-
-        // 2) Persistir cada entrada con ese compraId
-        for (Entrada e : entradas) {
-            e.setCompraId(compraId);
-            e.setEstadoEntrada(EstadoEntrada.ACTIVA);
-            entradaDAO.crear(e);
-        }
+        // Todo en una sola conexión/transacción: o queda la compra completa o no queda nada
+        Integer compraId;
+        try {
+            compraId = transactionManager.enTransaccion(() -> {
+                // 1) Persistir compra (ID generado)
+                Integer id = compraDAO.crear(compra);
+
+                // 2) Persistir entradas con ese compraId (un solo batch)
+                for (Entrada e : entradas) {
+                    e.setCompraId(id);
+                    e.setEstadoEntrada(EstadoEntrada.ACTIVA);
+                }
+                entradaDAO.crearLote(entradas);
+
+                // 3) Persistir confitería (si hay), también en batch
+                if (items != null && !items.isEmpty()) {
+                    for (CompraConfiteria ci : items) {
+                        ci.setCompraId(id);
+                    }
+                    compraConfiteriaDAO.crearLote(items);
+                }
 
-        // 3) Persistir confitería (si hay)
-        if (items != null && !items.isEmpty()) {
-            for (CompraConfiteria ci : items) {
-                ci.setCompraId(compraId);
-                compraConfiteriaDAO.crear(ci);
-            }
+                // 3.1) Rollups de reportes/ocupación, en la misma transacción
+                rollupDAO.aplicarCompra(id);
+
+                // 4) Job del comprobante: si la transacción se confirma, el PDF queda pendiente
+                comprobanteService.registrarPendiente(id);
+                return id;
+            });
+        } catch (RuntimeException ex) {
+            // Rollback: la ocupación cacheada pudo quedar desfasada (p. ej. asiento vendido por otro)
+            reservaService.invalidarOcupacion(funcionId);
+            throw ex;
         }
 
-        // 4) Generar comprobante (PDF real) y actualizar ruta
-        Map<String, Object> extra = construirExtrasParaPDF(compra, entradas);
-        String ruta = pdfService.generarComprobantePDF(compra, entradas, items, extra);
-        compra.setRutaComprobantePdf(ruta);
-        compraDAO.actualizar(compra);
+        // Write-through de la caché de ocupación, ya con la transacción confirmada
+        reservaService.registrarAsientosVendidos(funcionId,
+                entradas.stream().map(Entrada::getAsientoId).toList());
+        // Los asientos ya están vendidos: la retención del usuario deja de hacer falta
+        reservaService.liberarRetenciones(funcionId, compra.getUsuarioId());
 
-        log.info("Compra {} confirmada correctamente para usuario {}. PDF en '{}'",
-                compraId, compra.getUsuarioId(), ruta);
+        // El PDF se genera fuera de la transacción y sin bloquear al llamador
+        comprobanteService.programar(compraId);
 
+        log.info("Compra {} confirmada correctamente para usuario {}. Comprobante en generación",
+                compraId, compra.getUsuarioId());
 
         return compraId;
     }
 
     /** Cancela una compra CONFIRMADA si la función aún no ha iniciado.
-     *  Efectos en BD (atómico si tus DAO comparten la misma conexión/tx):
+     *  Efectos en BD (atómico, dentro de una misma transacción):
      *   - compra: estado_compra=CANCELADA, fecha_cancelacion=now()
      *   - entradas: estado_entrada=CANCELADA
      *  Retorna true si se aplicaron cambios.
@@ -210,13 +263,18 @@ public class CompraService {
                 throw new ValidacionException("La compra no está en estado CONFIRMADA.");
             }
             // Cancelar sólo la compra.
-            compra.setEstadoCompra(EstadoCompra.CANCELADA);
-            compra.setFechaCancelacion(LocalDateTime.now());
-            boolean ok = compraDAO.actualizar(compra);
+            LocalDateTime fechaCancelacion = LocalDateTime.now();
+            boolean ok = transactionManager.enTransaccion(() -> {
+                boolean cancelada = compraDAO.cancelarCompra(compraId, fechaCancelacion);
+                if (cancelada) rollupDAO.revertirCompra(compraId);
+                return cancelada;
+            });
             if (ok) {
+                compra.setEstadoCompra(EstadoCompra.CANCELADA);
+                compra.setFechaCancelacion(fechaCancelacion);
                 log.info("Compra {} cancelada (sin entradas asociadas)", compraId);
             } else {
-                log.warn("No se pudo actualizar el estado de compra {} a CANCELADA", compraId);
+                log.warn("No se pudo cancelar la compra {}: ya no estaba CONFIRMADA", compraId);
             }
             return ok;
         }
@@ -232,20 +290,37 @@ public class CompraService {
         // 3) Reglas de negocio
         validarCompraCancelable(compra, funcion);
 
-        // 4) Persistir cambios (idealmente dentro de una misma transacción)
-        // 4.1 Compra -> CANCELADA
-        compra.setEstadoCompra(EstadoCompra.CANCELADA);
-        compra.setFechaCancelacion(LocalDateTime.now());
-        boolean okCompra = compraDAO.actualizar(compra);
+        // 4) Persistir cambios dentro de una misma transacción
+        LocalDateTime fechaCancelacion = LocalDateTime.now();
+        transactionManager.enTransaccion(() -> {
+            // 4.1 Compra CONFIRMADA -> CANCELADA. Solo una terminal gana la carrera: la otra no
+            //     cambia ninguna fila y no vuelve a restar los rollups. No pisa ruta_comprobante_pdf.
+            if (!compraDAO.cancelarCompra(compraId, fechaCancelacion)) {
+                log.warn("Compra {} ya no estaba CONFIRMADA al cancelarla (¿otra terminal?)", compraId);
+                throw new ValidacionException("La compra ya fue cancelada.");
+            }
 
-        // 4.2 Entradas -> CANCELADA (bulk)
-        boolean okEntradas = entradaDAO.cancelarEntradasDeCompra(compraId);
+            // 4.2 Entradas -> CANCELADA (bulk)
+            boolean okEntradas = entradaDAO.cancelarEntradasDeCompra(compraId);
 
-        if (!okCompra || !okEntradas) {
-            log.error("Falló la cancelación completa de la compra {} (okCompra={}, okEntradas={})",
-                    compraId, okCompra, okEntradas);
-            throw new ValidacionException("No fue posible cancelar completamente la compra.");
-        }
+            if (!okEntradas) {
+                log.error("Falló la cancelación de las entradas de la compra {}", compraId);
+                // La excepción provoca el rollback de la transacción
+                throw new ValidacionException("No fue posible cancelar completamente la compra.");
+            }
+
+            // 4.3 Rollups de reportes/ocupación
+            rollupDAO.revertirCompra(compraId);
+            return null;
+        });
+        compra.setEstadoCompra(EstadoCompra.CANCELADA);
+        compra.setFechaCancelacion(fechaCancelacion);
+
+        // Write-through de la caché de ocupación: los asientos activos quedan libres
+        reservaService.registrarAsientosLiberados(funcionId, entradas.stream()
+                .filter(Entrada::estaActiva)
+                .map(Entrada::getAsientoId)
+                .toList());
         log.info("Compra {} cancelada correctamente. Entradas asociadas marcadas como CANCELADAS", compraId);
         return true;
     }
@@ -284,7 +359,69 @@ public class CompraService {
         return resultado;
     }
 
+    /**
+     * Página del historial con entradas, confitería, función y título de película ya resueltos.
+     * Cantidad fija de consultas por página (compras, entradas, confitería, funciones, películas y combos),
+     * sin importar cuántas compras traiga. Paginación keyset sobre (fecha_hora_compra, id_compra):
+     * despuesDe = null pide la primera página; para la siguiente se pasa PaginaHistorial.getSiguiente().
+     */
+    public PaginaHistorial obtenerHistorialDetallado(Integer usuarioId, CursorHistorial despuesDe, int tamanioPagina) {
+        if (usuarioId == null) {
+            throw new ValidacionException("usuarioId es requerido para consultar el historial.");
+        }
+        if (tamanioPagina <= 0 || tamanioPagina > MAX_PAGINA_HISTORIAL) {
+            throw new ValidacionException("El tamaño de página debe estar entre 1 y " + MAX_PAGINA_HISTORIAL + ".");
+        }
 
+        // Se pide una fila de más para saber si hay otra página sin hacer un COUNT
+        List<Compra> compras = compraDAO.listarPorUsuarioPagina(usuarioId,
+                despuesDe != null ? despuesDe.getFechaHoraCompra() : null,
+                despuesDe != null ? despuesDe.getIdCompra() : null,
+                tamanioPagina + 1);
+        if (compras.isEmpty()) {
+            log.debug("Historial de usuario {} sin compras después de {}", usuarioId, despuesDe);
+            return PaginaHistorial.vacia();
+        }
+
+        boolean hayMas = compras.size() > tamanioPagina;
+        if (hayMas) compras = compras.subList(0, tamanioPagina);
+
+        List<Integer> compraIds = compras.stream().map(Compra::getIdCompra).toList();
+        Map<Integer, List<Entrada>> entradasPorCompra = entradaDAO.listarPorCompras(compraIds);
+        Map<Integer, List<CompraConfiteria>> itemsPorCompra = compraConfiteriaDAO.listarPorCompras(compraIds);
+
+        Set<Integer> funcionIds = new HashSet<>();
+        entradasPorCompra.values().forEach(l -> l.forEach(e -> funcionIds.add(e.getFuncionId())));
+        Map<Integer, Funcion> funciones = funcionIds.isEmpty() ? Map.of() : funcionDAO.buscarPorIds(funcionIds);
+
+        Set<Integer> peliculaIds = new HashSet<>();
+        funciones.values().forEach(f -> peliculaIds.add(f.getPeliculaId()));
+        Map<Integer, String> titulos = peliculaIds.isEmpty() ? Map.of() : peliculaDAO.obtenerTitulos(peliculaIds);
+
+        Set<Integer> comboIds = new HashSet<>();
+        itemsPorCompra.values().forEach(l -> l.forEach(ci -> comboIds.add(ci.getComboId())));
+        Map<Integer, String> nombresCombos = new HashMap<>();
+        confiteriaService.obtenerCombos(comboIds)
+                .forEach((id, combo) -> nombresCombos.put(id, combo.getNombreCombo()));
+
+        List<CompraHistorial> detalle = new ArrayList<>(compras.size());
+        for (Compra c : compras) {
+            List<Entrada> entradas = entradasPorCompra.getOrDefault(c.getIdCompra(), List.of());
+            Funcion f = entradas.isEmpty() ? null : funciones.get(entradas.get(0).getFuncionId());
+            String titulo = f != null ? titulos.get(f.getPeliculaId()) : null;
+            detalle.add(new CompraHistorial(c, entradas,
+                    itemsPorCompra.getOrDefault(c.getIdCompra(), List.of()),
+                    f, titulo, nombresCombos));
+        }
+
+        Compra ultima = compras.get(compras.size() - 1);
+        CursorHistorial siguiente = hayMas
+                ? new CursorHistorial(ultima.getFechaHoraCompra(), ultima.getIdCompra())
+                : null;
+
+        log.info("Historial detallado de usuario {}: {} compras (hayMas={})", usuarioId, detalle.size(), hayMas);
+        return new PaginaHistorial(detalle, siguiente);
+    }
 
     /** Regla: sólo compras CONFIRMADAS y con función futura se pueden cancelar. */
     private void validarCompraCancelable(Compra compra, Funcion funcion) {
@@ -328,49 +465,15 @@ public class CompraService {
         // totalGeneral lo rellena la BD (columna generated) cuando se re-hidrate
     }
 
-    /** Genera el PDF nuevamente para una compra ya confirmada (botón “re-descargar”). */
+    /**
+     * Ruta del comprobante de una compra ya confirmada (botón “descargar”).
+     * Si aún no está listo, espera al job en curso o lo lanza si falta.
+     */
     public String generarComprobante(Integer compraId) {
         if (compraId == null) throw new ValidacionException("compraId requerido.");
 
-        log.info("Generando comprobante PDF para compra {}", compraId);
-
-        var compra = compraDAO.buscarPorId(compraId);
-        if (compra == null) throw new ValidacionException("Compra no encontrada.");
-
-        var entradas = entradaDAO.listarPorCompra(compraId);
-        var items = compraConfiteriaDAO.listarPorCompra(compraId);
-
-        Map<String, Object> extra = construirExtrasParaPDF(compra, entradas);
-        String ruta = pdfService.generarComprobantePDF(compra, entradas, items, extra);
-        compra.setRutaComprobantePdf(ruta);
-        compraDAO.actualizar(compra);
-
-        log.info("Comprobante PDF regenerado para compra {} en ruta '{}'", compraId, ruta);
-
-        return ruta;
-    }
-
-    // ================== Helpers ==================
-
-    /** Arma un pequeño mapa con datos legibles para el PDF (función legible, cliente si lo tienes, etc.). */
-    private Map<String, Object> construirExtrasParaPDF(Compra compra, List<Entrada> entradas) {
-        Map<String, Object> extra = new HashMap<>();
-
-        if (entradas != null && !entradas.isEmpty()) {
-            Integer funcionId = entradas.get(0).getFuncionId();
-            if (funcionId != null) {
-                Funcion f = funcionDAO.buscarPorId(funcionId);
-                if (f != null) {
-                    DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-                    String funcionTexto = "Función " + f.getIdFuncion() +
-                            " | Sala " + f.getSalaId() +
-                            " | " + f.getFechaHoraInicio().format(dtf);
-                    extra.put("funcionTexto", funcionTexto);
-                    log.debug("Extras para PDF de compra {}: {}", compra.getIdCompra(), funcionTexto);
-                }
-            }
-        }
-        return extra;
+        log.info("Obteniendo comprobante PDF para compra {}", compraId);
+        return comprobanteService.obtenerComprobante(compraId);
     }
 
     /** Devuelve las entradas asociadas a una compra. */
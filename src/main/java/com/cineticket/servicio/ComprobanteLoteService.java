@@ -0,0 +1,241 @@
+package com.cineticket.servicio;
+
+import com.cineticket.dao.CompraConfiteriaDAO;
+import com.cineticket.dao.CompraDAO;
+import com.cineticket.dao.EntradaDAO;
+import com.cineticket.dao.FuncionDAO;
+import com.cineticket.enums.FormatoLote;
+import com.cineticket.excepcion.CineTicketException;
+import com.cineticket.excepcion.ValidacionException;
+import com.cineticket.modelo.Compra;
+import com.cineticket.modelo.CompraConfiteria;
+import com.cineticket.modelo.Entrada;
+import com.cineticket.modelo.Funcion;
+import com.cineticket.servicio.dto.ResultadoLoteComprobantes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Reemisión de comprobantes por lotes (cambio de plantilla, auditorías).
+ * - Precarga compras, entradas, confitería y funciones con 4 consultas en total, sin importar el tamaño del lote.
+ * - Renderiza en paralelo con un pool de N workers (pdf.batch.workers; por defecto, núcleos disponibles).
+ * - Escribe un PDF por compra, un ZIP o un único PDF unificado; no modifica ruta_comprobante_pdf.
+ * - Cada render se escribe apenas termina y se suelta, así el lote no retiene todos los PDF en memoria.
+ */
+public class ComprobanteLoteService {
+
+    private static final Logger log = LoggerFactory.getLogger(ComprobanteLoteService.class);
+
+    private final CompraDAO compraDAO;
+    private final EntradaDAO entradaDAO;
+    private final CompraConfiteriaDAO compraConfiteriaDAO;
+    private final FuncionDAO funcionDAO;
+    private final PDFService pdfService;
+    private final int workers;
+
+    public ComprobanteLoteService(CompraDAO compraDAO,
+                                  EntradaDAO entradaDAO,
+                                  CompraConfiteriaDAO compraConfiteriaDAO,
+                                  FuncionDAO funcionDAO,
+                                  PDFService pdfService,
+                                  int workers) {
+        this.compraDAO = Objects.requireNonNull(compraDAO);
+        this.entradaDAO = Objects.requireNonNull(entradaDAO);
+        this.compraConfiteriaDAO = Objects.requireNonNull(compraConfiteriaDAO);
+        this.funcionDAO = Objects.requireNonNull(funcionDAO);
+        this.pdfService = Objects.requireNonNull(pdfService);
+        if (workers < 1) throw new IllegalArgumentException("workers debe ser >= 1");
+        this.workers = workers;
+        log.debug("ComprobanteLoteService inicializado (workers={})", workers);
+    }
+
+    /**
+     * Genera los comprobantes de las compras indicadas en destino:
+     * ARCHIVOS = carpeta, ZIP = archivo .zip, UNIFICADO = archivo .pdf.
+     * Un comprobante que falla no detiene el lote: queda en el resultado como fallido.
+     */
+    public ResultadoLoteComprobantes generarComprobantesLote(Collection<Integer> compraIds,
+                                                             Path destino,
+                                                             FormatoLote formato) {
+        if (compraIds == null || compraIds.isEmpty()) throw new ValidacionException("Debe indicar al menos una compra.");
+        if (destino == null) throw new ValidacionException("destino requerido.");
+        if (formato == null) throw new ValidacionException("formato requerido.");
+
+        long t0 = System.nanoTime();
+        List<Integer> ids = compraIds.stream().filter(Objects::nonNull).distinct().sorted().toList();
+        log.info("Generando lote de {} comprobantes ({}) en '{}'", ids.size(), formato, destino);
+
+        // 1) Precarga en bloque
+        List<Compra> compras = compraDAO.buscarPorIds(ids);
+        Map<Integer, List<Entrada>> entradasPorCompra = entradaDAO.listarPorCompras(ids);
+        Map<Integer, List<CompraConfiteria>> itemsPorCompra = compraConfiteriaDAO.listarPorCompras(ids);
+        Set<Integer> funcionIds = entradasPorCompra.values().stream()
+                .flatMap(List::stream)
+                .map(Entrada::getFuncionId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Integer, Funcion> funciones = funcionDAO.buscarPorIds(funcionIds);
+
+        Map<Integer, String> fallidos = new ConcurrentHashMap<>();
+        Set<Integer> encontradas = compras.stream().map(Compra::getIdCompra).collect(Collectors.toSet());
+        ids.stream().filter(id -> !encontradas.contains(id)).forEach(id -> fallidos.put(id, "Compra no encontrada."));
+
+        log.debug("Precarga del lote en {} ms: compras={}, funciones={}",
+                (System.nanoTime() - t0) / 1_000_000, compras.size(), funciones.size());
+
+        // 2) Render en paralelo, 3) escritura según formato
+        int hilos = Math.max(1, Math.min(workers, compras.size()));
+        ExecutorService pool = Executors.newFixedThreadPool(hilos, hilosDaemon());
+        int generados;
+        try {
+            CompletionService<byte[]> renders = new ExecutorCompletionService<>(pool);
+            Map<Future<byte[]>, Integer> pendientes = new HashMap<>(compras.size() * 2);
+            for (Compra compra : compras) {
+                List<Entrada> entradas = entradasPorCompra.getOrDefault(compra.getIdCompra(), List.of());
+                List<CompraConfiteria> items = itemsPorCompra.getOrDefault(compra.getIdCompra(), List.of());
+                Funcion funcion = entradas.isEmpty() ? null : funciones.get(entradas.get(0).getFuncionId());
+                pendientes.put(renders.submit(() -> pdfService.renderizarComprobante(
+                        compra, entradas, items, ComprobanteService.extrasParaPDF(funcion))), compra.getIdCompra());
+            }
+            generados = escribir(formato, destino, renders, pendientes, fallidos);
+        } catch (IOException e) {
+            throw new CineTicketException("Error escribiendo el lote de comprobantes en " + destino, e);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        ResultadoLoteComprobantes resultado = new ResultadoLoteComprobantes(
+                ids.size(), generados, fallidos, destino, Duration.ofNanos(System.nanoTime() - t0), hilos);
+        log.info("Lote de comprobantes terminado: {}", resultado);
+        if (!fallidos.isEmpty()) log.warn("Comprobantes con error en el lote: {}", new TreeMap<>(fallidos));
+        return resultado;
+    }
+
+    // ===== Escritura =====
+
+    /** Escribe un comprobante ya renderizado. */
+    private interface Escritura {
+        void escribir(Integer compraId, byte[] pdf) throws IOException;
+    }
+
+    /** Escribe los renders a medida que terminan (no en orden de compra); devuelve cuántos se escribieron. */
+    private int escribir(FormatoLote formato, Path destino, CompletionService<byte[]> renders,
+                         Map<Future<byte[]>, Integer> pendientes, Map<Integer, String> fallidos) throws IOException {
+        return switch (formato) {
+            case ARCHIVOS -> {
+                Files.createDirectories(destino);
+                yield consumir(renders, pendientes, fallidos,
+                        (id, pdf) -> Files.write(destino.resolve(nombreArchivo(id)), pdf));
+            }
+            case ZIP -> {
+                crearCarpetaPadre(destino);
+                try (OutputStream out = Files.newOutputStream(destino);
+                     ZipOutputStream zip = new ZipOutputStream(out)) {
+                    yield consumir(renders, pendientes, fallidos, (id, pdf) -> {
+                        zip.putNextEntry(new ZipEntry(nombreArchivo(id)));
+                        zip.write(pdf);
+                        zip.closeEntry();
+                    });
+                }
+            }
+            case UNIFICADO -> {
+                // Cada PDF pasa por un archivo temporal; el orden de compra se recupera al unir
+                crearCarpetaPadre(destino);
+                Path temporal = Files.createTempDirectory(destino.toAbsolutePath().getParent(), "comprobantes-");
+                try {
+                    Map<Integer, Path> archivos = new TreeMap<>();
+                    int escritos = consumir(renders, pendientes, fallidos, (id, pdf) -> {
+                        Path archivo = temporal.resolve(nombreArchivo(id));
+                        Files.write(archivo, pdf);
+                        archivos.put(id, archivo);
+                    });
+                    if (!archivos.isEmpty()) pdfService.unirComprobantes(new ArrayList<>(archivos.values()), destino);
+                    yield escritos;
+                } finally {
+                    borrarCarpeta(temporal);
+                }
+            }
+        };
+    }
+
+    /**
+     * Toma cada render terminado, lo escribe y lo descarta de pendientes: una vez escrito,
+     * el byte[] ya no queda alcanzable desde el lote.
+     */
+    private int consumir(CompletionService<byte[]> renders, Map<Future<byte[]>, Integer> pendientes,
+                         Map<Integer, String> fallidos, Escritura escritura) throws IOException {
+        int escritos = 0;
+        while (!pendientes.isEmpty()) {
+            Future<byte[]> render = siguiente(renders);
+            Integer id = pendientes.remove(render);
+            byte[] pdf = resultado(id, render, fallidos);
+            if (pdf == null) continue;
+            escritura.escribir(id, pdf);
+            escritos++;
+        }
+        return escritos;
+    }
+
+    private static Future<byte[]> siguiente(CompletionService<byte[]> renders) {
+        try {
+            return renders.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Generación del lote interrumpida", e);
+        }
+    }
+
+    /** Resultado de un render terminado, o null (y registrado como fallido) si lanzó excepción. */
+    private byte[] resultado(Integer compraId, Future<byte[]> render, Map<Integer, String> fallidos) {
+        try {
+            return render.get();
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause() != null ? e.getCause() : e;
+            log.warn("No se pudo generar el comprobante de compra {} en el lote", compraId, causa);
+            fallidos.put(compraId, String.valueOf(causa.getMessage()));
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Generación del lote interrumpida", e);
+        }
+    }
+
+    private static void borrarCarpeta(Path carpeta) {
+        try (var archivos = Files.list(carpeta)) {
+            for (Path archivo : (Iterable<Path>) archivos::iterator) Files.deleteIfExists(archivo);
+            Files.deleteIfExists(carpeta);
+        } catch (IOException e) {
+            log.warn("No se pudo borrar la carpeta temporal del lote {}", carpeta, e);
+        }
+    }
+
+    private static String nombreArchivo(Integer compraId) {
+        return "comprobante_" + compraId + ".pdf";
+    }
+
+    private static void crearCarpetaPadre(Path archivo) throws IOException {
+        Path padre = archivo.toAbsolutePath().getParent();
+        if (padre != null) Files.createDirectories(padre);
+    }
+
+    private static ThreadFactory hilosDaemon() {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "comprobante-lote-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
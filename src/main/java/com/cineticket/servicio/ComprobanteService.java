@@ -0,0 +1,305 @@
+package com.cineticket.servicio;
+
+import com.cineticket.dao.CompraConfiteriaDAO;
+import com.cineticket.dao.CompraDAO;
+import com.cineticket.dao.ComprobanteJobDAO;
+import com.cineticket.dao.EntradaDAO;
+import com.cineticket.dao.FuncionDAO;
+import com.cineticket.dao.common.TransactionManager;
+import com.cineticket.excepcion.ValidacionException;
+import com.cineticket.modelo.Compra;
+import com.cineticket.modelo.CompraConfiteria;
+import com.cineticket.modelo.ComprobanteJob;
+import com.cineticket.modelo.Entrada;
+import com.cineticket.modelo.Funcion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generación de comprobantes PDF en segundo plano.
+ * - CompraService registra el job (tabla comprobante_job) dentro de la transacción de la compra
+ *   y lo programa después del commit: la compra no espera al PDF.
+ * - Los PDFs se generan en un pool acotado (hilos y cola); si la cola está llena el job queda
+ *   PENDIENTE y lo recoge el barrido periódico.
+ * - Si falla, se marca FALLIDO y se reintenta con espera creciente hasta maxIntentos.
+ */
+public class ComprobanteService {
+
+    private static final Logger log = LoggerFactory.getLogger(ComprobanteService.class);
+
+    /** Un job EN_PROCESO más tiempo que esto se considera abandonado (proceso caído) */
+    private static final int BLOQUEO_SEGUNDOS = 600;
+    private static final int ESPERA_BASE_SEGUNDOS = 5;
+    private static final int ESPERA_MAX_SEGUNDOS = 300;
+    private static final int LOTE_BARRIDO = 50;
+
+    private final CompraDAO compraDAO;
+    private final EntradaDAO entradaDAO;
+    private final CompraConfiteriaDAO compraConfiteriaDAO;
+    private final FuncionDAO funcionDAO;
+    private final PDFService pdfService;
+    private final ComprobanteJobDAO jobDAO;
+    private final TransactionManager transactionManager;
+    private final int maxIntentos;
+    private final Duration esperaDescarga;
+
+    private final ThreadPoolExecutor ejecutor;
+    private final ScheduledExecutorService planificador;
+
+    /** Generaciones en curso en esta instancia: quien descarga espera sobre el mismo futuro */
+    private final ConcurrentHashMap<Integer, CompletableFuture<String>> enCurso = new ConcurrentHashMap<>();
+
+    public ComprobanteService(CompraDAO compraDAO,
+                              EntradaDAO entradaDAO,
+                              CompraConfiteriaDAO compraConfiteriaDAO,
+                              FuncionDAO funcionDAO,
+                              PDFService pdfService,
+                              ComprobanteJobDAO jobDAO,
+                              TransactionManager transactionManager,
+                              int workers,
+                              int capacidadCola,
+                              int maxIntentos,
+                              Duration esperaDescarga) {
+        this.compraDAO = Objects.requireNonNull(compraDAO);
+        this.entradaDAO = Objects.requireNonNull(entradaDAO);
+        this.compraConfiteriaDAO = Objects.requireNonNull(compraConfiteriaDAO);
+        this.funcionDAO = Objects.requireNonNull(funcionDAO);
+        this.pdfService = Objects.requireNonNull(pdfService);
+        this.jobDAO = Objects.requireNonNull(jobDAO);
+        this.transactionManager = Objects.requireNonNull(transactionManager);
+        this.esperaDescarga = Objects.requireNonNull(esperaDescarga);
+        if (workers < 1 || capacidadCola < 1 || maxIntentos < 1) {
+            throw new IllegalArgumentException("workers, capacidadCola y maxIntentos deben ser >= 1");
+        }
+        this.maxIntentos = maxIntentos;
+
+        this.ejecutor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(capacidadCola), hilosDaemon("comprobante-pdf"));
+        this.ejecutor.allowCoreThreadTimeOut(true);
+        this.planificador = Executors.newSingleThreadScheduledExecutor(hilosDaemon("comprobante-reintentos"));
+
+        log.debug("ComprobanteService inicializado (workers={}, cola={}, maxIntentos={})",
+                workers, capacidadCola, maxIntentos);
+    }
+
+    /** Crea el job PENDIENTE. Llamar dentro de la transacción de la compra. */
+    public void registrarPendiente(Integer compraId) {
+        jobDAO.encolar(compraId);
+    }
+
+    /**
+     * Lanza la generación en segundo plano (después del commit). Si ya hay una en curso
+     * para la compra, devuelve esa misma. El futuro termina con la ruta del PDF.
+     */
+    public CompletableFuture<String> programar(Integer compraId) {
+        if (compraId == null) throw new ValidacionException("compraId requerido.");
+
+        CompletableFuture<String> nuevo = new CompletableFuture<>();
+        CompletableFuture<String> existente = enCurso.putIfAbsent(compraId, nuevo);
+        if (existente != null) return existente;
+
+        try {
+            ejecutor.execute(() -> ejecutar(compraId, nuevo));
+        } catch (RejectedExecutionException ex) {
+            // El job sigue PENDIENTE en BD: lo retoma el barrido
+            enCurso.remove(compraId, nuevo);
+            log.warn("Cola de comprobantes llena; la compra {} queda pendiente para el barrido", compraId);
+            nuevo.completeExceptionally(ex);
+        }
+        return nuevo;
+    }
+
+    /**
+     * Ruta del comprobante para descargar. Si aún no existe (job sin terminar, nunca creado
+     * o archivo borrado) lo (re)programa y espera hasta esperaDescarga.
+     */
+    public String obtenerComprobante(Integer compraId) {
+        if (compraId == null) throw new ValidacionException("compraId requerido.");
+
+        Compra compra = compraDAO.buscarPorId(compraId);
+        if (compra == null) throw new ValidacionException("Compra no encontrada.");
+
+        String ruta = compra.getRutaComprobantePdf();
+        if (existeArchivo(ruta)) return ruta;
+
+        CompletableFuture<String> futuro = enCurso.get(compraId);
+        if (futuro == null) {
+            log.info("Comprobante de compra {} no disponible; se programa su generación", compraId);
+            jobDAO.encolar(compraId);
+            futuro = programar(compraId);
+        }
+
+        try {
+            return futuro.get(esperaDescarga.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            throw new ValidacionException("El comprobante aún se está generando. Intenta de nuevo en unos segundos.");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ValidacionException("Se interrumpió la espera del comprobante.");
+        } catch (ExecutionException ex) {
+            Throwable causa = ex.getCause();
+            if (causa instanceof RejectedExecutionException) {
+                throw new ValidacionException("Hay muchos comprobantes en cola. Intenta de nuevo en unos segundos.");
+            }
+            log.warn("No se pudo generar el comprobante de compra {}", compraId, causa);
+            throw new ValidacionException("No se pudo generar el comprobante: " + causa.getMessage());
+        }
+    }
+
+    /** Programa los jobs pendientes, fallidos con reintento vencido o abandonados. */
+    public int reanudarPendientes() {
+        List<Integer> pendientes = jobDAO.listarPendientes(maxIntentos, BLOQUEO_SEGUNDOS, LOTE_BARRIDO);
+        for (Integer compraId : pendientes) {
+            programar(compraId);
+        }
+        if (!pendientes.isEmpty()) log.info("Barrido de comprobantes: {} jobs programados", pendientes.size());
+        return pendientes.size();
+    }
+
+    /** Inicia el barrido periódico de jobs pendientes (el primero, inmediato). */
+    public void iniciarBarrido(Duration intervalo) {
+        long ms = intervalo.toMillis();
+        planificador.scheduleWithFixedDelay(() -> {
+            try {
+                reanudarPendientes();
+            } catch (RuntimeException ex) {
+                log.warn("Error en el barrido de comprobantes pendientes", ex);
+            }
+        }, 0, ms, TimeUnit.MILLISECONDS);
+        log.info("Barrido de comprobantes programado cada {}s", intervalo.toSeconds());
+    }
+
+    /** Detiene los hilos de fondo; los jobs sin terminar se retoman en el próximo arranque. */
+    public void detener() {
+        planificador.shutdownNow();
+        ejecutor.shutdown();
+    }
+
+    // ===== Procesamiento =====
+
+    private void ejecutar(Integer compraId, CompletableFuture<String> futuro) {
+        try {
+            futuro.complete(procesar(compraId));
+        } catch (Throwable t) {
+            futuro.completeExceptionally(t);
+        } finally {
+            enCurso.remove(compraId, futuro);
+        }
+    }
+
+    /** Reclama el job, genera el PDF y guarda la ruta. Si falla, deja programado el reintento. */
+    String procesar(Integer compraId) {
+        if (!jobDAO.tomar(compraId, maxIntentos, BLOQUEO_SEGUNDOS)) {
+            // Ya lo generó (o lo está generando) otro hilo u otra instancia
+            ComprobanteJob job = jobDAO.buscarPorCompra(compraId);
+            if (job != null && job.estaCompletado()) {
+                Compra compra = compraDAO.buscarPorId(compraId);
+                if (compra != null && compra.getRutaComprobantePdf() != null) return compra.getRutaComprobantePdf();
+            }
+            throw new IllegalStateException("El comprobante de la compra " + compraId + " no está disponible ("
+                    + (job == null ? "sin job" : job.getEstado() + ", intentos=" + job.getIntentos()) + ").");
+        }
+
+        try {
+            String ruta = generarPdf(compraId);
+            transactionManager.enTransaccion(() -> {
+                compraDAO.actualizarRutaComprobante(compraId, ruta);
+                jobDAO.marcarCompletado(compraId);
+                return null;
+            });
+            log.info("Comprobante de compra {} generado en '{}'", compraId, ruta);
+            return ruta;
+        } catch (RuntimeException ex) {
+            registrarFallo(compraId, ex);
+            throw ex;
+        }
+    }
+
+    private String generarPdf(Integer compraId) {
+        Compra compra = compraDAO.buscarPorId(compraId);
+        if (compra == null) throw new ValidacionException("Compra no encontrada.");
+
+        List<Entrada> entradas = entradaDAO.listarPorCompra(compraId);
+        List<CompraConfiteria> items = compraConfiteriaDAO.listarPorCompra(compraId);
+        return pdfService.generarComprobantePDF(compra, entradas, items, construirExtrasParaPDF(compra, entradas));
+    }
+
+    private void registrarFallo(Integer compraId, RuntimeException causa) {
+        try {
+            ComprobanteJob job = jobDAO.buscarPorCompra(compraId);
+            int intentos = job != null ? job.getIntentos() : maxIntentos;
+            int espera = esperaReintento(intentos);
+            jobDAO.marcarFallido(compraId, String.valueOf(causa.getMessage()), espera);
+
+            if (intentos < maxIntentos) {
+                log.warn("Falló el comprobante de compra {} (intento {}/{}); reintento en {}s",
+                        compraId, intentos, maxIntentos, espera, causa);
+                // +1s de margen por si el reloj de la BD va algo adelantado
+                planificador.schedule(() -> programar(compraId), espera + 1L, TimeUnit.SECONDS);
+            } else {
+                log.error("Comprobante de compra {} sin generar tras {} intentos", compraId, intentos, causa);
+            }
+        } catch (RuntimeException ex) {
+            // Queda EN_PROCESO; el barrido lo retoma cuando venza el bloqueo
+            log.error("No se pudo registrar el fallo del comprobante de compra {}", compraId, ex);
+        }
+    }
+
+    /** 5s, 10s, 20s, ... hasta 5 minutos */
+    static int esperaReintento(int intentos) {
+        int exp = Math.min(Math.max(intentos - 1, 0), 16);
+        return Math.min(ESPERA_BASE_SEGUNDOS << exp, ESPERA_MAX_SEGUNDOS);
+    }
+
+    // ===== Helpers =====
+
+    /** Arma un pequeño mapa con datos legibles para el PDF (función legible, cliente si lo tienes, etc.). */
+    private Map<String, Object> construirExtrasParaPDF(Compra compra, List<Entrada> entradas) {
+        if (entradas == null || entradas.isEmpty() || entradas.get(0).getFuncionId() == null) {
+            return new HashMap<>();
+        }
+        Map<String, Object> extra = extrasParaPDF(funcionDAO.buscarPorId(entradas.get(0).getFuncionId()));
+        log.debug("Extras para PDF de compra {}: {}", compra.getIdCompra(), extra);
+        return extra;
+    }
+
+    /** Datos legibles de la función para el PDF; compartido con la generación por lotes. */
+    static Map<String, Object> extrasParaPDF(Funcion f) {
+        Map<String, Object> extra = new HashMap<>();
+        if (f != null) {
+            DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+            String funcionTexto = "Función " + f.getIdFuncion() +
+                    " | Sala " + f.getSalaId() +
+                    " | " + f.getFechaHoraInicio().format(dtf);
+            extra.put("funcionTexto", funcionTexto);
+        }
+        return extra;
+    }
+
+    private static boolean existeArchivo(String ruta) {
+        if (ruta == null || ruta.isBlank()) return false;
+        try {
+            return Files.exists(Path.of(ruta));
+        } catch (InvalidPathException ex) {
+            return false;
+        }
+    }
+
+    private static ThreadFactory hilosDaemon(String prefijo) {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefijo + "-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -5,7 +5,9 @@ import com.cineticket.excepcion.ValidacionException;
 import com.cineticket.modelo.ComboConfiteria;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 public class ConfiteriaService {
@@ -31,6 +33,13 @@ public class ConfiteriaService {
         return c;
     }
 
+    /** Varios combos por ID en una sola consulta (id -> combo; los inexistentes no aparecen). */
+    public Map<Integer, ComboConfiteria> obtenerCombos(Collection<Integer> comboIds) {
+        if (comboIds == null) throw new ValidacionException("comboIds es requerido.");
+        if (comboIds.isEmpty()) return Map.of();
+        return comboDAO.buscarPorIds(comboIds);
+    }
+
     /** Subtotal = precio del combo * cantidad (cantidad > 0). */
     public BigDecimal calcularSubtotal(Integer comboId, Integer cantidad) {
         if (comboId == null) throw new ValidacionException("comboId es requerido.");
@@ -0,0 +1,186 @@
+package com.cineticket.servicio;
+
+import com.cineticket.excepcion.AutenticacionException;
+import com.cineticket.util.ConfiguracionApp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Límite de intentos de inicio de sesión (token bucket) para acotar el CPU que gasta BCrypt.
+ * - Una cubeta para la terminal y otra por nombre de usuario: cada intento toma una ficha de
+ *   ambas (primero la de la terminal) y las fichas se reponen a ritmo fijo (auth.limite.*).
+ * - Sin fichas, el intento se rechaza antes de consultar la BD o verificar la contraseña.
+ * - En memoria; cada cubeta se actualiza dentro de ConcurrentHashMap.compute (bloqueo por
+ *   segmento del mapa, sin candado global). Las cubetas llenas se descartan cuando el mapa crece,
+ *   a lo sumo una vez por lo que tarda una cubeta en llenarse.
+ * - Cuenta los intentos rechazados por usuario y por terminal.
+ */
+public class LimitadorIntentos {
+
+    private static final Logger log = LoggerFactory.getLogger(LimitadorIntentos.class);
+
+    /** Por encima de estas cubetas se purgan las que ya están llenas (usuarios inventados). */
+    private static final int MAX_CUBETAS = 10_000;
+
+    private final Cubetas porUsuario;
+    private final Cubetas porTerminal;
+    private final String terminal;
+    private final LongSupplier relojNanos;
+
+    private final LongAdder rechazadosPorUsuario = new LongAdder();
+    private final LongAdder rechazadosPorTerminal = new LongAdder();
+
+    public LimitadorIntentos(int capacidadUsuario, Duration recargaUsuario,
+                             int capacidadTerminal, Duration recargaTerminal,
+                             String terminal) {
+        this(capacidadUsuario, recargaUsuario, capacidadTerminal, recargaTerminal, terminal, System::nanoTime);
+    }
+
+    LimitadorIntentos(int capacidadUsuario, Duration recargaUsuario,
+                      int capacidadTerminal, Duration recargaTerminal,
+                      String terminal, LongSupplier relojNanos) {
+        this.porUsuario = new Cubetas(capacidadUsuario, recargaUsuario);
+        this.porTerminal = new Cubetas(capacidadTerminal, recargaTerminal);
+        this.terminal = Objects.requireNonNull(terminal, "terminal es requerida");
+        this.relojNanos = Objects.requireNonNull(relojNanos, "relojNanos es requerido");
+    }
+
+    /** Reglas desde application.properties (auth.limite.*). */
+    public static LimitadorIntentos desdeConfiguracion() {
+        return new LimitadorIntentos(
+                ConfiguracionApp.getAuthLimiteCapacidad(),
+                Duration.ofSeconds(ConfiguracionApp.getAuthLimiteRecarga()),
+                ConfiguracionApp.getAuthLimiteTerminalCapacidad(),
+                Duration.ofSeconds(ConfiguracionApp.getAuthLimiteTerminalRecarga()),
+                ConfiguracionApp.getAppTerminal());
+    }
+
+    /**
+     * Toma una ficha para la terminal y otra para el usuario. La terminal va primero: una ráfaga
+     * de nombres inventados se corta ahí, sin crear una cubeta por nombre.
+     *
+     * @throws AutenticacionException si alguna cubeta está vacía (indica cuánto esperar)
+     */
+    public void consumir(String nombreUsuario) {
+        long ahora = relojNanos.getAsLong();
+        String clave = nombreUsuario == null ? "" : nombreUsuario.trim().toLowerCase(Locale.ROOT);
+
+        long espera = porTerminal.tomar(terminal, ahora);
+        if (espera > 0) {
+            rechazadosPorTerminal.increment();
+            log.warn("Intento de inicio de sesión rechazado: demasiados intentos en la terminal '{}'", terminal);
+            throw rechazo(espera);
+        }
+        espera = porUsuario.tomar(clave, ahora);
+        if (espera > 0) {
+            rechazadosPorUsuario.increment();
+            log.warn("Intento de inicio de sesión rechazado: demasiados intentos para usuario '{}'", clave);
+            throw rechazo(espera);
+        }
+    }
+
+    public long getRechazadosPorUsuario() {
+        return rechazadosPorUsuario.sum();
+    }
+
+    public long getRechazadosPorTerminal() {
+        return rechazadosPorTerminal.sum();
+    }
+
+    public long getRechazados() {
+        return getRechazadosPorUsuario() + getRechazadosPorTerminal();
+    }
+
+    private static AutenticacionException rechazo(long esperaNanos) {
+        long segundos = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(esperaNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        return new AutenticacionException(
+                "Demasiados intentos de inicio de sesión. Intenta de nuevo en " + segundos + " segundos.");
+    }
+
+    // ===== Cubetas =====
+
+    private static final class Cubetas {
+        final ConcurrentHashMap<String, Cubeta> mapa = new ConcurrentHashMap<>();
+        final int capacidad;
+        final long nanosPorFicha;
+        /** Momento (relojNanos) desde el que se permite otra purga. */
+        final AtomicLong proximaPurga;
+
+        Cubetas(int capacidad, Duration recarga) {
+            if (capacidad < 1) throw new IllegalArgumentException("capacidad debe ser >= 1");
+            Objects.requireNonNull(recarga, "recarga es requerida");
+            if (recarga.isNegative() || recarga.isZero()) {
+                throw new IllegalArgumentException("recarga debe ser positiva");
+            }
+            this.capacidad = capacidad;
+            this.nanosPorFicha = recarga.toNanos();
+            this.proximaPurga = new AtomicLong(Long.MIN_VALUE);
+        }
+
+        /** 0 si tomó la ficha; si no, nanos hasta la próxima ficha. */
+        long tomar(String clave, long ahora) {
+            long[] espera = new long[1];
+            mapa.compute(clave, (k, c) -> {
+                if (c == null) c = new Cubeta(capacidad, ahora);
+                c.recargar(ahora, capacidad, nanosPorFicha);
+                if (c.fichas >= 1.0) {
+                    c.fichas -= 1.0;
+                } else {
+                    espera[0] = Math.max(1, (long) ((1.0 - c.fichas) * nanosPorFicha));
+                }
+                return c;
+            });
+            if (mapa.size() > MAX_CUBETAS) purgarSiToca(ahora);
+            return espera[0];
+        }
+
+        /**
+         * Una purga por cada lapso de llenado (capacidad x recarga): las cubetas cargadas antes de
+         * la purga anterior ya están llenas en la siguiente, así cada recorrido del mapa libera
+         * lo que dejó la ráfaga en vez de repetirse en cada intento.
+         */
+        private void purgarSiToca(long ahora) {
+            long permitida = proximaPurga.get();
+            if (permitida != Long.MIN_VALUE && ahora - permitida < 0) return;
+            long siguiente = ahora + capacidad * nanosPorFicha;
+            if (proximaPurga.compareAndSet(permitida, siguiente)) purgarLlenas(ahora);
+        }
+
+        private void purgarLlenas(long ahora) {
+            for (String k : mapa.keySet()) {
+                mapa.computeIfPresent(k, (kk, c) -> {
+                    c.recargar(ahora, capacidad, nanosPorFicha);
+                    return c.fichas >= capacidad ? null : c;
+                });
+            }
+        }
+    }
+
+    /** Estado de una cubeta; solo se toca dentro de compute del mapa. */
+    private static final class Cubeta {
+        double fichas;
+        long ultimaRecarga;
+
+        Cubeta(int capacidad, long ahora) {
+            this.fichas = capacidad;
+            this.ultimaRecarga = ahora;
+        }
+
+        void recargar(long ahora, int capacidad, long nanosPorFicha) {
+            long transcurrido = ahora - ultimaRecarga;
+            if (transcurrido > 0) {
+                fichas = Math.min(capacidad, fichas + (double) transcurrido / nanosPorFicha);
+                ultimaRecarga = ahora;
+            }
+        }
+    }
+}
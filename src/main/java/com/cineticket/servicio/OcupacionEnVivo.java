@@ -0,0 +1,166 @@
+package com.cineticket.servicio;
+
+import com.cineticket.servicio.cache.OcupacionAsientosCache;
+import com.cineticket.servicio.dto.DeltaOcupacion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Suscripciones a la ocupación de asientos de una función (mapas de asientos en vivo).
+ * - Escucha a OcupacionAsientosCache: ventas/cancelaciones locales, correcciones desde BD
+ *   y cambios de otras terminales (LISTEN/NOTIFY).
+ * - En un hilo daemon compara la ocupación actual con la última enviada y entrega solo la
+ *   diferencia (DeltaOcupacion). Varios avisos seguidos de una función se juntan en uno.
+ * - Los oyentes se llaman en ese hilo: la UI debe pasar al hilo de JavaFX (Platform.runLater).
+ */
+public class OcupacionEnVivo implements OcupacionAsientosCache.Oyente {
+
+    private static final Logger log = LoggerFactory.getLogger(OcupacionEnVivo.class);
+
+    private final OcupacionAsientosCache ocupacionCache;
+
+    /** funcionId -> suscriptores y última ocupación enviada */
+    private final ConcurrentHashMap<Integer, Canal> canales = new ConcurrentHashMap<>();
+
+    private volatile ExecutorService hilo;
+
+    public OcupacionEnVivo(OcupacionAsientosCache ocupacionCache) {
+        this.ocupacionCache = Objects.requireNonNull(ocupacionCache);
+    }
+
+    /**
+     * Registra un oyente para la función. La referencia es la ocupación al momento de suscribirse:
+     * conviene suscribirse antes de pintar el mapa para no perder cambios intermedios.
+     */
+    public synchronized Suscripcion suscribir(Integer funcionId, Consumer<DeltaOcupacion> oyente) {
+        Objects.requireNonNull(funcionId, "funcionId requerido");
+        Objects.requireNonNull(oyente, "oyente requerido");
+        if (hilo == null) {
+            hilo = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "ocupacion-en-vivo");
+                t.setDaemon(true);
+                return t;
+            });
+            ocupacionCache.agregarOyente(this);
+        }
+
+        Canal canal = canales.computeIfAbsent(funcionId,
+                id -> new Canal(id, ocupacionCache.obtenerOcupados(id)));
+        canal.oyentes.add(oyente);
+        log.debug("Suscripción a la ocupación de la función {} ({} oyentes)", funcionId, canal.oyentes.size());
+        return new Suscripcion(funcionId, oyente);
+    }
+
+    @Override
+    public void ocupacionModificada(Integer funcionId) {
+        if (funcionId == null) {
+            canales.values().forEach(this::programar);
+            return;
+        }
+        Canal canal = canales.get(funcionId);
+        if (canal != null) programar(canal);
+    }
+
+    /** Detiene el hilo de entrega y descarta las suscripciones. */
+    public synchronized void detener() {
+        if (hilo == null) return;
+        ocupacionCache.quitarOyente(this);
+        hilo.shutdownNow();
+        hilo = null;
+        canales.clear();
+    }
+
+    // ===== Helpers =====
+
+    private void programar(Canal canal) {
+        ExecutorService h = hilo;
+        if (h == null) return;
+        // Si ya hay una revisión pendiente, esa verá también este cambio
+        if (canal.pendiente.compareAndSet(false, true)) {
+            try {
+                h.execute(() -> revisar(canal));
+            } catch (RejectedExecutionException e) {
+                log.debug("Entrega de ocupación detenida; se descarta el aviso de la función {}", canal.funcionId);
+            }
+        }
+    }
+
+    private void revisar(Canal canal) {
+        canal.pendiente.set(false);
+        if (canal.oyentes.isEmpty()) return;
+
+        DeltaOcupacion delta;
+        try {
+            delta = canal.calcularDelta(ocupacionCache.obtenerOcupados(canal.funcionId));
+        } catch (RuntimeException e) {
+            log.warn("No se pudo revisar la ocupación de la función {}", canal.funcionId, e);
+            return;
+        }
+        if (delta.estaVacio()) return;
+
+        log.debug("Enviando {}", delta);
+        for (Consumer<DeltaOcupacion> oyente : canal.oyentes) {
+            try {
+                oyente.accept(delta);
+            } catch (RuntimeException e) {
+                log.error("Error en oyente de ocupación de la función {}", canal.funcionId, e);
+            }
+        }
+    }
+
+    private synchronized void cancelar(Integer funcionId, Consumer<DeltaOcupacion> oyente) {
+        Canal canal = canales.get(funcionId);
+        if (canal == null) return;
+        canal.oyentes.remove(oyente);
+        if (canal.oyentes.isEmpty()) canales.remove(funcionId, canal);
+    }
+
+    private static final class Canal {
+        final Integer funcionId;
+        final List<Consumer<DeltaOcupacion>> oyentes = new CopyOnWriteArrayList<>();
+        final AtomicBoolean pendiente = new AtomicBoolean();
+        /** Solo lo toca el hilo de entrega (y el constructor). */
+        private Set<Integer> conocidos;
+
+        Canal(Integer funcionId, Collection<Integer> ocupados) {
+            this.funcionId = funcionId;
+            this.conocidos = new HashSet<>(ocupados);
+        }
+
+        DeltaOcupacion calcularDelta(Collection<Integer> actuales) {
+            Set<Integer> ahora = new HashSet<>(actuales);
+            Set<Integer> ocupados = new TreeSet<>(ahora);
+            ocupados.removeAll(conocidos);
+            Set<Integer> liberados = new TreeSet<>(conocidos);
+            liberados.removeAll(ahora);
+            conocidos = ahora;
+            return new DeltaOcupacion(funcionId, ocupados, liberados);
+        }
+    }
+
+    /** Permite dejar de recibir cambios (al salir de la pantalla). */
+    public final class Suscripcion {
+        private final Integer funcionId;
+        private final Consumer<DeltaOcupacion> oyente;
+
+        private Suscripcion(Integer funcionId, Consumer<DeltaOcupacion> oyente) {
+            this.funcionId = funcionId;
+            this.oyente = oyente;
+        }
+
+        public Integer getFuncionId() { return funcionId; }
+
+        public void cancelar() {
+            OcupacionEnVivo.this.cancelar(funcionId, oyente);
+        }
+    }
+}
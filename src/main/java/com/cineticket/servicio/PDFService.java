@@ -3,6 +3,7 @@ package com.cineticket.servicio;
 import com.cineticket.modelo.Compra;
 import com.cineticket.modelo.Entrada;
 import com.cineticket.modelo.CompraConfiteria;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 
@@ -16,9 +17,25 @@ public interface PDFService {
                                  List<CompraConfiteria> combos,
                                  Map<String, Object> datosAdicionales);
 
+    /**
+     * Igual que generarComprobantePDF pero devuelve el PDF en memoria, sin escribir archivo
+     * (generación por lotes: unir, comprimir, etc.). Debe poder llamarse desde varios hilos.
+     */
+    byte[] renderizarComprobante(Compra compra,
+                                 List<Entrada> entradas,
+                                 List<CompraConfiteria> combos,
+                                 Map<String, Object> datosAdicionales);
+
+    /** Une varios comprobantes ya escritos en disco (en el orden dado) en un único PDF en destino. */
+    void unirComprobantes(List<Path> pdfs, Path destino);
+
     /**
      * “mover/guardar” el PDF a un destino específico (descargas, etc.).
      * Devuelve true si copió correctamente.
      */
     boolean guardarComprobante(Compra compra, String rutaDestino);
+
+    /** Carga fuentes y clases del motor PDF para que el primer comprobante no pague ese costo. */
+    default void precalentar() {
+    }
 }
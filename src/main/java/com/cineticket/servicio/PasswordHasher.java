@@ -0,0 +1,150 @@
+package com.cineticket.servicio;
+
+import com.cineticket.excepcion.ServicioOcupadoException;
+import com.cineticket.util.ConfiguracionApp;
+import com.cineticket.util.PasswordUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BCrypt fuera del hilo de la UI.
+ * - El costo sale de bcrypt.rounds; un hash con otro costo se puede detectar (requiereRehash)
+ *   para rehacerlo al iniciar sesión.
+ * - verificarFicticio gasta lo mismo que una verificación real, para que un usuario inexistente
+ *   no se distinga por el tiempo de respuesta.
+ * - Pool propio y acotado: bcrypt.hilos hilos (0 = la mitad de los núcleos, nunca todos) y una
+ *   cola de bcrypt.cola tareas. Si se llena, la operación falla de inmediato con
+ *   ServicioOcupadoException en vez de acumular inicios de sesión sin límite.
+ */
+public class PasswordHasher {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHasher.class);
+
+    private final int rounds;
+    private final Executor ejecutor;
+    private final ThreadPoolExecutor pool; // null si el ejecutor se inyectó
+    private final LongAdder rechazados = new LongAdder();
+
+    /** Hash de una contraseña fija con el costo configurado; se genera al primer uso. */
+    private volatile String hashFicticio;
+
+    public PasswordHasher(int rounds, int hilos, int capacidadCola) {
+        this.rounds = validarRounds(rounds);
+        if (hilos < 1) throw new IllegalArgumentException("hilos debe ser >= 1");
+        if (capacidadCola < 1) throw new IllegalArgumentException("capacidadCola debe ser >= 1");
+
+        AtomicInteger n = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola), r -> {
+                    Thread t = new Thread(r, "bcrypt-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.ejecutor = pool;
+    }
+
+    /** Para pruebas: ejecuta en el ejecutor dado (p. ej. Runnable::run). */
+    PasswordHasher(int rounds, Executor ejecutor) {
+        this.rounds = validarRounds(rounds);
+        this.ejecutor = Objects.requireNonNull(ejecutor, "ejecutor es requerido");
+        this.pool = null;
+    }
+
+    /** Costo, hilos y cola desde application.properties. */
+    public static PasswordHasher desdeConfiguracion() {
+        int hilos = ConfiguracionApp.getBcryptHilos();
+        if (hilos <= 0) {
+            hilos = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        return new PasswordHasher(ConfiguracionApp.getBcryptRounds(), hilos, ConfiguracionApp.getBcryptCola());
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    /** Hash con el costo configurado. Bloquea el hilo que llama (usar dentro de ejecutar). */
+    public String hash(String contrasena) {
+        return PasswordUtil.hashPassword(contrasena, rounds);
+    }
+
+    /** Bloquea el hilo que llama (usar dentro de ejecutar). */
+    public boolean verificar(String contrasena, String hash) {
+        return PasswordUtil.verificarPassword(contrasena, hash);
+    }
+
+    /** Verificación contra un hash fijo del mismo costo (usuario inexistente). Siempre descarta el resultado. */
+    public void verificarFicticio(String contrasena) {
+        String h = hashFicticio;
+        if (h == null) {
+            synchronized (this) {
+                if (hashFicticio == null) {
+                    hashFicticio = hash("cineticket-usuario-inexistente");
+                }
+                h = hashFicticio;
+            }
+        }
+        PasswordUtil.verificarPassword(contrasena == null ? "" : contrasena, h);
+    }
+
+    /** true si el hash se generó con un costo distinto al configurado. */
+    public boolean requiereRehash(String hash) {
+        int costo = PasswordUtil.costoDe(hash);
+        return costo > 0 && costo != rounds;
+    }
+
+    /**
+     * Ejecuta el trabajo en el pool de BCrypt. Si el pool está saturado, el futuro falla con
+     * ServicioOcupadoException; si el trabajo falla, con la excepción original (sin envolver).
+     */
+    public <T> CompletableFuture<T> ejecutar(Callable<T> trabajo) {
+        Objects.requireNonNull(trabajo, "trabajo es requerido");
+        CompletableFuture<T> futuro = new CompletableFuture<>();
+        try {
+            ejecutor.execute(() -> {
+                try {
+                    futuro.complete(trabajo.call());
+                } catch (Throwable t) {
+                    futuro.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rechazados.increment();
+            log.warn("Pool de BCrypt saturado; se rechaza la operación");
+            futuro.completeExceptionally(new ServicioOcupadoException(
+                    "Hay demasiadas solicitudes en curso. Intenta de nuevo en unos segundos.", e));
+        }
+        return futuro;
+    }
+
+    /** Operaciones rechazadas por pool saturado (métricas). */
+    public long getRechazados() {
+        return rechazados.sum();
+    }
+
+    /** Detiene el pool (al cerrar la aplicación). */
+    public void cerrar() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    private static int validarRounds(int rounds) {
+        // Rango que acepta BCrypt.gensalt
+        if (rounds < 4 || rounds > 30) {
+            throw new IllegalArgumentException("bcrypt.rounds fuera de rango (4-30): " + rounds);
+        }
+        return rounds;
+    }
+}
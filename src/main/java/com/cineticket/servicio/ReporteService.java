@@ -1,15 +1,8 @@
 package com.cineticket.servicio;
 
-import com.cineticket.dao.CompraDAO;
-import com.cineticket.dao.EntradaDAO;
-import com.cineticket.dao.CompraConfiteriaDAO;
-import com.cineticket.dao.PeliculaDAO;
-import com.cineticket.dao.FuncionDAO;
-import com.cineticket.modelo.Compra;
-import com.cineticket.modelo.Entrada;
-import com.cineticket.modelo.Pelicula;
-import com.cineticket.modelo.Funcion;
-import com.cineticket.modelo.CompraConfiteria;
+import com.cineticket.dao.ReporteDAO;
+import com.cineticket.modelo.ResumenVentas;
+import com.cineticket.modelo.VentasPelicula;
 import com.cineticket.excepcion.AutenticacionException;
 import com.cineticket.util.SessionManager;
 import org.slf4j.Logger;
@@ -24,7 +17,7 @@ import java.util.stream.Collectors;
 
 /**
  * Servicio de Reportes Administrativos (capa de negocio).
- * - Orquesta DAOs y realiza agregaciones.
+ * - Las agregaciones las resuelve la BD vía ReporteDAO (una consulta por reporte, sobre rollups).
  * - No contiene SQL directo.
  * - Retorna estructuras simples para que la UI las grafique.
  */
@@ -32,22 +25,10 @@ public class ReporteService {
 
     private static final Logger log = LoggerFactory.getLogger(ReporteService.class);
 
-    private final CompraDAO compraDAO;
-    private final EntradaDAO entradaDAO;
-    private final CompraConfiteriaDAO compraConfiteriaDAO;
-    private final PeliculaDAO peliculaDAO;
-    private final FuncionDAO funcionDAO;
-
-    public ReporteService(CompraDAO compraDAO,
-                          EntradaDAO entradaDAO,
-                          CompraConfiteriaDAO compraConfiteriaDAO,
-                          PeliculaDAO peliculaDAO,
-                          FuncionDAO funcionDAO) {
-        this.compraDAO = Objects.requireNonNull(compraDAO);
-        this.entradaDAO = Objects.requireNonNull(entradaDAO);
-        this.compraConfiteriaDAO = Objects.requireNonNull(compraConfiteriaDAO);
-        this.peliculaDAO = Objects.requireNonNull(peliculaDAO);
-        this.funcionDAO = Objects.requireNonNull(funcionDAO);
+    private final ReporteDAO reporteDAO;
+
+    public ReporteService(ReporteDAO reporteDAO) {
+        this.reporteDAO = Objects.requireNonNull(reporteDAO);
         log.debug("ReporteService inicializado");
     }
 
@@ -80,9 +61,10 @@ public class ReporteService {
         LocalDateTime inicio = fecha.atStartOfDay();
         LocalDateTime fin = fecha.plusDays(1).atStartOfDay().minusNanos(1);
 
-        List<Compra> compras = compraDAO.obtenerComprasEntreFechas(inicio, fin);
+        // Una sola consulta agrupada por hora; los totales del día son la suma de las horas
+        Map<Integer, ResumenVentas> ventasPorHora = reporteDAO.obtenerVentasPorHora(inicio, fin);
 
-        int totalCompras = compras.size();
+        int totalCompras = 0;
         int totalEntradas = 0;
         int totalCombos = 0;
 
@@ -93,20 +75,14 @@ public class ReporteService {
         Map<Integer, BigDecimal> porHora = new LinkedHashMap<>();
         for (int h = 0; h < 24; h++) porHora.put(h, BigDecimal.ZERO);
 
-        for (Compra c : compras) {
-            // Entradas de la compra
-            List<Entrada> entradas = entradaDAO.listarPorCompra(c.getIdCompra());
-            totalEntradas += entradas.size();
-            ingresosEntradas = ingresosEntradas.add(nullSafe(c.getTotalEntradas()));
-
-            // Confitería de la compra
-            List<CompraConfiteria> items = compraConfiteriaDAO.listarPorCompra(c.getIdCompra());
-            totalCombos += items.stream().mapToInt(CompraConfiteria::getCantidad).sum();
-            ingresosConf = ingresosConf.add(nullSafe(c.getTotalConfiteria()));
-
-            // Por hora
-            int h = c.getFechaHoraCompra() != null ? c.getFechaHoraCompra().getHour() : 0;
-            porHora.put(h, porHora.get(h).add(nullSafe(c.getTotalGeneral())));
+        for (var entry : ventasPorHora.entrySet()) {
+            ResumenVentas r = entry.getValue();
+            totalCompras += r.getTotalCompras();
+            totalEntradas += r.getTotalEntradas();
+            totalCombos += r.getTotalCombos();
+            ingresosEntradas = ingresosEntradas.add(r.getIngresosEntradas());
+            ingresosConf = ingresosConf.add(r.getIngresosConfiteria());
+            porHora.merge(entry.getKey(), r.getIngresosTotales(), BigDecimal::add);
         }
 
         Map<String, Object> out = new LinkedHashMap<>();
@@ -125,6 +101,46 @@ public class ReporteService {
         return out;
     }
 
+    /**
+     * Serie diaria de ventas en el rango [fechaInicio, fechaFin], resuelta con una sola consulta.
+     * Retorna un elemento por cada día del rango (los días sin ventas van en cero), en orden, con:
+     *  - "fecha": LocalDate
+     *  - "totalCompras", "totalEntradas", "totalCombos": int
+     *  - "ingresosEntradas", "ingresosConfiteria", "ingresosTotales": BigDecimal
+     */
+    public List<Map<String, Object>> generarSerieVentasDiaria(LocalDate fechaInicio, LocalDate fechaFin) {
+        requireAdmin();
+        Objects.requireNonNull(fechaInicio, "fechaInicio requerida");
+        Objects.requireNonNull(fechaFin, "fechaFin requerida");
+        if (fechaInicio.isAfter(fechaFin)) {
+            throw new IllegalArgumentException("fechaInicio no puede ser posterior a fechaFin");
+        }
+
+        log.info("Generando serie de ventas diaria entre {} y {}", fechaInicio, fechaFin);
+
+        LocalDateTime inicio = fechaInicio.atStartOfDay();
+        LocalDateTime fin = fechaFin.plusDays(1).atStartOfDay().minusNanos(1);
+
+        Map<LocalDate, ResumenVentas> porDia = reporteDAO.obtenerVentasPorDia(inicio, fin);
+
+        List<Map<String, Object>> serie = new ArrayList<>();
+        for (LocalDate d = fechaInicio; !d.isAfter(fechaFin); d = d.plusDays(1)) {
+            ResumenVentas r = porDia.getOrDefault(d, ResumenVentas.vacio());
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("fecha", d);
+            row.put("totalCompras", r.getTotalCompras());
+            row.put("totalEntradas", r.getTotalEntradas());
+            row.put("totalCombos", r.getTotalCombos());
+            row.put("ingresosEntradas", r.getIngresosEntradas().setScale(2, RoundingMode.HALF_UP));
+            row.put("ingresosConfiteria", r.getIngresosConfiteria().setScale(2, RoundingMode.HALF_UP));
+            row.put("ingresosTotales", r.getIngresosTotales().setScale(2, RoundingMode.HALF_UP));
+            serie.add(row);
+        }
+
+        log.info("Serie de ventas diaria generada: {} días, {} con ventas", serie.size(), porDia.size());
+        return serie;
+    }
+
     /**
      * Reporte por película en un rango [fechaInicio, fechaFin].
      * Retorna:
@@ -145,42 +161,24 @@ public class ReporteService {
         log.info("Generando reporte de ventas por película {} entre {} y {}",
                 peliculaId, fechaInicio, fechaFin);
 
-        Pelicula peli = peliculaDAO.buscarPorId(peliculaId);
-        if (peli == null) {
-            log.warn("Película {} no encontrada al generar reporte", peliculaId);
-            throw new IllegalArgumentException("Película no encontrada: " + peliculaId);
-        }
-
         LocalDateTime inicio = fechaInicio.atStartOfDay();
         LocalDateTime fin = fechaFin.plusDays(1).atStartOfDay().minusNanos(1);
 
-        List<Compra> compras = compraDAO.obtenerComprasEntreFechas(inicio, fin);
-
-        int entradasVendidas = 0;
-        BigDecimal ingresos = BigDecimal.ZERO;
-        Set<Integer> funciones = new HashSet<>();
-
-        for (Compra c : compras) {
-            List<Entrada> entradas = entradaDAO.listarPorCompra(c.getIdCompra());
-            for (Entrada e : entradas) {
-                Funcion f = funcionDAO.buscarPorId(e.getFuncionId());
-                if (f != null && Objects.equals(f.getPeliculaId(), peliculaId)) {
-                    entradasVendidas += 1;
-                    ingresos = ingresos.add(nullSafe(e.getPrecioUnitario()));
-                    funciones.add(f.getIdFuncion());
-                }
-            }
+        VentasPelicula ventas = reporteDAO.obtenerVentasPelicula(peliculaId, inicio, fin);
+        if (ventas == null) {
+            log.warn("Película {} no encontrada al generar reporte", peliculaId);
+            throw new IllegalArgumentException("Película no encontrada: " + peliculaId);
         }
 
         Map<String, Object> out = new LinkedHashMap<>();
         out.put("peliculaId", peliculaId);
-        out.put("titulo", peli.getTitulo());
-        out.put("entradasVendidas", entradasVendidas);
-        out.put("funcionesAfectadas", funciones);
-        out.put("ingresosAproxEntradas", ingresos.setScale(2, RoundingMode.HALF_UP));
+        out.put("titulo", ventas.getTitulo());
+        out.put("entradasVendidas", ventas.getEntradasVendidas());
+        out.put("funcionesAfectadas", new HashSet<>(ventas.getFunciones()));
+        out.put("ingresosAproxEntradas", ventas.getIngresosEntradas().setScale(2, RoundingMode.HALF_UP));
 
         log.info("Reporte por película generado: peliculaId={}, titulo='{}', entradasVendidas={}, ingresos={}",
-                peliculaId, peli.getTitulo(), entradasVendidas, out.get("ingresosAproxEntradas"));
+                peliculaId, ventas.getTitulo(), ventas.getEntradasVendidas(), out.get("ingresosAproxEntradas"));
 
         return out;
     }
@@ -201,7 +199,7 @@ public class ReporteService {
         LocalDateTime inicio = fechaInicio.atStartOfDay();
         LocalDateTime fin = fechaFin.plusDays(1).atStartOfDay().minusNanos(1);
 
-        Map<Integer, Integer> ventas = compraConfiteriaDAO.obtenerVentasPorCombo(inicio, fin);
+        Map<Integer, Integer> ventas = reporteDAO.obtenerVentasPorCombo(inicio, fin);
         int total = ventas.values().stream().mapToInt(Integer::intValue).sum();
 
         Map<String, Object> out = new LinkedHashMap<>();
@@ -232,40 +230,14 @@ public class ReporteService {
         LocalDateTime inicio = fechaInicio.atStartOfDay();
         LocalDateTime fin = fechaFin.plusDays(1).atStartOfDay().minusNanos(1);
 
-        List<Compra> compras = compraDAO.obtenerComprasEntreFechas(inicio, fin);
-
-        // peliculaId -> {entradas, ingresos}
-        Map<Integer, PelAgg> agg = new HashMap<>();
-
-        for (Compra c : compras) {
-            for (Entrada e : entradaDAO.listarPorCompra(c.getIdCompra())) {
-                Funcion f = funcionDAO.buscarPorId(e.getFuncionId());
-                if (f == null || f.getPeliculaId() == null) continue;
-                int pId = f.getPeliculaId();
-                PelAgg a = agg.computeIfAbsent(pId, k -> new PelAgg());
-                a.entradas++;
-                a.ingresos = a.ingresos.add(nullSafe(e.getPrecioUnitario()));
-            }
-        }
-
-        // Cargar títulos
-        Map<Integer, String> titulos = new HashMap<>();
-        for (Integer pId : agg.keySet()) {
-            Pelicula p = peliculaDAO.buscarPorId(pId);
-            titulos.put(pId, p != null ? p.getTitulo() : ("Película " + pId));
-        }
-
-        List<Map<String, Object>> lista = agg.entrySet().stream()
-                .sorted((e1, e2) -> Integer.compare(e2.getValue().entradas, e1.getValue().entradas))
-                .limit(limite)
-                .map(e -> {
-                    int pId = e.getKey();
-                    PelAgg a = e.getValue();
+        // Agregado, orden y límite los resuelve la BD (títulos incluidos)
+        List<Map<String, Object>> lista = reporteDAO.obtenerTopPeliculas(limite, inicio, fin).stream()
+                .map(v -> {
                     Map<String, Object> row = new LinkedHashMap<>();
-                    row.put("peliculaId", pId);
-                    row.put("titulo", titulos.get(pId));
-                    row.put("entradasVendidas", a.entradas);
-                    row.put("ingresosAproxEntradas", a.ingresos.setScale(2, RoundingMode.HALF_UP));
+                    row.put("peliculaId", v.getPeliculaId());
+                    row.put("titulo", v.getTitulo());
+                    row.put("entradasVendidas", v.getEntradasVendidas());
+                    row.put("ingresosAproxEntradas", v.getIngresosEntradas().setScale(2, RoundingMode.HALF_UP));
                     return row;
                 })
                 .collect(Collectors.toList());
@@ -292,7 +264,7 @@ public class ReporteService {
         LocalDateTime inicio = fechaInicio.atStartOfDay();
         LocalDateTime fin = fechaFin.plusDays(1).atStartOfDay().minusNanos(1);
 
-        Map<Integer, Integer> ventas = compraConfiteriaDAO.obtenerVentasPorCombo(inicio, fin);
+        Map<Integer, Integer> ventas = reporteDAO.obtenerVentasPorCombo(inicio, fin);
 
         List<Map<String, Object>> lista = ventas.entrySet().stream()
                 .sorted((a, b) -> Integer.compare(b.getValue(), a.getValue()))
@@ -324,11 +296,7 @@ public class ReporteService {
         LocalDateTime inicio = fechaInicio.atStartOfDay();
         LocalDateTime fin = fechaFin.plusDays(1).atStartOfDay().minusNanos(1);
 
-        List<Compra> compras = compraDAO.obtenerComprasEntreFechas(inicio, fin);
-        BigDecimal total = BigDecimal.ZERO;
-        for (Compra c : compras) {
-            total = total.add(nullSafe(c.getTotalGeneral()));
-        }
+        BigDecimal total = nullSafe(reporteDAO.calcularIngresosTotales(inicio, fin));
         BigDecimal totalEscalado = total.setScale(2, RoundingMode.HALF_UP);
 
         log.info("Ingresos totales calculados para rango {} - {}: {}",
@@ -342,9 +310,4 @@ public class ReporteService {
     private static BigDecimal nullSafe(BigDecimal bd) {
         return bd == null ? BigDecimal.ZERO : bd;
     }
-
-    private static class PelAgg {
-        int entradas = 0;
-        BigDecimal ingresos = BigDecimal.ZERO;
-    }
 }
@@ -7,12 +7,15 @@ import com.cineticket.excepcion.ValidacionException;
 import com.cineticket.modelo.Entrada;
 import com.cineticket.modelo.Funcion;
 import com.cineticket.enums.EstadoFuncion;
+import com.cineticket.servicio.cache.OcupacionAsientosCache;
+import com.cineticket.servicio.dto.DeltaOcupacion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class ReservaService {
 
@@ -22,28 +25,44 @@ public class ReservaService {
 
     private final EntradaDAO entradaDAO;
     private final FuncionDAO funcionDAO;
+    private final OcupacionAsientosCache ocupacionCache;
+    private final SeatHoldService seatHoldService;
+    private final OcupacionEnVivo ocupacionEnVivo;
 
-    public ReservaService(EntradaDAO entradaDAO, FuncionDAO funcionDAO) {
+    public ReservaService(EntradaDAO entradaDAO, FuncionDAO funcionDAO,
+                          OcupacionAsientosCache ocupacionCache, SeatHoldService seatHoldService,
+                          OcupacionEnVivo ocupacionEnVivo) {
         this.entradaDAO = Objects.requireNonNull(entradaDAO);
         this.funcionDAO = Objects.requireNonNull(funcionDAO);
+        this.ocupacionCache = Objects.requireNonNull(ocupacionCache);
+        this.seatHoldService = Objects.requireNonNull(seatHoldService);
+        this.ocupacionEnVivo = Objects.requireNonNull(ocupacionEnVivo);
         log.debug("ReservaService inicializado");
     }
 
-    /** IDs de asientos ya ocupados (entradas ACTIVA) para una función. */
+    /** IDs de asientos ya ocupados (entradas ACTIVA) para una función. Se sirve desde la caché de ocupación. */
     public List<Integer> obtenerAsientosOcupadosPorFuncion(Integer funcionId) {
         if (funcionId == null) throw new ValidacionException("funcionId requerido.");
 
         log.debug("Obteniendo asientos ocupados para función {}", funcionId);
 
-        List<Integer> ocupados = entradaDAO.listarPorFuncion(funcionId).stream()
-                .filter(Entrada::estaActiva)
-                .map(Entrada::getAsientoId)
-                .toList();
+        List<Integer> ocupados = ocupacionCache.obtenerOcupados(funcionId);
 
         log.info("Función {} tiene {} asientos ocupados", funcionId, ocupados.size());
         return ocupados;
     }
 
+    /**
+     * Suscribe al mapa de asientos de la función: el oyente recibe solo los asientos que cambiaron
+     * (vendidos/liberados aquí o en otra terminal), desde un hilo en segundo plano.
+     * Suscribirse antes de pintar el mapa y cancelar la suscripción al salir de la pantalla.
+     */
+    public OcupacionEnVivo.Suscripcion suscribirOcupacion(Integer funcionId, Consumer<DeltaOcupacion> oyente) {
+        if (funcionId == null) throw new ValidacionException("funcionId requerido.");
+        if (oyente == null) throw new ValidacionException("oyente requerido.");
+        return ocupacionEnVivo.suscribir(funcionId, oyente);
+    }
+
     /** Verifica que todos los asientos indiquen disponibilidad (ninguna ACTIVA en BD). */
     public boolean verificarDisponibilidadAsientos(Integer funcionId, List<Integer> asientoIds) {
         validarEntradaBasica(funcionId, asientoIds);
@@ -51,9 +70,12 @@ public class ReservaService {
         log.debug("Verificando disponibilidad de {} asientos para función {}",
                 asientoIds.size(), funcionId);
 
-        for (Integer asientoId : asientoIds) {
-            boolean libre = entradaDAO.verificarAsientoDisponible(funcionId, asientoId);
-            if (!libre) return false;
+        Set<Integer> ocupados = entradaDAO.buscarAsientosOcupados(funcionId, asientoIds);
+        if (!ocupados.isEmpty()) {
+            log.info("Asientos {} ya no están disponibles para función {}", ocupados, funcionId);
+            // La BD manda: si la caché no los tenía, se corrige para el próximo mapa
+            ocupacionCache.marcarOcupados(funcionId, ocupados);
+            return false;
         }
 
         log.info("Todos los asientos solicitados están disponibles para función {}", funcionId);
@@ -61,10 +83,32 @@ public class ReservaService {
     }
 
     /**
-     * Crea objetos Entrada en memoria para confirmar luego en CompraService.
-     * Reglas: máximo 5; no duplicados; la función debe estar PROGRAMADA; cada asiento debe estar libre.
+     * Retiene temporalmente los asientos para el usuario mientras completa el pago.
+     * Falla con AsientoNoDisponibleException si alguno está vendido o retenido por otro usuario.
      */
+    public void retenerAsientos(Integer funcionId, Integer usuarioId, List<Integer> asientoIds) {
+        if (!verificarDisponibilidadAsientos(funcionId, asientoIds)) {
+            throw new AsientoNoDisponibleException("Alguno de los asientos seleccionados ya fue vendido.");
+        }
+        seatHoldService.retener(funcionId, usuarioId, asientoIds);
+    }
+
+    /** Suelta las retenciones del usuario en la función (tras comprar o al abandonar la selección). */
+    public void liberarRetenciones(Integer funcionId, Integer usuarioId) {
+        seatHoldService.liberar(funcionId, usuarioId);
+    }
+
+    /** Igual que {@link #reservarAsientos(Integer, Integer, List)} sin usuario: cualquier retención vigente bloquea. */
     public List<Entrada> reservarAsientos(Integer funcionId, List<Integer> asientoIds) {
+        return reservarAsientos(funcionId, null, asientoIds);
+    }
+
+    /**
+     * Crea objetos Entrada en memoria para confirmar luego en CompraService.
+     * Reglas: máximo 5; no duplicados; la función debe estar PROGRAMADA; cada asiento debe estar libre
+     * y no estar retenido por otro usuario.
+     */
+    public List<Entrada> reservarAsientos(Integer funcionId, Integer usuarioId, List<Integer> asientoIds) {
         validarEntradaBasica(funcionId, asientoIds);
         if (asientoIds.size() > MAX_ENTRADAS) {
             log.warn("Intento de reservar {} asientos para función {} (máx={})",
@@ -87,18 +131,32 @@ public class ReservaService {
 
         // Evitar duplicados en la selección
         Set<Integer> vistos = new HashSet<>();
-        List<Entrada> result = new ArrayList<>(asientoIds.size());
-
         for (Integer asientoId : asientoIds) {
             if (!vistos.add(asientoId)) {
                 log.warn("Asiento repetido en la selección: {} (función {})", asientoId, funcionId);
                 throw new ValidacionException("Asiento repetido en la selección: " + asientoId);
             }
-            if (!entradaDAO.verificarAsientoDisponible(funcionId, asientoId)) {
+        }
+
+        // Una sola consulta para toda la selección
+        Set<Integer> ocupados = entradaDAO.buscarAsientosOcupados(funcionId, asientoIds);
+        if (!ocupados.isEmpty()) ocupacionCache.marcarOcupados(funcionId, ocupados);
+        for (Integer asientoId : asientoIds) {
+            if (ocupados.contains(asientoId)) {
                 log.info("Asiento {} no disponible al intentar reservar para función {}", asientoId, funcionId);
                 throw new AsientoNoDisponibleException("Asiento no disponible: " + asientoId);
             }
+        }
+
+        Set<Integer> retenidos = seatHoldService.retenidosPorOtros(funcionId, usuarioId, asientoIds);
+        if (!retenidos.isEmpty()) {
+            Integer asientoId = asientoIds.stream().filter(retenidos::contains).findFirst().orElseThrow();
+            log.info("Asiento {} retenido por otro usuario en función {}", asientoId, funcionId);
+            throw new AsientoNoDisponibleException("Asiento no disponible: " + asientoId);
+        }
 
+        List<Entrada> result = new ArrayList<>(asientoIds.size());
+        for (Integer asientoId : asientoIds) {
             Entrada e = new Entrada();
             e.setFuncionId(funcionId);
             e.setAsientoId(asientoId);
@@ -121,6 +179,21 @@ public class ReservaService {
         return result;
     }
 
+    /** Write-through tras confirmar una compra: los asientos pasan a ocupados. */
+    public void registrarAsientosVendidos(Integer funcionId, Collection<Integer> asientoIds) {
+        ocupacionCache.registrarVenta(funcionId, asientoIds);
+    }
+
+    /** Write-through tras cancelar una compra: los asientos vuelven a estar libres. */
+    public void registrarAsientosLiberados(Integer funcionId, Collection<Integer> asientoIds) {
+        ocupacionCache.registrarCancelacion(funcionId, asientoIds);
+    }
+
+    /** Descarta la ocupación cacheada de la función (p. ej. si una escritura falló a mitad). */
+    public void invalidarOcupacion(Integer funcionId) {
+        ocupacionCache.invalidar(funcionId);
+    }
+
     // --- helpers ---
     private void validarEntradaBasica(Integer funcionId, List<Integer> asientoIds) {
         if (funcionId == null) throw new ValidacionException("funcionId requerido.");
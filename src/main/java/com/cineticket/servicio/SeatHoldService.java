@@ -0,0 +1,215 @@
+package com.cineticket.servicio;
+
+import com.cineticket.dao.SeatHoldDAO;
+import com.cineticket.dao.common.TransactionManager;
+import com.cineticket.excepcion.AsientoNoDisponibleException;
+import com.cineticket.excepcion.ValidacionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retenciones temporales de asientos entre la selección y el pago.
+ * - En proceso: ConcurrentHashMap (funcion, asiento) -> retención, sin locks (compute atómico por clave).
+ *   Sirve de filtro rápido para conflictos dentro de la misma instancia.
+ * - En BD: tabla seat_hold con vencimiento; es la fuente de verdad entre instancias.
+ * - Un barrido periódico elimina las retenciones vencidas de ambos lados.
+ */
+public class SeatHoldService {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatHoldService.class);
+
+    private final SeatHoldDAO seatHoldDAO;
+    private final TransactionManager transactionManager;
+    private final Duration ttl;
+
+    /** clave(funcionId, asientoId) -> retención vigente en esta instancia */
+    private final ConcurrentHashMap<Long, Retencion> retenciones = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService barrido;
+
+    public SeatHoldService(SeatHoldDAO seatHoldDAO, TransactionManager transactionManager, Duration ttl) {
+        this.seatHoldDAO = Objects.requireNonNull(seatHoldDAO);
+        this.transactionManager = Objects.requireNonNull(transactionManager);
+        this.ttl = Objects.requireNonNull(ttl);
+        if (ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("ttl debe ser > 0");
+        log.debug("SeatHoldService inicializado (ttl={}s)", ttl.toSeconds());
+    }
+
+    /**
+     * Retiene los asientos para el usuario (reemplaza su selección anterior en la función).
+     * Lanza AsientoNoDisponibleException si alguno lo retiene otro usuario.
+     */
+    public void retener(Integer funcionId, Integer usuarioId, List<Integer> asientoIds) {
+        if (funcionId == null) throw new ValidacionException("funcionId requerido.");
+        if (usuarioId == null) throw new ValidacionException("usuarioId requerido.");
+        if (asientoIds == null || asientoIds.isEmpty()) {
+            throw new ValidacionException("Debe seleccionar al menos 1 asiento.");
+        }
+
+        // 1) Filtro local, sin ir a la BD
+        Instant ahora = Instant.now();
+        Instant expira = ahora.plus(ttl);
+        List<Tomada> tomadas = new ArrayList<>();
+        for (Integer asientoId : asientoIds) {
+            long k = clave(funcionId, asientoId);
+            Retencion nueva = new Retencion(usuarioId, expira);
+            Retencion[] previa = new Retencion[1];
+            Retencion r = retenciones.compute(k, (key, actual) -> {
+                if (actual == null || actual.vencida(ahora) || actual.usuarioId.equals(usuarioId)) {
+                    previa[0] = actual;
+                    return nueva;
+                }
+                return actual;
+            });
+            if (r != nueva) {
+                deshacerLocal(tomadas);
+                log.info("Asiento {} de la función {} retenido por otro usuario (local)", asientoId, funcionId);
+                throw new AsientoNoDisponibleException("Asiento no disponible: " + asientoId);
+            }
+            tomadas.add(new Tomada(k, previa[0], nueva));
+        }
+
+        // 2) BD: soltar la selección anterior del usuario y tomar la nueva, todo o nada
+        Set<Integer> seleccion = new HashSet<>(asientoIds);
+        try {
+            transactionManager.enTransaccion(() -> {
+                seatHoldDAO.liberar(funcionId, usuarioId);
+                Set<Integer> adquiridos = seatHoldDAO.adquirir(funcionId, usuarioId, seleccion, (int) ttl.toSeconds());
+                if (!adquiridos.containsAll(seleccion)) {
+                    Set<Integer> faltantes = new TreeSet<>(seleccion);
+                    faltantes.removeAll(adquiridos);
+                    throw new AsientoNoDisponibleException("Asiento no disponible: " + faltantes.iterator().next());
+                }
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            deshacerLocal(tomadas);
+            throw ex;
+        }
+
+        // 3) Selección anterior del usuario en esta función que ya no forma parte de la nueva
+        retenciones.entrySet().removeIf(e ->
+                funcionDe(e.getKey()) == funcionId
+                        && e.getValue().usuarioId.equals(usuarioId)
+                        && !seleccion.contains(asientoDe(e.getKey())));
+
+        log.info("Usuario {} retiene {} asientos de la función {} por {}s",
+                usuarioId, seleccion.size(), funcionId, ttl.toSeconds());
+    }
+
+    /** Asientos de la lista retenidos por otro usuario (usuarioId null = cualquiera). */
+    public Set<Integer> retenidosPorOtros(Integer funcionId, Integer usuarioId, Collection<Integer> asientoIds) {
+        if (funcionId == null || asientoIds == null || asientoIds.isEmpty()) return Collections.emptySet();
+
+        // Si en esta instancia ya se sabe, no hace falta consultar la BD
+        Instant ahora = Instant.now();
+        Set<Integer> locales = new HashSet<>();
+        for (Integer asientoId : asientoIds) {
+            Retencion r = retenciones.get(clave(funcionId, asientoId));
+            if (r != null && !r.vencida(ahora) && !r.usuarioId.equals(usuarioId)) locales.add(asientoId);
+        }
+        if (!locales.isEmpty()) return locales;
+
+        return seatHoldDAO.buscarRetenidosPorOtros(funcionId, usuarioId, asientoIds);
+    }
+
+    /** Libera las retenciones del usuario en la función. No lanza: si falla, la retención vence sola. */
+    public void liberar(Integer funcionId, Integer usuarioId) {
+        if (funcionId == null || usuarioId == null) return;
+        retenciones.entrySet().removeIf(e ->
+                funcionDe(e.getKey()) == funcionId && e.getValue().usuarioId.equals(usuarioId));
+        try {
+            seatHoldDAO.liberar(funcionId, usuarioId);
+        } catch (RuntimeException ex) {
+            log.warn("No se pudieron liberar las retenciones de usuario {} en función {}; vencerán por TTL",
+                    usuarioId, funcionId, ex);
+        }
+    }
+
+    /** Elimina retenciones vencidas (memoria y BD). Retorna cuántas se borraron en BD. */
+    public int barrerVencidas() {
+        Instant ahora = Instant.now();
+        retenciones.values().removeIf(r -> r.vencida(ahora));
+        int borradas = seatHoldDAO.eliminarExpiradas();
+        if (borradas > 0) log.debug("Barrido de retenciones: {} vencidas eliminadas", borradas);
+        return borradas;
+    }
+
+    /** Inicia el barrido periódico en un hilo daemon (idempotente). */
+    public synchronized void iniciarBarrido(Duration intervalo) {
+        if (barrido != null) return;
+        barrido = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "seat-hold-barrido");
+            t.setDaemon(true);
+            return t;
+        });
+        long ms = intervalo.toMillis();
+        barrido.scheduleWithFixedDelay(() -> {
+            try {
+                barrerVencidas();
+            } catch (RuntimeException ex) {
+                log.warn("Error en el barrido de retenciones de asientos", ex);
+            }
+        }, ms, ms, TimeUnit.MILLISECONDS);
+        log.info("Barrido de retenciones programado cada {}s", intervalo.toSeconds());
+    }
+
+    /** Detiene el barrido periódico. */
+    public synchronized void detenerBarrido() {
+        if (barrido != null) {
+            barrido.shutdownNow();
+            barrido = null;
+        }
+    }
+
+    // ===== Helpers =====
+
+    /**
+     * Deja cada clave como estaba antes de este retener: la retención anterior del usuario (que
+     * sigue en la BD tras el rollback) vuelve a su lugar; si no había ninguna, se quita.
+     * Si otro hilo ya cambió la clave, no se toca.
+     */
+    private void deshacerLocal(List<Tomada> tomadas) {
+        for (Tomada t : tomadas) {
+            retenciones.computeIfPresent(t.clave, (key, r) -> r == t.nueva ? t.previa : r);
+        }
+    }
+
+    /** Clave tomada en el filtro local y lo que había antes en ella (null = nada). */
+    private record Tomada(long clave, Retencion previa, Retencion nueva) {
+    }
+
+    private static long clave(int funcionId, int asientoId) {
+        return ((long) funcionId << 32) | (asientoId & 0xFFFFFFFFL);
+    }
+
+    private static int funcionDe(long clave) {
+        return (int) (clave >>> 32);
+    }
+
+    private static int asientoDe(long clave) {
+        return (int) clave;
+    }
+
+    private static final class Retencion {
+        final Integer usuarioId;
+        final Instant expiraEn;
+
+        Retencion(Integer usuarioId, Instant expiraEn) {
+            this.usuarioId = usuarioId;
+            this.expiraEn = expiraEn;
+        }
+
+        boolean vencida(Instant ahora) {
+            return !expiraEn.isAfter(ahora);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.cineticket.servicio.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Caché en memoria acotada (LRU) con vencimiento opcional por entrada.
+ * - Los valores null no se guardan (se vuelven a consultar).
+ * - Versionada: una carga que se cruzó con una invalidación no se guarda, así no
+ *   reaparece un dato viejo leído justo antes de que un admin lo modificara.
+ * - Cuenta aciertos/fallos para poder dimensionarla.
+ */
+public class CacheTTL<K, V> {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheTTL.class);
+
+    private final String nombre;
+    private final int maxEntradas;
+    private final long ttlNanos;
+    private final LongSupplier reloj;
+
+    /** LinkedHashMap en orden de acceso = LRU (protegido con synchronized). */
+    private final LinkedHashMap<K, Entrada<V>> datos;
+
+    /** Cambia con cada invalidación; una carga que se cruzó con una no se guarda. */
+    private final AtomicLong version = new AtomicLong();
+
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+
+    /** ttl cero = sin vencimiento (solo LRU e invalidaciones). */
+    public CacheTTL(String nombre, int maxEntradas, Duration ttl) {
+        this(nombre, maxEntradas, ttl, System::nanoTime);
+    }
+
+    CacheTTL(String nombre, int maxEntradas, Duration ttl, LongSupplier reloj) {
+        this.nombre = Objects.requireNonNull(nombre);
+        if (maxEntradas <= 0) throw new IllegalArgumentException("maxEntradas debe ser > 0");
+        Objects.requireNonNull(ttl);
+        if (ttl.isNegative()) throw new IllegalArgumentException("ttl no puede ser negativo");
+        this.maxEntradas = maxEntradas;
+        this.ttlNanos = ttl.toNanos();
+        this.reloj = Objects.requireNonNull(reloj);
+        this.datos = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> eldest) {
+                return size() > CacheTTL.this.maxEntradas;
+            }
+        };
+    }
+
+    /** Valor en caché o, si no está (o venció), el que devuelva cargador. */
+    public V obtener(K clave, Supplier<V> cargador) {
+        V valor = obtenerSiPresente(clave);
+        if (valor != null) return valor;
+
+        // La carga (consulta a BD) va fuera del lock
+        long versionAntes = version();
+        valor = cargador.get();
+        if (valor != null) guardar(clave, valor, versionAntes);
+        return valor;
+    }
+
+    /** Valor en caché o null si no está o venció (cuenta como acierto/fallo). */
+    public V obtenerSiPresente(K clave) {
+        Objects.requireNonNull(clave, "clave requerida");
+        long ahora = reloj.getAsLong();
+        synchronized (this) {
+            Entrada<V> e = datos.get(clave);
+            if (e != null) {
+                if (!e.vencida(ahora)) {
+                    aciertos.incrementAndGet();
+                    return e.valor;
+                }
+                datos.remove(clave);
+            }
+        }
+        fallos.incrementAndGet();
+        return null;
+    }
+
+    /** Versión actual; leerla antes de consultar la BD y pasarla a guardar. */
+    public long version() {
+        return version.get();
+    }
+
+    /** Guarda el valor solo si no hubo invalidaciones desde versionLeida. */
+    public void guardar(K clave, V valor, long versionLeida) {
+        Objects.requireNonNull(clave, "clave requerida");
+        Objects.requireNonNull(valor, "valor requerido");
+        synchronized (this) {
+            if (version.get() == versionLeida) {
+                long vence = ttlNanos == 0 ? Long.MAX_VALUE : reloj.getAsLong() + ttlNanos;
+                datos.put(clave, new Entrada<>(valor, vence));
+            }
+        }
+    }
+
+    /** Descarta una clave. */
+    public void invalidar(K clave) {
+        version.incrementAndGet();
+        synchronized (this) {
+            datos.remove(clave);
+        }
+    }
+
+    /** Descarta todo el contenido (no reinicia los contadores). */
+    public void limpiar() {
+        version.incrementAndGet();
+        synchronized (this) {
+            datos.clear();
+        }
+        log.debug("Caché {} vaciada", nombre);
+    }
+
+    public synchronized int tamanio() {
+        return datos.size();
+    }
+
+    public String getNombre() { return nombre; }
+
+    public Estadisticas estadisticas() {
+        return new Estadisticas(nombre, aciertos.get(), fallos.get(), tamanio(), maxEntradas);
+    }
+
+    // ===== Helpers =====
+
+    private static final class Entrada<V> {
+        final V valor;
+        final long venceEn;
+
+        Entrada(V valor, long venceEn) {
+            this.valor = valor;
+            this.venceEn = venceEn;
+        }
+
+        boolean vencida(long ahora) {
+            return venceEn != Long.MAX_VALUE && ahora - venceEn >= 0;
+        }
+    }
+
+    /** Foto de los contadores de una caché. */
+    public static final class Estadisticas {
+        private final String nombre;
+        private final long aciertos;
+        private final long fallos;
+        private final int tamanio;
+        private final int maxEntradas;
+
+        Estadisticas(String nombre, long aciertos, long fallos, int tamanio, int maxEntradas) {
+            this.nombre = nombre;
+            this.aciertos = aciertos;
+            this.fallos = fallos;
+            this.tamanio = tamanio;
+            this.maxEntradas = maxEntradas;
+        }
+
+        public String getNombre() { return nombre; }
+
+        public long getAciertos() { return aciertos; }
+
+        public long getFallos() { return fallos; }
+
+        public int getTamanio() { return tamanio; }
+
+        public int getMaxEntradas() { return maxEntradas; }
+
+        /** Proporción de lecturas servidas desde memoria (0 si aún no hubo lecturas). */
+        public double getTasaAciertos() {
+            long total = aciertos + fallos;
+            return total == 0 ? 0.0 : (double) aciertos / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: aciertos=%d, fallos=%d (%.1f%%), entradas=%d/%d",
+                    nombre, aciertos, fallos, getTasaAciertos() * 100, tamanio, maxEntradas);
+        }
+    }
+}
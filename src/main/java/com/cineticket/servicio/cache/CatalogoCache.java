@@ -0,0 +1,104 @@
+package com.cineticket.servicio.cache;
+
+import com.cineticket.modelo.ComboConfiteria;
+import com.cineticket.modelo.Genero;
+import com.cineticket.modelo.Pelicula;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Caché del catálogo (películas, géneros y combos), compartida por los decoradores
+ * PeliculaDAOConCache / GeneroDAOConCache / ComboConfiteriaDAOConCache.
+ * - Cada tipo tiene dos regiones CacheTTL tipadas: por ID y la lista de activos/disponibles.
+ * - Los decoradores invalidan su región al escribir a través de ellos.
+ * - CarteleraService avisa además tras cada escritura de admin (InvalidacionCatalogo).
+ * - Los cambios hechos desde otras terminales llegan por alCambiar (LISTEN/NOTIFY).
+ */
+public class CatalogoCache implements InvalidacionCatalogo, OyenteCambios {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogoCache.class);
+
+    private final CacheTTL<Integer, Pelicula> peliculas;
+    private final CacheTTL<String, List<Pelicula>> listasPeliculas;
+    private final CacheTTL<Integer, Genero> generos;
+    private final CacheTTL<String, List<Genero>> listasGeneros;
+    private final CacheTTL<Integer, ComboConfiteria> combos;
+    private final CacheTTL<String, List<ComboConfiteria>> listasCombos;
+
+    public CatalogoCache(int maxEntradasPorRegion, Duration ttl) {
+        this.peliculas = new CacheTTL<>("peliculas", maxEntradasPorRegion, ttl);
+        this.listasPeliculas = new CacheTTL<>("peliculas.listas", 1, ttl);
+        this.generos = new CacheTTL<>("generos", maxEntradasPorRegion, ttl);
+        this.listasGeneros = new CacheTTL<>("generos.listas", 1, ttl);
+        this.combos = new CacheTTL<>("combos", maxEntradasPorRegion, ttl);
+        this.listasCombos = new CacheTTL<>("combos.listas", 1, ttl);
+        log.debug("CatalogoCache inicializada (maxEntradas={}, ttl={})", maxEntradasPorRegion, ttl);
+    }
+
+    CacheTTL<Integer, Pelicula> peliculas() { return peliculas; }
+
+    CacheTTL<String, List<Pelicula>> listasPeliculas() { return listasPeliculas; }
+
+    CacheTTL<Integer, Genero> generos() { return generos; }
+
+    CacheTTL<String, List<Genero>> listasGeneros() { return listasGeneros; }
+
+    CacheTTL<Integer, ComboConfiteria> combos() { return combos; }
+
+    CacheTTL<String, List<ComboConfiteria>> listasCombos() { return listasCombos; }
+
+    @Override
+    public void peliculasModificadas() {
+        peliculas.limpiar();
+        listasPeliculas.limpiar();
+        log.debug("Caché de películas invalidada");
+    }
+
+    @Override
+    public void generosModificados() {
+        generos.limpiar();
+        listasGeneros.limpiar();
+        // La lista de géneros de cada película también puede haber cambiado
+        peliculas.limpiar();
+        listasPeliculas.limpiar();
+        log.debug("Caché de géneros invalidada");
+    }
+
+    @Override
+    public void combosModificados() {
+        combos.limpiar();
+        listasCombos.limpiar();
+        log.debug("Caché de combos invalidada");
+    }
+
+    @Override
+    public void alCambiar(EventoCambio evento) {
+        switch (evento.getTipo()) {
+            case PELICULA -> peliculasModificadas();
+            case GENERO -> generosModificados();
+            case COMBO -> combosModificados();
+            case TODO -> limpiar();
+            default -> { /* funciones y entradas no están en el catálogo */ }
+        }
+    }
+
+    /** Vacía todas las regiones. */
+    public void limpiar() {
+        peliculas.limpiar();
+        listasPeliculas.limpiar();
+        generos.limpiar();
+        listasGeneros.limpiar();
+        combos.limpiar();
+        listasCombos.limpiar();
+    }
+
+    /** Contadores por región (para dimensionar maxEntradas/ttl). */
+    public List<CacheTTL.Estadisticas> estadisticas() {
+        return List.of(peliculas.estadisticas(), listasPeliculas.estadisticas(),
+                generos.estadisticas(), listasGeneros.estadisticas(),
+                combos.estadisticas(), listasCombos.estadisticas());
+    }
+}
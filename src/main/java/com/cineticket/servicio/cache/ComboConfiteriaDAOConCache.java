@@ -0,0 +1,90 @@
+package com.cineticket.servicio.cache;
+
+import com.cineticket.dao.ComboConfiteriaDAO;
+import com.cineticket.modelo.ComboConfiteria;
+
+import java.util.*;
+
+/**
+ * ComboConfiteriaDAO con caché para listarDisponibles, buscarPorId y buscarPorIds
+ * (cada compra consulta el precio de sus combos). Las escrituras vacían las regiones de combos.
+ */
+public class ComboConfiteriaDAOConCache implements ComboConfiteriaDAO {
+
+    private static final String DISPONIBLES = "disponibles";
+
+    private final ComboConfiteriaDAO delegado;
+    private final CatalogoCache catalogo;
+
+    public ComboConfiteriaDAOConCache(ComboConfiteriaDAO delegado, CatalogoCache catalogo) {
+        this.delegado = Objects.requireNonNull(delegado);
+        this.catalogo = Objects.requireNonNull(catalogo);
+    }
+
+    @Override
+    public ComboConfiteria buscarPorId(Integer id) {
+        if (id == null) return delegado.buscarPorId(null);
+        return catalogo.combos().obtener(id, () -> delegado.buscarPorId(id));
+    }
+
+    /** Los que ya están en caché salen de memoria; el resto, en una sola consulta al DAO. */
+    @Override
+    public Map<Integer, ComboConfiteria> buscarPorIds(Collection<Integer> ids) {
+        Map<Integer, ComboConfiteria> res = new HashMap<>();
+        if (ids == null || ids.isEmpty()) return res;
+
+        Set<Integer> faltantes = new HashSet<>();
+        for (Integer id : ids) {
+            ComboConfiteria c = catalogo.combos().obtenerSiPresente(id);
+            if (c != null) res.put(id, c);
+            else faltantes.add(id);
+        }
+        if (!faltantes.isEmpty()) {
+            long version = catalogo.combos().version();
+            delegado.buscarPorIds(faltantes).forEach((id, combo) -> {
+                res.put(id, combo);
+                catalogo.combos().guardar(id, combo, version);
+            });
+        }
+        return res;
+    }
+
+    @Override
+    public List<ComboConfiteria> listarDisponibles() {
+        List<ComboConfiteria> disponibles = catalogo.listasCombos()
+                .obtener(DISPONIBLES, () -> List.copyOf(delegado.listarDisponibles()));
+        return new ArrayList<>(disponibles);
+    }
+
+    @Override
+    public List<ComboConfiteria> listarTodos() {
+        return delegado.listarTodos();
+    }
+
+    @Override
+    public Integer crear(ComboConfiteria combo) {
+        try {
+            return delegado.crear(combo);
+        } finally {
+            catalogo.combosModificados();
+        }
+    }
+
+    @Override
+    public boolean actualizar(ComboConfiteria combo) {
+        try {
+            return delegado.actualizar(combo);
+        } finally {
+            catalogo.combosModificados();
+        }
+    }
+
+    @Override
+    public boolean eliminar(Integer id) {
+        try {
+            return delegado.eliminar(id);
+        } finally {
+            catalogo.combosModificados();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.cineticket.servicio.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Reparte los avisos de cambio (texto de pg_notify) a las cachés registradas.
+ * - Un aviso que no se reconoce se ignora.
+ * - Si un oyente falla, los demás igual reciben el evento.
+ */
+public class DespachadorCambios {
+
+    private static final Logger log = LoggerFactory.getLogger(DespachadorCambios.class);
+
+    private final List<OyenteCambios> oyentes = new CopyOnWriteArrayList<>();
+
+    public void registrar(OyenteCambios oyente) {
+        oyentes.add(Objects.requireNonNull(oyente));
+    }
+
+    public void quitar(OyenteCambios oyente) {
+        oyentes.remove(oyente);
+    }
+
+    /** Interpreta el aviso "tipo:id" y lo despacha. */
+    public void despachar(String aviso) {
+        EventoCambio evento = EventoCambio.parsear(aviso);
+        if (evento == null) {
+            log.warn("Aviso de cambio no reconocido: '{}'", aviso);
+            return;
+        }
+        despachar(evento);
+    }
+
+    public void despachar(EventoCambio evento) {
+        Objects.requireNonNull(evento);
+        log.debug("Cambio recibido: {}", evento);
+        for (OyenteCambios oyente : oyentes) {
+            try {
+                oyente.alCambiar(evento);
+            } catch (RuntimeException e) {
+                log.error("Error invalidando caché por cambio {}", evento, e);
+            }
+        }
+    }
+}
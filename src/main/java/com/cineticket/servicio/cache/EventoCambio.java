@@ -0,0 +1,79 @@
+package com.cineticket.servicio.cache;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Cambio en la BD informado por otra terminal (pg_notify, ver 07_notificaciones.sql).
+ * El aviso llega como texto "tipo:id", p. ej. "entrada:42" (id = función de la entrada).
+ */
+public final class EventoCambio {
+
+    public enum Tipo {
+        FUNCION,
+        PELICULA,
+        GENERO,
+        COMBO,
+        ENTRADA,
+        /** Se pudieron perder avisos (p. ej. tras reconectar): hay que descartar todo. */
+        TODO
+    }
+
+    private static final EventoCambio TODO = new EventoCambio(Tipo.TODO, null);
+
+    private final Tipo tipo;
+    private final Integer id;
+
+    public EventoCambio(Tipo tipo, Integer id) {
+        this.tipo = Objects.requireNonNull(tipo);
+        this.id = id;
+    }
+
+    public static EventoCambio todo() {
+        return TODO;
+    }
+
+    /** Interpreta "tipo:id"; devuelve null si el aviso no se reconoce. El id puede faltar. */
+    public static EventoCambio parsear(String aviso) {
+        if (aviso == null) return null;
+        int sep = aviso.indexOf(':');
+        String nombre = (sep < 0 ? aviso : aviso.substring(0, sep)).trim().toUpperCase(Locale.ROOT);
+        String valor = sep < 0 ? "" : aviso.substring(sep + 1).trim();
+
+        Tipo tipo;
+        try {
+            tipo = Tipo.valueOf(nombre);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (valor.isEmpty()) return new EventoCambio(tipo, null);
+        try {
+            return new EventoCambio(tipo, Integer.valueOf(valor));
+        } catch (NumberFormatException e) {
+            return new EventoCambio(tipo, null);
+        }
+    }
+
+    public Tipo getTipo() { return tipo; }
+
+    /** Id de la fila afectada (para ENTRADA, la función); null si no se conoce. */
+    public Integer getId() { return id; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof EventoCambio)) return false;
+        EventoCambio otro = (EventoCambio) o;
+        return tipo == otro.tipo && Objects.equals(id, otro.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tipo, id);
+    }
+
+    @Override
+    public String toString() {
+        return tipo + (id == null ? "" : ":" + id);
+    }
+}
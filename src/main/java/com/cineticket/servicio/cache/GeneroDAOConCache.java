@@ -0,0 +1,66 @@
+package com.cineticket.servicio.cache;
+
+import com.cineticket.dao.GeneroDAO;
+import com.cineticket.modelo.Genero;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * GeneroDAO con caché para listarActivos y buscarPorId.
+ * Las escrituras van al DAO real y vacían las regiones de géneros.
+ */
+public class GeneroDAOConCache implements GeneroDAO {
+
+    private static final String ACTIVOS = "activos";
+
+    private final GeneroDAO delegado;
+    private final CatalogoCache catalogo;
+
+    public GeneroDAOConCache(GeneroDAO delegado, CatalogoCache catalogo) {
+        this.delegado = Objects.requireNonNull(delegado);
+        this.catalogo = Objects.requireNonNull(catalogo);
+    }
+
+    @Override
+    public Genero buscarPorId(Integer id) {
+        if (id == null) return delegado.buscarPorId(null);
+        return catalogo.generos().obtener(id, () -> delegado.buscarPorId(id));
+    }
+
+    @Override
+    public List<Genero> listarActivos() {
+        List<Genero> activos = catalogo.listasGeneros()
+                .obtener(ACTIVOS, () -> List.copyOf(delegado.listarActivos()));
+        return new ArrayList<>(activos);
+    }
+
+    @Override
+    public List<Genero> listarTodos() {
+        return delegado.listarTodos();
+    }
+
+    @Override
+    public Genero buscarPorNombre(String nombre) {
+        return delegado.buscarPorNombre(nombre);
+    }
+
+    @Override
+    public Integer crear(Genero genero) {
+        try {
+            return delegado.crear(genero);
+        } finally {
+            catalogo.generosModificados();
+        }
+    }
+
+    @Override
+    public boolean actualizar(Genero genero) {
+        try {
+            return delegado.actualizar(genero);
+        } finally {
+            catalogo.generosModificados();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.cineticket.servicio.cache;
+
+/**
+ * Avisos de que el catálogo cambió (los dispara CarteleraService tras una escritura de admin).
+ * Quien cachea el catálogo descarta lo que corresponda.
+ */
+public interface InvalidacionCatalogo {
+
+    /** Sin caché de catálogo: los avisos no hacen nada. */
+    InvalidacionCatalogo NINGUNA = new InvalidacionCatalogo() {
+        @Override public void peliculasModificadas() { }
+        @Override public void generosModificados() { }
+        @Override public void combosModificados() { }
+    };
+
+    void peliculasModificadas();
+
+    void generosModificados();
+
+    void combosModificados();
+}
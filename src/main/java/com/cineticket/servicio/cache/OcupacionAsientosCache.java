@@ -0,0 +1,345 @@
+package com.cineticket.servicio.cache;
+
+import com.cineticket.dao.AsientoDAO;
+import com.cineticket.dao.EntradaDAO;
+import com.cineticket.dao.FuncionDAO;
+import com.cineticket.modelo.Asiento;
+import com.cineticket.modelo.Funcion;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Caché en memoria de la ocupación de asientos por función.
+ * - Cada función guarda un BitSet indexado por la posición del asiento dentro de su sala
+ *   (orden de AsientoDAO.listarPorSala), es decir, 1 bit por asiento.
+ * - Se carga una sola vez con una proyección (solo asiento_id de entradas ACTIVA).
+ * - CompraService la actualiza (write-through) al confirmar/cancelar.
+ * - Tamaño acotado (LRU) y las funciones ya finalizadas se descartan.
+ * - Las ventas/cancelaciones de otras terminales llegan por alCambiar (LISTEN/NOTIFY).
+ *   El aviso que genera una escritura propia (registrarVenta/registrarCancelacion) vuelve
+ *   también a esta instancia; ese eco se descarta en vez de recargar la función.
+ * - Avisa a los Oyente registrados de cada cambio (mapas de asientos en vivo).
+ */
+public class OcupacionAsientosCache implements OyenteCambios {
+
+    private static final Logger log = LoggerFactory.getLogger(OcupacionAsientosCache.class);
+
+    /** Tiempo máximo entre una escritura propia y su aviso (NOTIFY) para emparejarlos. */
+    private static final long VIGENCIA_ECO_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final EntradaDAO entradaDAO;
+    private final FuncionDAO funcionDAO;
+    private final AsientoDAO asientoDAO;
+    private final int maxFunciones;
+
+    /** funcionId -> ocupación. LinkedHashMap en orden de acceso = LRU (protegido con synchronized). */
+    private final LinkedHashMap<Integer, Ocupacion> porFuncion;
+
+    /** salaId -> distribución de asientos (cambia muy poco, se comparte entre funciones). */
+    private final Map<Integer, DistribucionSala> porSala = new ConcurrentHashMap<>();
+
+    /** Cambia con cada escritura; una carga que se cruzó con una escritura no se guarda. */
+    private final AtomicLong version = new AtomicLong();
+
+    private final List<Oyente> oyentes = new CopyOnWriteArrayList<>();
+
+    /** funcionId -> escrituras propias y avisos de ENTRADA aún sin emparejar (ver Eco). */
+    private final Map<Integer, Eco> ecos = new ConcurrentHashMap<>();
+
+    private final LongSupplier relojNanos;
+
+    /** Recibe los avisos de cambio de ocupación. Se llama fuera de los locks de la caché. */
+    public interface Oyente {
+        /** funcionId null = pueden haber cambiado todas (limpiar). */
+        void ocupacionModificada(Integer funcionId);
+    }
+
+    public OcupacionAsientosCache(EntradaDAO entradaDAO,
+                                  FuncionDAO funcionDAO,
+                                  AsientoDAO asientoDAO,
+                                  int maxFunciones) {
+        this(entradaDAO, funcionDAO, asientoDAO, maxFunciones, System::nanoTime);
+    }
+
+    OcupacionAsientosCache(EntradaDAO entradaDAO,
+                           FuncionDAO funcionDAO,
+                           AsientoDAO asientoDAO,
+                           int maxFunciones,
+                           LongSupplier relojNanos) {
+        this.entradaDAO = Objects.requireNonNull(entradaDAO);
+        this.funcionDAO = Objects.requireNonNull(funcionDAO);
+        this.asientoDAO = Objects.requireNonNull(asientoDAO);
+        if (maxFunciones <= 0) throw new IllegalArgumentException("maxFunciones debe ser > 0");
+        this.maxFunciones = maxFunciones;
+        this.relojNanos = Objects.requireNonNull(relojNanos, "relojNanos es requerido");
+        this.porFuncion = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Ocupacion> eldest) {
+                return size() > OcupacionAsientosCache.this.maxFunciones;
+            }
+        };
+        log.debug("OcupacionAsientosCache inicializada (maxFunciones={})", maxFunciones);
+    }
+
+    /** IDs de asientos ocupados (entradas ACTIVA) de la función. Carga desde BD si no está en caché. */
+    public List<Integer> obtenerOcupados(Integer funcionId) {
+        Objects.requireNonNull(funcionId, "funcionId requerido");
+        descartarFinalizadas();
+
+        Ocupacion o;
+        synchronized (this) {
+            o = porFuncion.get(funcionId);
+        }
+        if (o != null) return o.ocupados();
+
+        long versionAntes = version.get();
+        List<Integer> ocupados = entradaDAO.listarAsientosOcupados(funcionId);
+
+        Funcion f = funcionDAO.buscarPorId(funcionId);
+        if (f == null || f.getSalaId() == null) return ocupados;
+        if (f.getFechaHoraFin() != null && f.getFechaHoraFin().isBefore(LocalDateTime.now())) {
+            return ocupados; // ya terminó: no vale la pena guardarla
+        }
+
+        DistribucionSala sala = porSala.computeIfAbsent(f.getSalaId(), this::cargarSala);
+        BitSet bits = new BitSet(sala.asientoPorPosicion.length);
+        for (Integer asientoId : ocupados) {
+            Integer pos = sala.posicionPorAsiento.get(asientoId);
+            if (pos == null) {
+                // El asiento no está en la distribución conocida de la sala: no cacheamos
+                log.warn("Asiento {} de la función {} no pertenece a la sala {}; no se cachea",
+                        asientoId, funcionId, f.getSalaId());
+                porSala.remove(f.getSalaId());
+                return ocupados;
+            }
+            bits.set(pos);
+        }
+
+        synchronized (this) {
+            if (version.get() == versionAntes) {
+                porFuncion.putIfAbsent(funcionId, new Ocupacion(sala, bits, f.getFechaHoraFin()));
+            }
+        }
+        log.debug("Ocupación de función {} cargada en caché: {} ocupados", funcionId, ocupados.size());
+        return ocupados;
+    }
+
+    /** Marca asientos como ocupados (compra confirmada). No carga la función si no está en caché. */
+    public void marcarOcupados(Integer funcionId, Collection<Integer> asientoIds) {
+        actualizar(funcionId, asientoIds, true);
+    }
+
+    /** Libera asientos (compra cancelada). No carga la función si no está en caché. */
+    public void liberar(Integer funcionId, Collection<Integer> asientoIds) {
+        actualizar(funcionId, asientoIds, false);
+    }
+
+    /**
+     * Write-through de una venta confirmada en esta instancia. Además de marcar los asientos,
+     * deja anotado que el aviso de la BD que va a llegar por esta escritura no debe recargar la función.
+     */
+    public void registrarVenta(Integer funcionId, Collection<Integer> asientoIds) {
+        esperarEco(funcionId, asientoIds);
+        actualizar(funcionId, asientoIds, true);
+    }
+
+    /** Write-through de una cancelación confirmada en esta instancia (ver registrarVenta). */
+    public void registrarCancelacion(Integer funcionId, Collection<Integer> asientoIds) {
+        esperarEco(funcionId, asientoIds);
+        actualizar(funcionId, asientoIds, false);
+    }
+
+    /** Descarta la ocupación de la función; la próxima lectura la recarga desde BD. */
+    public void invalidar(Integer funcionId) {
+        version.incrementAndGet();
+        synchronized (this) {
+            porFuncion.remove(funcionId);
+        }
+        avisar(funcionId);
+    }
+
+    /** Vacía la caché completa (funciones y salas). */
+    public void limpiar() {
+        version.incrementAndGet();
+        synchronized (this) {
+            porFuncion.clear();
+        }
+        porSala.clear();
+        avisar(null);
+    }
+
+    public void agregarOyente(Oyente oyente) {
+        oyentes.add(Objects.requireNonNull(oyente));
+    }
+
+    public void quitarOyente(Oyente oyente) {
+        oyentes.remove(oyente);
+    }
+
+    /**
+     * Entradas o funciones modificadas en otra terminal: se recarga la función afectada.
+     * El aviso de ENTRADA que corresponde a una escritura propia ya aplicada se ignora.
+     */
+    @Override
+    public void alCambiar(EventoCambio evento) {
+        switch (evento.getTipo()) {
+            case ENTRADA -> {
+                if (evento.getId() == null) limpiar();
+                else if (esEcoPropio(evento.getId())) {
+                    log.debug("Aviso de entradas de la función {} originado aquí; no se recarga", evento.getId());
+                } else invalidar(evento.getId());
+            }
+            case FUNCION -> {
+                if (evento.getId() != null) invalidar(evento.getId());
+                else limpiar();
+            }
+            case TODO -> limpiar();
+            default -> { /* el catálogo no afecta la ocupación */ }
+        }
+    }
+
+    /** Cantidad de funciones actualmente en caché. */
+    public synchronized int tamanio() {
+        return porFuncion.size();
+    }
+
+    // ===== Helpers =====
+
+    private void actualizar(Integer funcionId, Collection<Integer> asientoIds, boolean ocupado) {
+        if (funcionId == null || asientoIds == null || asientoIds.isEmpty()) return;
+        version.incrementAndGet();
+
+        Ocupacion o;
+        synchronized (this) {
+            o = porFuncion.get(funcionId);
+        }
+        if (o != null && !o.actualizar(asientoIds, ocupado)) {
+            // Asiento desconocido para la sala: mejor recargar desde BD (invalidar ya avisa)
+            invalidar(funcionId);
+            return;
+        }
+        avisar(funcionId);
+    }
+
+    /**
+     * Anota una escritura propia. Si su aviso ya llegó (el listener le ganó al write-through),
+     * ese aviso ya recargó la función y solo se empareja.
+     */
+    private void esperarEco(Integer funcionId, Collection<Integer> asientoIds) {
+        if (funcionId == null || asientoIds == null || asientoIds.isEmpty()) return;
+        long ahora = relojNanos.getAsLong();
+        ecos.compute(funcionId, (id, eco) -> {
+            int saldo = eco == null || eco.vencido(ahora) ? 1 : eco.saldo + 1;
+            return saldo == 0 ? null : new Eco(saldo, ahora + VIGENCIA_ECO_NANOS);
+        });
+    }
+
+    /** Empareja un aviso de ENTRADA con una escritura propia pendiente; si no hay, queda anotado. */
+    private boolean esEcoPropio(Integer funcionId) {
+        long ahora = relojNanos.getAsLong();
+        ecos.values().removeIf(eco -> eco.vencido(ahora));
+        AtomicBoolean propio = new AtomicBoolean();
+        ecos.compute(funcionId, (id, eco) -> {
+            int saldo = eco == null || eco.vencido(ahora) ? -1 : eco.saldo - 1;
+            propio.set(saldo >= 0);
+            return saldo == 0 ? null : new Eco(saldo, ahora + VIGENCIA_ECO_NANOS);
+        });
+        return propio.get();
+    }
+
+    private void avisar(Integer funcionId) {
+        for (Oyente oyente : oyentes) {
+            try {
+                oyente.ocupacionModificada(funcionId);
+            } catch (RuntimeException e) {
+                log.error("Error avisando cambio de ocupación de la función {}", funcionId, e);
+            }
+        }
+    }
+
+    private synchronized void descartarFinalizadas() {
+        LocalDateTime ahora = LocalDateTime.now();
+        porFuncion.values().removeIf(o -> o.fin != null && o.fin.isBefore(ahora));
+    }
+
+    private DistribucionSala cargarSala(Integer salaId) {
+        List<Asiento> asientos = asientoDAO.listarPorSala(salaId);
+        int[] ids = new int[asientos.size()];
+        Map<Integer, Integer> posiciones = new HashMap<>(asientos.size() * 2);
+        for (int i = 0; i < asientos.size(); i++) {
+            ids[i] = asientos.get(i).getIdAsiento();
+            posiciones.put(ids[i], i);
+        }
+        log.debug("Distribución de sala {} cargada: {} asientos", salaId, ids.length);
+        return new DistribucionSala(ids, posiciones);
+    }
+
+    /**
+     * Saldo entre escrituras propias y avisos de ENTRADA de una función:
+     * > 0 escrituras cuyo aviso aún no llegó; < 0 avisos que llegaron sin escritura propia conocida.
+     */
+    private static final class Eco {
+        final int saldo;
+        final long vence;
+
+        Eco(int saldo, long vence) {
+            this.saldo = saldo;
+            this.vence = vence;
+        }
+
+        boolean vencido(long ahora) {
+            return ahora - vence >= 0;
+        }
+    }
+
+    /** Asientos de una sala en orden (fila, número): posición <-> asientoId. */
+    private static final class DistribucionSala {
+        final int[] asientoPorPosicion;
+        final Map<Integer, Integer> posicionPorAsiento;
+
+        DistribucionSala(int[] asientoPorPosicion, Map<Integer, Integer> posicionPorAsiento) {
+            this.asientoPorPosicion = asientoPorPosicion;
+            this.posicionPorAsiento = posicionPorAsiento;
+        }
+    }
+
+    /** Ocupación de una función: 1 bit por asiento de la sala. */
+    private static final class Ocupacion {
+        final DistribucionSala sala;
+        final BitSet bits;
+        final LocalDateTime fin;
+
+        Ocupacion(DistribucionSala sala, BitSet bits, LocalDateTime fin) {
+            this.sala = sala;
+            this.bits = bits;
+            this.fin = fin;
+        }
+
+        synchronized List<Integer> ocupados() {
+            List<Integer> ids = new ArrayList<>(bits.cardinality());
+            for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                ids.add(sala.asientoPorPosicion[i]);
+            }
+            return ids;
+        }
+
+        /** Retorna false si algún asiento no pertenece a la sala. */
+        synchronized boolean actualizar(Collection<Integer> asientoIds, boolean ocupado) {
+            for (Integer asientoId : asientoIds) {
+                Integer pos = sala.posicionPorAsiento.get(asientoId);
+                if (pos == null) return false;
+                bits.set(pos, ocupado);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.cineticket.servicio.cache;
+
+/** Caché que se invalida con los cambios hechos desde otras terminales. */
+public interface OyenteCambios {
+
+    void alCambiar(EventoCambio evento);
+}
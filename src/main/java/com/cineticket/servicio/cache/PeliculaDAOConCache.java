@@ -0,0 +1,115 @@
+package com.cineticket.servicio.cache;
+
+import com.cineticket.dao.PeliculaDAO;
+import com.cineticket.modelo.Genero;
+import com.cineticket.modelo.Pelicula;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * PeliculaDAO con caché para las lecturas de cartelera (listarActivas, buscarPorId).
+ * Las escrituras van al DAO real y vacían las regiones de películas.
+ * Las listas devueltas son copias; las Pelicula se comparten (no modificarlas sin guardarlas).
+ */
+public class PeliculaDAOConCache implements PeliculaDAO {
+
+    private static final String ACTIVAS = "activas";
+
+    private final PeliculaDAO delegado;
+    private final CatalogoCache catalogo;
+
+    public PeliculaDAOConCache(PeliculaDAO delegado, CatalogoCache catalogo) {
+        this.delegado = Objects.requireNonNull(delegado);
+        this.catalogo = Objects.requireNonNull(catalogo);
+    }
+
+    // ===== Lecturas cacheadas =====
+
+    @Override
+    public Pelicula buscarPorId(Integer id) {
+        if (id == null) return delegado.buscarPorId(null);
+        return catalogo.peliculas().obtener(id, () -> delegado.buscarPorId(id));
+    }
+
+    @Override
+    public List<Pelicula> listarActivas() {
+        List<Pelicula> activas = catalogo.listasPeliculas()
+                .obtener(ACTIVAS, () -> List.copyOf(delegado.listarActivas()));
+        return new ArrayList<>(activas);
+    }
+
+    // ===== Lecturas directas =====
+
+    @Override
+    public List<Pelicula> listarTodas() {
+        return delegado.listarTodas();
+    }
+
+    @Override
+    public Stream<Pelicula> recorrerTodas() {
+        return delegado.recorrerTodas();
+    }
+
+    @Override
+    public Map<Integer, String> obtenerTitulos(Collection<Integer> ids) {
+        return delegado.obtenerTitulos(ids);
+    }
+
+    @Override
+    public List<Pelicula> buscarPorTitulo(String titulo) {
+        return delegado.buscarPorTitulo(titulo);
+    }
+
+    @Override
+    public List<Genero> obtenerGenerosDePelicula(Integer peliculaId) {
+        return delegado.obtenerGenerosDePelicula(peliculaId);
+    }
+
+    @Override
+    public Map<Integer, List<Genero>> obtenerGenerosPorPeliculas(Collection<Integer> peliculaIds) {
+        return delegado.obtenerGenerosPorPeliculas(peliculaIds);
+    }
+
+    // ===== Escrituras (invalidan) =====
+
+    @Override
+    public Integer crear(Pelicula pelicula) {
+        try {
+            return delegado.crear(pelicula);
+        } finally {
+            catalogo.peliculasModificadas();
+        }
+    }
+
+    @Override
+    public boolean actualizar(Pelicula pelicula) {
+        try {
+            return delegado.actualizar(pelicula);
+        } finally {
+            catalogo.peliculasModificadas();
+        }
+    }
+
+    @Override
+    public boolean eliminar(Integer id) {
+        try {
+            return delegado.eliminar(id);
+        } finally {
+            catalogo.peliculasModificadas();
+        }
+    }
+
+    @Override
+    public boolean asignarGeneros(Integer peliculaId, List<Integer> generoIds) {
+        try {
+            return delegado.asignarGeneros(peliculaId, generoIds);
+        } finally {
+            catalogo.peliculasModificadas();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.cineticket.servicio.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Foto de la cartelera lista para pintar: películas activas (en el orden del DAO) con lo que
+ * pidió el llamador ya resuelto, y el momento en que se armó.
+ */
+public class CarteleraSnapshot {
+
+    private final List<PeliculaCartelera> peliculas;
+    private final LocalDateTime generadoEn;
+
+    public CarteleraSnapshot(List<PeliculaCartelera> peliculas, LocalDateTime generadoEn) {
+        this.peliculas = peliculas != null
+                ? Collections.unmodifiableList(new ArrayList<>(peliculas))
+                : Collections.emptyList();
+        this.generadoEn = generadoEn;
+    }
+
+    public List<PeliculaCartelera> getPeliculas() { return peliculas; }
+
+    public LocalDateTime getGeneradoEn() { return generadoEn; }
+
+    public boolean estaVacia() { return peliculas.isEmpty(); }
+
+    /** Total de funciones de todas las películas (0 si la foto solo trae géneros). */
+    public int totalFunciones() {
+        return peliculas.stream().mapToInt(p -> p.getFunciones().size()).sum();
+    }
+}
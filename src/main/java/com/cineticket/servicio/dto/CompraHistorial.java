@@ -0,0 +1,56 @@
+package com.cineticket.servicio.dto;
+
+import com.cineticket.modelo.Compra;
+import com.cineticket.modelo.CompraConfiteria;
+import com.cineticket.modelo.Entrada;
+import com.cineticket.modelo.Funcion;
+
+import java.util.*;
+
+/** Una compra del historial con todo lo que muestra la UI (entradas, combos, función y película). */
+public class CompraHistorial {
+
+    private final Compra compra;
+    private final List<Entrada> entradas;
+    private final List<CompraConfiteria> itemsConfiteria;
+    private final Funcion funcion;
+    private final String tituloPelicula;
+    private final Map<Integer, String> nombresCombos;
+
+    public CompraHistorial(Compra compra,
+                           List<Entrada> entradas,
+                           List<CompraConfiteria> itemsConfiteria,
+                           Funcion funcion,
+                           String tituloPelicula,
+                           Map<Integer, String> nombresCombos) {
+        this.compra = compra;
+        this.entradas = entradas != null
+                ? Collections.unmodifiableList(new ArrayList<>(entradas))
+                : Collections.emptyList();
+        this.itemsConfiteria = itemsConfiteria != null
+                ? Collections.unmodifiableList(new ArrayList<>(itemsConfiteria))
+                : Collections.emptyList();
+        this.funcion = funcion;
+        this.tituloPelicula = tituloPelicula;
+        this.nombresCombos = nombresCombos != null
+                ? Collections.unmodifiableMap(new HashMap<>(nombresCombos))
+                : Collections.emptyMap();
+    }
+
+    public Compra getCompra() { return compra; }
+
+    public List<Entrada> getEntradas() { return entradas; }
+
+    public List<CompraConfiteria> getItemsConfiteria() { return itemsConfiteria; }
+
+    /** Función de las entradas (null si la compra no tiene entradas). */
+    public Funcion getFuncion() { return funcion; }
+
+    /** Título de la película de la función (null si no se pudo resolver). */
+    public String getTituloPelicula() { return tituloPelicula; }
+
+    /** Nombre del combo; si ya no existe, "Combo {id}". */
+    public String getNombreCombo(Integer comboId) {
+        return nombresCombos.getOrDefault(comboId, "Combo " + comboId);
+    }
+}
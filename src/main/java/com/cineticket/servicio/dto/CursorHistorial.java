@@ -0,0 +1,28 @@
+package com.cineticket.servicio.dto;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Posición en el historial de compras (paginación keyset): la última compra de la página anterior.
+ * La siguiente página trae las compras estrictamente anteriores a (fechaHoraCompra, idCompra).
+ */
+public class CursorHistorial {
+
+    private final LocalDateTime fechaHoraCompra;
+    private final Integer idCompra;
+
+    public CursorHistorial(LocalDateTime fechaHoraCompra, Integer idCompra) {
+        this.fechaHoraCompra = Objects.requireNonNull(fechaHoraCompra);
+        this.idCompra = Objects.requireNonNull(idCompra);
+    }
+
+    public LocalDateTime getFechaHoraCompra() { return fechaHoraCompra; }
+
+    public Integer getIdCompra() { return idCompra; }
+
+    @Override
+    public String toString() {
+        return "CursorHistorial{" + fechaHoraCompra + ", idCompra=" + idCompra + '}';
+    }
+}
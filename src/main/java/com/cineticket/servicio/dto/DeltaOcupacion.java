@@ -0,0 +1,39 @@
+package com.cineticket.servicio.dto;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Cambio de ocupación de una función desde el último aviso: asientos que pasaron a ocupados
+ * y asientos que volvieron a estar libres. Describe el estado final, así que aplicarlo dos
+ * veces (o sobre un mapa ya al día) no cambia nada.
+ */
+public class DeltaOcupacion {
+
+    private final Integer funcionId;
+    private final Set<Integer> ocupados;
+    private final Set<Integer> liberados;
+
+    public DeltaOcupacion(Integer funcionId, Set<Integer> ocupados, Set<Integer> liberados) {
+        this.funcionId = Objects.requireNonNull(funcionId);
+        this.ocupados = Collections.unmodifiableSet(new LinkedHashSet<>(ocupados));
+        this.liberados = Collections.unmodifiableSet(new LinkedHashSet<>(liberados));
+    }
+
+    public Integer getFuncionId() { return funcionId; }
+
+    public Set<Integer> getOcupados() { return ocupados; }
+
+    public Set<Integer> getLiberados() { return liberados; }
+
+    public boolean estaVacio() {
+        return ocupados.isEmpty() && liberados.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "DeltaOcupacion{funcion=" + funcionId + ", ocupados=" + ocupados + ", liberados=" + liberados + '}';
+    }
+}
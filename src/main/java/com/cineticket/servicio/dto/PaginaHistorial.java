@@ -0,0 +1,29 @@
+package com.cineticket.servicio.dto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/** Una página del historial de compras y el cursor para pedir la siguiente (null si no hay más). */
+public class PaginaHistorial {
+
+    private final List<CompraHistorial> compras;
+    private final CursorHistorial siguiente;
+
+    public PaginaHistorial(List<CompraHistorial> compras, CursorHistorial siguiente) {
+        this.compras = compras != null
+                ? Collections.unmodifiableList(new ArrayList<>(compras))
+                : Collections.emptyList();
+        this.siguiente = siguiente;
+    }
+
+    public static PaginaHistorial vacia() {
+        return new PaginaHistorial(List.of(), null);
+    }
+
+    public List<CompraHistorial> getCompras() { return compras; }
+
+    public CursorHistorial getSiguiente() { return siguiente; }
+
+    public boolean hayMas() { return siguiente != null; }
+}
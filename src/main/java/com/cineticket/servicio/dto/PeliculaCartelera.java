@@ -0,0 +1,33 @@
+package com.cineticket.servicio.dto;
+
+import com.cineticket.modelo.Funcion;
+import com.cineticket.modelo.Genero;
+import com.cineticket.modelo.Pelicula;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/** Una película de la cartelera con sus géneros y/o funciones ya cargados. */
+public class PeliculaCartelera {
+
+    private final Pelicula pelicula;
+    private final List<Genero> generos;
+    private final List<Funcion> funciones;
+
+    public PeliculaCartelera(Pelicula pelicula, List<Genero> generos, List<Funcion> funciones) {
+        this.pelicula = pelicula;
+        this.generos = generos != null
+                ? Collections.unmodifiableList(new ArrayList<>(generos))
+                : Collections.emptyList();
+        this.funciones = funciones != null
+                ? Collections.unmodifiableList(new ArrayList<>(funciones))
+                : Collections.emptyList();
+    }
+
+    public Pelicula getPelicula() { return pelicula; }
+
+    public List<Genero> getGeneros() { return generos; }
+
+    public List<Funcion> getFunciones() { return funciones; }
+}
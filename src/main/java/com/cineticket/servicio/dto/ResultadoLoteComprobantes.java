@@ -0,0 +1,61 @@
+package com.cineticket.servicio.dto;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** Resumen de una generación de comprobantes por lotes (cuántos, dónde y a qué ritmo). */
+public class ResultadoLoteComprobantes {
+
+    private final int solicitados;
+    private final int generados;
+    private final Map<Integer, String> fallidos;
+    private final Path salida;
+    private final Duration duracion;
+    private final int workers;
+
+    public ResultadoLoteComprobantes(int solicitados,
+                                     int generados,
+                                     Map<Integer, String> fallidos,
+                                     Path salida,
+                                     Duration duracion,
+                                     int workers) {
+        this.solicitados = solicitados;
+        this.generados = generados;
+        this.fallidos = fallidos != null
+                ? Collections.unmodifiableMap(new TreeMap<>(fallidos))
+                : Collections.emptyMap();
+        this.salida = salida;
+        this.duracion = duracion;
+        this.workers = workers;
+    }
+
+    public int getSolicitados() { return solicitados; }
+
+    public int getGenerados() { return generados; }
+
+    /** compraId -> motivo del fallo */
+    public Map<Integer, String> getFallidos() { return fallidos; }
+
+    public Path getSalida() { return salida; }
+
+    public Duration getDuracion() { return duracion; }
+
+    public int getWorkers() { return workers; }
+
+    /** Throughput del lote (comprobantes generados por segundo, incluye la precarga de datos). */
+    public double getComprobantesPorSegundo() {
+        long nanos = duracion.toNanos();
+        return nanos > 0 ? generados * 1_000_000_000.0 / nanos : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(java.util.Locale.ROOT,
+                "%d/%d comprobantes en %d ms (%.1f comprobantes/s, %d workers, %d fallidos) -> %s",
+                generados, solicitados, duracion.toMillis(), getComprobantesPorSegundo(),
+                workers, fallidos.size(), salida);
+    }
+}
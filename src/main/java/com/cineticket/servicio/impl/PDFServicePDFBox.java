@@ -4,12 +4,15 @@ import com.cineticket.modelo.Compra;
 import com.cineticket.modelo.CompraConfiteria;
 import com.cineticket.modelo.Entrada;
 import com.cineticket.servicio.PDFService;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.multipdf.PDFMergerUtility;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -21,21 +24,19 @@ import java.util.Map;
 
 public class PDFServicePDFBox implements PDFService {
 
-    private final NumberFormat moneyFmt =
-            NumberFormat.getCurrencyInstance(new Locale("es", "CO")); // Tipo de moneda
+    // NumberFormat no es thread-safe y los comprobantes se generan desde varios hilos
+    private static final ThreadLocal<NumberFormat> moneyFmt = ThreadLocal.withInitial(
+            () -> NumberFormat.getCurrencyInstance(new Locale("es", "CO"))); // Tipo de moneda
 
     private final Path outputDir;
+    /** La carpeta se crea al escribir el primer comprobante, no al construir el servicio. */
+    private volatile boolean outputDirCreada;
 
     // ⬅️ Nuevo: permite inyectar carpeta
     public PDFServicePDFBox(String outputDir) {
-        try {
-            this.outputDir = (outputDir == null || outputDir.isBlank())
-                    ? Path.of(System.getProperty("java.io.tmpdir"))
-                    : Path.of(outputDir);
-            Files.createDirectories(this.outputDir);
-        } catch (IOException e) {
-            throw new RuntimeException("No se pudo crear la carpeta de comprobantes", e);
-        }
+        this.outputDir = (outputDir == null || outputDir.isBlank())
+                ? Path.of(System.getProperty("java.io.tmpdir"))
+                : Path.of(outputDir);
     }
 
     // ⬅️ Overload conveniente: por defecto usa tmpdir
@@ -48,87 +49,151 @@ public class PDFServicePDFBox implements PDFService {
                                         List<Entrada> entradas,
                                         List<CompraConfiteria> combos,
                                         Map<String, Object> extra) {
-        // Ruta temporal por defecto (puedes apuntar a una carpeta “comprobantes/”)
+        // Se guarda en la carpeta configurada (por defecto, tmpdir)
         String fileName = "comprobante_" + (compra.getIdCompra() != null ? compra.getIdCompra() : System.currentTimeMillis()) + ".pdf";
-        Path out = Path.of(System.getProperty("java.io.tmpdir"), fileName);
+        Path out = outputDir.resolve(fileName);
 
         try (PDDocument doc = new PDDocument()) {
+            crearOutputDir();
+            dibujar(doc, compra, entradas, combos, extra);
+            doc.save(out.toFile());
+            return out.toAbsolutePath().toString();
+
+        } catch (IOException e) {
+            throw new RuntimeException("Error generando PDF de la compra " + n(compra.getIdCompra()), e);
+        }
+    }
+
+    @Override
+    public byte[] renderizarComprobante(Compra compra,
+                                        List<Entrada> entradas,
+                                        List<CompraConfiteria> combos,
+                                        Map<String, Object> extra) {
+        try (PDDocument doc = new PDDocument();
+             ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 * 1024)) {
+            dibujar(doc, compra, entradas, combos, extra);
+            doc.save(bytes);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Error generando PDF de la compra " + n(compra.getIdCompra()), e);
+        }
+    }
+
+    /** Dibuja en memoria una página con las fuentes del comprobante (métricas AFM y codificación). */
+    @Override
+    public void precalentar() {
+        try (PDDocument doc = new PDDocument();
+             ByteArrayOutputStream bytes = new ByteArrayOutputStream(4 * 1024)) {
             PDPage page = new PDPage(PDRectangle.LETTER);
             doc.addPage(page);
-
             try (PDPageContentStream cs = new PDPageContentStream(doc, page)) {
-                float margin = 50;
-                float y = page.getMediaBox().getHeight() - margin;
-
-                // Encabezado
-                y = title(cs, "CINETICKET", margin, y, 20);
-                y = subtitle(cs, "Comprobante de Compra", margin, y, 14);
-
-                DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-
-                String cliente = str(extra, "clienteNombre", "Cliente N/A");
-                String metodo  = (compra.getMetodoPago() != null) ? compra.getMetodoPago().name() : "N/A";
-
-                y = line(cs, "ID: " + n(compra.getIdCompra()) +
-                        "   Fecha: " + (compra.getFechaHoraCompra() != null ? compra.getFechaHoraCompra().format(dtf) : "N/A"), margin, y);
-                y = line(cs, "Cliente: " + cliente, margin, y);
-                y = line(cs, "Método de pago: " + metodo, margin, y);
-
-                y = spacer(cs, y, 10);
-
-                // Entradas
-                y = section(cs, "ENTRADAS", margin, y);
-                if (entradas != null && !entradas.isEmpty()) {
-                    y = tableHeader(cs, new String[]{"Función", "Asiento", "Precio"}, new float[]{200, 120, 100}, margin, y);
-                    for (Entrada e : entradas) {
-                        String funcionTxt = str(extra, "funcionTexto", "Función " + n(e.getFuncionId()));
-                        String asientoTxt = "Asiento " + n(e.getAsientoId());
-                        String precioTxt  = money(e.getPrecioUnitario());
-                        y = tableRow(cs, new String[]{funcionTxt, asientoTxt, precioTxt}, new float[]{200, 120, 100}, margin, y);
-                        if (y < 80) { y = newPage(doc, page = new PDPage(PDRectangle.LETTER), cs); }
-                    }
-                } else {
-                    y = line(cs, "(Sin entradas)", margin, y);
-                }
-
-                y = spacer(cs, y, 10);
+                float y = page.getMediaBox().getHeight() - 50;
+                y = title(cs, "CINETICKET", 50, y, 20);
+                y = line(cs, "Comprobante " + money(java.math.BigDecimal.ZERO), 50, y);
+                small(cs, "áéíóúñ", 50, y);
+            }
+            doc.save(bytes);
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo precalentar PDFBox", e);
+        }
+    }
 
-                // Confitería
-                y = section(cs, "CONFITERÍA", margin, y);
-                if (combos != null && !combos.isEmpty()) {
-                    y = tableHeader(cs, new String[]{"Combo", "Cantidad", "Unitario", "Subtotal"},
-                            new float[]{200, 100, 100, 100}, margin, y);
-                    for (CompraConfiteria i : combos) {
-                        String comboTxt = "Combo " + n(i.getComboId());
-                        String cantTxt  = n(i.getCantidad());
-                        String unitTxt  = money(i.getPrecioUnitario());
-                        String subTxt   = money(i.getSubtotal());
-                        y = tableRow(cs, new String[]{comboTxt, cantTxt, unitTxt, subTxt},
-                                new float[]{200, 100, 100, 100}, margin, y);
-                        if (y < 80) { y = newPage(doc, page = new PDPage(PDRectangle.LETTER), cs); }
-                    }
-                } else {
-                    y = line(cs, "(Sin confitería)", margin, y);
-                }
+    @Override
+    public void unirComprobantes(List<Path> pdfs, Path destino) {
+        PDFMergerUtility merger = new PDFMergerUtility();
+        try {
+            for (Path pdf : pdfs) {
+                merger.addSource(pdf.toFile());
+            }
+            merger.setDestinationFileName(destino.toString());
+            merger.mergeDocuments(MemoryUsageSetting.setupMixed(64L * 1024 * 1024));
+        } catch (IOException e) {
+            throw new RuntimeException("Error uniendo " + pdfs.size() + " comprobantes en " + destino, e);
+        }
+    }
 
-                y = spacer(cs, y, 10);
+    private void crearOutputDir() throws IOException {
+        if (!outputDirCreada) {
+            Files.createDirectories(outputDir);
+            outputDirCreada = true;
+        }
+    }
 
-                // Totales
-                y = section(cs, "TOTALES", margin, y);
-                y = line(cs, "Total Entradas:   " + money(compra.getTotalEntradas()), margin, y);
-                y = line(cs, "Total Confitería: " + money(compra.getTotalConfiteria()), margin, y);
-                y = line(cs, "Total General:    " + money(compra.getTotalGeneral() != null
-                        ? compra.getTotalGeneral() : compra.getTotalEntradas().add(compra.getTotalConfiteria())), margin, y);
+    /** Dibuja el comprobante completo en el documento (una o más páginas). */
+    private void dibujar(PDDocument doc,
+                         Compra compra,
+                         List<Entrada> entradas,
+                         List<CompraConfiteria> combos,
+                         Map<String, Object> extra) throws IOException {
+        PDPage page = new PDPage(PDRectangle.LETTER);
+        doc.addPage(page);
+
+        try (PDPageContentStream cs = new PDPageContentStream(doc, page)) {
+            float margin = 50;
+            float y = page.getMediaBox().getHeight() - margin;
+
+            // Encabezado
+            y = title(cs, "CINETICKET", margin, y, 20);
+            y = subtitle(cs, "Comprobante de Compra", margin, y, 14);
+
+            DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+            String cliente = str(extra, "clienteNombre", "Cliente N/A");
+            String metodo  = (compra.getMetodoPago() != null) ? compra.getMetodoPago().name() : "N/A";
+
+            y = line(cs, "ID: " + n(compra.getIdCompra()) +
+                    "   Fecha: " + (compra.getFechaHoraCompra() != null ? compra.getFechaHoraCompra().format(dtf) : "N/A"), margin, y);
+            y = line(cs, "Cliente: " + cliente, margin, y);
+            y = line(cs, "Método de pago: " + metodo, margin, y);
+
+            y = spacer(cs, y, 10);
+
+            // Entradas
+            y = section(cs, "ENTRADAS", margin, y);
+            if (entradas != null && !entradas.isEmpty()) {
+                y = tableHeader(cs, new String[]{"Función", "Asiento", "Precio"}, new float[]{200, 120, 100}, margin, y);
+                for (Entrada e : entradas) {
+                    String funcionTxt = str(extra, "funcionTexto", "Función " + n(e.getFuncionId()));
+                    String asientoTxt = "Asiento " + n(e.getAsientoId());
+                    String precioTxt  = money(e.getPrecioUnitario());
+                    y = tableRow(cs, new String[]{funcionTxt, asientoTxt, precioTxt}, new float[]{200, 120, 100}, margin, y);
+                    if (y < 80) { y = newPage(doc, page = new PDPage(PDRectangle.LETTER), cs); }
+                }
+            } else {
+                y = line(cs, "(Sin entradas)", margin, y);
+            }
 
-                y = spacer(cs, y, 18);
-                small(cs, "Términos: Conserve este comprobante. No se admiten cambios ni devoluciones después del inicio de la función.", margin, y);
+            y = spacer(cs, y, 10);
+
+            // Confitería
+            y = section(cs, "CONFITERÍA", margin, y);
+            if (combos != null && !combos.isEmpty()) {
+                y = tableHeader(cs, new String[]{"Combo", "Cantidad", "Unitario", "Subtotal"},
+                        new float[]{200, 100, 100, 100}, margin, y);
+                for (CompraConfiteria i : combos) {
+                    String comboTxt = "Combo " + n(i.getComboId());
+                    String cantTxt  = n(i.getCantidad());
+                    String unitTxt  = money(i.getPrecioUnitario());
+                    String subTxt   = money(i.getSubtotal());
+                    y = tableRow(cs, new String[]{comboTxt, cantTxt, unitTxt, subTxt},
+                            new float[]{200, 100, 100, 100}, margin, y);
+                    if (y < 80) { y = newPage(doc, page = new PDPage(PDRectangle.LETTER), cs); }
+                }
+            } else {
+                y = line(cs, "(Sin confitería)", margin, y);
             }
 
-            doc.save(out.toFile());
-            return out.toAbsolutePath().toString();
+            y = spacer(cs, y, 10);
 
-        } catch (IOException e) {
-            throw new RuntimeException("Error generando PDF de la compra " + n(compra.getIdCompra()), e);
+            // Totales
+            y = section(cs, "TOTALES", margin, y);
+            y = line(cs, "Total Entradas:   " + money(compra.getTotalEntradas()), margin, y);
+            y = line(cs, "Total Confitería: " + money(compra.getTotalConfiteria()), margin, y);
+            y = line(cs, "Total General:    " + money(compra.getTotalGeneral() != null
+                    ? compra.getTotalGeneral() : compra.getTotalEntradas().add(compra.getTotalConfiteria())), margin, y);
+
+            y = spacer(cs, y, 18);
+            small(cs, "Términos: Conserve este comprobante. No se admiten cambios ni devoluciones después del inicio de la función.", margin, y);
         }
     }
 
@@ -222,8 +287,8 @@ public class PDFServicePDFBox implements PDFService {
 
     // ===== Helpers de formato =====
     private String money(java.math.BigDecimal bd) {
-        if (bd == null) return moneyFmt.format(0);
-        return moneyFmt.format(bd);
+        if (bd == null) return moneyFmt.get().format(0);
+        return moneyFmt.get().format(bd);
     }
 
     private String str(Map<String, Object> m, String k, String def) {
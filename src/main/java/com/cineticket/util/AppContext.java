@@ -1,50 +1,152 @@
 package com.cineticket.util;
 
 import com.cineticket.dao.*;
+import com.cineticket.dao.common.TransactionManager;
 import com.cineticket.dao.impl.*;
 import com.cineticket.servicio.*;
+import com.cineticket.servicio.cache.CatalogoCache;
+import com.cineticket.servicio.cache.ComboConfiteriaDAOConCache;
+import com.cineticket.servicio.cache.DespachadorCambios;
+import com.cineticket.servicio.cache.GeneroDAOConCache;
+import com.cineticket.servicio.cache.OcupacionAsientosCache;
+import com.cineticket.servicio.cache.PeliculaDAOConCache;
 import com.cineticket.servicio.impl.*;
+import com.cineticket.util.metricas.Metricas;
 
-/** Proveedor simple de servicios para la UI. */
+import java.time.Duration;
+
+/**
+ * Proveedor simple de servicios para la UI.
+ * La clase se inicializa en la etapa "servicios" del arranque (ver Main / Arranque), fuera del
+ * hilo de JavaFX. Los servicios que casi no se usan (reportes) se construyen al primer uso.
+ */
 public final class AppContext {
 
     // --- Auth / Usuario
-    private static final UsuarioDAO usuarioDAO = new UsuarioDAOImpl();
+    private static final UsuarioDAO usuarioDAO = medido(UsuarioDAO.class, new UsuarioDAOImpl());
     private static final AuthService authService = new AuthService(usuarioDAO);
 
+    // --- Catálogo en memoria (películas, géneros, combos); se invalida con las escrituras de admin
+    private static final CatalogoCache catalogoCache =
+            new CatalogoCache(ConfiguracionApp.getCacheCatalogoMaxEntradas(),
+                    Duration.ofSeconds(ConfiguracionApp.getCacheCatalogoTtl()));
+
     // --- Cartelera (películas / funciones)
-    private static final PeliculaDAO peliculaDAO = new PeliculaDAOImpl();
-    private static final FuncionDAO funcionDAO  = new FuncionDAOImpl();
-    private static final GeneroDAO generoDAO    = new GeneroDAOImpl();   // ← nuevo
+    private static final PeliculaDAO peliculaDAO =
+            new PeliculaDAOConCache(medido(PeliculaDAO.class, new PeliculaDAOImpl()), catalogoCache);
+    private static final FuncionDAO funcionDAO  = medido(FuncionDAO.class, new FuncionDAOImpl());
+    private static final GeneroDAO generoDAO    =
+            new GeneroDAOConCache(medido(GeneroDAO.class, new GeneroDAOImpl()), catalogoCache);   // ← nuevo
     private static final CarteleraService carteleraService =
-            new CarteleraService(peliculaDAO, funcionDAO, generoDAO);   // ← pasa el tercero
+            new CarteleraService(peliculaDAO, funcionDAO, generoDAO, catalogoCache);
 
 
     // --- Asientos / Reserva
-    private static final AsientoDAO asientoDAO = new AsientoDAOImpl();
-    private static final EntradaDAO entradaDAO = new EntradaDAOImpl(); // tu implementación JDBC
-    private static final ReservaService reservaService = new ReservaService(entradaDAO, funcionDAO);
+    private static final AsientoDAO asientoDAO = medido(AsientoDAO.class, new AsientoDAOImpl());
+    private static final EntradaDAO entradaDAO = medido(EntradaDAO.class, new EntradaDAOImpl()); // tu implementación JDBC
+    private static final OcupacionAsientosCache ocupacionCache =
+            new OcupacionAsientosCache(entradaDAO, funcionDAO, asientoDAO,
+                    ConfiguracionApp.getCacheOcupacionMaxFunciones());
+    private static final TransactionManager transactionManager = new JdbcTransactionManager();
+    private static final SeatHoldDAO seatHoldDAO = medido(SeatHoldDAO.class, new SeatHoldDAOImpl());
+    private static final SeatHoldService seatHoldService =
+            new SeatHoldService(seatHoldDAO, transactionManager,
+                    Duration.ofSeconds(ConfiguracionApp.getBusinessSeatHoldTtl()));
+    private static final OcupacionEnVivo ocupacionEnVivo = new OcupacionEnVivo(ocupacionCache);
+    private static final ReservaService reservaService =
+            new ReservaService(entradaDAO, funcionDAO, ocupacionCache, seatHoldService, ocupacionEnVivo);
+
+    static {
+        seatHoldService.iniciarBarrido(
+                Duration.ofSeconds(ConfiguracionApp.getBusinessSeatHoldSweepInterval()));
+    }
 
     // --- Confitería
-    private static final ComboConfiteriaDAO comboDAO = new ComboConfiteriaDAOImpl();
+    private static final ComboConfiteriaDAO comboDAO =
+            new ComboConfiteriaDAOConCache(medido(ComboConfiteriaDAO.class, new ComboConfiteriaDAOImpl()), catalogoCache);
     private static final ConfiteriaService confiteriaService = new ConfiteriaService(comboDAO);
 
     // --- Compra (incluye PDF)
-    private static final CompraDAO compraDAO = new CompraDAOImpl();
-    private static final CompraConfiteriaDAO compraConfiteriaDAO = new CompraConfiteriaDAOImpl();
-    private static final PDFService pdfService = new PDFServicePDFBox();
+    private static final CompraDAO compraDAO = medido(CompraDAO.class, new CompraDAOImpl());
+    private static final CompraConfiteriaDAO compraConfiteriaDAO =
+            medido(CompraConfiteriaDAO.class, new CompraConfiteriaDAOImpl());
+    private static final PDFService pdfService =
+            Metricas.instrumentar(PDFService.class,
+                    new PDFServicePDFBox(ConfiguracionApp.getPdfOutputDirectory()), "servicio");
+    private static final RollupDAO rollupDAO = medido(RollupDAO.class, new RollupDAOImpl());
+    private static final ComprobanteJobDAO comprobanteJobDAO =
+            medido(ComprobanteJobDAO.class, new ComprobanteJobDAOImpl());
+    private static final ComprobanteService comprobanteService =
+            new ComprobanteService(compraDAO, entradaDAO, compraConfiteriaDAO, funcionDAO,
+                    pdfService, comprobanteJobDAO, transactionManager,
+                    ConfiguracionApp.getPdfJobsWorkers(),
+                    ConfiguracionApp.getPdfJobsQueueCapacity(),
+                    ConfiguracionApp.getPdfJobsMaxAttempts(),
+                    Duration.ofSeconds(ConfiguracionApp.getPdfDownloadWait()));
     private static final CompraService compraService =
             new CompraService(compraDAO, entradaDAO, compraConfiteriaDAO,
-                    funcionDAO, reservaService, confiteriaService, pdfService);
-
-    // --- Reportes
-    private static final ReporteService reporteService =
-            new ReporteService(compraDAO, entradaDAO, compraConfiteriaDAO,
-                    peliculaDAO, funcionDAO);
+                    funcionDAO, reservaService, confiteriaService, comprobanteService,
+                    transactionManager, rollupDAO, peliculaDAO);
+
+    static {
+        // Retoma comprobantes pendientes de ejecuciones anteriores
+        comprobanteService.iniciarBarrido(
+                Duration.ofSeconds(ConfiguracionApp.getPdfJobsSweepInterval()));
+    }
+
+    // --- Reportes (solo admin): al primer uso
+    private static final Perezoso<ReporteService> reporteService =
+            Perezoso.de(() -> new ReporteService(medido(ReporteDAO.class, new ReporteDAOImpl())));
+
+    // --- Avisos de cambios de otras terminales (LISTEN/NOTIFY) -> invalidan las cachés
+    private static final DespachadorCambios despachadorCambios = new DespachadorCambios();
+    private static final EscuchaCambiosBD escuchaCambios =
+            new EscuchaCambiosBD(despachadorCambios,
+                    Duration.ofSeconds(ConfiguracionApp.getDbNotifyReconnectInterval()));
+
+    static {
+        despachadorCambios.registrar(catalogoCache);
+        despachadorCambios.registrar(ocupacionCache);
+        if (ConfiguracionApp.getDbNotifyEnabled()) {
+            escuchaCambios.iniciar();
+        }
+    }
+
+    // --- Métricas (pool, DAO, servicios): JMX y/o resumen periódico en el log
+    static {
+        LimitadorIntentos limitador = authService.getLimitadorIntentos();
+        Metricas.indicador("auth.rechazados.usuario", limitador::getRechazadosPorUsuario);
+        Metricas.indicador("auth.rechazados.terminal", limitador::getRechazadosPorTerminal);
+        Metricas.indicador("auth.rechazados.bcrypt", authService::getRechazadosPorPoolSaturado);
+        if (ConfiguracionApp.getMetricasJmxEnabled()) {
+            Metricas.exponerEnJmx();
+        }
+        Metricas.iniciarReporte(Duration.ofSeconds(ConfiguracionApp.getMetricasLogIntervalo()));
+    }
 
 
     private AppContext() {}
 
+    /** Construye los servicios e inicia sus tareas en segundo plano (la primera llamada inicializa la clase). */
+    public static void inicializar() {
+        // El trabajo lo hacen los inicializadores estáticos
+    }
+
+    /** Detiene las tareas en segundo plano al cerrar la aplicación. */
+    public static void cerrar() {
+        seatHoldService.detenerBarrido();
+        comprobanteService.detener();
+        escuchaCambios.detener();
+        ocupacionEnVivo.detener();
+        authService.detener();
+        Metricas.detenerReporte();
+    }
+
+    /** Cuenta y latencia de cada método del DAO (dao.Interfaz.metodo en Metricas). */
+    private static <T> T medido(Class<T> interfaz, T dao) {
+        return Metricas.instrumentar(interfaz, dao, "dao");
+    }
+
     // --- Getters expuestos a la UI ---
     public static AuthService getAuthService() { return authService; }
     public static CarteleraService getCarteleraService() { return carteleraService; }
@@ -56,10 +158,14 @@ public final class AppContext {
 
     public static CompraService getCompraService() { return compraService; }
 
-    public static ReporteService getReporteService() { return reporteService; }
+    public static ReporteService getReporteService() { return reporteService.get(); }
 
     public static PDFService getPDFService() { return pdfService; }
 
+    public static ComprobanteService getComprobanteService() { return comprobanteService; }
+
+    public static CatalogoCache getCatalogoCache() { return catalogoCache; }
+
 
     // (opcionales, por si alguno los necesita)
     public static FuncionDAO getFuncionDAO() { return funcionDAO; }
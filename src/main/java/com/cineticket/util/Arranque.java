@@ -0,0 +1,142 @@
+package com.cineticket.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Arranque de la aplicación por etapas (ver Main).
+ * - Cada etapa corre en un pool propio apenas terminan las etapas de las que depende;
+ *   las independientes corren en paralelo.
+ * - Registra cuánto tardó cada etapa y el total.
+ * - Si una etapa falla (incluso con un Error) se registra en fallas() y las demás siguen
+ *   (p. ej. sin BD se muestra el login y el error aparece al iniciar sesión).
+ * - listas() se completa cuando terminan las etapas bloqueantes (la pantalla de carga solo
+ *   espera por ellas); el resto sigue en segundo plano hasta todas().
+ *
+ * Uso:
+ *   Arranque a = new Arranque()
+ *           .etapa("configuración", true, ConfiguracionApp::getAppName)
+ *           .etapa("base de datos", true, ConnectionPool::calentar, "configuración");
+ *   a.listas().thenRun(...);
+ *   a.iniciar();
+ */
+public final class Arranque {
+
+    private static final Logger log = LoggerFactory.getLogger(Arranque.class);
+
+    private final Map<String, CompletableFuture<Void>> etapas = new LinkedHashMap<>();
+    private final List<CompletableFuture<Void>> bloqueantes = new ArrayList<>();
+    private final CompletableFuture<Void> disparo = new CompletableFuture<>();
+    private final AtomicInteger terminadas = new AtomicInteger();
+    private final Map<String, Throwable> fallas = new ConcurrentHashMap<>();
+    private final ExecutorService ejecutor;
+
+    private BiConsumer<String, Double> alAvanzar = (etapa, avance) -> { };
+    private long inicio;
+
+    public Arranque() {
+        int hilos = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger n = new AtomicInteger();
+        this.ejecutor = Executors.newFixedThreadPool(hilos, r -> {
+            Thread t = new Thread(r, "arranque-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** Se llama (desde el hilo de la etapa) al terminar cada una, con la fracción de etapas terminadas. */
+    public Arranque alAvanzar(BiConsumer<String, Double> oyente) {
+        this.alAvanzar = Objects.requireNonNull(oyente, "oyente es requerido");
+        return this;
+    }
+
+    /**
+     * Registra una etapa. Las dependencias deben registrarse antes.
+     *
+     * @param bloqueante si la primera pantalla espera por ella
+     * @param dependeDe  etapas que deben terminar antes
+     */
+    public Arranque etapa(String nombre, boolean bloqueante, Runnable trabajo, String... dependeDe) {
+        Objects.requireNonNull(nombre, "nombre es requerido");
+        Objects.requireNonNull(trabajo, "trabajo es requerido");
+        if (etapas.containsKey(nombre)) {
+            throw new IllegalArgumentException("Etapa repetida: " + nombre);
+        }
+
+        List<CompletableFuture<Void>> previas = new ArrayList<>();
+        previas.add(disparo);
+        for (String d : dependeDe) {
+            CompletableFuture<Void> previa = etapas.get(d);
+            if (previa == null) {
+                throw new IllegalArgumentException("La etapa '" + nombre + "' depende de una etapa no registrada: " + d);
+            }
+            previas.add(previa);
+        }
+
+        CompletableFuture<Void> f = CompletableFuture.allOf(previas.toArray(new CompletableFuture[0]))
+                .thenRunAsync(() -> ejecutar(nombre, trabajo), ejecutor);
+        etapas.put(nombre, f);
+        if (bloqueante) bloqueantes.add(f);
+        return this;
+    }
+
+    /** Arranca las etapas registradas. */
+    public void iniciar() {
+        inicio = System.nanoTime();
+        log.info("Arranque: {} etapas ({} bloqueantes)", etapas.size(), bloqueantes.size());
+        todas().whenComplete((v, ex) -> {
+            log.info("Arranque: todas las etapas terminaron en {} ms", milisTranscurridos());
+            ejecutor.shutdown();
+        });
+        disparo.complete(null);
+    }
+
+    /** Terminan las etapas bloqueantes. */
+    public CompletableFuture<Void> listas() {
+        return CompletableFuture.allOf(bloqueantes.toArray(new CompletableFuture[0]));
+    }
+
+    /** Terminan todas las etapas. */
+    public CompletableFuture<Void> todas() {
+        return CompletableFuture.allOf(etapas.values().toArray(new CompletableFuture[0]));
+    }
+
+    /** Etapas que fallaron hasta ahora y su error (tras listas(): las bloqueantes ya están). */
+    public Map<String, Throwable> fallas() {
+        return Map.copyOf(fallas);
+    }
+
+    /** Milisegundos desde iniciar(). */
+    public long milisTranscurridos() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+    }
+
+    private void ejecutar(String nombre, Runnable trabajo) {
+        long t0 = System.nanoTime();
+        try {
+            trabajo.run();
+            log.info("Arranque: etapa '{}' en {} ms", nombre, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0));
+        } catch (Throwable e) {
+            // También Error: un inicializador estático que falla (pool sin BD, configuración
+            // inválida) llega como ExceptionInInitializerError y no debe dejar colgado listas()
+            fallas.put(nombre, e);
+            log.warn("Arranque: la etapa '{}' falló tras {} ms: {}", nombre,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0), e.getMessage(), e);
+        } finally {
+            alAvanzar.accept(nombre, (double) terminadas.incrementAndGet() / etapas.size());
+        }
+    }
+}
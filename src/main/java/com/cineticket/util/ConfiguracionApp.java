@@ -5,6 +5,8 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.util.Properties;
 
 /**
@@ -33,29 +35,62 @@ public final class ConfiguracionApp {
     private static final String DB_IDLE_TIMEOUT = "db.idle.timeout";
     private static final String DB_MAX_LIFETIME = "db.max.lifetime";
     private static final String DB_POOL_NAME = "db.pool.name";
+    private static final String DB_NOTIFY_ENABLED = "db.notify.enabled";
+    private static final String DB_NOTIFY_RECONNECT = "db.notify.reconnect.interval";
+    private static final String DB_PREPARE_THRESHOLD = "db.prepare.threshold";
+    private static final String DB_STATEMENT_CACHE_QUERIES = "db.statement.cache.queries";
+    private static final String DB_STATEMENT_CACHE_SIZE_MIB = "db.statement.cache.size.mib";
+    private static final String DB_SQL_REGISTRO_ENABLED = "db.sql.registro.enabled";
+    private static final String DB_SQL_LENTA_MS = "db.sql.lenta.ms";
+    private static final String DB_SQL_REPETICIONES_MAX = "db.sql.repeticiones.max";
 
     private static final String BCRYPT_ROUNDS = "bcrypt.rounds";
+    private static final String BCRYPT_HILOS = "bcrypt.hilos";
+    private static final String BCRYPT_COLA = "bcrypt.cola";
+    private static final String AUTH_LIMITE_CAPACIDAD = "auth.limite.capacidad";
+    private static final String AUTH_LIMITE_RECARGA = "auth.limite.recarga";
+    private static final String AUTH_LIMITE_TERMINAL_CAPACIDAD = "auth.limite.terminal.capacidad";
+    private static final String AUTH_LIMITE_TERMINAL_RECARGA = "auth.limite.terminal.recarga";
     private static final String SESSION_TIMEOUT = "session.timeout";
 
     private static final String PDF_OUTPUT_DIR = "pdf.output.directory";
     private static final String PDF_FILENAME_PREFIX = "pdf.filename.prefix";
     private static final String PDF_INCLUDE_DATE = "pdf.include.date";
+    private static final String PDF_JOBS_WORKERS = "pdf.jobs.workers";
+    private static final String PDF_JOBS_QUEUE = "pdf.jobs.queue.capacity";
+    private static final String PDF_JOBS_MAX_ATTEMPTS = "pdf.jobs.max.attempts";
+    private static final String PDF_JOBS_SWEEP = "pdf.jobs.sweep.interval";
+    private static final String PDF_DOWNLOAD_WAIT = "pdf.download.wait";
+    private static final String PDF_BATCH_WORKERS = "pdf.batch.workers";
 
     private static final String LOG_LEVEL = "log.level";
     private static final String LOG_FILE_PATH = "log.file.path";
 
+    private static final String METRICAS_LOG_INTERVALO = "metricas.log.intervalo";
+    private static final String METRICAS_JMX_ENABLED = "metricas.jmx.enabled";
+
     private static final String APP_NAME = "app.name";
     private static final String APP_VERSION = "app.version";
     private static final String APP_AUTHOR = "app.author";
+    private static final String APP_TERMINAL = "app.terminal";
 
     private static final String UI_WINDOW_WIDTH = "ui.window.width";
     private static final String UI_WINDOW_HEIGHT = "ui.window.height";
     private static final String UI_WINDOW_RESIZABLE = "ui.window.resizable";
     private static final String UI_WINDOW_MAXIMIZED = "ui.window.maximized";
     private static final String UI_THEME = "ui.theme";
+    private static final String UI_CARGA_HILOS = "ui.carga.hilos";
 
     private static final String BUSINESS_MAX_TICKETS = "business.max.tickets.per.purchase";
     private static final String BUSINESS_CANCEL_TIME = "business.cancel.time.limit";
+    private static final String BUSINESS_HOLD_TTL = "business.seat.hold.ttl";
+    private static final String BUSINESS_HOLD_SWEEP = "business.seat.hold.sweep.interval";
+
+    private static final String CACHE_OCUPACION_MAX = "cache.ocupacion.max.funciones";
+    private static final String CACHE_CATALOGO_MAX = "cache.catalogo.max.entradas";
+    private static final String CACHE_CATALOGO_TTL = "cache.catalogo.ttl";
+    private static final String CACHE_POSTERS_MEMORIA = "cache.posters.memoria.mb";
+    private static final String CACHE_POSTERS_DIR = "cache.posters.dir";
 
     // ========================================
     // BLOQUE ESTATICO: CARGA DE CONFIGURACION
@@ -158,6 +193,46 @@ public final class ConfiguracionApp {
         return obtenerPropiedad(DB_POOL_NAME, "CineTicketPool");
     }
 
+    /** Escuchar los avisos de cambio de otras terminales (LISTEN/NOTIFY, 07_notificaciones). */
+    public static boolean getDbNotifyEnabled() {
+        return obtenerPropiedadBoolean(DB_NOTIFY_ENABLED, true);
+    }
+
+    /** Segundos de espera antes de reabrir la conexión de avisos si se cae. */
+    public static int getDbNotifyReconnectInterval() {
+        return obtenerPropiedadInt(DB_NOTIFY_RECONNECT, 5);
+    }
+
+    /** Ejecuciones de un mismo PreparedStatement antes de que PgJDBC lo prepare en el servidor. */
+    public static int getDbPrepareThreshold() {
+        return obtenerPropiedadInt(DB_PREPARE_THRESHOLD, 3);
+    }
+
+    /** Consultas preparadas que PgJDBC conserva por conexión. */
+    public static int getDbStatementCacheQueries() {
+        return obtenerPropiedadInt(DB_STATEMENT_CACHE_QUERIES, 256);
+    }
+
+    /** Tope en MiB de la caché de consultas preparadas por conexión. */
+    public static int getDbStatementCacheSizeMib() {
+        return obtenerPropiedadInt(DB_STATEMENT_CACHE_SIZE_MIB, 5);
+    }
+
+    /** Medir cada sentencia SQL (log de lentas y detección de N+1, ver RegistroSql). */
+    public static boolean getDbSqlRegistroEnabled() {
+        return obtenerPropiedadBoolean(DB_SQL_REGISTRO_ENABLED, true);
+    }
+
+    /** Milisegundos a partir de los cuales una sentencia se escribe en el log como lenta. */
+    public static long getDbSqlLentaMs() {
+        return obtenerPropiedadLong(DB_SQL_LENTA_MS, 200L);
+    }
+
+    /** Veces que una misma sentencia puede repetirse en una acción antes de avisar de un posible N+1. */
+    public static int getDbSqlRepeticionesMax() {
+        return obtenerPropiedadInt(DB_SQL_REPETICIONES_MAX, 10);
+    }
+
     // ============================================================================
     // SEGURIDAD
     // ============================================================================
@@ -165,6 +240,35 @@ public final class ConfiguracionApp {
         return obtenerPropiedadInt(BCRYPT_ROUNDS, 12);
     }
 
+    /** Hilos para BCrypt; 0 = la mitad de los núcleos. */
+    public static int getBcryptHilos() {
+        return obtenerPropiedadInt(BCRYPT_HILOS, 0);
+    }
+
+    public static int getBcryptCola() {
+        return obtenerPropiedadInt(BCRYPT_COLA, 32);
+    }
+
+    /** Intentos de inicio de sesión seguidos por usuario. */
+    public static int getAuthLimiteCapacidad() {
+        return obtenerPropiedadInt(AUTH_LIMITE_CAPACIDAD, 5);
+    }
+
+    /** Segundos para recuperar un intento por usuario. */
+    public static int getAuthLimiteRecarga() {
+        return obtenerPropiedadInt(AUTH_LIMITE_RECARGA, 12);
+    }
+
+    /** Intentos seguidos en la terminal (todos los usuarios). */
+    public static int getAuthLimiteTerminalCapacidad() {
+        return obtenerPropiedadInt(AUTH_LIMITE_TERMINAL_CAPACIDAD, 20);
+    }
+
+    /** Segundos para recuperar un intento en la terminal. */
+    public static int getAuthLimiteTerminalRecarga() {
+        return obtenerPropiedadInt(AUTH_LIMITE_TERMINAL_RECARGA, 3);
+    }
+
     public static int getSessionTimeout() {
         return obtenerPropiedadInt(SESSION_TIMEOUT, 30);
     }
@@ -184,6 +288,34 @@ public final class ConfiguracionApp {
         return obtenerPropiedadBoolean(PDF_INCLUDE_DATE, true);
     }
 
+    public static int getPdfJobsWorkers() {
+        return obtenerPropiedadInt(PDF_JOBS_WORKERS, 2);
+    }
+
+    public static int getPdfJobsQueueCapacity() {
+        return obtenerPropiedadInt(PDF_JOBS_QUEUE, 100);
+    }
+
+    public static int getPdfJobsMaxAttempts() {
+        return obtenerPropiedadInt(PDF_JOBS_MAX_ATTEMPTS, 5);
+    }
+
+    /** Segundos entre barridos de comprobantes pendientes. */
+    public static int getPdfJobsSweepInterval() {
+        return obtenerPropiedadInt(PDF_JOBS_SWEEP, 60);
+    }
+
+    /** Segundos que la descarga espera a un comprobante en generación. */
+    public static int getPdfDownloadWait() {
+        return obtenerPropiedadInt(PDF_DOWNLOAD_WAIT, 10);
+    }
+
+    /** Hilos para generar comprobantes por lotes (0 = núcleos disponibles). */
+    public static int getPdfBatchWorkers() {
+        int workers = obtenerPropiedadInt(PDF_BATCH_WORKERS, 0);
+        return workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+    }
+
     // ============================================================================
     // LOGGING
     // ============================================================================
@@ -195,6 +327,19 @@ public final class ConfiguracionApp {
         return obtenerPropiedad(LOG_FILE_PATH, "./logs/cineticket.log");
     }
 
+    // ============================================================================
+    // METRICAS
+    // ============================================================================
+    /** Segundos entre resúmenes de métricas en el log (0 = sin reporte). */
+    public static int getMetricasLogIntervalo() {
+        return obtenerPropiedadInt(METRICAS_LOG_INTERVALO, 300);
+    }
+
+    /** Publicar métricas del pool, DAO y servicios por JMX (jconsole / VisualVM). */
+    public static boolean getMetricasJmxEnabled() {
+        return obtenerPropiedadBoolean(METRICAS_JMX_ENABLED, true);
+    }
+
     // ============================================================================
     // DATOS DE APLICACION
     // ============================================================================
@@ -210,6 +355,17 @@ public final class ConfiguracionApp {
         return obtenerPropiedad(APP_AUTHOR, "Claudia Patricia Galvis");
     }
 
+    /** Identificador de esta terminal (taquilla/kiosco); por defecto el nombre del equipo. */
+    public static String getAppTerminal() {
+        String terminal = obtenerPropiedad(APP_TERMINAL, "");
+        if (!terminal.isBlank()) return terminal;
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "local";
+        }
+    }
+
     // ============================================================================
     // INTERFAZ DE USUARIO
     // ============================================================================
@@ -233,6 +389,11 @@ public final class ConfiguracionApp {
         return obtenerPropiedad(UI_THEME, "light");
     }
 
+    /** Hilos para cargar datos de las pantallas fuera del hilo de JavaFX. */
+    public static int getUiCargaHilos() {
+        return obtenerPropiedadInt(UI_CARGA_HILOS, 4);
+    }
+
     // ============================================================================
     // REGLAS DE NEGOCIO
     // ============================================================================
@@ -244,6 +405,43 @@ public final class ConfiguracionApp {
         return obtenerPropiedadInt(BUSINESS_CANCEL_TIME, 30);
     }
 
+    /** Segundos que se retienen los asientos seleccionados antes del pago. */
+    public static int getBusinessSeatHoldTtl() {
+        return obtenerPropiedadInt(BUSINESS_HOLD_TTL, 300);
+    }
+
+    /** Cada cuántos segundos se eliminan las retenciones vencidas. */
+    public static int getBusinessSeatHoldSweepInterval() {
+        return obtenerPropiedadInt(BUSINESS_HOLD_SWEEP, 60);
+    }
+
+    // ============================================================================
+    // CACHES
+    // ============================================================================
+    public static int getCacheOcupacionMaxFunciones() {
+        return obtenerPropiedadInt(CACHE_OCUPACION_MAX, 200);
+    }
+
+    /** Máximo de entradas por región de la caché de catálogo (películas, géneros, combos). */
+    public static int getCacheCatalogoMaxEntradas() {
+        return obtenerPropiedadInt(CACHE_CATALOGO_MAX, 500);
+    }
+
+    /** Segundos de vigencia de la caché de catálogo (0 = sin vencimiento). */
+    public static int getCacheCatalogoTtl() {
+        return obtenerPropiedadInt(CACHE_CATALOGO_TTL, 300);
+    }
+
+    /** Megabytes de pósters decodificados en memoria. */
+    public static int getCachePostersMemoriaMb() {
+        return obtenerPropiedadInt(CACHE_POSTERS_MEMORIA, 48);
+    }
+
+    /** Carpeta de pósters reducidos; vacío deshabilita la caché en disco. */
+    public static String getCachePostersDir() {
+        return obtenerPropiedad(CACHE_POSTERS_DIR, "./cache/posters/");
+    }
+
     // ============================================================================
     // UTILIDADES
     // ============================================================================
@@ -1,10 +1,13 @@
 package com.cineticket.util;
 
+import com.cineticket.util.metricas.MetricasHikari;
+import com.cineticket.util.metricas.RegistroSql;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.sql.Connection;
+import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
@@ -18,6 +21,7 @@ public final class ConnectionPool {
 
     private static final Logger log = LoggerFactory.getLogger(ConnectionPool.class);
     private static final HikariDataSource dataSource;
+    private static final boolean registroSql;
 
     static {
         HikariConfig config = new HikariConfig();
@@ -31,6 +35,21 @@ public final class ConnectionPool {
         config.setMaxLifetime(ConfiguracionApp.getDbMaxLifetime());
         config.setPoolName(ConfiguracionApp.getDbPoolName());
 
+        // Caché de sentencias de PgJDBC: los DAO repiten siempre el mismo SQL con parámetros,
+        // así que cada conexión lo prepara una vez en el servidor y reutiliza el plan
+        config.addDataSourceProperty("prepareThreshold", ConfiguracionApp.getDbPrepareThreshold());
+        config.addDataSourceProperty("preparedStatementCacheQueries", ConfiguracionApp.getDbStatementCacheQueries());
+        config.addDataSourceProperty("preparedStatementCacheSizeMiB", ConfiguracionApp.getDbStatementCacheSizeMib());
+
+        // Espera por conexión, uso y estado del pool en Metricas (para ajustar db.pool.size.max);
+        // con JMX activo Hikari publica además su propio PoolMXBean
+        config.setMetricsTrackerFactory(new MetricasHikari());
+        config.setRegisterMbeans(ConfiguracionApp.getMetricasJmxEnabled());
+
+        // Log de SQL lenta y detección de N+1 (ver RegistroSql)
+        registroSql = ConfiguracionApp.getDbSqlRegistroEnabled();
+        RegistroSql.configurar(ConfiguracionApp.getDbSqlLentaMs(), ConfiguracionApp.getDbSqlRepeticionesMax());
+
         dataSource = new HikariDataSource(config);
         log.info("Pool de conexiones HikariCP inicializado correctamente: {}", config.getPoolName());
     }
@@ -40,10 +59,36 @@ public final class ConnectionPool {
     }
 
     /**
-     * Retorna una conexion activa del pool.
+     * Retorna una conexion activa del pool (envuelta por RegistroSql si db.sql.registro.enabled).
      */
     public static Connection getConnection() throws SQLException {
-        return dataSource.getConnection();
+        Connection conn = dataSource.getConnection();
+        return registroSql ? RegistroSql.interceptar(conn) : conn;
+    }
+
+    /**
+     * Fuerza la creacion del pool y valida una conexion (etapa del arranque, fuera del hilo de JavaFX).
+     */
+    public static void calentar() {
+        try (Connection conn = getConnection()) {
+            if (!conn.isValid(5)) {
+                throw new IllegalStateException("La conexion inicial del pool no es valida");
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo abrir la conexion inicial del pool", e);
+        }
+    }
+
+    /**
+     * Abre una conexion propia, fuera del pool, con las mismas credenciales.
+     * Es para sesiones de larga duracion como LISTEN (ver EscuchaCambiosBD): no ocupa
+     * una conexion del pool ni la recicla Hikari. Quien la abre debe cerrarla.
+     */
+    public static Connection abrirConexionDedicada() throws SQLException {
+        return DriverManager.getConnection(
+                ConfiguracionApp.getDbUrl(),
+                ConfiguracionApp.getDbUsername(),
+                ConfiguracionApp.getDbPassword());
     }
 
     /**
@@ -0,0 +1,106 @@
+package com.cineticket.util;
+
+import com.cineticket.servicio.cache.DespachadorCambios;
+import com.cineticket.servicio.cache.EventoCambio;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Escucha el canal 'cineticket_cambios' (ver 07_notificaciones.sql) en un hilo daemon y
+ * pasa cada aviso al DespachadorCambios.
+ * - Usa una conexión dedicada fuera del pool (LISTEN vive lo que dura la sesión).
+ * - Si la conexión se cae, se reabre tras el intervalo y se despacha TODO, porque los
+ *   avisos emitidos mientras tanto se perdieron.
+ */
+public class EscuchaCambiosBD {
+
+    private static final Logger log = LoggerFactory.getLogger(EscuchaCambiosBD.class);
+
+    public static final String CANAL = "cineticket_cambios";
+
+    /** Cada cuánto se revisa si hay que detenerse mientras se esperan avisos. */
+    private static final int ESPERA_AVISOS_MS = 1000;
+
+    private final DespachadorCambios despachador;
+    private final Duration reintento;
+
+    private volatile boolean activo;
+    private Thread hilo;
+
+    public EscuchaCambiosBD(DespachadorCambios despachador, Duration reintento) {
+        this.despachador = Objects.requireNonNull(despachador);
+        this.reintento = Objects.requireNonNull(reintento);
+    }
+
+    /** Arranca el hilo de escucha (idempotente). */
+    public synchronized void iniciar() {
+        if (hilo != null) return;
+        activo = true;
+        hilo = new Thread(this::ejecutar, "escucha-cambios-bd");
+        hilo.setDaemon(true);
+        hilo.start();
+        log.info("Escucha de cambios iniciada (canal {})", CANAL);
+    }
+
+    public synchronized void detener() {
+        if (hilo == null) return;
+        activo = false;
+        hilo.interrupt();
+        hilo = null;
+        log.info("Escucha de cambios detenida");
+    }
+
+    private void ejecutar() {
+        boolean huboCaida = false;
+        while (activo) {
+            try (Connection conn = ConnectionPool.abrirConexionDedicada()) {
+                try (Statement st = conn.createStatement()) {
+                    st.execute("LISTEN " + CANAL);
+                }
+                if (huboCaida) {
+                    log.info("Conexión de avisos restablecida; se descartan las cachés");
+                    despachador.despachar(EventoCambio.todo());
+                }
+                escuchar(conn.unwrap(PGConnection.class));
+            } catch (SQLException e) {
+                if (!activo) break;
+                huboCaida = true;
+                log.warn("Conexión de avisos caída, reintento en {}s: {}",
+                        reintento.toSeconds(), e.getMessage());
+                if (!esperar(reintento)) break;
+            } catch (RuntimeException e) {
+                log.error("Error despachando avisos de cambio", e);
+                huboCaida = true;
+                if (!esperar(reintento)) break;
+            }
+        }
+    }
+
+    private void escuchar(PGConnection pg) throws SQLException {
+        while (activo) {
+            PGNotification[] avisos = pg.getNotifications(ESPERA_AVISOS_MS);
+            if (avisos == null) continue;
+            for (PGNotification aviso : avisos) {
+                despachador.despachar(aviso.getParameter());
+            }
+        }
+    }
+
+    private boolean esperar(Duration d) {
+        try {
+            Thread.sleep(d.toMillis());
+            return activo;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -3,13 +3,18 @@ package com.cineticket.util;
 import org.mindrot.jbcrypt.BCrypt;
 
 public final class PasswordUtil {
-    private static final int ROUNDS = 12;
+    /** Costo por defecto (el mismo de bcrypt.rounds); la aplicación usa el configurado vía PasswordHasher. */
+    public static final int ROUNDS = 12;
 
     private PasswordUtil() { }
 
     public static String hashPassword(String password) {
+        return hashPassword(password, ROUNDS);
+    }
+
+    public static String hashPassword(String password, int rounds) {
         if (password == null) throw new IllegalArgumentException("password null");
-        String salt = BCrypt.gensalt(ROUNDS);
+        String salt = BCrypt.gensalt(rounds);
         return BCrypt.hashpw(password, salt);
     }
 
@@ -18,6 +23,19 @@ public final class PasswordUtil {
         return BCrypt.checkpw(password, hash);
     }
 
+    /** Costo con el que se generó el hash ("$2a$12$..." -> 12), o -1 si no tiene formato BCrypt. */
+    public static int costoDe(String hash) {
+        if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$'
+                || hash.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
     public static boolean validarFortaleza(String password) {
         if (password == null) return false;
         if (password.length() < 8) return false;
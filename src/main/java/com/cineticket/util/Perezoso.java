@@ -0,0 +1,42 @@
+package com.cineticket.util;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Valor que se construye al primer uso (una sola vez, seguro entre hilos).
+ * Para servicios que casi no se usan y no deben costar en el arranque (p. ej. reportes).
+ */
+public final class Perezoso<T> implements Supplier<T> {
+
+    private final Supplier<T> fabrica;
+    private volatile T valor;
+
+    private Perezoso(Supplier<T> fabrica) {
+        this.fabrica = Objects.requireNonNull(fabrica, "fabrica es requerida");
+    }
+
+    public static <T> Perezoso<T> de(Supplier<T> fabrica) {
+        return new Perezoso<>(fabrica);
+    }
+
+    @Override
+    public T get() {
+        T v = valor;
+        if (v == null) {
+            synchronized (this) {
+                v = valor;
+                if (v == null) {
+                    v = Objects.requireNonNull(fabrica.get(), "la fábrica devolvió null");
+                    valor = v;
+                }
+            }
+        }
+        return v;
+    }
+
+    /** true si ya se construyó (no lo construye). */
+    public boolean estaCreado() {
+        return valor != null;
+    }
+}
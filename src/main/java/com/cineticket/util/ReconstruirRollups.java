@@ -0,0 +1,26 @@
+package com.cineticket.util;
+
+import com.cineticket.dao.impl.RollupDAOImpl;
+
+/**
+ * Comando de mantenimiento: recalcula desde cero las tablas rollup_* (04_rollups.sql).
+ * Útil tras cargas masivas, correcciones manuales en BD o si se sospecha descuadre.
+ */
+public class ReconstruirRollups {
+    public static void main(String[] args) {
+        System.out.println("▶ Reconstruyendo rollups de ventas y ocupación...");
+        long t0 = System.nanoTime();
+        boolean ok = false;
+        try {
+            new RollupDAOImpl().reconstruir();
+            ok = true;
+            System.out.printf("✔ Rollups reconstruidos en %d ms%n", (System.nanoTime() - t0) / 1_000_000);
+        } catch (Exception e) {
+            System.err.println("❌ Error reconstruyendo rollups: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            ConnectionPool.close();
+        }
+        if (!ok) System.exit(1);
+    }
+}
@@ -0,0 +1,72 @@
+package com.cineticket.util;
+
+import com.cineticket.dao.impl.CompraConfiteriaDAOImpl;
+import com.cineticket.dao.impl.CompraDAOImpl;
+import com.cineticket.dao.impl.EntradaDAOImpl;
+import com.cineticket.dao.impl.FuncionDAOImpl;
+import com.cineticket.enums.FormatoLote;
+import com.cineticket.modelo.Compra;
+import com.cineticket.servicio.ComprobanteLoteService;
+import com.cineticket.servicio.dto.ResultadoLoteComprobantes;
+import com.cineticket.servicio.impl.PDFServicePDFBox;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Comando de mantenimiento: reemite comprobantes por lotes (cambio de plantilla, auditorías).
+ * Uso: ReemitirComprobantes <destino> <ARCHIVOS|ZIP|UNIFICADO> <id1,id2,...|aaaa-mm-dd..aaaa-mm-dd>
+ */
+public class ReemitirComprobantes {
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            System.err.println("Uso: ReemitirComprobantes <destino> <ARCHIVOS|ZIP|UNIFICADO> <id1,id2,...|aaaa-mm-dd..aaaa-mm-dd>");
+            System.exit(2);
+        }
+        boolean ok = false;
+        try {
+            Path destino = Path.of(args[0]);
+            FormatoLote formato = FormatoLote.valueOf(args[1].toUpperCase(Locale.ROOT));
+            var compraDAO = new CompraDAOImpl();
+            List<Integer> ids = resolverCompras(compraDAO, args[2]);
+
+            var servicio = new ComprobanteLoteService(compraDAO, new EntradaDAOImpl(), new CompraConfiteriaDAOImpl(),
+                    new FuncionDAOImpl(), new PDFServicePDFBox(), ConfiguracionApp.getPdfBatchWorkers());
+
+            System.out.println("▶ Reemitiendo " + ids.size() + " comprobantes (" + formato + ")...");
+            ResultadoLoteComprobantes r = servicio.generarComprobantesLote(ids, destino, formato);
+            System.out.println("✔ " + r);
+            r.getFallidos().forEach((id, motivo) -> System.out.println("  ✖ compra " + id + ": " + motivo));
+            ok = r.getFallidos().isEmpty();
+        } catch (Exception e) {
+            System.err.println("❌ Error reemitiendo comprobantes: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            ConnectionPool.close();
+        }
+        if (!ok) System.exit(1);
+    }
+
+    /** "1,2,3" -> esos IDs; "2025-10-01..2025-10-31" -> compras de esas fechas (inclusive). */
+    private static List<Integer> resolverCompras(CompraDAOImpl compraDAO, String arg) {
+        if (arg.contains("..")) {
+            String[] rango = arg.split("\\.\\.", 2);
+            LocalDate desde = LocalDate.parse(rango[0].trim());
+            LocalDate hasta = LocalDate.parse(rango[1].trim());
+            // Con cursor: de cada compra solo se conserva el id
+            try (Stream<Compra> compras = compraDAO.recorrerComprasEntreFechas(
+                    desde.atStartOfDay(), hasta.plusDays(1).atStartOfDay().minusNanos(1000))) {
+                return compras.map(Compra::getIdCompra).toList();
+            }
+        }
+        return Arrays.stream(arg.split(","))
+                .map(String::trim)
+                .filter(t -> !t.isEmpty())
+                .map(Integer::valueOf)
+                .toList();
+    }
+}
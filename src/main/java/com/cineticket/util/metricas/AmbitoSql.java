@@ -0,0 +1,117 @@
+package com.cineticket.util.metricas;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Sentencias ejecutadas en el hilo durante una llamada de servicio o acción de la UI
+ * (ver RegistroSql.abrirAmbito). Se usa con try-with-resources.
+ * - Al cerrar el ámbito exterior avisa en el log si una misma forma de sentencia se repitió
+ *   más de db.sql.repeticiones.max veces: típico N+1 (una consulta por fila de otra).
+ * - Los ámbitos anidados también cuentan lo suyo; el aviso lo da solo el exterior.
+ * - En pruebas, verificarMaximo / verificarRepeticiones acotan las consultas de un caso de uso.
+ * Solo ve el JDBC del hilo que lo abrió.
+ */
+public final class AmbitoSql implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AmbitoSql.class);
+
+    private final String nombre;
+    private final AmbitoSql padre;
+    private final int maxRepeticiones;
+    private final Map<String, Integer> porForma = new LinkedHashMap<>();
+    /** Método que ejecutaba la sentencia cuando superó el máximo (para el aviso). */
+    private final Map<String, String> origenRepeticion = new LinkedHashMap<>();
+    private int total;
+    private boolean cerrado;
+
+    AmbitoSql(String nombre, AmbitoSql padre, int maxRepeticiones) {
+        this.nombre = nombre;
+        this.padre = padre;
+        this.maxRepeticiones = maxRepeticiones;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /** Sentencias ejecutadas dentro del ámbito. */
+    public int getTotal() {
+        return total;
+    }
+
+    /** Ejecuciones por forma de sentencia, en orden de primera aparición. */
+    public Map<String, Integer> getEjecuciones() {
+        return new LinkedHashMap<>(porForma);
+    }
+
+    /** Ejecuciones de una sentencia (se compara por forma: espacios y literales no cuentan). */
+    public int getEjecuciones(String sql) {
+        return porForma.getOrDefault(RegistroSql.forma(sql), 0);
+    }
+
+    /** Falla (AssertionError) si el ámbito ejecutó más de maximo sentencias. */
+    public void verificarMaximo(int maximo) {
+        if (total > maximo) {
+            throw new AssertionError(String.format(
+                    "%s ejecutó %d sentencias (máximo %d):%n%s", nombre, total, maximo, detalle()));
+        }
+    }
+
+    /** Falla (AssertionError) si alguna forma de sentencia se repitió más de maximo veces. */
+    public void verificarRepeticiones(int maximo) {
+        Map<String, Integer> excedidas = excedidas(maximo);
+        if (!excedidas.isEmpty()) {
+            throw new AssertionError(String.format(
+                    "%s repitió sentencias más de %d veces:%n%s", nombre, maximo, detalle(excedidas)));
+        }
+    }
+
+    void registrar(String forma) {
+        for (AmbitoSql a = this; a != null; a = a.padre) {
+            a.contar(forma);
+        }
+    }
+
+    private void contar(String forma) {
+        total++;
+        int n = porForma.merge(forma, 1, Integer::sum);
+        if (n == maxRepeticiones + 1 && padre == null) {
+            origenRepeticion.put(forma, RegistroSql.llamador());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (cerrado) return;
+        cerrado = true;
+        RegistroSql.cerrarAmbito(this, padre);
+        if (padre != null) return;
+
+        excedidas(maxRepeticiones).forEach((forma, veces) -> {
+            RegistroSql.contarRepeticion();
+            log.warn("Posible N+1 en {}: la misma sentencia se ejecutó {} veces (desde {}): {}",
+                    nombre, veces, origenRepeticion.get(forma), forma);
+        });
+    }
+
+    private Map<String, Integer> excedidas(int maximo) {
+        return porForma.entrySet().stream()
+                .filter(e -> e.getValue() > maximo)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    private String detalle() {
+        return detalle(porForma);
+    }
+
+    private static String detalle(Map<String, Integer> formas) {
+        return formas.entrySet().stream()
+                .map(e -> "  " + e.getValue() + "x " + e.getKey())
+                .collect(Collectors.joining(System.lineSeparator()));
+    }
+}
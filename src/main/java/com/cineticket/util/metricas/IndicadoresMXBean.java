@@ -0,0 +1,9 @@
+package com.cineticket.util.metricas;
+
+import java.util.Map;
+
+/** Vista JMX de los indicadores (pool, login) como una tabla nombre -> valor actual. */
+public interface IndicadoresMXBean {
+
+    Map<String, Long> getValores();
+}
@@ -0,0 +1,185 @@
+package com.cineticket.util.metricas;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Registro de métricas de la aplicación (en memoria, sin dependencias externas).
+ * - Temporizadores: cuenta y latencia por operación (DAO, servicios, pool de conexiones).
+ * - Indicadores: valores leídos al momento (conexiones activas/ociosas, hilos esperando, etc.).
+ * - Se publican por JMX (jconsole / VisualVM, dominio com.cineticket) y/o en el log cada cierto
+ *   intervalo. Ver AppContext y ConnectionPool para lo que se registra.
+ * No lee ConfiguracionApp: quien arranca la aplicación decide qué publicar.
+ */
+public final class Metricas {
+
+    private static final Logger log = LoggerFactory.getLogger(Metricas.class);
+
+    private static final String DOMINIO_JMX = "com.cineticket";
+
+    private static final Map<String, Temporizador> temporizadores = new ConcurrentSkipListMap<>();
+    private static final Map<String, LongSupplier> indicadores = new ConcurrentSkipListMap<>();
+
+    private static boolean jmx;
+    private static ScheduledExecutorService reporte;
+
+    private Metricas() {
+        // Evita instanciación
+    }
+
+    /** El temporizador con ese nombre (lo crea la primera vez). Convención: capa.Clase.metodo. */
+    public static Temporizador temporizador(String nombre) {
+        Objects.requireNonNull(nombre, "nombre es requerido");
+        Temporizador existente = temporizadores.get(nombre);
+        if (existente != null) return existente;
+
+        Temporizador nuevo = new Temporizador(nombre);
+        existente = temporizadores.putIfAbsent(nombre, nuevo);
+        if (existente != null) return existente;
+        synchronized (Metricas.class) {
+            if (jmx) registrarEnJmx(nuevo);
+        }
+        return nuevo;
+    }
+
+    /** Registra (o reemplaza) un indicador; el valor se lee cada vez que se consulta. */
+    public static void indicador(String nombre, LongSupplier valor) {
+        indicadores.put(Objects.requireNonNull(nombre, "nombre es requerido"),
+                Objects.requireNonNull(valor, "valor es requerido"));
+    }
+
+    /** Valores actuales de todos los indicadores, ordenados por nombre. */
+    public static Map<String, Long> valoresIndicadores() {
+        Map<String, Long> valores = new TreeMap<>();
+        indicadores.forEach((nombre, valor) -> {
+            try {
+                valores.put(nombre, valor.getAsLong());
+            } catch (RuntimeException e) {
+                log.debug("No se pudo leer el indicador {}", nombre, e);
+            }
+        });
+        return valores;
+    }
+
+    /**
+     * Envuelve una implementación para medir cada método de la interfaz en
+     * prefijo.Interfaz.metodo (cuenta, errores y latencia). Los métodos de Object no se miden.
+     * En los que retornan un Stream se mide la apertura, no el recorrido.
+     */
+    public static <T> T instrumentar(Class<T> interfaz, T objetivo, String prefijo) {
+        Objects.requireNonNull(objetivo, "objetivo es requerido");
+        if (!interfaz.isInterface()) {
+            throw new IllegalArgumentException(interfaz.getName() + " no es una interfaz");
+        }
+        String base = prefijo + "." + interfaz.getSimpleName() + ".";
+        Map<Method, Temporizador> porMetodo = new ConcurrentHashMap<>();
+
+        Object proxy = Proxy.newProxyInstance(interfaz.getClassLoader(), new Class<?>[]{interfaz},
+                (p, metodo, args) -> {
+                    if (metodo.getDeclaringClass() == Object.class) {
+                        return invocar(metodo, objetivo, args);
+                    }
+                    Temporizador t = porMetodo.computeIfAbsent(metodo, m -> temporizador(base + m.getName()));
+                    long inicio = System.nanoTime();
+                    try {
+                        return invocar(metodo, objetivo, args);
+                    } catch (Throwable e) {
+                        t.registrarError();
+                        throw e;
+                    } finally {
+                        t.registrar(System.nanoTime() - inicio);
+                    }
+                });
+        return interfaz.cast(proxy);
+    }
+
+    /** Publica todas las métricas (las actuales y las que se creen después) en el MBeanServer de la JVM. */
+    public static synchronized void exponerEnJmx() {
+        if (jmx) return;
+        jmx = true;
+        temporizadores.values().forEach(Metricas::registrarEnJmx);
+        IndicadoresMXBean vista = Metricas::valoresIndicadores;
+        registrar(new StandardMBean(vista, IndicadoresMXBean.class, true), "type=Indicadores");
+        log.info("Métricas publicadas por JMX en el dominio {}", DOMINIO_JMX);
+    }
+
+    /** Escribe un resumen en el log cada intervalo (hilo daemon); reemplaza un reporte anterior. */
+    public static synchronized void iniciarReporte(Duration intervalo) {
+        if (intervalo.isZero() || intervalo.isNegative()) return;
+        detenerReporte();
+        reporte = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metricas-reporte");
+            t.setDaemon(true);
+            return t;
+        });
+        long segundos = Math.max(1, intervalo.toSeconds());
+        reporte.scheduleAtFixedRate(() -> {
+            try {
+                log.info(resumen());
+            } catch (RuntimeException e) {
+                log.warn("No se pudo escribir el reporte de métricas", e);
+            }
+        }, segundos, segundos, TimeUnit.SECONDS);
+        log.info("Reporte de métricas en el log cada {} s", segundos);
+    }
+
+    /** Detiene el reporte periódico (al cerrar la aplicación). */
+    public static synchronized void detenerReporte() {
+        if (reporte != null) {
+            reporte.shutdownNow();
+            reporte = null;
+        }
+    }
+
+    /** Indicadores y temporizadores con al menos un registro, una línea por métrica. */
+    public static String resumen() {
+        StringBuilder sb = new StringBuilder("Métricas:");
+        valoresIndicadores().forEach((nombre, valor) ->
+                sb.append("\n  ").append(nombre).append('=').append(valor));
+        for (Temporizador t : temporizadores.values()) {
+            if (t.getCuenta() > 0) sb.append("\n  ").append(t.resumen());
+        }
+        return sb.toString();
+    }
+
+    private static Object invocar(Method metodo, Object objetivo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(objetivo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause(); // la excepción original (DaoException, ValidacionException...)
+        }
+    }
+
+    private static void registrarEnJmx(Temporizador t) {
+        registrar(t, "type=Temporizador,name=" + ObjectName.quote(t.getNombre()));
+    }
+
+    private static void registrar(Object mbean, String propiedades) {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nombre = new ObjectName(DOMINIO_JMX + ":" + propiedades);
+            if (!servidor.isRegistered(nombre)) servidor.registerMBean(mbean, nombre);
+        } catch (JMException e) {
+            log.warn("No se pudo publicar {} por JMX", propiedades, e);
+        }
+    }
+}
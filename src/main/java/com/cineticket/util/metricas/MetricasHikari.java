@@ -0,0 +1,50 @@
+package com.cineticket.util.metricas;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Conecta HikariCP con Metricas (config.setMetricsTrackerFactory en ConnectionPool):
+ * - pool.conexion.adquirir: espera por una conexión (si crece, faltan conexiones).
+ * - pool.conexion.uso: tiempo que cada conexión estuvo prestada.
+ * - pool.conexiones.* y pool.hilos.esperando: estado del pool al consultar.
+ * - pool.timeouts: getConnection que se rindieron tras db.connection.timeout.
+ * Con estos datos se ajusta db.pool.size.max.
+ */
+public final class MetricasHikari implements MetricsTrackerFactory {
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats estado) {
+        Temporizador adquirir = Metricas.temporizador("pool.conexion.adquirir");
+        Temporizador uso = Metricas.temporizador("pool.conexion.uso");
+        LongAdder timeouts = new LongAdder();
+
+        Metricas.indicador("pool.conexiones.activas", estado::getActiveConnections);
+        Metricas.indicador("pool.conexiones.ociosas", estado::getIdleConnections);
+        Metricas.indicador("pool.conexiones.total", estado::getTotalConnections);
+        Metricas.indicador("pool.conexiones.max", estado::getMaxConnections);
+        Metricas.indicador("pool.hilos.esperando", estado::getPendingThreads);
+        Metricas.indicador("pool.timeouts", timeouts::sum);
+
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long nanos) {
+                adquirir.registrar(nanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long millis) {
+                uso.registrar(TimeUnit.MILLISECONDS.toNanos(millis));
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+}
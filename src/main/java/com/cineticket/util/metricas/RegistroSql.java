@@ -0,0 +1,193 @@
+package com.cineticket.util.metricas;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Registro de las sentencias SQL que pasan por ConnectionPool (capa de intercepción JDBC).
+ * - ConnectionPool envuelve cada conexión con interceptar: cada execute* se mide con su texto,
+ *   parámetros y el método de servicio/controlador que lo originó.
+ * - Las que tardan más de db.sql.lenta.ms se escriben en el log (WARN).
+ * - Cada ejecución se cuenta en el AmbitoSql abierto en el hilo (acción de la UI o llamada de
+ *   servicio) para detectar N+1; ver abrirAmbito.
+ * - Todas alimentan el temporizador sql.sentencias de Metricas.
+ * No lee ConfiguracionApp: ConnectionPool llama a configurar al crear el pool.
+ */
+public final class RegistroSql {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistroSql.class);
+
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+    private static final Pattern LITERALES = Pattern.compile("'(?:[^']|'')*'|\\b\\d+(?:\\.\\d+)?\\b");
+    private static final int MAX_LARGO_PARAMETRO = 40;
+
+    private static final ThreadLocal<AmbitoSql> ambito = new ThreadLocal<>();
+    private static final Temporizador sentencias = Metricas.temporizador("sql.sentencias");
+    private static final LongAdder lentas = new LongAdder();
+    private static final LongAdder repeticiones = new LongAdder();
+
+    private static volatile long umbralLentaNanos = TimeUnit.MILLISECONDS.toNanos(200);
+    private static volatile int maxRepeticiones = 10;
+
+    static {
+        Metricas.indicador("sql.lentas", lentas::sum);
+        Metricas.indicador("sql.n1.detectados", repeticiones::sum);
+    }
+
+    private RegistroSql() {
+        // Evita instanciación
+    }
+
+    /** lentaMs: umbral del log de sentencias lentas (0 = todas); maxRepeticiones: umbral de N+1. */
+    public static void configurar(long lentaMs, int maxRepeticiones) {
+        RegistroSql.umbralLentaNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, lentaMs));
+        RegistroSql.maxRepeticiones = Math.max(1, maxRepeticiones);
+    }
+
+    /**
+     * Abre un ámbito en el hilo actual (acción de la UI, llamada de servicio o caso de uso en
+     * una prueba). Si ya hay uno abierto, el nuevo queda anidado y cuenta también para el exterior.
+     */
+    public static AmbitoSql abrirAmbito(String nombre) {
+        AmbitoSql nuevo = new AmbitoSql(nombre, ambito.get(), maxRepeticiones);
+        ambito.set(nuevo);
+        return nuevo;
+    }
+
+    /** Envuelve la conexión: las sentencias que cree se miden y registran. */
+    public static Connection interceptar(Connection real) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object resultado = invocar(method, real, args);
+                    return switch (method.getName()) {
+                        case "prepareStatement" ->
+                                sentencia(PreparedStatement.class, (Statement) resultado, (String) args[0]);
+                        case "prepareCall" ->
+                                sentencia(CallableStatement.class, (Statement) resultado, (String) args[0]);
+                        case "createStatement" -> sentencia(Statement.class, (Statement) resultado, null);
+                        default -> resultado;
+                    };
+                });
+    }
+
+    // ===== Helpers =====
+
+    /**
+     * Envuelve la sentencia: guarda los parámetros asignados (set*) y mide cada execute*.
+     * sql es null en los Statement simples: el texto llega en el execute.
+     */
+    private static <S extends Statement> S sentencia(Class<S> tipo, Statement real, String sql) {
+        String formaPreparada = sql != null ? forma(sql) : null;
+        Map<Integer, Object> parametros = new TreeMap<>();
+
+        Object proxy = Proxy.newProxyInstance(
+                tipo.getClassLoader(),
+                new Class<?>[]{tipo},
+                (p, method, args) -> {
+                    String nombre = method.getName();
+                    if (nombre.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer i) {
+                        parametros.put(i, nombre.equals("setNull") ? null : args[1]);
+                    } else if (nombre.equals("clearParameters")) {
+                        parametros.clear();
+                    } else if (nombre.startsWith("execute")) {
+                        boolean conTexto = args != null && args.length > 0 && args[0] instanceof String;
+                        String texto = conTexto ? (String) args[0] : sql != null ? sql : "(lote)";
+                        String forma = formaPreparada != null && !conTexto ? formaPreparada : forma(texto);
+                        long inicio = System.nanoTime();
+                        try {
+                            return invocar(method, real, args);
+                        } finally {
+                            registrar(texto, forma, parametros, System.nanoTime() - inicio);
+                        }
+                    }
+                    return invocar(method, real, args);
+                });
+        return tipo.cast(proxy);
+    }
+
+    private static void registrar(String sql, String forma, Map<Integer, Object> parametros, long nanos) {
+        sentencias.registrar(nanos);
+        AmbitoSql actual = ambito.get();
+        if (actual != null) actual.registrar(forma);
+
+        if (nanos >= umbralLentaNanos) {
+            lentas.increment();
+            log.warn("SQL lenta ({} ms) desde {}: {} | parámetros {}",
+                    TimeUnit.NANOSECONDS.toMillis(nanos), llamador(), compactar(sql), parametros(parametros));
+        }
+    }
+
+    /** Quita el ámbito del hilo al cerrarlo (vuelve el exterior, si había). */
+    static void cerrarAmbito(AmbitoSql cerrado, AmbitoSql padre) {
+        if (ambito.get() == cerrado) {
+            if (padre != null) ambito.set(padre);
+            else ambito.remove();
+        }
+    }
+
+    static void contarRepeticion() {
+        repeticiones.increment();
+    }
+
+    /** Forma de la sentencia: espacios normalizados y literales como ?, para agrupar repeticiones. */
+    static String forma(String sql) {
+        return LITERALES.matcher(compactar(sql)).replaceAll("?");
+    }
+
+    /** Primer método de la aplicación fuera de la capa de datos y las cachés (servicio o controlador). */
+    static String llamador() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith("com.cineticket.")
+                        && !f.getClassName().startsWith("com.cineticket.dao.")
+                        && !f.getClassName().startsWith("com.cineticket.servicio.cache.")
+                        && !f.getClassName().startsWith("com.cineticket.util."))
+                .findFirst()
+                .map(f -> simple(f.getClassName()) + "." + f.getMethodName())
+                .orElse("desconocido"));
+    }
+
+    private static String simple(String clase) {
+        return clase.substring(clase.lastIndexOf('.') + 1);
+    }
+
+    private static String compactar(String sql) {
+        return sql == null ? "" : ESPACIOS.matcher(sql.trim()).replaceAll(" ");
+    }
+
+    /** Valores de los parámetros para el log: textos recortados y sin hashes de contraseñas. */
+    private static String parametros(Map<Integer, Object> parametros) {
+        return parametros.entrySet().stream()
+                .map(e -> e.getKey() + "=" + valor(e.getValue()))
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    private static String valor(Object v) {
+        if (!(v instanceof String s)) return String.valueOf(v);
+        if (s.startsWith("$2a$") || s.startsWith("$2b$") || s.startsWith("$2y$")) return "'***'";
+        return s.length() > MAX_LARGO_PARAMETRO ? "'" + s.substring(0, MAX_LARGO_PARAMETRO) + "…'" : "'" + s + "'";
+    }
+
+    private static Object invocar(Method method, Object real, Object[] args) throws Throwable {
+        try {
+            return method.invoke(real, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
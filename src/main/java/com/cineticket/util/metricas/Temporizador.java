@@ -0,0 +1,131 @@
+package com.cineticket.util.metricas;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cuenta y duración de una operación (método de DAO, servicio, adquisición de conexión).
+ * - Las duraciones caen en cubetas de potencias de 2 en microsegundos: los percentiles son
+ *   aproximados (cota superior de la cubeta, nunca mayor que el máximo observado).
+ * - Acumula desde el arranque; registrar no bloquea, se puede llamar desde cualquier hilo.
+ */
+public final class Temporizador implements TemporizadorMXBean {
+
+    /** Cubeta i: hasta 2^i µs; la última junta todo lo que pase de ~1 hora. */
+    private static final int CUBETAS = 33;
+
+    /** Medición en curso; se registra al cerrar (try-with-resources). */
+    @FunctionalInterface
+    public interface Medicion extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final String nombre;
+    private final LongAdder cuenta = new LongAdder();
+    private final LongAdder errores = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final AtomicLongArray cubetas = new AtomicLongArray(CUBETAS);
+
+    Temporizador(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /** Empieza a medir; la duración se registra al cerrar la Medicion. */
+    public Medicion iniciar() {
+        long inicio = System.nanoTime();
+        return () -> registrar(System.nanoTime() - inicio);
+    }
+
+    public void registrar(long nanos) {
+        if (nanos < 0) nanos = 0;
+        cuenta.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        cubetas.incrementAndGet(cubeta(nanos / 1_000));
+    }
+
+    /** La operación terminó con excepción (la duración se registra aparte). */
+    public void registrarError() {
+        errores.increment();
+    }
+
+    @Override
+    public long getCuenta() {
+        return cuenta.sum();
+    }
+
+    @Override
+    public long getErrores() {
+        return errores.sum();
+    }
+
+    @Override
+    public double getMediaMs() {
+        long n = cuenta.sum();
+        return n == 0 ? 0 : aMs(totalNanos.sum() / n);
+    }
+
+    @Override
+    public double getMaxMs() {
+        return aMs(maxNanos.get());
+    }
+
+    @Override
+    public double getP50Ms() {
+        return percentilMs(0.50);
+    }
+
+    @Override
+    public double getP95Ms() {
+        return percentilMs(0.95);
+    }
+
+    @Override
+    public double getP99Ms() {
+        return percentilMs(0.99);
+    }
+
+    /** Percentil (0..1) aproximado en milisegundos; 0 si no hay registros. */
+    public double percentilMs(double p) {
+        long[] copia = new long[CUBETAS];
+        long total = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            copia[i] = cubetas.get(i);
+            total += copia[i];
+        }
+        if (total == 0) return 0;
+
+        long objetivo = (long) Math.ceil(p * total);
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += copia[i];
+            if (acumulado >= Math.max(objetivo, 1)) {
+                return Math.min((1L << i) / 1_000.0, getMaxMs());
+            }
+        }
+        return getMaxMs();
+    }
+
+    /** Una línea para el log: cuenta, errores, media, p50/p95/p99 y máximo. */
+    public String resumen() {
+        return String.format("%s n=%d err=%d media=%.2fms p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms",
+                nombre, getCuenta(), getErrores(), getMediaMs(),
+                getP50Ms(), getP95Ms(), getP99Ms(), getMaxMs());
+    }
+
+    private static int cubeta(long micros) {
+        if (micros <= 0) return 0;
+        return Math.min(64 - Long.numberOfLeadingZeros(micros - 1), CUBETAS - 1);
+    }
+
+    private static double aMs(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,19 @@
+package com.cineticket.util.metricas;
+
+/** Vista JMX de un Temporizador (com.cineticket:type=Temporizador,name=...). */
+public interface TemporizadorMXBean {
+
+    long getCuenta();
+
+    long getErrores();
+
+    double getMediaMs();
+
+    double getMaxMs();
+
+    double getP50Ms();
+
+    double getP95Ms();
+
+    double getP99Ms();
+}
@@ -0,0 +1,176 @@
+-- =========================================================
+-- CineTicket - 04_rollups.sql
+-- Tablas de agregados (rollups) para reportes y ocupación
+--  - Se mantienen incrementalmente desde CompraService
+--    (fn_rollup_aplicar_compra en la misma transacción de la compra)
+--  - Se pueden reconstruir desde cero con fn_rollup_reconstruir()
+--    (ver com.cineticket.util.ReconstruirRollups)
+--  - Solo cuentan compras CONFIRMADAS
+-- Idempotente: se puede ejecutar varias veces
+-- =========================================================
+BEGIN;
+
+-- Ventas por hora (fecha de la compra truncada a la hora)
+CREATE TABLE IF NOT EXISTS rollup_ventas_hora (
+  hora                TIMESTAMP     PRIMARY KEY,
+  total_compras       INTEGER       NOT NULL DEFAULT 0,
+  total_entradas      INTEGER       NOT NULL DEFAULT 0,
+  total_combos        INTEGER       NOT NULL DEFAULT 0,
+  ingresos_entradas   NUMERIC(14,2) NOT NULL DEFAULT 0,
+  ingresos_confiteria NUMERIC(14,2) NOT NULL DEFAULT 0,
+  ingresos_totales    NUMERIC(14,2) GENERATED ALWAYS AS (ingresos_entradas + ingresos_confiteria) STORED
+);
+
+-- Entradas vendidas por día (de la compra) y función; pelicula_id desnormalizado para agrupar
+CREATE TABLE IF NOT EXISTS rollup_ventas_funcion_dia (
+  dia               DATE          NOT NULL,
+  funcion_id        INTEGER       NOT NULL REFERENCES funcion(id_funcion) ON DELETE CASCADE,
+  pelicula_id       INTEGER       NOT NULL REFERENCES pelicula(id_pelicula) ON DELETE CASCADE,
+  entradas_vendidas INTEGER       NOT NULL DEFAULT 0,
+  ingresos          NUMERIC(14,2) NOT NULL DEFAULT 0,
+  PRIMARY KEY (dia, funcion_id)
+);
+CREATE INDEX IF NOT EXISTS idx_rollup_vfd_pelicula_dia ON rollup_ventas_funcion_dia(pelicula_id, dia);
+
+-- Unidades de confitería por día (de la compra) y combo
+CREATE TABLE IF NOT EXISTS rollup_ventas_combo_dia (
+  dia       DATE          NOT NULL,
+  combo_id  INTEGER       NOT NULL REFERENCES combo_confiteria(id_combo) ON DELETE CASCADE,
+  cantidad  INTEGER       NOT NULL DEFAULT 0,
+  ingresos  NUMERIC(14,2) NOT NULL DEFAULT 0,
+  PRIMARY KEY (dia, combo_id)
+);
+
+-- Asientos vendidos (entradas ACTIVA) por función
+CREATE TABLE IF NOT EXISTS rollup_ocupacion_funcion (
+  funcion_id        INTEGER PRIMARY KEY REFERENCES funcion(id_funcion) ON DELETE CASCADE,
+  asientos_vendidos INTEGER NOT NULL DEFAULT 0 CHECK (asientos_vendidos >= 0)
+);
+
+-- ============ Mantenimiento incremental ============
+
+-- Suma (p_signo = 1, al confirmar) o resta (p_signo = -1, al cancelar) una compra en los rollups.
+-- Se llama dentro de la transacción de la compra, después de insertar/cancelar sus filas.
+CREATE OR REPLACE FUNCTION fn_rollup_aplicar_compra(p_compra_id INTEGER, p_signo INTEGER)
+RETURNS VOID AS $$
+DECLARE
+  v_fecha TIMESTAMP;
+BEGIN
+  SELECT fecha_hora_compra INTO v_fecha FROM compra WHERE id_compra = p_compra_id;
+  IF v_fecha IS NULL THEN
+    RAISE EXCEPTION 'Compra inexistente para rollup (compra_id=%)', p_compra_id;
+  END IF;
+
+  INSERT INTO rollup_ventas_hora AS r
+         (hora, total_compras, total_entradas, total_combos, ingresos_entradas, ingresos_confiteria)
+  SELECT date_trunc('hour', c.fecha_hora_compra),
+         p_signo,
+         p_signo * (SELECT COUNT(*) FROM entrada e WHERE e.compra_id = c.id_compra),
+         p_signo * COALESCE((SELECT SUM(cc.cantidad) FROM compra_confiteria cc WHERE cc.compra_id = c.id_compra), 0),
+         p_signo * c.total_entradas,
+         p_signo * c.total_confiteria
+    FROM compra c
+   WHERE c.id_compra = p_compra_id
+  ON CONFLICT (hora) DO UPDATE SET
+         total_compras       = r.total_compras       + EXCLUDED.total_compras,
+         total_entradas      = r.total_entradas      + EXCLUDED.total_entradas,
+         total_combos        = r.total_combos        + EXCLUDED.total_combos,
+         ingresos_entradas   = r.ingresos_entradas   + EXCLUDED.ingresos_entradas,
+         ingresos_confiteria = r.ingresos_confiteria + EXCLUDED.ingresos_confiteria;
+
+  INSERT INTO rollup_ventas_funcion_dia AS r (dia, funcion_id, pelicula_id, entradas_vendidas, ingresos)
+  SELECT v_fecha::date, e.funcion_id, f.pelicula_id,
+         p_signo * COUNT(*), p_signo * SUM(e.precio_unitario)
+    FROM entrada e
+    JOIN funcion f ON f.id_funcion = e.funcion_id
+   WHERE e.compra_id = p_compra_id
+   GROUP BY e.funcion_id, f.pelicula_id
+  ON CONFLICT (dia, funcion_id) DO UPDATE SET
+         entradas_vendidas = r.entradas_vendidas + EXCLUDED.entradas_vendidas,
+         ingresos          = r.ingresos          + EXCLUDED.ingresos;
+
+  INSERT INTO rollup_ventas_combo_dia AS r (dia, combo_id, cantidad, ingresos)
+  SELECT v_fecha::date, cc.combo_id, p_signo * SUM(cc.cantidad), p_signo * SUM(cc.subtotal)
+    FROM compra_confiteria cc
+   WHERE cc.compra_id = p_compra_id
+   GROUP BY cc.combo_id
+  ON CONFLICT (dia, combo_id) DO UPDATE SET
+         cantidad = r.cantidad + EXCLUDED.cantidad,
+         ingresos = r.ingresos + EXCLUDED.ingresos;
+
+  INSERT INTO rollup_ocupacion_funcion AS r (funcion_id, asientos_vendidos)
+  SELECT e.funcion_id, p_signo * COUNT(*)
+    FROM entrada e
+   WHERE e.compra_id = p_compra_id
+   GROUP BY e.funcion_id
+  ON CONFLICT (funcion_id) DO UPDATE SET
+         asientos_vendidos = r.asientos_vendidos + EXCLUDED.asientos_vendidos;
+END;
+$$ LANGUAGE plpgsql;
+
+-- ============ Reconstrucción completa ============
+
+-- Vacía y recalcula todos los rollups a partir de compra / entrada / compra_confiteria.
+CREATE OR REPLACE FUNCTION fn_rollup_reconstruir()
+RETURNS VOID AS $$
+BEGIN
+  TRUNCATE rollup_ventas_hora, rollup_ventas_funcion_dia, rollup_ventas_combo_dia, rollup_ocupacion_funcion;
+
+  INSERT INTO rollup_ventas_hora
+         (hora, total_compras, total_entradas, total_combos, ingresos_entradas, ingresos_confiteria)
+  SELECT date_trunc('hour', c.fecha_hora_compra),
+         COUNT(*),
+         COALESCE(SUM(e.n), 0),
+         COALESCE(SUM(cc.n), 0),
+         SUM(c.total_entradas),
+         SUM(c.total_confiteria)
+    FROM compra c
+    LEFT JOIN LATERAL (SELECT COUNT(*) AS n FROM entrada WHERE compra_id = c.id_compra) e ON TRUE
+    LEFT JOIN LATERAL (SELECT SUM(cantidad) AS n FROM compra_confiteria WHERE compra_id = c.id_compra) cc ON TRUE
+   WHERE c.estado_compra = 'CONFIRMADA'
+   GROUP BY 1;
+
+  INSERT INTO rollup_ventas_funcion_dia (dia, funcion_id, pelicula_id, entradas_vendidas, ingresos)
+  SELECT c.fecha_hora_compra::date, e.funcion_id, f.pelicula_id, COUNT(*), SUM(e.precio_unitario)
+    FROM entrada e
+    JOIN compra c  ON c.id_compra = e.compra_id
+    JOIN funcion f ON f.id_funcion = e.funcion_id
+   WHERE c.estado_compra = 'CONFIRMADA'
+   GROUP BY 1, 2, 3;
+
+  INSERT INTO rollup_ventas_combo_dia (dia, combo_id, cantidad, ingresos)
+  SELECT c.fecha_hora_compra::date, cc.combo_id, SUM(cc.cantidad), SUM(cc.subtotal)
+    FROM compra_confiteria cc
+    JOIN compra c ON c.id_compra = cc.compra_id
+   WHERE c.estado_compra = 'CONFIRMADA'
+   GROUP BY 1, 2;
+
+  INSERT INTO rollup_ocupacion_funcion (funcion_id, asientos_vendidos)
+  SELECT e.funcion_id, COUNT(*)
+    FROM entrada e
+   WHERE e.estado_entrada = 'ACTIVA'
+   GROUP BY e.funcion_id;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Ocupación por función leyendo el rollup (misma forma que v_ocupacion_funcion)
+CREATE OR REPLACE VIEW v_ocupacion_funcion_rollup AS
+SELECT
+  f.id_funcion,
+  p.titulo          AS pelicula,
+  s.nombre_sala     AS sala,
+  f.fecha_hora_inicio,
+  f.fecha_hora_fin,
+  s.capacidad_total,
+  COALESCE(r.asientos_vendidos, 0) AS asientos_vendidos,
+  s.capacidad_total - COALESCE(r.asientos_vendidos, 0) AS asientos_disponibles,
+  ROUND( (COALESCE(r.asientos_vendidos, 0)::NUMERIC / NULLIF(s.capacidad_total,0)) * 100, 2) AS porcentaje_ocupacion
+FROM funcion f
+JOIN pelicula p ON f.pelicula_id = p.id_pelicula
+JOIN sala s     ON f.sala_id     = s.id_sala
+LEFT JOIN rollup_ocupacion_funcion r ON r.funcion_id = f.id_funcion;
+
+-- Carga inicial con el histórico existente
+SELECT fn_rollup_reconstruir();
+
+COMMIT;
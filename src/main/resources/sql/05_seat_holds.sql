@@ -0,0 +1,24 @@
+-- =========================================================
+-- CineTicket - 05_seat_holds.sql
+-- Retenciones temporales de asientos (entre la selección y el pago)
+--  - Una fila por (función, asiento) retenido, con vencimiento (TTL)
+--  - La adquiere/renueva SeatHoldService con un upsert condicional
+--  - Las vencidas se ignoran al consultar y las borra el barrido periódico
+-- Idempotente: se puede ejecutar varias veces
+-- =========================================================
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS seat_hold (
+  funcion_id  INTEGER   NOT NULL REFERENCES funcion(id_funcion) ON DELETE CASCADE,
+  asiento_id  INTEGER   NOT NULL REFERENCES asiento(id_asiento) ON DELETE CASCADE,
+  usuario_id  INTEGER   NOT NULL REFERENCES usuario(id_usuario) ON DELETE CASCADE,
+  creado_en   TIMESTAMP NOT NULL DEFAULT now(),
+  expira_en   TIMESTAMP NOT NULL,
+  PRIMARY KEY (funcion_id, asiento_id),
+  CHECK (expira_en > creado_en)
+);
+
+CREATE INDEX IF NOT EXISTS idx_seat_hold_expira  ON seat_hold(expira_en);
+CREATE INDEX IF NOT EXISTS idx_seat_hold_usuario ON seat_hold(usuario_id, funcion_id);
+
+COMMIT;
@@ -0,0 +1,35 @@
+-- =========================================================
+-- CineTicket - 06_comprobante_jobs.sql
+-- Cola persistente de generación de comprobantes PDF
+--  - CompraService inserta el job en la misma transacción de la compra
+--  - ComprobanteService lo procesa en segundo plano tras el commit,
+--    reintenta con espera creciente y llena compra.ruta_comprobante_pdf
+--  - Al arrancar se retoman los jobs pendientes o interrumpidos
+-- Idempotente: se puede ejecutar varias veces
+-- =========================================================
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS comprobante_job (
+  compra_id        INTEGER     PRIMARY KEY REFERENCES compra(id_compra) ON DELETE CASCADE,
+  estado           VARCHAR(15) NOT NULL DEFAULT 'PENDIENTE'
+                   CHECK (estado IN ('PENDIENTE', 'EN_PROCESO', 'COMPLETADO', 'FALLIDO')),
+  intentos         INTEGER     NOT NULL DEFAULT 0 CHECK (intentos >= 0),
+  ultimo_error     TEXT,
+  proximo_intento  TIMESTAMP   NOT NULL DEFAULT now(),
+  creado_en        TIMESTAMP   NOT NULL DEFAULT now(),
+  actualizado_en   TIMESTAMP   NOT NULL DEFAULT now()
+);
+
+-- Búsqueda de trabajo pendiente (barrido de recuperación)
+CREATE INDEX IF NOT EXISTS idx_comprobante_job_pendiente
+  ON comprobante_job(proximo_intento)
+  WHERE estado IN ('PENDIENTE', 'FALLIDO', 'EN_PROCESO');
+
+-- Compras ya existentes con comprobante: se dan por completadas
+INSERT INTO comprobante_job (compra_id, estado)
+SELECT id_compra, 'COMPLETADO'
+  FROM compra
+ WHERE ruta_comprobante_pdf IS NOT NULL
+ON CONFLICT (compra_id) DO NOTHING;
+
+COMMIT;
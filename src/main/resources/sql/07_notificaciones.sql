@@ -0,0 +1,63 @@
+-- =========================================================
+-- CineTicket - 07_notificaciones.sql
+-- Avisos de cambios entre terminales (taquilla, kioscos) con LISTEN/NOTIFY
+--  - Cada cambio en funcion, pelicula, pelicula_genero, genero,
+--    combo_confiteria y entrada emite pg_notify('cineticket_cambios', 'tipo:id')
+--  - EscuchaCambiosBD (conexión dedicada, fuera del pool) recibe los avisos
+--    e invalida las cachés en memoria de cada instancia
+--  - Los avisos se entregan al confirmar la transacción; los repetidos
+--    dentro de una misma transacción se envían una sola vez
+-- Idempotente: se puede ejecutar varias veces
+-- =========================================================
+BEGIN;
+
+-- TG_ARGV[0] = tipo de evento, TG_ARGV[1] = columna con el id que se informa
+CREATE OR REPLACE FUNCTION fn_notificar_cambio()
+RETURNS TRIGGER AS $$
+DECLARE
+  v_fila JSONB;
+BEGIN
+  IF TG_OP = 'DELETE' THEN
+    v_fila := to_jsonb(OLD);
+  ELSE
+    v_fila := to_jsonb(NEW);
+  END IF;
+
+  PERFORM pg_notify('cineticket_cambios', TG_ARGV[0] || ':' || COALESCE(v_fila ->> TG_ARGV[1], ''));
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_notificar_funcion ON funcion;
+CREATE TRIGGER trg_notificar_funcion
+AFTER INSERT OR UPDATE OR DELETE ON funcion
+FOR EACH ROW EXECUTE FUNCTION fn_notificar_cambio('funcion', 'id_funcion');
+
+DROP TRIGGER IF EXISTS trg_notificar_pelicula ON pelicula;
+CREATE TRIGGER trg_notificar_pelicula
+AFTER INSERT OR UPDATE OR DELETE ON pelicula
+FOR EACH ROW EXECUTE FUNCTION fn_notificar_cambio('pelicula', 'id_pelicula');
+
+-- Cambiar los géneros de una película invalida la película
+DROP TRIGGER IF EXISTS trg_notificar_pelicula_genero ON pelicula_genero;
+CREATE TRIGGER trg_notificar_pelicula_genero
+AFTER INSERT OR UPDATE OR DELETE ON pelicula_genero
+FOR EACH ROW EXECUTE FUNCTION fn_notificar_cambio('pelicula', 'pelicula_id');
+
+DROP TRIGGER IF EXISTS trg_notificar_genero ON genero;
+CREATE TRIGGER trg_notificar_genero
+AFTER INSERT OR UPDATE OR DELETE ON genero
+FOR EACH ROW EXECUTE FUNCTION fn_notificar_cambio('genero', 'id_genero');
+
+DROP TRIGGER IF EXISTS trg_notificar_combo ON combo_confiteria;
+CREATE TRIGGER trg_notificar_combo
+AFTER INSERT OR UPDATE OR DELETE ON combo_confiteria
+FOR EACH ROW EXECUTE FUNCTION fn_notificar_cambio('combo', 'id_combo');
+
+-- Entradas: se informa la función, que es la clave de la caché de ocupación
+DROP TRIGGER IF EXISTS trg_notificar_entrada ON entrada;
+CREATE TRIGGER trg_notificar_entrada
+AFTER INSERT OR UPDATE OR DELETE ON entrada
+FOR EACH ROW EXECUTE FUNCTION fn_notificar_cambio('entrada', 'funcion_id');
+
+COMMIT;
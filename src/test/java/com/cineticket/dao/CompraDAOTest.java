@@ -55,7 +55,7 @@ public class CompraDAOTest {
             System.out.println("[ENTRE FECHAS] total=" + dao.obtenerComprasEntreFechas(desde, hasta).size());
 
             // 6) CANCELAR
-            boolean cancel = dao.cancelarCompra(id);
+            boolean cancel = dao.cancelarCompra(id, LocalDateTime.now());
             System.out.println("[CANCELAR] ok=" + cancel);
 
             if (!KEEP_DATA) {
@@ -0,0 +1,181 @@
+package com.cineticket.dao.impl;
+
+import com.cineticket.dao.common.DaoException;
+import com.cineticket.dao.common.RowMapper;
+import com.cineticket.util.metricas.AmbitoSql;
+import com.cineticket.util.metricas.RegistroSql;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BaseDAOTest {
+
+    @Mock Connection conn;
+    @Mock PreparedStatement ps;
+    @Mock ResultSet rs;
+
+    private BaseDAO dao;
+
+    /** Nombre por índice, para contar cuántas veces se resuelve la columna. */
+    private static final RowMapper<String> NOMBRE = r -> {
+        int nombre = r.findColumn("nombre");
+        return fila -> fila.getString(nombre);
+    };
+
+    @BeforeEach
+    void setUp() {
+        dao = new BaseDAO() {
+            @Override
+            protected Connection getConnection() {
+                return conn;
+            }
+        };
+    }
+
+    @Test
+    void consultar_resuelveColumnasUnaVez_yCierraRecursos() throws SQLException {
+        when(conn.prepareStatement(anyString())).thenReturn(ps);
+        when(ps.executeQuery()).thenReturn(rs);
+        when(rs.findColumn("nombre")).thenReturn(2);
+        when(rs.next()).thenReturn(true, true, true, false);
+        when(rs.getString(2)).thenReturn("a", "b", "c");
+
+        List<String> nombres = dao.consultar("SELECT id, nombre FROM t WHERE x = ?",
+                p -> p.setInt(1, 7), NOMBRE, "Error al listar");
+
+        assertEquals(List.of("a", "b", "c"), nombres);
+        verify(ps).setInt(1, 7);
+        verify(ps).setFetchSize(BaseDAO.FETCH_SIZE);
+        verify(rs, times(1)).findColumn("nombre");
+        verify(rs).close();
+        verify(ps).close();
+        verify(conn).close();
+    }
+
+    @Test
+    void consultar_unaSolaSentenciaPorLlamada() throws SQLException {
+        BaseDAO medido = new BaseDAO() {
+            @Override
+            protected Connection getConnection() {
+                return RegistroSql.interceptar(conn);
+            }
+        };
+        when(conn.prepareStatement(anyString())).thenReturn(ps);
+        when(ps.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(true, true, false);
+        when(rs.findColumn("nombre")).thenReturn(1);
+
+        try (AmbitoSql sql = RegistroSql.abrirAmbito("listar")) {
+            medido.consultar("SELECT nombre FROM t", BaseDAO.SIN_PARAMETROS, NOMBRE, "Error");
+            sql.verificarMaximo(1);
+        }
+        verify(conn).close();
+    }
+
+    @Test
+    void consultarUno_sinFilas_retornaNull() throws SQLException {
+        when(conn.prepareStatement(anyString())).thenReturn(ps);
+        when(ps.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(false);
+
+        assertNull(dao.consultarUno("SELECT nombre FROM t", BaseDAO.SIN_PARAMETROS, NOMBRE, "Error"));
+        verify(rs, never()).findColumn(anyString());
+    }
+
+    @Test
+    void consultarStream_conexionPropia_usaCursor_yRestauraAutocommitAlCerrar() throws SQLException {
+        when(conn.getAutoCommit()).thenReturn(true);
+        when(conn.prepareStatement(anyString(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY)))
+                .thenReturn(ps);
+        when(ps.executeQuery()).thenReturn(rs);
+        when(rs.findColumn("nombre")).thenReturn(1);
+        when(rs.next()).thenReturn(true, true, false);
+        when(rs.getString(1)).thenReturn("x", "y");
+
+        try (Stream<String> s = dao.consultarStream("SELECT nombre FROM t", BaseDAO.SIN_PARAMETROS, NOMBRE, "Error")) {
+            verify(conn).setAutoCommit(false);
+            verify(ps).setFetchSize(BaseDAO.FETCH_SIZE);
+            verify(conn, never()).close();
+            assertEquals("x,y", s.collect(Collectors.joining(",")));
+        }
+        InOrder orden = inOrder(rs, ps, conn);
+        orden.verify(rs).close();
+        orden.verify(ps).close();
+        orden.verify(conn).rollback();
+        orden.verify(conn).setAutoCommit(true);
+        orden.verify(conn).close();
+    }
+
+    @Test
+    void consultarStream_enTransaccion_noTocaAutocommit() throws SQLException {
+        when(conn.getAutoCommit()).thenReturn(false);
+        when(conn.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(ps);
+        when(ps.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(false);
+
+        try (Stream<String> s = dao.consultarStream("SELECT nombre FROM t", BaseDAO.SIN_PARAMETROS, NOMBRE, "Error")) {
+            assertEquals(0, s.count());
+        }
+        verify(conn, never()).setAutoCommit(anyBoolean());
+        verify(conn, never()).rollback();
+    }
+
+    @Test
+    void consultarStream_fallaAlEjecutar_liberaLaConexion() throws SQLException {
+        when(conn.getAutoCommit()).thenReturn(true);
+        when(conn.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(ps);
+        when(ps.executeQuery()).thenThrow(new SQLException("cursor"));
+
+        assertThrows(DaoException.class,
+                () -> dao.consultarStream("SELECT nombre FROM t", BaseDAO.SIN_PARAMETROS, NOMBRE, "Error"));
+        verify(ps).close();
+        verify(conn).setAutoCommit(true);
+        verify(conn).close();
+    }
+
+    @Test
+    void ejecutarLote_unaFilaPorElemento_enUnSoloEnvio() throws SQLException {
+        when(conn.prepareStatement(anyString())).thenReturn(ps);
+        when(ps.executeBatch()).thenReturn(new int[]{1, 1});
+
+        int[] filas = dao.ejecutarLote("INSERT INTO t (n) VALUES (?)", List.of(10, 20),
+                (p, n) -> p.setInt(1, n), "Error");
+
+        assertArrayEquals(new int[]{1, 1}, filas);
+        verify(ps).setInt(1, 10);
+        verify(ps).setInt(1, 20);
+        verify(ps, times(2)).addBatch();
+        verify(ps, times(1)).executeBatch();
+    }
+
+    @Test
+    void insertarRetornandoId_envuelveSQLExceptionConElMensaje() throws SQLException {
+        when(conn.prepareStatement(anyString(), eq(Statement.RETURN_GENERATED_KEYS))).thenReturn(ps);
+        when(ps.executeUpdate()).thenThrow(new SQLException("duplicada", "23505"));
+
+        DaoException ex = assertThrows(DaoException.class,
+                () -> dao.insertarRetornandoId("INSERT INTO t (n) VALUES (1)", BaseDAO.SIN_PARAMETROS, "Error al crear t"));
+        assertEquals("Error al crear t", ex.getMessage());
+        assertEquals("23505", ((SQLException) ex.getCause()).getSQLState());
+        verify(conn).close();
+    }
+}
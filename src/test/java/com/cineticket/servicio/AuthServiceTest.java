@@ -13,9 +13,12 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -26,6 +29,14 @@ class AuthServiceTest {
     @Mock
     private UsuarioDAO usuarioDAO;
 
+    // Mismo costo que PasswordUtil.hashPassword por defecto; corre en el hilo del test
+    @Spy
+    private PasswordHasher passwordHasher = new PasswordHasher(12, Runnable::run);
+
+    @Spy
+    private LimitadorIntentos limitadorIntentos =
+            new LimitadorIntentos(5, Duration.ofSeconds(12), 20, Duration.ofSeconds(3), "test");
+
     @InjectMocks
     private AuthService authService;
 
@@ -148,4 +159,75 @@ class AuthServiceTest {
         assertFalse(SessionManager.getInstance().isLoggedIn());
         assertNull(authService.obtenerUsuarioActual());
     }
+
+    @Test
+    void iniciarSesion_hashConCostoAnterior_seRehaceConElConfigurado() {
+        String passPlano = "Abcdef12";
+        Usuario u = new Usuario();
+        u.setIdUsuario(1);
+        u.setNombreUsuario("clau");
+        u.setContrasenaHash(PasswordUtil.hashPassword(passPlano, 4));
+        u.setRol(Rol.USUARIO);
+        u.setActivo(true);
+
+        String hashAnterior = u.getContrasenaHash();
+        when(usuarioDAO.buscarPorNombreUsuario("clau")).thenReturn(Optional.of(u));
+        when(usuarioDAO.actualizarContrasenaHash(eq(1), eq(hashAnterior), anyString())).thenReturn(true);
+
+        authService.iniciarSesion("clau", passPlano);
+
+        ArgumentCaptor<String> cap = ArgumentCaptor.forClass(String.class);
+        verify(usuarioDAO).actualizarContrasenaHash(eq(1), eq(hashAnterior), cap.capture());
+        String nuevoHash = cap.getValue();
+        assertEquals(12, PasswordUtil.costoDe(nuevoHash));
+        assertTrue(PasswordUtil.verificarPassword(passPlano, nuevoHash));
+        // El usuario de la sesión no se modifica desde el hilo de BCrypt
+        assertEquals(hashAnterior, u.getContrasenaHash());
+        verify(usuarioDAO, never()).actualizar(any());
+    }
+
+    @Test
+    void iniciarSesion_hashConCostoVigente_noSeActualiza() {
+        String passPlano = "Abcdef12";
+        Usuario u = new Usuario();
+        u.setIdUsuario(1);
+        u.setNombreUsuario("clau");
+        u.setContrasenaHash(PasswordUtil.hashPassword(passPlano, 12));
+        u.setRol(Rol.USUARIO);
+        u.setActivo(true);
+
+        when(usuarioDAO.buscarPorNombreUsuario("clau")).thenReturn(Optional.of(u));
+
+        authService.iniciarSesion("clau", passPlano);
+
+        verify(usuarioDAO, never()).actualizarContrasenaHash(anyInt(), anyString(), anyString());
+    }
+
+    @Test
+    void iniciarSesionAsync_credencialesInvalidas_fallaConAutenticacion() {
+        when(usuarioDAO.buscarPorNombreUsuario("nope")).thenReturn(Optional.empty());
+
+        CompletionException ex = assertThrows(CompletionException.class,
+                () -> authService.iniciarSesionAsync("nope", "x").join());
+        assertInstanceOf(AutenticacionException.class, ex.getCause());
+        assertFalse(SessionManager.getInstance().isLoggedIn());
+    }
+
+    @Test
+    void iniciarSesion_limiteExcedido_noConsultaLaBD() {
+        doThrow(new AutenticacionException("Demasiados intentos"))
+                .when(limitadorIntentos).consumir("clau");
+
+        assertThrows(AutenticacionException.class, () -> authService.iniciarSesion("clau", "Abcdef12"));
+        verifyNoInteractions(usuarioDAO);
+        verify(passwordHasher, never()).verificar(any(), any());
+    }
+
+    @Test
+    void iniciarSesion_usuarioNoExiste_verificaContraHashFicticio() {
+        when(usuarioDAO.buscarPorNombreUsuario("nope")).thenReturn(Optional.empty());
+
+        assertThrows(AutenticacionException.class, () -> authService.iniciarSesion("nope", "Abcdef12"));
+        verify(passwordHasher).verificarFicticio("Abcdef12");
+    }
 }
@@ -6,6 +6,7 @@ import com.cineticket.dao.GeneroDAO;
 import com.cineticket.enums.*;
 import com.cineticket.excepcion.*;
 import com.cineticket.modelo.*;
+import com.cineticket.servicio.cache.InvalidacionCatalogo;
 import com.cineticket.util.*;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,6 +16,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.*;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -25,6 +27,7 @@ class CarteleraServiceTest {
     @Mock PeliculaDAO peliculaDAO;
     @Mock FuncionDAO funcionDAO;
     @Mock GeneroDAO generoDAO;
+    @Mock InvalidacionCatalogo invalidacion;
 
     @InjectMocks CarteleraService service;
 
@@ -137,6 +140,60 @@ class CarteleraServiceTest {
         verifyNoMoreInteractions(peliculaDAO);
     }
 
+    // ==== snapshots (carga en lote) ====
+
+    @Test
+    void obtenerCarteleraConGeneros_unaConsultaDeGeneros_paraTodas() {
+        Pelicula p1 = new Pelicula(); p1.setIdPelicula(1); p1.setTitulo("Dune");
+        Pelicula p2 = new Pelicula(); p2.setIdPelicula(2); p2.setTitulo("Coco");
+        when(peliculaDAO.listarActivas()).thenReturn(List.of(p1, p2));
+        when(peliculaDAO.obtenerGenerosPorPeliculas(List.of(1, 2)))
+                .thenReturn(Map.of(1, List.of(new Genero(), new Genero())));
+
+        var snapshot = service.obtenerCarteleraConGeneros();
+
+        assertEquals(2, snapshot.getPeliculas().size());
+        assertEquals("Dune", snapshot.getPeliculas().get(0).getPelicula().getTitulo());
+        assertEquals(2, snapshot.getPeliculas().get(0).getGeneros().size());
+        assertTrue(snapshot.getPeliculas().get(1).getGeneros().isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getPeliculas().clear());
+        verify(peliculaDAO, never()).obtenerGenerosDePelicula(any());
+    }
+
+    @Test
+    void obtenerCarteleraConGeneros_sinPeliculas_noConsultaGeneros() {
+        when(peliculaDAO.listarActivas()).thenReturn(List.of());
+
+        assertTrue(service.obtenerCarteleraConGeneros().estaVacia());
+        verify(peliculaDAO, never()).obtenerGenerosPorPeliculas(any());
+    }
+
+    @Test
+    void obtenerFuncionesAgrupadasPorPelicula_agrupaEnUnaConsulta() {
+        Pelicula p1 = new Pelicula(); p1.setIdPelicula(1);
+        Pelicula p2 = new Pelicula(); p2.setIdPelicula(2);
+        LocalDateTime desde = LocalDateTime.of(2025, 11, 1, 0, 0);
+        LocalDateTime hasta = desde.plusDays(7);
+        when(peliculaDAO.listarActivas()).thenReturn(List.of(p1, p2));
+        when(funcionDAO.listarPorPeliculas(List.of(1, 2), desde, hasta))
+                .thenReturn(Map.of(2, List.of(new Funcion(), new Funcion())));
+
+        var snapshot = service.obtenerFuncionesAgrupadasPorPelicula(desde, hasta);
+
+        assertEquals(2, snapshot.totalFunciones());
+        assertTrue(snapshot.getPeliculas().get(0).getFunciones().isEmpty());
+        assertEquals(2, snapshot.getPeliculas().get(1).getFunciones().size());
+        verify(funcionDAO, never()).listarPorPelicula(any());
+    }
+
+    @Test
+    void obtenerFuncionesAgrupadasPorPelicula_rangoInvertido_lanza() {
+        LocalDateTime desde = LocalDateTime.of(2025, 11, 8, 0, 0);
+        assertThrows(ValidacionException.class,
+                () -> service.obtenerFuncionesAgrupadasPorPelicula(desde, desde.minusDays(1)));
+        verifyNoInteractions(peliculaDAO, funcionDAO);
+    }
+
     // ==== gestión de películas (ADMIN) ====
 
     @Test
@@ -157,6 +214,7 @@ class CarteleraServiceTest {
         assertEquals(10, id);
         verify(peliculaDAO).crear(peli);
         verify(peliculaDAO).asignarGeneros(10, generoIds);
+        verify(invalidacion).peliculasModificadas();
     }
 
 
@@ -169,7 +227,7 @@ class CarteleraServiceTest {
 
         assertThrows(ValidacionException.class,
                 () -> service.crearPelicula(peli, List.of(1)));
-        verifyNoInteractions(peliculaDAO);
+        verifyNoInteractions(peliculaDAO, invalidacion);
     }
 
     @Test
@@ -201,6 +259,7 @@ class CarteleraServiceTest {
 
         assertTrue(res);
         verify(peliculaDAO).actualizar(peli);
+        verify(invalidacion).peliculasModificadas();
     }
 
     @Test
@@ -1,9 +1,13 @@
 package com.cineticket.servicio;
 
 import com.cineticket.dao.impl.CompraDAOImpl;
+import com.cineticket.dao.impl.ComprobanteJobDAOImpl;
 import com.cineticket.dao.impl.EntradaDAOImpl;
 import com.cineticket.dao.impl.CompraConfiteriaDAOImpl;
 import com.cineticket.dao.impl.FuncionDAOImpl;
+import com.cineticket.dao.impl.PeliculaDAOImpl;
+import com.cineticket.dao.impl.JdbcTransactionManager;
+import com.cineticket.dao.impl.RollupDAOImpl;
 import com.cineticket.enums.EstadoCompra;
 import com.cineticket.enums.EstadoEntrada;
 import com.cineticket.enums.MetodoPago;
@@ -19,6 +23,7 @@ import org.junit.jupiter.api.Test;
 import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -40,6 +45,7 @@ class CompraServiceIT {
     // PDF REAL (PDFBox)
     private PDFService pdfService;
 
+    private ComprobanteService comprobanteService;
     private CompraService service;
 
     @BeforeEach
@@ -48,9 +54,15 @@ class CompraServiceIT {
         Path outDir = Files.createTempDirectory("pdfs_it_");
         pdfService = new PDFServicePDFBox(outDir.toString()); // ⬅️ ctor que recibe carpeta de salida
 
+        var transactionManager = new JdbcTransactionManager();
+        comprobanteService = new ComprobanteService(
+                compraDAO, entradaDAO, compraConfDAO, funcionDAO, pdfService,
+                new ComprobanteJobDAOImpl(), transactionManager, 1, 10, 3, Duration.ofSeconds(30)
+        );
         service = new CompraService(
                 compraDAO, entradaDAO, compraConfDAO, funcionDAO,
-                reservaService, confiteriaService, pdfService
+                reservaService, confiteriaService, comprobanteService,
+                transactionManager, new RollupDAOImpl(), new PeliculaDAOImpl()
         );
     }
 
@@ -106,9 +118,10 @@ class CompraServiceIT {
         var confBD = compraConfDAO.listarPorCompra(compraId);
         assertEquals(1, confBD.size(), "Debe persistir 1 ítem de confitería");
 
-        // ---------- Verificación del PDF ----------
-        String rutaPdf = compraBD.getRutaComprobantePdf();
-        assertNotNull(rutaPdf, "Ruta de comprobante debe haberse seteado");
+        // ---------- Verificación del PDF (generado en segundo plano) ----------
+        String rutaPdf = comprobanteService.obtenerComprobante(compraId);
+        assertNotNull(rutaPdf, "Ruta de comprobante debe haberse generado");
+        assertEquals(rutaPdf, compraDAO.buscarPorId(compraId).getRutaComprobantePdf());
         assertTrue(Files.exists(Path.of(rutaPdf)), "El PDF debería existir en disco");
 
         System.out.println("Compra creada: " + compraId);
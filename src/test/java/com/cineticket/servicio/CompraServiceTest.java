@@ -4,6 +4,9 @@ import com.cineticket.dao.CompraConfiteriaDAO;
 import com.cineticket.dao.CompraDAO;
 import com.cineticket.dao.EntradaDAO;
 import com.cineticket.dao.FuncionDAO;
+import com.cineticket.dao.PeliculaDAO;
+import com.cineticket.dao.RollupDAO;
+import com.cineticket.dao.common.TransactionManager;
 import com.cineticket.enums.EstadoCompra;
 import com.cineticket.enums.EstadoEntrada;
 import com.cineticket.enums.MetodoPago;
@@ -14,10 +17,10 @@ import com.cineticket.modelo.Entrada;
 import com.cineticket.modelo.Funcion;
 import com.cineticket.modelo.ComboConfiteria;
 import com.cineticket.servicio.dto.CompraPreparada;
+import com.cineticket.servicio.dto.CursorHistorial;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -36,36 +39,35 @@ class CompraServiceTest {
     @Mock EntradaDAO entradaDAO;
     @Mock CompraConfiteriaDAO compraConfiteriaDAO;
     @Mock FuncionDAO funcionDAO;
+    @Mock RollupDAO rollupDAO;
+    @Mock PeliculaDAO peliculaDAO;
     @Mock ReservaService reservaService;
     @Mock ConfiteriaService confiteriaService;
 
-    // Usamos una implementación dummy directa en lugar de @Mock para evitar NPE en el constructor
-    PDFService pdfService;
+    // El PDF lo genera ComprobanteService en segundo plano; aquí solo se verifica que se encole
+    @Mock ComprobanteService comprobanteService;
+
+    // Transacción "de paso": ejecuta el trabajo directamente y cuenta cuántas se abrieron
+    TransactionManager transactionManager;
+    int transacciones;
 
     CompraService service;
 
     @BeforeEach
     void setUp() {
-        pdfService = new PDFService() {
-            @Override
-            public String generarComprobantePDF(
-                    Compra compra,
-                    List<Entrada> entradas,
-                    List<CompraConfiteria> items,
-                    Map<String, Object> extras) {
-                // no escribe nada; solo devuelve una ruta “válida”
-                return "tmp/comprobante_" + (compra.getIdCompra() != null ? compra.getIdCompra() : "prep") + ".pdf";
-            }
-
+        transacciones = 0;
+        transactionManager = new TransactionManager() {
             @Override
-            public boolean guardarComprobante(Compra compra, String rutaDestino) {
-                return false;
+            public <T> T enTransaccion(java.util.function.Supplier<T> trabajo) {
+                transacciones++;
+                return trabajo.get();
             }
         };
 
         service = new CompraService(
                 compraDAO, entradaDAO, compraConfiteriaDAO,
-                funcionDAO, reservaService, confiteriaService, pdfService
+                funcionDAO, reservaService, confiteriaService, comprobanteService,
+                transactionManager, rollupDAO, peliculaDAO
         );
     }
 
@@ -84,7 +86,7 @@ class CompraServiceTest {
         // ReservaService nos devuelve 2 pre-entradas (con precio ya cargado)
         Entrada e1 = new Entrada(); e1.setFuncionId(funcionId); e1.setAsientoId(7); e1.setPrecioUnitario(new BigDecimal("18000"));
         Entrada e2 = new Entrada(); e2.setFuncionId(funcionId); e2.setAsientoId(8); e2.setPrecioUnitario(new BigDecimal("18000"));
-        when(reservaService.reservarAsientos(funcionId, List.of(7, 8))).thenReturn(List.of(e1, e2));
+        when(reservaService.reservarAsientos(funcionId, usuarioId, List.of(7, 8))).thenReturn(List.of(e1, e2));
 
         // Confitería: combo 10 x 2 unidades a $25.000 c/u ⇒ subtotal 50.000
         ComboConfiteria combo = new ComboConfiteria();
@@ -142,7 +144,7 @@ class CompraServiceTest {
     }
 
     @Test
-    void confirmarCompra_persisteTodoYGeneraPDF_ok() {
+    void confirmarCompra_persisteTodoYEncolaComprobante_ok() {
         // Compra preparada mínima
         Compra compra = new Compra();
         compra.setUsuarioId(11);
@@ -165,9 +167,8 @@ class CompraServiceTest {
             c.setIdCompra(123); // simula PK
             return 123;
         });
-        when(compraDAO.actualizar(any(Compra.class))).thenReturn(true);
-        when(entradaDAO.crear(any(Entrada.class))).thenReturn(1);
-        when(compraConfiteriaDAO.crear(any(CompraConfiteria.class))).thenReturn(1);
+        when(entradaDAO.crearLote(anyList())).thenReturn(List.of(1, 2));
+        when(compraConfiteriaDAO.crearLote(anyList())).thenReturn(List.of(1));
 
         // --- Act ---
         Integer id = service.confirmarCompra(preparada);
@@ -177,13 +178,50 @@ class CompraServiceTest {
 
         // Verificamos que cada capa fue llamada como esperamos
         verify(compraDAO).crear(compra);
-        verify(entradaDAO, times(2)).crear(any(Entrada.class));
-        verify(compraConfiteriaDAO).crear(any(CompraConfiteria.class));
-        verify(compraDAO).actualizar(compra);
+        verify(entradaDAO).crearLote(argThat(l -> l.size() == 2));
+        verify(compraConfiteriaDAO).crearLote(argThat(l -> l.size() == 1));
+        verify(entradaDAO, never()).crear(any(Entrada.class));
+        verify(compraConfiteriaDAO, never()).crear(any(CompraConfiteria.class));
+        verify(rollupDAO).aplicarCompra(123);
+        // El job del comprobante va dentro de la transacción; el PDF se lanza después del commit
+        var orden = inOrder(comprobanteService);
+        orden.verify(comprobanteService).registrarPendiente(123);
+        orden.verify(comprobanteService).programar(123);
+        verify(compraDAO, never()).actualizar(any());
+        verify(reservaService).registrarAsientosVendidos(2, List.of(7, 8));
+        verify(reservaService).liberarRetenciones(2, 11);
+        assertEquals(1, transacciones);
+
+        // La compra vuelve sin esperar al PDF
+        assertNull(compra.getRutaComprobantePdf());
+    }
+
+    @Test
+    void confirmarCompra_falloEnEntradas_propagaYNoEncolaComprobante() {
+        Compra compra = new Compra();
+        compra.setUsuarioId(11);
+        compra.setMetodoPago(MetodoPago.TRANSFERENCIA);
+        compra.setEstadoCompra(EstadoCompra.CONFIRMADA);
+
+        Entrada e1 = new Entrada(); e1.setFuncionId(2); e1.setAsientoId(7); e1.setPrecioUnitario(new BigDecimal("18000")); e1.setEstadoEntrada(EstadoEntrada.ACTIVA);
+        CompraPreparada preparada = new CompraPreparada(compra, List.of(e1), List.of());
+
+        when(compraDAO.crear(any(Compra.class))).thenReturn(123);
+        when(entradaDAO.crearLote(anyList()))
+                .thenThrow(new com.cineticket.dao.common.DaoException("Asiento ya vendido (entrada ACTIVA) para esa función."));
 
-        // La ruta del PDF quedó seteada
-        assertNotNull(compra.getRutaComprobantePdf());
-        assertTrue(compra.getRutaComprobantePdf().startsWith("tmp/comprobante_"));
+        // La excepción sale del bloque transaccional (el TransactionManager real hace rollback)
+        assertThrows(com.cineticket.dao.common.DaoException.class, () -> service.confirmarCompra(preparada));
+
+        verify(compraConfiteriaDAO, never()).crearLote(anyList());
+        verify(compraDAO, never()).actualizar(any());
+        verify(rollupDAO, never()).aplicarCompra(anyInt());
+        verifyNoInteractions(comprobanteService);
+        verify(reservaService).invalidarOcupacion(2);
+        verify(reservaService, never()).registrarAsientosVendidos(anyInt(), anyList());
+        // La retención sigue vigente para que el usuario pueda reintentar
+        verify(reservaService, never()).liberarRetenciones(anyInt(), anyInt());
+        assertEquals(1, transacciones);
     }
 
     // =============== Tests cancelarCompra ===============
@@ -212,22 +250,49 @@ class CompraServiceTest {
         when(compraDAO.buscarPorId(compraId)).thenReturn(compra);
         when(entradaDAO.listarPorCompra(compraId)).thenReturn(List.of(e));
         when(funcionDAO.buscarPorId(5)).thenReturn(funcion);
-        when(compraDAO.actualizar(any(Compra.class))).thenReturn(true);
+        when(compraDAO.cancelarCompra(eq(compraId), any(LocalDateTime.class))).thenReturn(true);
         when(entradaDAO.cancelarEntradasDeCompra(compraId)).thenReturn(true);
 
-        ArgumentCaptor<Compra> compraCaptor = ArgumentCaptor.forClass(Compra.class);
-
         // --- Act ---
         boolean result = service.cancelarCompra(compraId);
 
         // --- Assert ---
         assertTrue(result);
-        verify(compraDAO).actualizar(compraCaptor.capture());
+        verify(compraDAO).cancelarCompra(eq(compraId), any(LocalDateTime.class));
+        verify(compraDAO, never()).actualizar(any());
         verify(entradaDAO).cancelarEntradasDeCompra(compraId);
+        verify(rollupDAO).revertirCompra(compraId);
+
+        assertEquals(EstadoCompra.CANCELADA, compra.getEstadoCompra());
+        assertNotNull(compra.getFechaCancelacion());
+    }
+
+    @Test
+    void cancelarCompra_otraTerminalLaCanceloAntes_noRevierteRollups() {
+        Integer compraId = 124;
+        Compra compra = new Compra();
+        compra.setIdCompra(compraId);
+        compra.setEstadoCompra(EstadoCompra.CONFIRMADA); // leída antes de que la otra terminal cancelara
+
+        Entrada e = new Entrada();
+        e.setCompraId(compraId);
+        e.setFuncionId(5);
+
+        Funcion funcion = new Funcion();
+        funcion.setIdFuncion(5);
+        funcion.setFechaHoraInicio(LocalDateTime.now().plusHours(2));
+        funcion.setFechaHoraFin(LocalDateTime.now().plusHours(4));
 
-        Compra actualizada = compraCaptor.getValue();
-        assertEquals(EstadoCompra.CANCELADA, actualizada.getEstadoCompra());
-        assertNotNull(actualizada.getFechaCancelacion());
+        when(compraDAO.buscarPorId(compraId)).thenReturn(compra);
+        when(entradaDAO.listarPorCompra(compraId)).thenReturn(List.of(e));
+        when(funcionDAO.buscarPorId(5)).thenReturn(funcion);
+        when(compraDAO.cancelarCompra(eq(compraId), any(LocalDateTime.class))).thenReturn(false); // 0 filas
+
+        assertThrows(ValidacionException.class, () -> service.cancelarCompra(compraId));
+
+        verify(entradaDAO, never()).cancelarEntradasDeCompra(anyInt());
+        verify(rollupDAO, never()).revertirCompra(anyInt());
+        verify(reservaService, never()).registrarAsientosLiberados(anyInt(), anyList());
     }
 
     @Test
@@ -254,7 +319,7 @@ class CompraServiceTest {
         // --- Act & Assert ---
         assertThrows(ValidacionException.class, () -> service.cancelarCompra(compraId));
 
-        verify(compraDAO, never()).actualizar(any());
+        verify(compraDAO, never()).cancelarCompra(anyInt(), any());
         verify(entradaDAO, never()).cancelarEntradasDeCompra(anyInt());
     }
 
@@ -283,7 +348,7 @@ class CompraServiceTest {
         // --- Act & Assert ---
         assertThrows(ValidacionException.class, () -> service.cancelarCompra(compraId));
 
-        verify(compraDAO, never()).actualizar(any());
+        verify(compraDAO, never()).cancelarCompra(anyInt(), any());
         verify(entradaDAO, never()).cancelarEntradasDeCompra(anyInt());
     }
 
@@ -298,21 +363,19 @@ class CompraServiceTest {
 
         when(compraDAO.buscarPorId(compraId)).thenReturn(compra);
         when(entradaDAO.listarPorCompra(compraId)).thenReturn(List.of()); // sin entradas
-        when(compraDAO.actualizar(any(Compra.class))).thenReturn(true);
-
-        ArgumentCaptor<Compra> compraCaptor = ArgumentCaptor.forClass(Compra.class);
+        when(compraDAO.cancelarCompra(eq(compraId), any(LocalDateTime.class))).thenReturn(true);
 
         // --- Act ---
         boolean result = service.cancelarCompra(compraId);
 
         // --- Assert ---
         assertTrue(result);
-        verify(compraDAO).actualizar(compraCaptor.capture());
+        verify(compraDAO).cancelarCompra(eq(compraId), any(LocalDateTime.class));
+        verify(rollupDAO).revertirCompra(compraId);
         verify(entradaDAO, never()).cancelarEntradasDeCompra(anyInt());
 
-        Compra actualizada = compraCaptor.getValue();
-        assertEquals(EstadoCompra.CANCELADA, actualizada.getEstadoCompra());
-        assertNotNull(actualizada.getFechaCancelacion());
+        assertEquals(EstadoCompra.CANCELADA, compra.getEstadoCompra());
+        assertNotNull(compra.getFechaCancelacion());
     }
 
     @Test
@@ -384,6 +447,81 @@ class CompraServiceTest {
         verify(compraDAO).listarPorUsuario(usuarioId);
     }
 
+    @Test
+    void obtenerHistorialDetallado_resuelveDetalleEnLote_yDevuelveCursor() {
+        Integer usuarioId = 30;
+        Compra c1 = new Compra(); c1.setIdCompra(9); c1.setUsuarioId(usuarioId);
+        c1.setFechaHoraCompra(LocalDateTime.of(2025, 11, 12, 20, 0));
+        Compra c2 = new Compra(); c2.setIdCompra(7); c2.setUsuarioId(usuarioId);
+        c2.setFechaHoraCompra(LocalDateTime.of(2025, 11, 10, 18, 0));
+        Compra c3 = new Compra(); c3.setIdCompra(4); c3.setUsuarioId(usuarioId);
+        c3.setFechaHoraCompra(LocalDateTime.of(2025, 11, 1, 15, 0));
+
+        // Se pide tamaño+1 para saber si hay otra página
+        when(compraDAO.listarPorUsuarioPagina(usuarioId, null, null, 3)).thenReturn(List.of(c1, c2, c3));
+
+        Entrada e1 = new Entrada(); e1.setCompraId(9); e1.setFuncionId(100);
+        Entrada e2 = new Entrada(); e2.setCompraId(7); e2.setFuncionId(101);
+        when(entradaDAO.listarPorCompras(List.of(9, 7))).thenReturn(Map.of(9, List.of(e1), 7, List.of(e2)));
+
+        CompraConfiteria item = new CompraConfiteria(); item.setCompraId(9); item.setComboId(5); item.setCantidad(2);
+        when(compraConfiteriaDAO.listarPorCompras(List.of(9, 7))).thenReturn(Map.of(9, List.of(item)));
+
+        Funcion f100 = new Funcion(); f100.setIdFuncion(100); f100.setPeliculaId(1);
+        Funcion f101 = new Funcion(); f101.setIdFuncion(101); f101.setPeliculaId(2);
+        when(funcionDAO.buscarPorIds(java.util.Set.of(100, 101))).thenReturn(Map.of(100, f100, 101, f101));
+        when(peliculaDAO.obtenerTitulos(java.util.Set.of(1, 2))).thenReturn(Map.of(1, "Dune", 2, "Coco"));
+
+        ComboConfiteria combo = new ComboConfiteria(); combo.setIdCombo(5); combo.setNombreCombo("Combo Pareja");
+        when(confiteriaService.obtenerCombos(java.util.Set.of(5))).thenReturn(Map.of(5, combo));
+
+        var pagina = service.obtenerHistorialDetallado(usuarioId, null, 2);
+
+        assertEquals(2, pagina.getCompras().size());
+        assertEquals("Dune", pagina.getCompras().get(0).getTituloPelicula());
+        assertEquals("Coco", pagina.getCompras().get(1).getTituloPelicula());
+        assertEquals("Combo Pareja", pagina.getCompras().get(0).getNombreCombo(5));
+        assertTrue(pagina.getCompras().get(1).getItemsConfiteria().isEmpty());
+
+        assertTrue(pagina.hayMas());
+        assertEquals(7, pagina.getSiguiente().getIdCompra());
+        assertEquals(c2.getFechaHoraCompra(), pagina.getSiguiente().getFechaHoraCompra());
+
+        // Nada de consultas por compra
+        verify(entradaDAO, never()).listarPorCompra(anyInt());
+        verify(compraConfiteriaDAO, never()).listarPorCompra(anyInt());
+        verify(confiteriaService, never()).obtenerCombo(anyInt());
+    }
+
+    @Test
+    void obtenerHistorialDetallado_ultimaPagina_sinCursorSiguiente() {
+        Integer usuarioId = 30;
+        var cursor = new CursorHistorial(LocalDateTime.of(2025, 11, 10, 18, 0), 7);
+        Compra c = new Compra(); c.setIdCompra(4); c.setUsuarioId(usuarioId);
+        c.setFechaHoraCompra(LocalDateTime.of(2025, 11, 1, 15, 0));
+
+        when(compraDAO.listarPorUsuarioPagina(usuarioId, cursor.getFechaHoraCompra(), 7, 3)).thenReturn(List.of(c));
+        when(entradaDAO.listarPorCompras(List.of(4))).thenReturn(Map.of());
+        when(compraConfiteriaDAO.listarPorCompras(List.of(4))).thenReturn(Map.of());
+        when(confiteriaService.obtenerCombos(java.util.Set.of())).thenReturn(Map.of());
+
+        var pagina = service.obtenerHistorialDetallado(usuarioId, cursor, 2);
+
+        assertEquals(1, pagina.getCompras().size());
+        assertNull(pagina.getCompras().get(0).getFuncion());
+        assertFalse(pagina.hayMas());
+        assertNull(pagina.getSiguiente());
+        verifyNoInteractions(funcionDAO, peliculaDAO);
+    }
+
+    @Test
+    void obtenerHistorialDetallado_tamanioInvalido_lanzaValidacionException() {
+        assertThrows(ValidacionException.class, () -> service.obtenerHistorialDetallado(1, null, 0));
+        assertThrows(ValidacionException.class,
+                () -> service.obtenerHistorialDetallado(1, null, CompraService.MAX_PAGINA_HISTORIAL + 1));
+        verifyNoInteractions(compraDAO);
+    }
+
     @Test
     void obtenerEntradasDeCompra_nullId_lanzaValidacionException() {
         assertThrows(ValidacionException.class, () -> service.obtenerEntradasDeCompra(null));
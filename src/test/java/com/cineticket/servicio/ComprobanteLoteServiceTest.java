@@ -0,0 +1,148 @@
+package com.cineticket.servicio;
+
+import com.cineticket.dao.CompraConfiteriaDAO;
+import com.cineticket.dao.CompraDAO;
+import com.cineticket.dao.EntradaDAO;
+import com.cineticket.dao.FuncionDAO;
+import com.cineticket.enums.FormatoLote;
+import com.cineticket.excepcion.ValidacionException;
+import com.cineticket.modelo.Compra;
+import com.cineticket.modelo.Entrada;
+import com.cineticket.modelo.Funcion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ComprobanteLoteServiceTest {
+
+    @Mock CompraDAO compraDAO;
+    @Mock EntradaDAO entradaDAO;
+    @Mock CompraConfiteriaDAO compraConfiteriaDAO;
+    @Mock FuncionDAO funcionDAO;
+    @Mock PDFService pdfService;
+
+    ComprobanteLoteService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ComprobanteLoteService(compraDAO, entradaDAO, compraConfiteriaDAO, funcionDAO, pdfService, 4);
+    }
+
+    private Compra compra(int id) {
+        Compra c = new Compra();
+        c.setIdCompra(id);
+        return c;
+    }
+
+    private Entrada entrada(int compraId, int funcionId) {
+        Entrada e = new Entrada();
+        e.setCompraId(compraId);
+        e.setFuncionId(funcionId);
+        return e;
+    }
+
+    /** Precarga de 3 compras (1, 2, 3) de la función 7 */
+    private void precarga() {
+        when(compraDAO.buscarPorIds(List.of(1, 2, 3))).thenReturn(List.of(compra(1), compra(2), compra(3)));
+        when(entradaDAO.listarPorCompras(List.of(1, 2, 3))).thenReturn(Map.of(
+                1, List.of(entrada(1, 7)), 2, List.of(entrada(2, 7)), 3, List.of(entrada(3, 7))));
+        when(compraConfiteriaDAO.listarPorCompras(List.of(1, 2, 3))).thenReturn(Map.of());
+        Funcion f = new Funcion();
+        f.setIdFuncion(7);
+        f.setSalaId(2);
+        f.setFechaHoraInicio(LocalDateTime.of(2025, 10, 31, 20, 0));
+        when(funcionDAO.buscarPorIds(Set.of(7))).thenReturn(Map.of(7, f));
+    }
+
+    @Test
+    void lote_zip_precargaEnBloqueYEscribeUnaEntradaPorCompra(@TempDir Path dir) throws Exception {
+        precarga();
+        when(pdfService.renderizarComprobante(any(), anyList(), anyList(), anyMap()))
+                .thenAnswer(inv -> ("pdf-" + inv.<Compra>getArgument(0).getIdCompra()).getBytes());
+
+        Path zip = dir.resolve("lote.zip");
+        var r = service.generarComprobantesLote(List.of(3, 1, 2, 1), zip, FormatoLote.ZIP);
+
+        assertEquals(3, r.getSolicitados());
+        assertEquals(3, r.getGenerados());
+        assertTrue(r.getFallidos().isEmpty());
+        assertTrue(r.getComprobantesPorSegundo() > 0);
+
+        List<String> nombres = new ArrayList<>();
+        try (ZipInputStream in = new ZipInputStream(Files.newInputStream(zip))) {
+            for (ZipEntry e; (e = in.getNextEntry()) != null; ) nombres.add(e.getName());
+        }
+        // Las entradas se escriben a medida que termina cada render
+        assertEquals(Set.of("comprobante_1.pdf", "comprobante_2.pdf", "comprobante_3.pdf"), Set.copyOf(nombres));
+        assertEquals(3, nombres.size());
+
+        // Nada de consultas por compra
+        verify(entradaDAO, never()).listarPorCompra(anyInt());
+        verify(compraConfiteriaDAO, never()).listarPorCompra(anyInt());
+        verify(funcionDAO, never()).buscarPorId(anyInt());
+    }
+
+    @Test
+    void lote_archivos_compraInexistenteYFalloDeRender_noDetienenElLote(@TempDir Path dir) throws Exception {
+        when(compraDAO.buscarPorIds(List.of(1, 2, 9))).thenReturn(List.of(compra(1), compra(2)));
+        when(entradaDAO.listarPorCompras(List.of(1, 2, 9))).thenReturn(Map.of());
+        when(compraConfiteriaDAO.listarPorCompras(List.of(1, 2, 9))).thenReturn(Map.of());
+        when(funcionDAO.buscarPorIds(Set.of())).thenReturn(Map.of());
+        when(pdfService.renderizarComprobante(any(), anyList(), anyList(), anyMap())).thenAnswer(inv -> {
+            Compra c = inv.getArgument(0);
+            if (c.getIdCompra() == 2) throw new IllegalStateException("fuente corrupta");
+            return new byte[]{1, 2, 3};
+        });
+
+        var r = service.generarComprobantesLote(List.of(1, 2, 9), dir, FormatoLote.ARCHIVOS);
+
+        assertEquals(1, r.getGenerados());
+        assertEquals(Set.of(2, 9), r.getFallidos().keySet());
+        assertTrue(Files.exists(dir.resolve("comprobante_1.pdf")));
+        assertFalse(Files.exists(dir.resolve("comprobante_2.pdf")));
+    }
+
+    @Test
+    void lote_unificado_uneEnOrdenDeCompraYBorraLosTemporales(@TempDir Path dir) throws Exception {
+        precarga();
+        when(pdfService.renderizarComprobante(any(), anyList(), anyList(), anyMap()))
+                .thenAnswer(inv -> new byte[]{inv.<Compra>getArgument(0).getIdCompra().byteValue()});
+        List<Integer> unidos = new ArrayList<>();
+        doAnswer(inv -> {
+            for (Path p : inv.<List<Path>>getArgument(0)) unidos.add((int) Files.readAllBytes(p)[0]);
+            return null;
+        }).when(pdfService).unirComprobantes(anyList(), any());
+
+        Path pdf = dir.resolve("todo.pdf");
+        var r = service.generarComprobantesLote(List.of(2, 3, 1), pdf, FormatoLote.UNIFICADO);
+
+        assertEquals(3, r.getGenerados());
+        verify(pdfService).unirComprobantes(anyList(), eq(pdf));
+        assertEquals(List.of(1, 2, 3), unidos);
+        try (var quedan = Files.list(dir)) {
+            assertEquals(0, quedan.count());
+        }
+    }
+
+    @Test
+    void lote_sinCompras_lanzaValidacion(@TempDir Path dir) {
+        assertThrows(ValidacionException.class,
+                () -> service.generarComprobantesLote(List.of(), dir, FormatoLote.ZIP));
+        verifyNoInteractions(compraDAO, pdfService);
+    }
+}
@@ -0,0 +1,153 @@
+package com.cineticket.servicio;
+
+import com.cineticket.dao.CompraConfiteriaDAO;
+import com.cineticket.dao.CompraDAO;
+import com.cineticket.dao.ComprobanteJobDAO;
+import com.cineticket.dao.EntradaDAO;
+import com.cineticket.dao.FuncionDAO;
+import com.cineticket.dao.common.TransactionManager;
+import com.cineticket.enums.EstadoComprobante;
+import com.cineticket.excepcion.ValidacionException;
+import com.cineticket.modelo.Compra;
+import com.cineticket.modelo.ComprobanteJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ComprobanteServiceTest {
+
+    @Mock CompraDAO compraDAO;
+    @Mock EntradaDAO entradaDAO;
+    @Mock CompraConfiteriaDAO compraConfiteriaDAO;
+    @Mock FuncionDAO funcionDAO;
+    @Mock PDFService pdfService;
+    @Mock ComprobanteJobDAO jobDAO;
+
+    // Transacción "de paso": ejecuta el trabajo directamente
+    TransactionManager transactionManager = new TransactionManager() {
+        @Override
+        public <T> T enTransaccion(java.util.function.Supplier<T> trabajo) {
+            return trabajo.get();
+        }
+    };
+
+    ComprobanteService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ComprobanteService(compraDAO, entradaDAO, compraConfiteriaDAO, funcionDAO,
+                pdfService, jobDAO, transactionManager, 1, 4, 3, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.detener();
+    }
+
+    private Compra compra(Integer id, String ruta) {
+        Compra c = new Compra();
+        c.setIdCompra(id);
+        c.setUsuarioId(11);
+        c.setRutaComprobantePdf(ruta);
+        return c;
+    }
+
+    @Test
+    void procesar_ok_guardaRutaYCompletaJob() {
+        when(jobDAO.tomar(eq(123), eq(3), anyInt())).thenReturn(true);
+        when(compraDAO.buscarPorId(123)).thenReturn(compra(123, null));
+        when(entradaDAO.listarPorCompra(123)).thenReturn(List.of());
+        when(compraConfiteriaDAO.listarPorCompra(123)).thenReturn(List.of());
+        when(pdfService.generarComprobantePDF(any(), anyList(), anyList(), anyMap())).thenReturn("out/c_123.pdf");
+
+        assertEquals("out/c_123.pdf", service.procesar(123));
+
+        verify(compraDAO).actualizarRutaComprobante(123, "out/c_123.pdf");
+        verify(jobDAO).marcarCompletado(123);
+        verify(compraDAO, never()).actualizar(any());
+    }
+
+    @Test
+    void procesar_falloPdf_marcaFallidoConEspera() {
+        when(jobDAO.tomar(eq(123), eq(3), anyInt())).thenReturn(true);
+        when(compraDAO.buscarPorId(123)).thenReturn(compra(123, null));
+        when(entradaDAO.listarPorCompra(123)).thenReturn(List.of());
+        when(compraConfiteriaDAO.listarPorCompra(123)).thenReturn(List.of());
+        when(pdfService.generarComprobantePDF(any(), anyList(), anyList(), anyMap()))
+                .thenThrow(new IllegalStateException("disco lleno"));
+        when(jobDAO.buscarPorCompra(123))
+                .thenReturn(new ComprobanteJob(123, EstadoComprobante.EN_PROCESO, 1, null, null, null));
+
+        assertThrows(IllegalStateException.class, () -> service.procesar(123));
+
+        verify(jobDAO).marcarFallido(123, "disco lleno", 5);
+        verify(jobDAO, never()).marcarCompletado(anyInt());
+    }
+
+    @Test
+    void procesar_yaCompletadoPorOtro_devuelveRutaSinGenerar() {
+        when(jobDAO.tomar(eq(123), eq(3), anyInt())).thenReturn(false);
+        when(jobDAO.buscarPorCompra(123))
+                .thenReturn(new ComprobanteJob(123, EstadoComprobante.COMPLETADO, 1, null, null, null));
+        when(compraDAO.buscarPorId(123)).thenReturn(compra(123, "out/c_123.pdf"));
+
+        assertEquals("out/c_123.pdf", service.procesar(123));
+        verifyNoInteractions(pdfService);
+    }
+
+    @Test
+    void esperaReintento_creceHastaElMaximo() {
+        assertEquals(5, ComprobanteService.esperaReintento(1));
+        assertEquals(10, ComprobanteService.esperaReintento(2));
+        assertEquals(20, ComprobanteService.esperaReintento(3));
+        assertEquals(300, ComprobanteService.esperaReintento(20));
+    }
+
+    @Test
+    void obtenerComprobante_archivoExiste_noEncola(@TempDir Path dir) throws Exception {
+        Path pdf = Files.createFile(dir.resolve("c_123.pdf"));
+        when(compraDAO.buscarPorId(123)).thenReturn(compra(123, pdf.toString()));
+
+        assertEquals(pdf.toString(), service.obtenerComprobante(123));
+        verifyNoInteractions(jobDAO, pdfService);
+    }
+
+    @Test
+    void obtenerComprobante_sinRuta_encolaYEsperaAlJob() {
+        when(compraDAO.buscarPorId(123)).thenReturn(compra(123, null));
+        when(jobDAO.tomar(eq(123), eq(3), anyInt())).thenReturn(true);
+        when(entradaDAO.listarPorCompra(123)).thenReturn(List.of());
+        when(compraConfiteriaDAO.listarPorCompra(123)).thenReturn(List.of());
+        when(pdfService.generarComprobantePDF(any(), anyList(), anyList(), anyMap())).thenReturn("out/c_123.pdf");
+
+        assertEquals("out/c_123.pdf", service.obtenerComprobante(123));
+
+        verify(jobDAO).encolar(123);
+        verify(jobDAO).marcarCompletado(123);
+    }
+
+    @Test
+    void obtenerComprobante_jobNoDisponible_lanzaValidacion() {
+        when(compraDAO.buscarPorId(123)).thenReturn(compra(123, null));
+        when(jobDAO.tomar(eq(123), eq(3), anyInt())).thenReturn(false);
+        when(jobDAO.buscarPorCompra(123))
+                .thenReturn(new ComprobanteJob(123, EstadoComprobante.EN_PROCESO, 1, null, null, null));
+
+        assertThrows(ValidacionException.class, () -> service.obtenerComprobante(123));
+        verifyNoInteractions(pdfService);
+    }
+}
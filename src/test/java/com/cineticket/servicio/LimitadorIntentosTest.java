@@ -0,0 +1,77 @@
+package com.cineticket.servicio;
+
+import com.cineticket.excepcion.AutenticacionException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimitadorIntentosTest {
+
+    private final AtomicLong reloj = new AtomicLong();
+
+    private LimitadorIntentos limitador(int capUsuario, int capTerminal) {
+        return new LimitadorIntentos(capUsuario, Duration.ofSeconds(10),
+                capTerminal, Duration.ofSeconds(1), "kiosco-1", reloj::get);
+    }
+
+    @Test
+    void consumir_agotaLaCubetaDelUsuario_yLaRecargaConElTiempo() {
+        LimitadorIntentos l = limitador(3, 100);
+
+        l.consumir("clau");
+        l.consumir("CLAU ");
+        l.consumir("clau");
+        AutenticacionException ex = assertThrows(AutenticacionException.class, () -> l.consumir("clau"));
+        assertTrue(ex.getMessage().contains("10 segundos"));
+        assertEquals(1, l.getRechazadosPorUsuario());
+
+        // Otro usuario tiene su propia cubeta
+        l.consumir("otro");
+
+        reloj.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        l.consumir("clau");
+        assertThrows(AutenticacionException.class, () -> l.consumir("clau"));
+        assertEquals(2, l.getRechazados());
+    }
+
+    @Test
+    void consumir_terminalAgotada_rechazaATodosLosUsuarios() {
+        LimitadorIntentos l = limitador(100, 2);
+
+        l.consumir("a");
+        l.consumir("b");
+        assertThrows(AutenticacionException.class, () -> l.consumir("c"));
+        assertEquals(1, l.getRechazadosPorTerminal());
+        assertEquals(0, l.getRechazadosPorUsuario());
+
+        reloj.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        l.consumir("c");
+    }
+
+    @Test
+    void consumir_rechazoDeLaTerminal_noCargaLaCubetaDelUsuario() {
+        LimitadorIntentos l = limitador(1, 1);
+
+        l.consumir("a");
+        // Ráfaga con la terminal agotada: se corta antes de tocar las cubetas por usuario
+        for (int i = 0; i < 5; i++) {
+            assertThrows(AutenticacionException.class, () -> l.consumir("x"));
+        }
+        assertEquals(5, l.getRechazadosPorTerminal());
+
+        reloj.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        l.consumir("x"); // su única ficha sigue intacta
+        assertEquals(0, l.getRechazadosPorUsuario());
+    }
+
+    @Test
+    void capacidadInvalida_lanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> limitador(0, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new LimitadorIntentos(1, Duration.ZERO, 1, Duration.ofSeconds(1), "t"));
+    }
+}
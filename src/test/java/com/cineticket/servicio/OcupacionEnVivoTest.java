@@ -0,0 +1,76 @@
+package com.cineticket.servicio;
+
+import com.cineticket.servicio.cache.OcupacionAsientosCache;
+import com.cineticket.servicio.dto.DeltaOcupacion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OcupacionEnVivoTest {
+
+    @Mock OcupacionAsientosCache ocupacionCache;
+
+    OcupacionEnVivo enVivo;
+    final BlockingQueue<DeltaOcupacion> recibidos = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        enVivo = new OcupacionEnVivo(ocupacionCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        enVivo.detener();
+    }
+
+    @Test
+    void cambio_entregaSoloLaDiferencia() throws Exception {
+        when(ocupacionCache.obtenerOcupados(2)).thenReturn(List.of(1, 2)).thenReturn(List.of(2, 3, 4));
+        enVivo.suscribir(2, recibidos::add);
+        verify(ocupacionCache).agregarOyente(enVivo);
+
+        enVivo.ocupacionModificada(2);
+
+        DeltaOcupacion delta = recibidos.poll(2, TimeUnit.SECONDS);
+        assertNotNull(delta);
+        assertEquals(2, delta.getFuncionId());
+        assertEquals(Set.of(3, 4), delta.getOcupados());
+        assertEquals(Set.of(1), delta.getLiberados());
+    }
+
+    @Test
+    void otraFuncion_noSeRevisa() throws Exception {
+        when(ocupacionCache.obtenerOcupados(2)).thenReturn(List.of(1));
+        enVivo.suscribir(2, recibidos::add);
+
+        enVivo.ocupacionModificada(9);
+
+        assertNull(recibidos.poll(200, TimeUnit.MILLISECONDS));
+        verify(ocupacionCache, never()).obtenerOcupados(9);
+    }
+
+    @Test
+    void suscripcionCancelada_noRecibeCambios() throws Exception {
+        when(ocupacionCache.obtenerOcupados(2)).thenReturn(List.of(1));
+        OcupacionEnVivo.Suscripcion s = enVivo.suscribir(2, recibidos::add);
+
+        s.cancelar();
+        enVivo.ocupacionModificada(2);
+
+        assertNull(recibidos.poll(200, TimeUnit.MILLISECONDS));
+        verify(ocupacionCache, times(1)).obtenerOcupados(2);
+    }
+}
@@ -0,0 +1,63 @@
+package com.cineticket.servicio;
+
+import com.cineticket.excepcion.ServicioOcupadoException;
+import com.cineticket.util.PasswordUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    @Test
+    void hash_usaElCostoConfigurado() {
+        PasswordHasher hasher = new PasswordHasher(5, Runnable::run);
+
+        String hash = hasher.hash("Abcdef12");
+
+        assertEquals(5, PasswordUtil.costoDe(hash));
+        assertTrue(hasher.verificar("Abcdef12", hash));
+        assertFalse(hasher.requiereRehash(hash));
+        assertTrue(hasher.requiereRehash(PasswordUtil.hashPassword("Abcdef12", 4)));
+        assertFalse(hasher.requiereRehash("no-es-bcrypt"));
+    }
+
+    @Test
+    void roundsFueraDeRango_lanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> new PasswordHasher(3, Runnable::run));
+        assertThrows(IllegalArgumentException.class, () -> new PasswordHasher(31, Runnable::run));
+    }
+
+    @Test
+    void ejecutar_poolSaturado_fallaConServicioOcupadoSinEncolar() throws Exception {
+        PasswordHasher hasher = new PasswordHasher(4, 1, 1);
+        CountDownLatch bloqueo = new CountDownLatch(1);
+        CountDownLatch enCurso = new CountDownLatch(1);
+        try {
+            CompletableFuture<Integer> ocupado = hasher.ejecutar(() -> {
+                enCurso.countDown();
+                bloqueo.await();
+                return 1;
+            });
+            assertTrue(enCurso.await(5, TimeUnit.SECONDS));
+            CompletableFuture<Integer> enCola = hasher.ejecutar(() -> 2);
+
+            CompletableFuture<Integer> rechazado = hasher.ejecutar(() -> 3);
+
+            CompletionException ex = assertThrows(CompletionException.class, rechazado::join);
+            assertInstanceOf(ServicioOcupadoException.class, ex.getCause());
+            assertEquals(1, hasher.getRechazados());
+
+            bloqueo.countDown();
+            assertEquals(1, ocupado.get(5, TimeUnit.SECONDS));
+            assertEquals(2, enCola.get(5, TimeUnit.SECONDS));
+        } finally {
+            bloqueo.countDown();
+            hasher.cerrar();
+        }
+    }
+}
@@ -1,18 +1,11 @@
 package com.cineticket.servicio;
 
-import com.cineticket.dao.CompraConfiteriaDAO;
-import com.cineticket.dao.CompraDAO;
-import com.cineticket.dao.EntradaDAO;
-import com.cineticket.dao.FuncionDAO;
-import com.cineticket.dao.PeliculaDAO;
+import com.cineticket.dao.ReporteDAO;
 import com.cineticket.enums.Rol;
 import com.cineticket.excepcion.AutenticacionException;
-import com.cineticket.modelo.Compra;
-import com.cineticket.modelo.CompraConfiteria;
-import com.cineticket.modelo.Entrada;
-import com.cineticket.modelo.Funcion;
-import com.cineticket.modelo.Pelicula;
+import com.cineticket.modelo.ResumenVentas;
 import com.cineticket.modelo.Usuario;
+import com.cineticket.modelo.VentasPelicula;
 import com.cineticket.util.SessionManager;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -23,7 +16,6 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,19 +24,13 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class ReporteServiceTest {
 
-    @Mock CompraDAO compraDAO;
-    @Mock EntradaDAO entradaDAO;
-    @Mock CompraConfiteriaDAO compraConfiteriaDAO;
-    @Mock PeliculaDAO peliculaDAO;
-    @Mock FuncionDAO funcionDAO;
+    @Mock ReporteDAO reporteDAO;
 
     ReporteService service;
 
     @BeforeEach
     void setUp() {
-        service = new ReporteService(
-                compraDAO, entradaDAO, compraConfiteriaDAO, peliculaDAO, funcionDAO
-        );
+        service = new ReporteService(reporteDAO);
         // Dejamos la sesión limpia y luego seteamos admin
         SessionManager.getInstance().cerrarSesion();
         Usuario admin = new Usuario();
@@ -59,48 +45,15 @@ class ReporteServiceTest {
 
     // ======================= Helpers de fixtures =======================
 
-    private Compra compra(int id, int usuarioId, LocalDateTime fecha, String totEntradas, String totConf, String totGeneral) {
-        Compra c = new Compra();
-        c.setIdCompra(id);
-        c.setUsuarioId(usuarioId);
-        c.setFechaHoraCompra(fecha);
-        c.setTotalEntradas(new BigDecimal(totEntradas));
-        c.setTotalConfiteria(new BigDecimal(totConf));
-        c.setTotalGeneral(new BigDecimal(totGeneral));
-        return c;
+    private ResumenVentas resumen(int compras, int entradas, int combos, String ingEntradas, String ingConf) {
+        BigDecimal e = new BigDecimal(ingEntradas);
+        BigDecimal c = new BigDecimal(ingConf);
+        return new ResumenVentas(compras, entradas, combos, e, c, e.add(c));
     }
 
-    private Entrada entrada(int compraId, int funcionId, int asientoId, String precio) {
-        Entrada e = new Entrada();
-        e.setCompraId(compraId);
-        e.setFuncionId(funcionId);
-        e.setAsientoId(asientoId);
-        e.setPrecioUnitario(new BigDecimal(precio));
-        return e;
-    }
-
-    private Funcion funcion(int id, int peliculaId) {
-        Funcion f = new Funcion();
-        f.setIdFuncion(id);
-        f.setPeliculaId(peliculaId);
-        return f;
-    }
-
-    private Pelicula pelicula(int id, String titulo) {
-        Pelicula p = new Pelicula();
-        p.setIdPelicula(id);
-        p.setTitulo(titulo);
-        return p;
-    }
-
-    private CompraConfiteria item(int compraId, int comboId, int cantidad, String precioUnitario) {
-        CompraConfiteria i = new CompraConfiteria();
-        i.setCompraId(compraId);
-        i.setComboId(comboId);
-        i.setCantidad(cantidad);
-        i.setPrecioUnitario(new BigDecimal(precioUnitario));
-        // subtotal es GENERATED en BD; para el servicio no es necesario
-        return i;
+    private VentasPelicula ventas(int peliculaId, String titulo, int entradas, String ingresos, Integer... funciones) {
+        return new VentasPelicula(peliculaId, titulo, entradas, new BigDecimal(ingresos),
+                new LinkedHashSet<>(Arrays.asList(funciones)));
     }
 
     // ======================= Tests =======================
@@ -108,38 +61,17 @@ class ReporteServiceTest {
     @Test
     void generarReporteVentasPorDia_ok() {
         LocalDate dia = LocalDate.of(2025, 10, 31);
-        LocalDateTime h09 = dia.atTime(9, 10);
-        LocalDateTime h14 = dia.atTime(14, 30);
-        LocalDateTime h21 = dia.atTime(21, 45);
 
-        // 3 compras ese día
-        Compra c1 = compra(1, 101, h09, "36000", "0", "36000");
-        Compra c2 = compra(2, 102, h14, "18000", "25000", "43000");
-        Compra c3 = compra(3, 103, h21, "0", "12000", "12000");
+        // 3 compras ese día, en horas distintas (la BD ya devuelve el agregado por hora)
+        Map<Integer, ResumenVentas> porHoraBD = new LinkedHashMap<>();
+        porHoraBD.put(9,  resumen(1, 2, 0, "36000", "0"));
+        porHoraBD.put(14, resumen(1, 1, 2, "18000", "25000"));
+        porHoraBD.put(21, resumen(1, 0, 1, "0", "12000"));
 
-        when(compraDAO.obtenerComprasEntreFechas(
+        when(reporteDAO.obtenerVentasPorHora(
                 eq(dia.atStartOfDay()),
                 eq(dia.plusDays(1).atStartOfDay().minusNanos(1))
-        )).thenReturn(List.of(c1, c2, c3));
-
-        // Entradas por compra
-        when(entradaDAO.listarPorCompra(1)).thenReturn(List.of(
-                entrada(1, 10, 7, "18000"),
-                entrada(1, 10, 8, "18000")
-        ));
-        when(entradaDAO.listarPorCompra(2)).thenReturn(List.of(
-                entrada(2, 11, 1, "18000")
-        ));
-        when(entradaDAO.listarPorCompra(3)).thenReturn(Collections.emptyList());
-
-        // Confitería por compra (solo cuenta cantidades)
-        when(compraConfiteriaDAO.listarPorCompra(1)).thenReturn(Collections.emptyList());
-        when(compraConfiteriaDAO.listarPorCompra(2)).thenReturn(List.of(
-                item(2, 20, 2, "12500")
-        ));
-        when(compraConfiteriaDAO.listarPorCompra(3)).thenReturn(List.of(
-                item(3, 22, 1, "12000")
-        ));
+        )).thenReturn(porHoraBD);
 
         Map<String, Object> rep = service.generarReporteVentasPorDia(dia);
 
@@ -154,56 +86,86 @@ class ReporteServiceTest {
 
         @SuppressWarnings("unchecked")
         Map<Integer, BigDecimal> porHora = (Map<Integer, BigDecimal>) rep.get("porHora");
+        assertEquals(24, porHora.size());
         assertEquals(new BigDecimal("36000"), porHora.get(9));
         assertEquals(new BigDecimal("43000"), porHora.get(14));
         assertEquals(new BigDecimal("12000"), porHora.get(21));
+        assertEquals(BigDecimal.ZERO, porHora.get(0));
     }
 
     @Test
-    void generarReporteVentasPorPelicula_ok() {
-        int peliId = 100;
-        LocalDate ini = LocalDate.of(2025, 10, 1);
-        LocalDate fin = LocalDate.of(2025, 10, 31);
+    void generarReporteVentasPorDia_sinVentas_todoEnCero() {
+        LocalDate dia = LocalDate.of(2025, 10, 30);
+        when(reporteDAO.obtenerVentasPorHora(any(), any())).thenReturn(Collections.emptyMap());
 
-        // Película y funciones
-        when(peliculaDAO.buscarPorId(peliId)).thenReturn(pelicula(peliId, "Interestelar 2"));
+        Map<String, Object> rep = service.generarReporteVentasPorDia(dia);
+
+        assertEquals(0, rep.get("totalCompras"));
+        assertEquals(new BigDecimal("0.00"), rep.get("ingresosTotales"));
+    }
 
-        Funcion fA = funcion(50, peliId);
-        Funcion fB = funcion(51, 999); // otra película
+    @Test
+    void generarSerieVentasDiaria_rellenaDiasSinVentas() {
+        LocalDate ini = LocalDate.of(2025, 10, 1);
+        LocalDate fin = LocalDate.of(2025, 10, 3);
 
-        when(funcionDAO.buscarPorId(50)).thenReturn(fA);
-        when(funcionDAO.buscarPorId(51)).thenReturn(fB);
+        // Solo hubo ventas el 1 y el 3
+        Map<LocalDate, ResumenVentas> porDia = new LinkedHashMap<>();
+        porDia.put(ini, resumen(2, 3, 1, "54000", "12000"));
+        porDia.put(fin, resumen(1, 1, 0, "18000", "0"));
 
-        // Compras en el rango
-        Compra c1 = compra(1, 10, ini.atTime(10, 0), "18000", "0", "18000");
-        Compra c2 = compra(2, 10, ini.plusDays(5).atTime(20, 0), "36000", "0", "36000");
-        when(compraDAO.obtenerComprasEntreFechas(
+        when(reporteDAO.obtenerVentasPorDia(
                 eq(ini.atStartOfDay()),
                 eq(fin.plusDays(1).atStartOfDay().minusNanos(1))
-        )).thenReturn(List.of(c1, c2));
+        )).thenReturn(porDia);
 
-        // Entradas por compra:
-        // c1: 1 entrada de la película (funcion 50)
-        when(entradaDAO.listarPorCompra(1)).thenReturn(List.of(
-                entrada(1, 50, 1, "18000")
-        ));
-        // c2: 1 entrada de la película (50) y 1 de otra (51)
-        when(entradaDAO.listarPorCompra(2)).thenReturn(List.of(
-                entrada(2, 50, 2, "18000"),
-                entrada(2, 51, 3, "20000")
-        ));
+        List<Map<String, Object>> serie = service.generarSerieVentasDiaria(ini, fin);
+
+        assertEquals(3, serie.size());
+        assertEquals(ini, serie.get(0).get("fecha"));
+        assertEquals(3, serie.get(0).get("totalEntradas"));
+        assertEquals(new BigDecimal("66000.00"), serie.get(0).get("ingresosTotales"));
+
+        assertEquals(LocalDate.of(2025, 10, 2), serie.get(1).get("fecha"));
+        assertEquals(0, serie.get(1).get("totalCompras"));
+        assertEquals(new BigDecimal("0.00"), serie.get(1).get("ingresosTotales"));
+
+        assertEquals(1, serie.get(2).get("totalEntradas"));
+        verify(reporteDAO, times(1)).obtenerVentasPorDia(any(), any());
+    }
+
+    @Test
+    void generarReporteVentasPorPelicula_ok() {
+        int peliId = 100;
+        LocalDate ini = LocalDate.of(2025, 10, 1);
+        LocalDate fin = LocalDate.of(2025, 10, 31);
+
+        when(reporteDAO.obtenerVentasPelicula(
+                eq(peliId),
+                eq(ini.atStartOfDay()),
+                eq(fin.plusDays(1).atStartOfDay().minusNanos(1))
+        )).thenReturn(ventas(peliId, "Interestelar 2", 2, "36000", 50));
 
         Map<String, Object> rep = service.generarReporteVentasPorPelicula(peliId, ini, fin);
 
         assertEquals(peliId, rep.get("peliculaId"));
         assertEquals("Interestelar 2", rep.get("titulo"));
-        assertEquals(2, rep.get("entradasVendidas")); // solo las con funcion->peliculaId=100
+        assertEquals(2, rep.get("entradasVendidas"));
         assertEquals(new BigDecimal("36000.00"), rep.get("ingresosAproxEntradas"));
 
         @SuppressWarnings("unchecked")
         Set<Integer> funciones = (Set<Integer>) rep.get("funcionesAfectadas");
         assertTrue(funciones.contains(50));
-        assertEquals(1, funciones.size()); // Solo la 50
+        assertEquals(1, funciones.size());
+    }
+
+    @Test
+    void generarReporteVentasPorPelicula_peliculaInexistente_lanzaIllegalArgument() {
+        LocalDate ini = LocalDate.of(2025, 10, 1);
+        when(reporteDAO.obtenerVentasPelicula(eq(999), any(), any())).thenReturn(null);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.generarReporteVentasPorPelicula(999, ini, ini));
     }
 
     @Test
@@ -217,7 +179,7 @@ class ReporteServiceTest {
         ventas.put(11, 2);
         ventas.put(12, 7);
 
-        when(compraConfiteriaDAO.obtenerVentasPorCombo(
+        when(reporteDAO.obtenerVentasPorCombo(
                 eq(ini.atStartOfDay()),
                 eq(fin.plusDays(1).atStartOfDay().minusNanos(1))
         )).thenReturn(ventas);
@@ -237,41 +199,21 @@ class ReporteServiceTest {
         LocalDate ini = LocalDate.of(2025, 10, 1);
         LocalDate fin = LocalDate.of(2025, 10, 31);
 
-        // Compras en el rango
-        Compra c1 = compra(1, 10, ini.atTime(10, 0), "36000", "0", "36000");
-        Compra c2 = compra(2, 11, ini.atTime(12, 0), "54000", "0", "54000");
-        when(compraDAO.obtenerComprasEntreFechas(
+        // La BD ya devuelve el top ordenado y limitado
+        when(reporteDAO.obtenerTopPeliculas(
+                eq(5),
                 eq(ini.atStartOfDay()),
                 eq(fin.plusDays(1).atStartOfDay().minusNanos(1))
-        )).thenReturn(List.of(c1, c2));
-
-        // Entradas por compra (mapean a funciones/películas)
-        // c1: 2 entradas funcion 50 -> película 100
-        when(entradaDAO.listarPorCompra(1)).thenReturn(List.of(
-                entrada(1, 50, 1, "18000"),
-                entrada(1, 50, 2, "18000")
-        ));
-        // c2: 1 entrada funcion 50 (película 100), 2 entradas funcion 51 (película 101)
-        when(entradaDAO.listarPorCompra(2)).thenReturn(List.of(
-                entrada(2, 50, 1, "18000"),
-                entrada(2, 51, 2, "20000"),
-                entrada(2, 51, 3, "20000")
+        )).thenReturn(List.of(
+                ventas(100, "Película A", 3, "54000", 50),
+                ventas(101, "Película B", 2, "40000", 51)
         ));
 
-        // Funciones -> películas
-        when(funcionDAO.buscarPorId(50)).thenReturn(funcion(50, 100));
-        when(funcionDAO.buscarPorId(51)).thenReturn(funcion(51, 101));
-
-        // Títulos
-        when(peliculaDAO.buscarPorId(100)).thenReturn(pelicula(100, "Película A"));
-        when(peliculaDAO.buscarPorId(101)).thenReturn(pelicula(101, "Película B"));
-
         var top = service.obtenerTopPeliculas(5, ini, fin);
         assertEquals(2, top.size());
 
-        // Película 100: 3 entradas → 54,000
-        // Película 101: 2 entradas → 40,000
         assertEquals(100, top.get(0).get("peliculaId"));
+        assertEquals("Película A", top.get(0).get("titulo"));
         assertEquals(3, top.get(0).get("entradasVendidas"));
         assertEquals(new BigDecimal("54000.00"), top.get(0).get("ingresosAproxEntradas"));
 
@@ -280,17 +222,24 @@ class ReporteServiceTest {
         assertEquals(new BigDecimal("40000.00"), top.get(1).get("ingresosAproxEntradas"));
     }
 
+    @Test
+    void obtenerTopPeliculas_limiteInvalido_usa5() {
+        LocalDate ini = LocalDate.of(2025, 10, 1);
+        when(reporteDAO.obtenerTopPeliculas(eq(5), any(), any())).thenReturn(List.of());
+
+        assertTrue(service.obtenerTopPeliculas(0, ini, ini).isEmpty());
+        verify(reporteDAO).obtenerTopPeliculas(eq(5), any(), any());
+    }
+
     @Test
     void calcularIngresosTotales_ok() {
         LocalDate ini = LocalDate.of(2025, 10, 10);
         LocalDate fin = LocalDate.of(2025, 10, 10);
 
-        Compra c1 = compra(1, 1, ini.atStartOfDay().plusHours(9),  "18000", "12000", "30000");
-        Compra c2 = compra(2, 2, ini.atStartOfDay().plusHours(12), "36000", "0",     "36000");
-        when(compraDAO.obtenerComprasEntreFechas(
+        when(reporteDAO.calcularIngresosTotales(
                 eq(ini.atStartOfDay()),
                 eq(fin.plusDays(1).atStartOfDay().minusNanos(1))
-        )).thenReturn(List.of(c1, c2));
+        )).thenReturn(new BigDecimal("66000"));
 
         var total = service.calcularIngresosTotales(ini, fin);
         assertEquals(new BigDecimal("66000.00"), total);
@@ -309,7 +258,7 @@ class ReporteServiceTest {
         assertThrows(AutenticacionException.class,
                 () -> service.generarReporteVentasPorDia(LocalDate.now()));
 
-        verifyNoInteractions(compraDAO, entradaDAO, compraConfiteriaDAO, peliculaDAO, funcionDAO);
+        verifyNoInteractions(reporteDAO);
     }
 
     @Test
@@ -319,6 +268,6 @@ class ReporteServiceTest {
         assertThrows(AutenticacionException.class,
                 () -> service.generarReporteVentasPorDia(LocalDate.now()));
 
-        verifyNoInteractions(compraDAO, entradaDAO, compraConfiteriaDAO, peliculaDAO, funcionDAO);
+        verifyNoInteractions(reporteDAO);
     }
 }
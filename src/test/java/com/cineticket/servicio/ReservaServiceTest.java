@@ -2,12 +2,11 @@ package com.cineticket.servicio;
 
 import com.cineticket.dao.EntradaDAO;
 import com.cineticket.dao.FuncionDAO;
-import com.cineticket.enums.EstadoEntrada;
 import com.cineticket.enums.EstadoFuncion;
 import com.cineticket.excepcion.ValidacionException;
 import com.cineticket.excepcion.AsientoNoDisponibleException;
-import com.cineticket.modelo.Entrada;
 import com.cineticket.modelo.Funcion;
+import com.cineticket.servicio.cache.OcupacionAsientosCache;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -17,6 +16,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -26,6 +26,9 @@ class ReservaServiceTest {
 
     @Mock EntradaDAO entradaDAO;
     @Mock FuncionDAO funcionDAO;
+    @Mock OcupacionAsientosCache ocupacionCache;
+    @Mock SeatHoldService seatHoldService;
+    @Mock OcupacionEnVivo ocupacionEnVivo;
 
     @InjectMocks ReservaService service;
 
@@ -43,28 +46,39 @@ class ReservaServiceTest {
 
     @Test
     void ocupados_ok() {
-        Entrada e = new Entrada();
-        e.setAsientoId(5);
-        e.setEstadoEntrada(EstadoEntrada.ACTIVA);    // ✅ usar el enum
-
-        when(entradaDAO.listarPorFuncion(2)).thenReturn(List.of(e));
+        when(ocupacionCache.obtenerOcupados(2)).thenReturn(List.of(5));
 
         var res = service.obtenerAsientosOcupadosPorFuncion(2);
         assertEquals(List.of(5), res);
+        // Se sirve desde la caché: no recorre las entradas de la función
+        verifyNoInteractions(entradaDAO);
+    }
+
+    @Test
+    void suscribirOcupacion_sinFuncion_lanza() {
+        assertThrows(ValidacionException.class, () -> service.suscribirOcupacion(null, d -> {}));
+        verifyNoInteractions(ocupacionCache);
     }
 
     @Test
     void verificarDisponibilidad_ok() {
-        when(entradaDAO.verificarAsientoDisponible(2, 7)).thenReturn(true);
-        when(entradaDAO.verificarAsientoDisponible(2, 8)).thenReturn(true);
+        when(entradaDAO.buscarAsientosOcupados(2, List.of(7, 8))).thenReturn(Set.of());
         assertTrue(service.verificarDisponibilidadAsientos(2, List.of(7, 8)));
+        verify(entradaDAO, never()).verificarAsientoDisponible(anyInt(), anyInt());
+    }
+
+    @Test
+    void verificarDisponibilidad_algunoOcupado_false() {
+        when(entradaDAO.buscarAsientosOcupados(2, List.of(7, 8))).thenReturn(Set.of(8));
+        assertFalse(service.verificarDisponibilidadAsientos(2, List.of(7, 8)));
+        // La caché se corrige con lo que dijo la BD
+        verify(ocupacionCache).marcarOcupados(2, Set.of(8));
     }
 
     @Test
     void reservar_ok() {
         when(funcionDAO.buscarPorId(2)).thenReturn(funcionProgramada());
-        when(entradaDAO.verificarAsientoDisponible(2, 7)).thenReturn(true);
-        when(entradaDAO.verificarAsientoDisponible(2, 8)).thenReturn(true);
+        when(entradaDAO.buscarAsientosOcupados(2, List.of(7, 8))).thenReturn(Set.of());
 
         var entradas = service.reservarAsientos(2, List.of(7, 8));
         assertEquals(2, entradas.size());
@@ -76,7 +90,7 @@ class ReservaServiceTest {
     @Test
     void reservar_asientoOcupado_lanza() {
         when(funcionDAO.buscarPorId(2)).thenReturn(funcionProgramada());
-        when(entradaDAO.verificarAsientoDisponible(2, 7)).thenReturn(false);
+        when(entradaDAO.buscarAsientosOcupados(2, List.of(7))).thenReturn(Set.of(7));
 
         assertThrows(AsientoNoDisponibleException.class,
                 () -> service.reservarAsientos(2, List.of(7)));
@@ -88,6 +102,35 @@ class ReservaServiceTest {
                 () -> service.reservarAsientos(2, List.of(1,2,3,4,5,6)));
 
         // Asegura que no tocó DAO alguno (corta por la validación de límite)
-        verifyNoInteractions(funcionDAO, entradaDAO);
+        verifyNoInteractions(funcionDAO, entradaDAO, seatHoldService);
+    }
+
+    @Test
+    void reservar_asientoRetenidoPorOtro_lanza() {
+        when(funcionDAO.buscarPorId(2)).thenReturn(funcionProgramada());
+        when(entradaDAO.buscarAsientosOcupados(2, List.of(7, 8))).thenReturn(Set.of());
+        when(seatHoldService.retenidosPorOtros(2, 11, List.of(7, 8))).thenReturn(Set.of(8));
+
+        var ex = assertThrows(AsientoNoDisponibleException.class,
+                () -> service.reservarAsientos(2, 11, List.of(7, 8)));
+        assertTrue(ex.getMessage().contains("8"));
+    }
+
+    @Test
+    void retener_ok_delegaEnSeatHold() {
+        when(entradaDAO.buscarAsientosOcupados(2, List.of(7, 8))).thenReturn(Set.of());
+
+        service.retenerAsientos(2, 11, List.of(7, 8));
+
+        verify(seatHoldService).retener(2, 11, List.of(7, 8));
+    }
+
+    @Test
+    void retener_asientoVendido_lanzaSinRetener() {
+        when(entradaDAO.buscarAsientosOcupados(2, List.of(7))).thenReturn(Set.of(7));
+
+        assertThrows(AsientoNoDisponibleException.class,
+                () -> service.retenerAsientos(2, 11, List.of(7)));
+        verifyNoInteractions(seatHoldService);
     }
 }
@@ -0,0 +1,126 @@
+package com.cineticket.servicio;
+
+import com.cineticket.dao.SeatHoldDAO;
+import com.cineticket.dao.common.DaoException;
+import com.cineticket.dao.common.TransactionManager;
+import com.cineticket.excepcion.AsientoNoDisponibleException;
+import com.cineticket.excepcion.ValidacionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatHoldServiceTest {
+
+    @Mock SeatHoldDAO seatHoldDAO;
+
+    // Transacción "de paso": ejecuta el trabajo directamente
+    TransactionManager transactionManager = new TransactionManager() {
+        @Override
+        public <T> T enTransaccion(java.util.function.Supplier<T> trabajo) {
+            return trabajo.get();
+        }
+    };
+
+    SeatHoldService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new SeatHoldService(seatHoldDAO, transactionManager, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void retener_ok_reemplazaSeleccionAnteriorEnBD() {
+        when(seatHoldDAO.adquirir(2, 11, Set.of(7, 8), 300)).thenReturn(Set.of(7, 8));
+
+        service.retener(2, 11, List.of(7, 8));
+
+        var orden = inOrder(seatHoldDAO);
+        orden.verify(seatHoldDAO).liberar(2, 11);
+        orden.verify(seatHoldDAO).adquirir(2, 11, Set.of(7, 8), 300);
+    }
+
+    @Test
+    void retener_conflictoLocal_lanzaSinIrABD() {
+        when(seatHoldDAO.adquirir(2, 11, Set.of(7), 300)).thenReturn(Set.of(7));
+        service.retener(2, 11, List.of(7));
+        clearInvocations(seatHoldDAO);
+
+        assertThrows(AsientoNoDisponibleException.class, () -> service.retener(2, 12, List.of(7)));
+        verifyNoInteractions(seatHoldDAO);
+    }
+
+    @Test
+    void retener_conflictoEnBD_lanzaYDeshaceLocal() {
+        // Otra instancia ya tiene el 8
+        when(seatHoldDAO.adquirir(2, 11, Set.of(7, 8), 300)).thenReturn(Set.of(7));
+
+        var ex = assertThrows(AsientoNoDisponibleException.class, () -> service.retener(2, 11, List.of(7, 8)));
+        assertTrue(ex.getMessage().contains("8"));
+
+        // El 7 no quedó retenido en memoria: otro usuario lo puede tomar
+        when(seatHoldDAO.adquirir(2, 12, Set.of(7), 300)).thenReturn(Set.of(7));
+        assertDoesNotThrow(() -> service.retener(2, 12, List.of(7)));
+    }
+
+    @Test
+    void retener_conflictoEnBD_restauraLaRetencionAnteriorDelUsuario() {
+        when(seatHoldDAO.adquirir(2, 11, Set.of(7), 300)).thenReturn(Set.of(7));
+        service.retener(2, 11, List.of(7));
+
+        // Amplía la selección a 7 y 8, pero el 8 lo tiene otra instancia: rollback en BD
+        when(seatHoldDAO.adquirir(2, 11, Set.of(7, 8), 300)).thenReturn(Set.of(7));
+        assertThrows(AsientoNoDisponibleException.class, () -> service.retener(2, 11, List.of(7, 8)));
+        clearInvocations(seatHoldDAO);
+
+        // El 7 sigue retenido por el usuario 11 también en memoria (como en la BD)
+        assertEquals(Set.of(7), service.retenidosPorOtros(2, 12, List.of(7)));
+        verifyNoInteractions(seatHoldDAO);
+    }
+
+    @Test
+    void retenidosPorOtros_usaMemoriaAntesQueBD() {
+        when(seatHoldDAO.adquirir(2, 11, Set.of(7), 300)).thenReturn(Set.of(7));
+        service.retener(2, 11, List.of(7));
+
+        assertEquals(Set.of(7), service.retenidosPorOtros(2, 12, List.of(7, 8)));
+        verify(seatHoldDAO, never()).buscarRetenidosPorOtros(anyInt(), any(), anyCollection());
+    }
+
+    @Test
+    void retenidosPorOtros_propioUsuario_consultaBD() {
+        when(seatHoldDAO.adquirir(2, 11, Set.of(7), 300)).thenReturn(Set.of(7));
+        when(seatHoldDAO.buscarRetenidosPorOtros(2, 11, List.of(7))).thenReturn(Set.of());
+        service.retener(2, 11, List.of(7));
+
+        assertTrue(service.retenidosPorOtros(2, 11, List.of(7)).isEmpty());
+    }
+
+    @Test
+    void liberar_falloEnBD_noLanzaYLiberaMemoria() {
+        when(seatHoldDAO.adquirir(2, 11, Set.of(7), 300)).thenReturn(Set.of(7));
+        service.retener(2, 11, List.of(7));
+        when(seatHoldDAO.liberar(2, 11)).thenThrow(new DaoException("sin conexión"));
+
+        assertDoesNotThrow(() -> service.liberar(2, 11));
+
+        when(seatHoldDAO.buscarRetenidosPorOtros(2, 12, List.of(7))).thenReturn(Set.of());
+        assertTrue(service.retenidosPorOtros(2, 12, List.of(7)).isEmpty());
+    }
+
+    @Test
+    void retener_sinAsientos_lanzaValidacion() {
+        assertThrows(ValidacionException.class, () -> service.retener(2, 11, List.of()));
+        verifyNoInteractions(seatHoldDAO);
+    }
+}
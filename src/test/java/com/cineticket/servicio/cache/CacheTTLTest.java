@@ -0,0 +1,101 @@
+package com.cineticket.servicio.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheTTLTest {
+
+    private final AtomicLong reloj = new AtomicLong();
+    private CacheTTL<Integer, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CacheTTL<>("prueba", 2, Duration.ofSeconds(10), reloj::get);
+    }
+
+    @Test
+    void obtener_segundaLectura_seSirveDeMemoria() {
+        AtomicInteger cargas = new AtomicInteger();
+
+        assertEquals("uno", cache.obtener(1, () -> { cargas.incrementAndGet(); return "uno"; }));
+        assertEquals("uno", cache.obtener(1, () -> { cargas.incrementAndGet(); return "otro"; }));
+
+        assertEquals(1, cargas.get());
+        CacheTTL.Estadisticas est = cache.estadisticas();
+        assertEquals(1, est.getAciertos());
+        assertEquals(1, est.getFallos());
+        assertEquals(0.5, est.getTasaAciertos(), 1e-9);
+    }
+
+    @Test
+    void obtener_nulo_noSeGuarda() {
+        assertNull(cache.obtener(1, () -> null));
+        assertEquals(0, cache.tamanio());
+        assertEquals("uno", cache.obtener(1, () -> "uno"));
+    }
+
+    @Test
+    void superaMaximo_descartaLaMenosUsada() {
+        cache.obtener(1, () -> "uno");
+        cache.obtener(2, () -> "dos");
+        cache.obtener(1, () -> "x");          // 1 pasa a ser la más reciente
+        cache.obtener(3, () -> "tres");       // sale 2
+
+        assertEquals(2, cache.tamanio());
+        assertEquals("uno", cache.obtenerSiPresente(1));
+        assertNull(cache.obtenerSiPresente(2));
+    }
+
+    @Test
+    void entradaVencida_seVuelveACargar() {
+        cache.obtener(1, () -> "viejo");
+        reloj.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertEquals("nuevo", cache.obtener(1, () -> "nuevo"));
+    }
+
+    @Test
+    void ttlCero_noVence() {
+        CacheTTL<Integer, String> sinTtl = new CacheTTL<>("sin-ttl", 2, Duration.ZERO, reloj::get);
+        sinTtl.obtener(1, () -> "uno");
+        reloj.addAndGet(Duration.ofDays(365).toNanos());
+
+        assertEquals("uno", sinTtl.obtenerSiPresente(1));
+    }
+
+    @Test
+    void cargaQueSeCruzaConInvalidacion_noSeGuarda() {
+        String leido = cache.obtener(1, () -> {
+            cache.limpiar();                  // un admin modifica mientras se consulta la BD
+            return "viejo";
+        });
+
+        assertEquals("viejo", leido);
+        assertNull(cache.obtenerSiPresente(1));
+    }
+
+    @Test
+    void guardar_conVersionAnterior_seDescarta() {
+        long version = cache.version();
+        cache.invalidar(1);
+        cache.guardar(1, "viejo", version);
+        assertEquals(0, cache.tamanio());
+
+        cache.guardar(1, "nuevo", cache.version());
+        assertEquals("nuevo", cache.obtenerSiPresente(1));
+    }
+
+    @Test
+    void constructor_maximoInvalido_lanza() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CacheTTL<Integer, String>("x", 0, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CacheTTL<Integer, String>("x", 1, Duration.ofSeconds(-1)));
+    }
+}
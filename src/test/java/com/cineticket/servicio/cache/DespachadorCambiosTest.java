@@ -0,0 +1,80 @@
+package com.cineticket.servicio.cache;
+
+import com.cineticket.modelo.ComboConfiteria;
+import com.cineticket.modelo.Pelicula;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DespachadorCambiosTest {
+
+    @Mock OyenteCambios oyente;
+    @Mock OyenteCambios otro;
+
+    DespachadorCambios despachador;
+
+    @BeforeEach
+    void setUp() {
+        despachador = new DespachadorCambios();
+        despachador.registrar(oyente);
+        despachador.registrar(otro);
+    }
+
+    @Test
+    void parsear_tipoEId() {
+        assertEquals(new EventoCambio(EventoCambio.Tipo.ENTRADA, 42), EventoCambio.parsear("entrada:42"));
+        assertEquals(new EventoCambio(EventoCambio.Tipo.COMBO, null), EventoCambio.parsear("combo:"));
+        assertEquals(new EventoCambio(EventoCambio.Tipo.PELICULA, null), EventoCambio.parsear("pelicula"));
+        assertNull(EventoCambio.parsear("sala:1"));
+        assertNull(EventoCambio.parsear(null));
+    }
+
+    @Test
+    void despachar_avisoValido_llegaATodos() {
+        despachador.despachar("funcion:7");
+
+        EventoCambio esperado = new EventoCambio(EventoCambio.Tipo.FUNCION, 7);
+        verify(oyente).alCambiar(esperado);
+        verify(otro).alCambiar(esperado);
+    }
+
+    @Test
+    void despachar_avisoDesconocido_seIgnora() {
+        despachador.despachar("usuario:3");
+
+        verifyNoInteractions(oyente, otro);
+    }
+
+    @Test
+    void despachar_oyenteFalla_losDemasIgualReciben() {
+        doThrow(new IllegalStateException("boom")).when(oyente).alCambiar(any());
+
+        despachador.despachar(EventoCambio.todo());
+
+        verify(otro).alCambiar(EventoCambio.todo());
+    }
+
+    @Test
+    void catalogo_soloInvalidaLaRegionAfectada() {
+        CatalogoCache catalogo = new CatalogoCache(10, Duration.ZERO);
+        catalogo.peliculas().obtener(1, Pelicula::new);
+        catalogo.combos().obtener(1, ComboConfiteria::new);
+
+        catalogo.alCambiar(new EventoCambio(EventoCambio.Tipo.COMBO, 1));
+        catalogo.alCambiar(new EventoCambio(EventoCambio.Tipo.ENTRADA, 9));
+
+        assertEquals(1, catalogo.peliculas().tamanio());
+        assertEquals(0, catalogo.combos().tamanio());
+
+        catalogo.alCambiar(EventoCambio.todo());
+        assertEquals(0, catalogo.peliculas().tamanio());
+    }
+}
@@ -0,0 +1,231 @@
+package com.cineticket.servicio.cache;
+
+import com.cineticket.dao.AsientoDAO;
+import com.cineticket.dao.EntradaDAO;
+import com.cineticket.dao.FuncionDAO;
+import com.cineticket.modelo.Asiento;
+import com.cineticket.modelo.Funcion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OcupacionAsientosCacheTest {
+
+    @Mock EntradaDAO entradaDAO;
+    @Mock FuncionDAO funcionDAO;
+    @Mock AsientoDAO asientoDAO;
+
+    final AtomicLong reloj = new AtomicLong();
+    OcupacionAsientosCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new OcupacionAsientosCache(entradaDAO, funcionDAO, asientoDAO, 2, reloj::get);
+    }
+
+    // ======================= Helpers de fixtures =======================
+
+    private Funcion funcion(int id, int salaId, LocalDateTime fin) {
+        Funcion f = new Funcion();
+        f.setIdFuncion(id);
+        f.setSalaId(salaId);
+        f.setFechaHoraInicio(fin.minusHours(2));
+        f.setFechaHoraFin(fin);
+        return f;
+    }
+
+    /** Sala con asientos de IDs base+1 .. base+n */
+    private List<Asiento> sala(int salaId, int base, int n) {
+        List<Asiento> list = new ArrayList<>();
+        for (int i = 1; i <= n; i++) {
+            Asiento a = new Asiento();
+            a.setIdAsiento(base + i);
+            a.setSalaId(salaId);
+            a.setFila("A");
+            a.setNumero(i);
+            list.add(a);
+        }
+        return list;
+    }
+
+    // ======================= Tests =======================
+
+    @Test
+    void obtenerOcupados_cargaUnaVezYLuegoSirveDesdeMemoria() {
+        when(entradaDAO.listarAsientosOcupados(2)).thenReturn(List.of(103, 101));
+        when(funcionDAO.buscarPorId(2)).thenReturn(funcion(2, 8, LocalDateTime.now().plusHours(3)));
+        when(asientoDAO.listarPorSala(8)).thenReturn(sala(8, 100, 10));
+
+        assertEquals(List.of(103, 101), cache.obtenerOcupados(2));
+        // Segunda lectura: en orden de posición y sin ir a la BD
+        assertEquals(List.of(101, 103), cache.obtenerOcupados(2));
+
+        verify(entradaDAO, times(1)).listarAsientosOcupados(2);
+        verify(asientoDAO, times(1)).listarPorSala(8);
+    }
+
+    @Test
+    void marcarYLiberar_actualizanLaFuncionCacheada() {
+        when(entradaDAO.listarAsientosOcupados(2)).thenReturn(List.of(101));
+        when(funcionDAO.buscarPorId(2)).thenReturn(funcion(2, 8, LocalDateTime.now().plusHours(3)));
+        when(asientoDAO.listarPorSala(8)).thenReturn(sala(8, 100, 10));
+        cache.obtenerOcupados(2);
+
+        cache.marcarOcupados(2, List.of(105, 106));
+        cache.liberar(2, List.of(101));
+
+        assertEquals(List.of(105, 106), cache.obtenerOcupados(2));
+        verify(entradaDAO, times(1)).listarAsientosOcupados(2);
+    }
+
+    @Test
+    void ventaEnOtraTerminal_recargaLaFuncion() {
+        when(entradaDAO.listarAsientosOcupados(2)).thenReturn(List.of(101), List.of(101, 102));
+        when(funcionDAO.buscarPorId(2)).thenReturn(funcion(2, 8, LocalDateTime.now().plusHours(3)));
+        when(asientoDAO.listarPorSala(8)).thenReturn(sala(8, 100, 10));
+        cache.obtenerOcupados(2);
+
+        cache.alCambiar(new EventoCambio(EventoCambio.Tipo.ENTRADA, 2));
+
+        assertEquals(List.of(101, 102), cache.obtenerOcupados(2));
+        verify(entradaDAO, times(2)).listarAsientosOcupados(2);
+    }
+
+    @Test
+    void cambios_avisanALosOyentes() {
+        OcupacionAsientosCache.Oyente oyente = mock(OcupacionAsientosCache.Oyente.class);
+        cache.agregarOyente(oyente);
+
+        cache.marcarOcupados(9, List.of(1));
+        cache.invalidar(4);
+        cache.limpiar();
+
+        verify(oyente).ocupacionModificada(9);
+        verify(oyente).ocupacionModificada(4);
+        verify(oyente).ocupacionModificada(null);
+    }
+
+    @Test
+    void marcarOcupados_funcionNoCacheada_noCargaNada() {
+        cache.marcarOcupados(9, List.of(1, 2));
+
+        assertEquals(0, cache.tamanio());
+        verifyNoInteractions(entradaDAO, funcionDAO, asientoDAO);
+    }
+
+    @Test
+    void funcionFinalizada_noSeCachea() {
+        when(entradaDAO.listarAsientosOcupados(2)).thenReturn(List.of(101));
+        when(funcionDAO.buscarPorId(2)).thenReturn(funcion(2, 8, LocalDateTime.now().minusHours(1)));
+
+        assertEquals(List.of(101), cache.obtenerOcupados(2));
+        assertEquals(0, cache.tamanio());
+        verifyNoInteractions(asientoDAO);
+    }
+
+    @Test
+    void tamanioAcotado_desalojaLaMenosUsada() {
+        LocalDateTime fin = LocalDateTime.now().plusHours(3);
+        for (int id = 1; id <= 3; id++) {
+            when(entradaDAO.listarAsientosOcupados(id)).thenReturn(List.of());
+            when(funcionDAO.buscarPorId(id)).thenReturn(funcion(id, 8, fin));
+        }
+        when(asientoDAO.listarPorSala(8)).thenReturn(sala(8, 100, 10));
+
+        cache.obtenerOcupados(1);
+        cache.obtenerOcupados(2);
+        cache.obtenerOcupados(1); // 1 pasa a ser la más reciente
+        cache.obtenerOcupados(3); // desaloja la 2
+
+        assertEquals(2, cache.tamanio());
+        cache.obtenerOcupados(1);
+        verify(entradaDAO, times(1)).listarAsientosOcupados(1);
+        cache.obtenerOcupados(2);
+        verify(entradaDAO, times(2)).listarAsientosOcupados(2);
+    }
+
+    @Test
+    void invalidar_fuerzaRecarga() {
+        when(entradaDAO.listarAsientosOcupados(2)).thenReturn(List.of(101));
+        when(funcionDAO.buscarPorId(2)).thenReturn(funcion(2, 8, LocalDateTime.now().plusHours(3)));
+        when(asientoDAO.listarPorSala(8)).thenReturn(sala(8, 100, 10));
+
+        cache.obtenerOcupados(2);
+        cache.invalidar(2);
+        cache.obtenerOcupados(2);
+
+        verify(entradaDAO, times(2)).listarAsientosOcupados(2);
+    }
+
+    @Test
+    void avisoDeUnaVentaPropia_noRecargaLaFuncion() {
+        when(entradaDAO.listarAsientosOcupados(2)).thenReturn(List.of(101));
+        when(funcionDAO.buscarPorId(2)).thenReturn(funcion(2, 8, LocalDateTime.now().plusHours(3)));
+        when(asientoDAO.listarPorSala(8)).thenReturn(sala(8, 100, 10));
+        cache.obtenerOcupados(2);
+
+        cache.registrarVenta(2, List.of(102));
+        cache.alCambiar(new EventoCambio(EventoCambio.Tipo.ENTRADA, 2));
+
+        assertEquals(List.of(101, 102), cache.obtenerOcupados(2));
+        verify(entradaDAO, times(1)).listarAsientosOcupados(2);
+    }
+
+    @Test
+    void avisoDeOtraTerminalTrasElEcoPropio_recargaLaFuncion() {
+        when(entradaDAO.listarAsientosOcupados(2)).thenReturn(List.of(101), List.of(101, 102, 103));
+        when(funcionDAO.buscarPorId(2)).thenReturn(funcion(2, 8, LocalDateTime.now().plusHours(3)));
+        when(asientoDAO.listarPorSala(8)).thenReturn(sala(8, 100, 10));
+        cache.obtenerOcupados(2);
+
+        cache.registrarVenta(2, List.of(102));
+        cache.alCambiar(new EventoCambio(EventoCambio.Tipo.ENTRADA, 2)); // eco propio
+        cache.alCambiar(new EventoCambio(EventoCambio.Tipo.ENTRADA, 2)); // otra terminal
+
+        assertEquals(List.of(101, 102, 103), cache.obtenerOcupados(2));
+        verify(entradaDAO, times(2)).listarAsientosOcupados(2);
+    }
+
+    @Test
+    void avisoQueLlegaAntesDelWriteThrough_recargaUnaSolaVez() {
+        when(entradaDAO.listarAsientosOcupados(2)).thenReturn(List.of(101), List.of(101, 102), List.of(101, 102, 103));
+        when(funcionDAO.buscarPorId(2)).thenReturn(funcion(2, 8, LocalDateTime.now().plusHours(3)));
+        when(asientoDAO.listarPorSala(8)).thenReturn(sala(8, 100, 10));
+        cache.obtenerOcupados(2);
+
+        cache.alCambiar(new EventoCambio(EventoCambio.Tipo.ENTRADA, 2)); // el eco se adelantó
+        cache.obtenerOcupados(2);
+        cache.registrarVenta(2, List.of(102));
+        cache.alCambiar(new EventoCambio(EventoCambio.Tipo.ENTRADA, 2)); // otra terminal: no se pierde
+
+        assertEquals(List.of(101, 102, 103), cache.obtenerOcupados(2));
+        verify(entradaDAO, times(3)).listarAsientosOcupados(2);
+    }
+
+    @Test
+    void escrituraPropiaSinAviso_venceYNoTapaCambiosPosteriores() {
+        when(entradaDAO.listarAsientosOcupados(2)).thenReturn(List.of(101), List.of(101, 103));
+        when(funcionDAO.buscarPorId(2)).thenReturn(funcion(2, 8, LocalDateTime.now().plusHours(3)));
+        when(asientoDAO.listarPorSala(8)).thenReturn(sala(8, 100, 10));
+        cache.obtenerOcupados(2);
+
+        cache.registrarCancelacion(2, List.of(105));
+        reloj.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        cache.alCambiar(new EventoCambio(EventoCambio.Tipo.ENTRADA, 2));
+
+        assertEquals(List.of(101, 103), cache.obtenerOcupados(2));
+        verify(entradaDAO, times(2)).listarAsientosOcupados(2);
+    }
+}
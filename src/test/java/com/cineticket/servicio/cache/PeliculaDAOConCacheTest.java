@@ -0,0 +1,87 @@
+package com.cineticket.servicio.cache;
+
+import com.cineticket.dao.PeliculaDAO;
+import com.cineticket.modelo.Pelicula;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PeliculaDAOConCacheTest {
+
+    @Mock PeliculaDAO delegado;
+
+    CatalogoCache catalogo;
+    PeliculaDAOConCache dao;
+
+    @BeforeEach
+    void setUp() {
+        catalogo = new CatalogoCache(10, Duration.ZERO);
+        dao = new PeliculaDAOConCache(delegado, catalogo);
+    }
+
+    private Pelicula pelicula(int id) {
+        Pelicula p = new Pelicula();
+        p.setIdPelicula(id);
+        p.setTitulo("Peli " + id);
+        return p;
+    }
+
+    @Test
+    void listarActivas_segundaLlamada_noConsultaBD() {
+        when(delegado.listarActivas()).thenReturn(List.of(pelicula(1), pelicula(2)));
+
+        List<Pelicula> primera = dao.listarActivas();
+        primera.clear();                       // la copia devuelta no afecta a la caché
+        List<Pelicula> segunda = dao.listarActivas();
+
+        assertEquals(2, segunda.size());
+        verify(delegado, times(1)).listarActivas();
+    }
+
+    @Test
+    void actualizar_invalidaYRecarga() {
+        Pelicula p = pelicula(5);
+        when(delegado.buscarPorId(5)).thenReturn(p);
+        when(delegado.actualizar(p)).thenReturn(true);
+
+        dao.buscarPorId(5);
+        dao.buscarPorId(5);
+        assertTrue(dao.actualizar(p));
+        dao.buscarPorId(5);
+
+        verify(delegado, times(2)).buscarPorId(5);
+    }
+
+    @Test
+    void generosModificados_tambienVaciaPeliculas() {
+        when(delegado.listarActivas()).thenReturn(List.of(pelicula(1)));
+
+        dao.listarActivas();
+        catalogo.generosModificados();
+        dao.listarActivas();
+
+        verify(delegado, times(2)).listarActivas();
+    }
+
+    @Test
+    void escrituraFallida_igualInvalida() {
+        Pelicula p = pelicula(3);
+        when(delegado.buscarPorId(3)).thenReturn(p);
+        when(delegado.eliminar(3)).thenThrow(new RuntimeException("fallo BD"));
+
+        dao.buscarPorId(3);
+        assertThrows(RuntimeException.class, () -> dao.eliminar(3));
+        dao.buscarPorId(3);
+
+        verify(delegado, times(2)).buscarPorId(3);
+    }
+}
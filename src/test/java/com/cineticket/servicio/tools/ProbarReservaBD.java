@@ -1,16 +1,25 @@
 package com.cineticket.servicio.tools;
 
+import com.cineticket.dao.impl.AsientoDAOImpl;
 import com.cineticket.dao.impl.EntradaDAOImpl;
 import com.cineticket.dao.impl.FuncionDAOImpl;
+import com.cineticket.dao.impl.JdbcTransactionManager;
+import com.cineticket.dao.impl.SeatHoldDAOImpl;
+import com.cineticket.servicio.OcupacionEnVivo;
 import com.cineticket.servicio.ReservaService;
+import com.cineticket.servicio.SeatHoldService;
+import com.cineticket.servicio.cache.OcupacionAsientosCache;
 
+import java.time.Duration;
 import java.util.List;
 
 public class ProbarReservaBD {
     public static void main(String[] args) {
         var entradaDAO = new EntradaDAOImpl();
         var funcionDAO = new FuncionDAOImpl();
-        var service = new ReservaService(entradaDAO, funcionDAO);
+        var cache = new OcupacionAsientosCache(entradaDAO, funcionDAO, new AsientoDAOImpl(), 50);
+        var holds = new SeatHoldService(new SeatHoldDAOImpl(), new JdbcTransactionManager(), Duration.ofMinutes(5));
+        var service = new ReservaService(entradaDAO, funcionDAO, cache, holds, new OcupacionEnVivo(cache));
 
         int funcionId = 2; // PROGRAMADA (de tu captura)
         System.out.println("Ocupados: " + service.obtenerAsientosOcupadosPorFuncion(funcionId));
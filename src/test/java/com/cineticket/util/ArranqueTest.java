@@ -0,0 +1,69 @@
+package com.cineticket.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArranqueTest {
+
+    @Test
+    void etapaConError_noDejaColgadoListas_yQuedaEnFallas() throws Exception {
+        List<String> ejecutadas = new CopyOnWriteArrayList<>();
+        Arranque arranque = new Arranque()
+                .etapa("configuración", true, () -> ejecutadas.add("configuración"))
+                .etapa("base de datos", true, () -> {
+                    throw new ExceptionInInitializerError(new IllegalStateException("sin BD"));
+                }, "configuración")
+                .etapa("servicios", true, () -> ejecutadas.add("servicios"), "configuración");
+
+        arranque.iniciar();
+        arranque.listas().get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("base de datos"), List.copyOf(arranque.fallas().keySet()));
+        assertInstanceOf(ExceptionInInitializerError.class, arranque.fallas().get("base de datos"));
+        assertTrue(ejecutadas.containsAll(List.of("configuración", "servicios")));
+    }
+
+    @Test
+    void dependientes_correnDespuesDeSusPrevias_aunqueLaPreviaFalle() throws Exception {
+        List<String> orden = new CopyOnWriteArrayList<>();
+        Arranque arranque = new Arranque()
+                .etapa("a", true, () -> {
+                    orden.add("a");
+                    throw new IllegalArgumentException("bcrypt.rounds fuera de rango");
+                })
+                .etapa("b", false, () -> orden.add("b"), "a");
+
+        arranque.iniciar();
+        arranque.todas().get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("a", "b"), orden);
+        assertTrue(arranque.fallas().containsKey("a"));
+    }
+
+    @Test
+    void alAvanzar_llegaAlTotal() throws Exception {
+        List<Double> avances = new CopyOnWriteArrayList<>();
+        Arranque arranque = new Arranque()
+                .alAvanzar((etapa, avance) -> avances.add(avance))
+                .etapa("uno", true, () -> { })
+                .etapa("dos", false, () -> { }, "uno");
+
+        arranque.iniciar();
+        arranque.todas().get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, avances.size());
+        assertTrue(avances.contains(1.0));
+        assertTrue(arranque.fallas().isEmpty());
+    }
+
+    @Test
+    void dependenciaNoRegistrada_falla() {
+        Arranque arranque = new Arranque();
+        assertThrows(IllegalArgumentException.class, () -> arranque.etapa("b", true, () -> { }, "a"));
+    }
+}
@@ -0,0 +1,95 @@
+package com.cineticket.util.metricas;
+
+import com.cineticket.dao.GeneroDAO;
+import com.cineticket.dao.common.DaoException;
+import com.cineticket.modelo.Genero;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MetricasTest {
+
+    @Mock GeneroDAO generoDAO;
+
+    @Test
+    void instrumentar_cuentaLlamadasPorMetodo_yDelegaElResultado() {
+        Genero drama = new Genero();
+        when(generoDAO.listarTodos()).thenReturn(List.of(drama));
+
+        GeneroDAO medido = Metricas.instrumentar(GeneroDAO.class, generoDAO, "prueba1");
+        medido.listarTodos();
+        List<Genero> generos = medido.listarTodos();
+
+        assertEquals(List.of(drama), generos);
+        Temporizador t = Metricas.temporizador("prueba1.GeneroDAO.listarTodos");
+        assertEquals(2, t.getCuenta());
+        assertEquals(0, t.getErrores());
+        verify(generoDAO, times(2)).listarTodos();
+    }
+
+    @Test
+    void instrumentar_propagaLaExcepcionOriginal_yCuentaElError() {
+        DaoException falla = new DaoException("Error al buscar género por ID");
+        when(generoDAO.buscarPorId(7)).thenThrow(falla);
+
+        GeneroDAO medido = Metricas.instrumentar(GeneroDAO.class, generoDAO, "prueba2");
+
+        DaoException ex = assertThrows(DaoException.class, () -> medido.buscarPorId(7));
+        assertSame(falla, ex);
+        Temporizador t = Metricas.temporizador("prueba2.GeneroDAO.buscarPorId");
+        assertEquals(1, t.getCuenta());
+        assertEquals(1, t.getErrores());
+    }
+
+    @Test
+    void instrumentar_noMideLosMetodosDeObject() {
+        GeneroDAO medido = Metricas.instrumentar(GeneroDAO.class, generoDAO, "prueba3");
+
+        assertNotNull(medido.toString());
+        assertEquals(0, Metricas.temporizador("prueba3.GeneroDAO.toString").getCuenta());
+    }
+
+    @Test
+    void temporizador_percentilesAproximados_nuncaMayoresQueElMaximo() {
+        Temporizador t = Metricas.temporizador("prueba4.operacion");
+        for (int i = 0; i < 98; i++) t.registrar(TimeUnit.MILLISECONDS.toNanos(1));
+        t.registrar(TimeUnit.MILLISECONDS.toNanos(50));
+        t.registrar(TimeUnit.MILLISECONDS.toNanos(200));
+
+        assertEquals(100, t.getCuenta());
+        assertEquals(200.0, t.getMaxMs(), 0.001);
+        // 1 ms cae en la cubeta de hasta 1.024 ms
+        assertEquals(1.024, t.getP50Ms(), 0.001);
+        assertEquals(1.024, t.getP95Ms(), 0.001);
+        assertTrue(t.getP99Ms() >= 50 && t.getP99Ms() <= 200, "p99=" + t.getP99Ms());
+        assertEquals(200.0, t.percentilMs(1.0), 0.001);
+    }
+
+    @Test
+    void temporizador_sinRegistros_todoEnCero() {
+        Temporizador t = Metricas.temporizador("prueba5.vacio");
+
+        assertEquals(0, t.getMediaMs());
+        assertEquals(0, t.getP99Ms());
+        assertFalse(Metricas.resumen().contains("prueba5.vacio"));
+    }
+
+    @Test
+    void indicador_seLeeAlConsultar() {
+        AtomicLong activas = new AtomicLong(3);
+        Metricas.indicador("prueba6.activas", activas::get);
+        activas.set(5);
+
+        assertEquals(5L, Metricas.valoresIndicadores().get("prueba6.activas"));
+        assertTrue(Metricas.resumen().contains("prueba6.activas=5"));
+    }
+}
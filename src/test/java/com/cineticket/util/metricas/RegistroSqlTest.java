@@ -0,0 +1,119 @@
+package com.cineticket.util.metricas;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RegistroSqlTest {
+
+    private static final String POR_FUNCION = """
+            SELECT id_entrada, asiento_id
+              FROM entrada
+             WHERE funcion_id = ?
+            """;
+
+    @Mock Connection conn;
+    @Mock PreparedStatement ps;
+    @Mock Statement st;
+    @Mock ResultSet rs;
+
+    @Test
+    void interceptar_cuentaCadaEjecucionEnElAmbito_yDelegaAlDriver() throws SQLException {
+        when(conn.prepareStatement(anyString())).thenReturn(ps);
+        when(ps.executeQuery()).thenReturn(rs);
+        Connection medida = RegistroSql.interceptar(conn);
+
+        try (AmbitoSql ambito = RegistroSql.abrirAmbito("HistorialController")) {
+            for (int funcion = 1; funcion <= 3; funcion++) {
+                try (PreparedStatement p = medida.prepareStatement(POR_FUNCION)) {
+                    p.setInt(1, funcion);
+                    assertSame(rs, p.executeQuery());
+                }
+            }
+
+            assertEquals(3, ambito.getTotal());
+            assertEquals(3, ambito.getEjecuciones("SELECT id_entrada, asiento_id FROM entrada WHERE funcion_id = ?"));
+            ambito.verificarMaximo(3);
+            AssertionError error = assertThrows(AssertionError.class, () -> ambito.verificarRepeticiones(2));
+            assertTrue(error.getMessage().contains("3x SELECT id_entrada"), error.getMessage());
+        }
+        verify(ps).setInt(1, 3);
+        verify(ps, times(3)).close();
+    }
+
+    @Test
+    void forma_ignoraEspaciosYLiterales_enSentenciasSinParametros() throws SQLException {
+        when(conn.createStatement()).thenReturn(st);
+        Connection medida = RegistroSql.interceptar(conn);
+
+        try (AmbitoSql ambito = RegistroSql.abrirAmbito("ReporteService");
+             Statement s = medida.createStatement()) {
+            s.executeQuery("SELECT nombre FROM combo WHERE id_combo = 5");
+            s.executeQuery("SELECT nombre\n  FROM combo WHERE id_combo = 17");
+            s.executeUpdate("UPDATE combo SET nombre = 'Dúo' WHERE id_combo = 5");
+
+            assertEquals(2, ambito.getEjecuciones("SELECT nombre FROM combo WHERE id_combo = 1"));
+            assertEquals(1, ambito.getEjecuciones("UPDATE combo SET nombre = 'x' WHERE id_combo = 2"));
+            AssertionError error = assertThrows(AssertionError.class, () -> ambito.verificarMaximo(2));
+            assertTrue(error.getMessage().contains("3 sentencias"), error.getMessage());
+        }
+    }
+
+    @Test
+    void ambitosAnidados_elInteriorCuentaLoSuyo_yElExteriorTodo() throws SQLException {
+        when(conn.prepareStatement(anyString())).thenReturn(ps);
+        Connection medida = RegistroSql.interceptar(conn);
+
+        try (AmbitoSql accion = RegistroSql.abrirAmbito("PagoController")) {
+            medida.prepareStatement("UPDATE funcion SET sala_id = ?").executeUpdate();
+            try (AmbitoSql servicio = RegistroSql.abrirAmbito("CompraService.confirmarCompra")) {
+                medida.prepareStatement("INSERT INTO compra (usuario_id) VALUES (?)").executeUpdate();
+                assertEquals(1, servicio.getTotal());
+            }
+            medida.prepareStatement("UPDATE funcion SET sala_id = ?").executeUpdate();
+            assertEquals(3, accion.getTotal());
+        }
+
+        // Fuera de todo ámbito ya no se cuenta en ninguno
+        try (AmbitoSql despues = RegistroSql.abrirAmbito("otra")) {
+            assertEquals(0, despues.getTotal());
+        }
+    }
+
+    @Test
+    void fallaDelDriver_sePropaga_yLaSentenciaSeCuenta() throws SQLException {
+        when(conn.prepareStatement(anyString())).thenReturn(ps);
+        SQLException falla = new SQLException("duplicada", "23505");
+        when(ps.executeUpdate()).thenThrow(falla);
+        Connection medida = RegistroSql.interceptar(conn);
+
+        try (AmbitoSql ambito = RegistroSql.abrirAmbito("AdminController")) {
+            PreparedStatement p = medida.prepareStatement("INSERT INTO genero (nombre_genero) VALUES (?)");
+            SQLException ex = assertThrows(SQLException.class, p::executeUpdate);
+            assertSame(falla, ex);
+            assertEquals(1, ambito.getTotal());
+        }
+    }
+
+    @Test
+    void conexion_delegaElRestoDeMetodos() throws SQLException {
+        when(conn.getAutoCommit()).thenReturn(false);
+        Connection medida = RegistroSql.interceptar(conn);
+
+        assertFalse(medida.getAutoCommit());
+        medida.close();
+        verify(conn).close();
+    }
+}